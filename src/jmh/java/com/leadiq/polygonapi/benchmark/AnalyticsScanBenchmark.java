@@ -0,0 +1,165 @@
+package com.leadiq.polygonapi.benchmark;
+
+import com.leadiq.polygonapi.PolygonApiApplication;
+import com.leadiq.polygonapi.config.StorageConfig;
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceQueryRepository;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.repository.StockPriceUpsertRepository;
+import com.leadiq.polygonapi.storage.DuckDbStockPriceStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.unit.DataSize;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scans over the whole table on the database read path with the embedded DuckDB engine:
+ * per-symbol summaries of all history and of one year, and a full single-symbol range stream.
+ * <p>
+ * The table is filled with {@code BENCHMARK_BARS} daily bars (default 1,000,000) spread over
+ * {@code BENCHMARK_SYMBOLS} symbols (default 500) unless it already holds that many. The database is the
+ * in-memory H2 of the test profile; set {@code SPRING_DATASOURCE_URL}, {@code SPRING_DATASOURCE_USERNAME} and
+ * {@code SPRING_DATASOURCE_PASSWORD} to run the database side against MySQL, for example with 50,000,000
+ * preloaded bars. Scan throughput is bars divided by the time per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AnalyticsScanBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(1990, 1, 1);
+    private static final int LOAD_CHUNK = 50_000;
+
+    private ConfigurableApplicationContext context;
+    private StockPriceQueryRepository stockPriceQueryRepository;
+    private DuckDbStockPriceStorage duckDbStorage;
+    private int days;
+    private LocalDate lastDay;
+    private LocalDate yearStart;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        long bars = Long.parseLong(System.getenv().getOrDefault("BENCHMARK_BARS", "1000000"));
+        int symbols = Integer.parseInt(System.getenv().getOrDefault("BENCHMARK_SYMBOLS", "500"));
+        days = (int) (bars / symbols);
+        lastDay = FIRST_DAY.plusDays(days - 1);
+        yearStart = lastDay.minusYears(1).plusDays(1);
+
+        context = new SpringApplicationBuilder(PolygonApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.jpa.show-sql=false",
+                        "polygon.api.key=benchmark",
+                        "polygon.grpc.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        stockPriceQueryRepository = context.getBean(StockPriceQueryRepository.class);
+
+        if (context.getBean(StockPriceRepository.class).count() < (long) days * symbols) {
+            load(context.getBean(StockPriceUpsertRepository.class), symbols);
+        }
+
+        StorageConfig storageConfig = new StorageConfig();
+        storageConfig.getDuckdb().setPath("");
+        storageConfig.getDuckdb().setBackfill(false);
+        storageConfig.getDuckdb().setMemoryLimit(DataSize.ofGigabytes(2));
+        duckDbStorage = new DuckDbStockPriceStorage(storageConfig, stockPriceQueryRepository);
+        duckDbStorage.backfill();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        duckDbStorage.close();
+        context.close();
+    }
+
+    @Benchmark
+    public List<StockPriceSummary> databaseSummarizeAll() {
+        return stockPriceQueryRepository.summarize(Set.of(), FIRST_DAY, shifted(lastDay));
+    }
+
+    @Benchmark
+    public List<StockPriceSummary> duckdbSummarizeAll() {
+        return duckDbStorage.summarize(Set.of(), FIRST_DAY, shifted(lastDay));
+    }
+
+    @Benchmark
+    public List<StockPriceSummary> databaseSummarizeYear() {
+        return stockPriceQueryRepository.summarize(Set.of(), yearStart, shifted(lastDay));
+    }
+
+    @Benchmark
+    public List<StockPriceSummary> duckdbSummarizeYear() {
+        return duckDbStorage.summarize(Set.of(), yearStart, shifted(lastDay));
+    }
+
+    @Benchmark
+    public void databaseScanSymbol(Blackhole blackhole) {
+        stockPriceQueryRepository.streamRange(symbol(0), FIRST_DAY, shifted(lastDay), blackhole::consume);
+    }
+
+    @Benchmark
+    public void duckdbScanSymbol(Blackhole blackhole) {
+        duckDbStorage.streamRange(symbol(0), FIRST_DAY, shifted(lastDay), blackhole::consume);
+    }
+
+    private void load(StockPriceUpsertRepository upsertRepository, int symbols) {
+        List<StockPrice> chunk = new ArrayList<>(LOAD_CHUNK);
+        for (int s = 0; s < symbols; s++) {
+            for (int day = 0; day < days; day++) {
+                double base = 50.0 + (s * 7 + day) % 400;
+                chunk.add(StockPrice.builder()
+                        .companySymbol(symbol(s))
+                        .date(FIRST_DAY.plusDays(day))
+                        .openPrice(base)
+                        .closePrice(base + 1)
+                        .highPrice(base + 2)
+                        .lowPrice(base - 1)
+                        .volume(1000L + day)
+                        .build());
+                if (chunk.size() == LOAD_CHUNK) {
+                    upsertRepository.upsertAll(chunk, 1000);
+                    chunk.clear();
+                }
+            }
+        }
+        upsertRepository.upsertAll(chunk, 1000);
+    }
+
+    /**
+     * Moves the end of the range back by up to a week on each call. H2 reuses the last result of a statement
+     * run again with the same parameters on an unchanged table, which would otherwise skip the scan entirely.
+     */
+    private LocalDate shifted(LocalDate toDate) {
+        return toDate.minusDays(next++ & 7);
+    }
+
+    private static String symbol(int index) {
+        return "S" + index;
+    }
+}
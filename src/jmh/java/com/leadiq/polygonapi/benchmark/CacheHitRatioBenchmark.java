@@ -0,0 +1,255 @@
+package com.leadiq.polygonapi.benchmark;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.leadiq.polygonapi.cache.StockPriceCaches;
+import com.leadiq.polygonapi.config.CacheConfig;
+import com.leadiq.polygonapi.entity.StockPrice;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hit ratio of the single-day cache implementations on a trace of {@value #TRACE_LENGTH} lookups
+ * over {@value #SYMBOLS} symbols and {@value #DAYS} days. Nine lookups in ten pick the symbol from a Zipfian
+ * distribution (exponent {@value #ZIPF_EXPONENT}) and favour recent days the same way; the tenth is a one-off
+ * lookup of a uniformly random symbol and day, as from a backfill or a crawler.
+ * <p>
+ * {@code unbounded} is the previous {@code ConcurrentMapCache}: every miss stays cached, so its hit ratio is the
+ * ceiling and its memory grows with the key space. {@code lru} and {@code caffeine} both hold at most
+ * {@code maxMemoryMb} of estimated entry weight; {@code caffeine} is {@link StockPriceCaches#build}, whose
+ * W-TinyLFU admission keeps the one-off lookups from pushing out the hot keys. The {@code hits} and
+ * {@code misses} counters give the ratio; retained entries and bytes are printed after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheHitRatioBenchmark {
+
+    private static final int SYMBOLS = 5000;
+    private static final int DAYS = 250;
+    private static final double ZIPF_EXPONENT = 1.0;
+    private static final int TRACE_LENGTH = 1 << 21;
+    private static final LocalDate LAST_DAY = LocalDate.of(2023, 12, 29);
+
+    @Param({"unbounded", "lru", "caffeine"})
+    private String cache;
+
+    @Param({"8"})
+    private int maxMemoryMb;
+
+    private final String[] trace = new String[TRACE_LENGTH];
+    private LookupCache lookupCache;
+    private int next;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        double[] symbolCdf = zipfCdf(SYMBOLS);
+        double[] dayCdf = zipfCdf(DAYS);
+        for (int i = 0; i < TRACE_LENGTH; i++) {
+            int symbol;
+            int day;
+            if (random.nextInt(10) == 0) {
+                symbol = random.nextInt(SYMBOLS);
+                day = random.nextInt(DAYS);
+            } else {
+                symbol = sample(symbolCdf, random);
+                day = sample(dayCdf, random);
+            }
+            trace[i] = StockPriceCaches.key("SYM" + symbol, LAST_DAY.minusDays(day));
+        }
+
+        long maxBytes = maxMemoryMb * 1024L * 1024L;
+        lookupCache = switch (cache) {
+            case "unbounded" -> new UnboundedCache();
+            case "lru" -> new LruCache(maxBytes);
+            case "caffeine" -> new CaffeineLookupCache(maxBytes);
+            default -> throw new IllegalArgumentException("Unknown cache: " + cache);
+        };
+    }
+
+    @Benchmark
+    public Object lookup(Counters counters) {
+        String key = trace[next];
+        next = (next + 1) & (TRACE_LENGTH - 1);
+
+        Object value = lookupCache.get(key);
+        if (value != null) {
+            counters.hits++;
+            return value;
+        }
+        counters.misses++;
+        value = StockPrice.builder().companySymbol(StockPriceCaches.symbol(key)).date(StockPriceCaches.date(key))
+                .closePrice(100.0).build();
+        lookupCache.put(key, value);
+        return value;
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n%s: %d entries, %.1f MB estimated%n", cache, lookupCache.entries(),
+                lookupCache.weightedBytes() / (1024.0 * 1024.0));
+    }
+
+    private static double[] zipfCdf(int size) {
+        double[] cdf = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cdf[rank] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(cdf.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private interface LookupCache {
+        Object get(String key);
+
+        void put(String key, Object value);
+
+        long entries();
+
+        long weightedBytes();
+    }
+
+    private static final class UnboundedCache implements LookupCache {
+        private final Map<String, Object> map = new ConcurrentHashMap<>();
+        private long weightedBytes;
+
+        @Override
+        public Object get(String key) {
+            return map.get(key);
+        }
+
+        @Override
+        public void put(String key, Object value) {
+            if (map.put(key, value) == null) {
+                weightedBytes += StockPriceCaches.weigh(key, value);
+            }
+        }
+
+        @Override
+        public long entries() {
+            return map.size();
+        }
+
+        @Override
+        public long weightedBytes() {
+            return weightedBytes;
+        }
+    }
+
+    private static final class LruCache implements LookupCache {
+        private final long maxBytes;
+        private long weightedBytes;
+        private final LinkedHashMap<String, Object> map = new LinkedHashMap<>(16, 0.75f, true);
+
+        LruCache(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public Object get(String key) {
+            return map.get(key);
+        }
+
+        @Override
+        public void put(String key, Object value) {
+            map.put(key, value);
+            weightedBytes += StockPriceCaches.weigh(key, value);
+            Iterator<Map.Entry<String, Object>> eldest = map.entrySet().iterator();
+            while (weightedBytes > maxBytes) {
+                Map.Entry<String, Object> entry = eldest.next();
+                weightedBytes -= StockPriceCaches.weigh(entry.getKey(), entry.getValue());
+                eldest.remove();
+            }
+        }
+
+        @Override
+        public long entries() {
+            return map.size();
+        }
+
+        @Override
+        public long weightedBytes() {
+            return weightedBytes;
+        }
+    }
+
+    private static final class CaffeineLookupCache implements LookupCache {
+        private final LoadingCache<Object, Object> cache;
+
+        CaffeineLookupCache(long maxBytes) {
+            CacheConfig config = new CacheConfig();
+            config.setMaxMemory(DataSize.ofBytes(maxBytes));
+            cache = StockPriceCaches.build(config, (symbol, date) -> null,
+                    Ticker.systemTicker(), Runnable::run);
+        }
+
+        @Override
+        public Object get(String key) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void put(String key, Object value) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public long entries() {
+            cache.cleanUp();
+            return cache.estimatedSize();
+        }
+
+        @Override
+        public long weightedBytes() {
+            return cache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        }
+    }
+}
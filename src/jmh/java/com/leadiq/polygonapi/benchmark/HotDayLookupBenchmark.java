@@ -0,0 +1,133 @@
+package com.leadiq.polygonapi.benchmark;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.leadiq.polygonapi.cache.DayKeyedCache;
+import com.leadiq.polygonapi.cache.StockPriceCaches;
+import com.leadiq.polygonapi.config.CacheConfig;
+import com.leadiq.polygonapi.config.HotDayCacheConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hit path of single-day view lookups. {@code spelKeyed} is what {@code @Cacheable} with
+ * {@code key = "#symbol + '_' + #date"} does on every call: a fresh evaluation context, the SpEL key expression
+ * building a string, then a lookup in the Caffeine {@code stockPriceViews} cache. {@code packedKey} is the
+ * {@link DayKeyedCache} in front of it, which packs a symbol ID and the epoch day into a {@code long}.
+ * <p>
+ * Every lookup hits. The {@code bytesPerLookup} counter is the heap allocated by the benchmark thread per
+ * lookup, read from {@link com.sun.management.ThreadMXBean}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotDayLookupBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 2);
+
+    @Param({"100"})
+    private int symbols;
+
+    @Param({"250"})
+    private int days;
+
+    private String[] symbolNames;
+    private LocalDate[] dates;
+    private Expression keyExpression;
+    private LoadingCache<Object, Object> views;
+    private DayKeyedCache hotViews;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Allocation {
+        private static final com.sun.management.ThreadMXBean THREADS =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        public double bytesPerLookup;
+        private long startBytes;
+        private long lookups;
+        private int next;
+
+        @Setup(Level.Iteration)
+        public void start() {
+            lookups = 0;
+            startBytes = THREADS.getCurrentThreadAllocatedBytes();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            bytesPerLookup = (THREADS.getCurrentThreadAllocatedBytes() - startBytes) / (double) Math.max(1, lookups);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        symbolNames = new String[symbols];
+        dates = new LocalDate[days];
+        for (int day = 0; day < days; day++) {
+            dates[day] = FIRST_DAY.plusDays(day);
+        }
+
+        keyExpression = new SpelExpressionParser().parseExpression("#symbol + '_' + #date");
+        views = StockPriceCaches.build(new CacheConfig(), (symbol, date) -> null, Ticker.systemTicker(),
+                ForkJoinPool.commonPool());
+        HotDayCacheConfig hotConfig = new HotDayCacheConfig();
+        hotConfig.setMaxEntries(2 * symbols * days);
+        hotViews = new DayKeyedCache(StockPriceCaches.STOCK_PRICE_HOT_VIEWS, hotConfig, Ticker.systemTicker());
+
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            symbolNames[symbol] = "SYM" + symbol;
+            for (LocalDate date : dates) {
+                StockPriceView view = new StockPriceView(symbolNames[symbol], date, 100.0, 101.0, 102.0, 99.0, 1000L);
+                views.put(StockPriceCaches.key(symbolNames[symbol], date), view);
+                hotViews.put(symbolNames[symbol], date, view);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object spelKeyed(Allocation allocation) {
+        int cell = nextCell(allocation);
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        context.setVariable("symbol", symbolNames[cell / days]);
+        context.setVariable("date", dates[cell % days]);
+        return views.getIfPresent(keyExpression.getValue(context, String.class));
+    }
+
+    @Benchmark
+    public Object packedKey(Allocation allocation) {
+        int cell = nextCell(allocation);
+        return hotViews.get(symbolNames[cell / days], dates[cell % days]);
+    }
+
+    private int nextCell(Allocation allocation) {
+        allocation.lookups++;
+        int cell = allocation.next;
+        allocation.next = cell + 1 == symbols * days ? 0 : cell + 1;
+        return cell;
+    }
+}
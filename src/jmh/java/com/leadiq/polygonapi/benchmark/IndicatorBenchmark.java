@@ -0,0 +1,75 @@
+package com.leadiq.polygonapi.benchmark;
+
+import com.leadiq.polygonapi.indicator.Indicator;
+import com.leadiq.polygonapi.indicator.IndicatorType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many bars per second one thread feeds through each indicator with its default parameters, over
+ * {@value #BARS} bars of a random walk held in primitive arrays. Every bar is appended and every output read,
+ * as when a series is computed for the cache, so the score is bars per second on one core.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndicatorBenchmark {
+
+    private static final int BARS = 100_000;
+
+    @Param({"SMA", "EMA", "RSI", "MACD", "BOLLINGER", "ATR"})
+    private IndicatorType type;
+
+    private final double[] high = new double[BARS];
+    private final double[] low = new double[BARS];
+    private final double[] close = new double[BARS];
+    private double[] params;
+    private int outputs;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        double price = 100;
+        for (int i = 0; i < BARS; i++) {
+            price = Math.max(1, price + random.nextGaussian());
+            close[i] = price;
+            high[i] = price + random.nextDouble();
+            low[i] = price - random.nextDouble();
+        }
+        params = type.resolveParams(List.of());
+        outputs = type.outputs().size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BARS)
+    public double computeSeries() {
+        Indicator indicator = type.create(params);
+        double checksum = 0;
+        for (int i = 0; i < BARS; i++) {
+            indicator.append(high[i], low[i], close[i]);
+            if (indicator.isReady()) {
+                for (int output = 0; output < outputs; output++) {
+                    checksum += indicator.value(output);
+                }
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,188 @@
+package com.leadiq.polygonapi.benchmark;
+
+import com.leadiq.polygonapi.PolygonApiApplication;
+import com.leadiq.polygonapi.config.StorageConfig;
+import com.leadiq.polygonapi.dto.StockPriceResponseDTO;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceBlockRepository;
+import com.leadiq.polygonapi.repository.StockPriceQueryRepository;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.repository.StockPriceUpsertRepository;
+import com.leadiq.polygonapi.service.ReadYourWritesGuard;
+import com.leadiq.polygonapi.service.SymbolSeriesStore;
+import com.leadiq.polygonapi.storage.BlockStockPriceStorage;
+import com.leadiq.polygonapi.storage.MappedFileStockPriceStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JPA read path (entity, then DTO copy) with the JDBC read path (rows mapped straight into
+ * {@link StockPriceView}) for single-day lookups and range pages, against an in-memory H2 database,
+ * range pages sliced from the in-memory {@link SymbolSeriesStore}, lookups and range pages read from
+ * a {@link MappedFileStockPriceStorage} file, and range pages decoded from {@link BlockStockPriceStorage} blocks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockPriceReadPathBenchmark {
+
+    private static final String SYMBOL = "BENCH";
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final int DAYS = 1825;
+
+    @Param({"100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private StockPriceRepository stockPriceRepository;
+    private StockPriceQueryRepository stockPriceQueryRepository;
+    private SymbolSeriesStore symbolSeriesStore;
+    private MappedFileStockPriceStorage mappedStorage;
+    private BlockStockPriceStorage blockStorage;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(PolygonApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "polygon.api.key=benchmark",
+                        "polygon.cache.series.enabled=true",
+                        "logging.level.root=WARN")
+                .run();
+        stockPriceRepository = context.getBean(StockPriceRepository.class);
+        stockPriceQueryRepository = context.getBean(StockPriceQueryRepository.class);
+        symbolSeriesStore = context.getBean(SymbolSeriesStore.class);
+
+        List<StockPrice> rows = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            rows.add(StockPrice.builder()
+                    .companySymbol(SYMBOL)
+                    .date(FIRST_DAY.plusDays(day))
+                    .openPrice(100.0 + day)
+                    .closePrice(101.0 + day)
+                    .highPrice(102.0 + day)
+                    .lowPrice(99.0 + day)
+                    .volume(1000L * day)
+                    .build());
+        }
+        context.getBean(StockPriceUpsertRepository.class).upsertAll(rows, 500);
+
+        StorageConfig storageConfig = new StorageConfig();
+        storageConfig.getMapped().setDirectory(Files.createTempDirectory("benchmark").toString());
+        storageConfig.getMapped().setBackfill(false);
+        mappedStorage = new MappedFileStockPriceStorage(storageConfig, stockPriceRepository,
+                context.getBean(ReadYourWritesGuard.class));
+        mappedStorage.recordWrites(rows);
+
+        // The test profile generates the entity schema only, so the block table comes from its migration
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V2__create_stock_price_block.sql"))
+                .execute(context.getBean(DataSource.class));
+        storageConfig.getBlocks().setBackfill(false);
+        blockStorage = new BlockStockPriceStorage(storageConfig, context.getBean(StockPriceBlockRepository.class),
+                stockPriceRepository, context.getBean(ReadYourWritesGuard.class));
+        blockStorage.recordWrites(rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mappedStorage.close();
+        context.close();
+    }
+
+    @Benchmark
+    public StockPriceResponseDTO jpaSingleDay() {
+        return stockPriceRepository.findByCompanySymbolAndDate(SYMBOL, nextDay())
+                .map(StockPriceReadPathBenchmark::toDto)
+                .orElseThrow();
+    }
+
+    @Benchmark
+    public StockPriceView jdbcSingleDay() {
+        return stockPriceQueryRepository.findBySymbolAndDate(SYMBOL, nextDay()).orElseThrow();
+    }
+
+    @Benchmark
+    public StockPriceView mappedSingleDay() {
+        return mappedStorage.findBySymbolAndDate(SYMBOL, nextDay()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<StockPriceResponseDTO> jpaRangePage() {
+        LocalDate after = nextDay();
+        return stockPriceRepository
+                .findSliceByCompanySymbolAndDateBetween(SYMBOL, after.plusDays(1), after.plusDays(DAYS),
+                        PageRequest.of(0, pageSize, Sort.by("date")))
+                .stream()
+                .map(StockPriceReadPathBenchmark::toDto)
+                .toList();
+    }
+
+    @Benchmark
+    public List<StockPriceView> jdbcRangePage() {
+        LocalDate after = nextDay();
+        return stockPriceQueryRepository.findRangeAfter(SYMBOL, after, after.plusDays(DAYS), pageSize);
+    }
+
+    @Benchmark
+    public List<StockPriceView> seriesRangePage() {
+        LocalDate after = nextDay();
+        return symbolSeriesStore.range(SYMBOL, after.plusDays(1), after.plusDays(DAYS)).toViews(pageSize);
+    }
+
+    @Benchmark
+    public List<StockPriceView> mappedRangePage() {
+        LocalDate after = nextDay();
+        return mappedStorage.findRangeAfter(SYMBOL, after, after.plusDays(DAYS), pageSize);
+    }
+
+    @Benchmark
+    public List<StockPriceView> blockRangePage() {
+        LocalDate after = nextDay();
+        return blockStorage.findRangeAfter(SYMBOL, after, after.plusDays(DAYS), pageSize);
+    }
+
+    private LocalDate nextDay() {
+        next = (next + 1) % (DAYS - pageSize);
+        return FIRST_DAY.plusDays(next);
+    }
+
+    private static StockPriceResponseDTO toDto(StockPrice stockPrice) {
+        return new StockPriceResponseDTO(stockPrice.getCompanySymbol(), stockPrice.getDate(),
+                stockPrice.getOpenPrice(), stockPrice.getClosePrice(), stockPrice.getHighPrice(),
+                stockPrice.getLowPrice(), stockPrice.getVolume());
+    }
+}
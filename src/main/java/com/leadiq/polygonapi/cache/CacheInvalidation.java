@@ -0,0 +1,58 @@
+package com.leadiq.polygonapi.cache;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Days of one symbol that were written, so their cached single-day entries and every cached range page of the
+ * symbol are stale. Sent between instances as {@code SYMBOL|yyyy-MM-dd,yyyy-MM-dd,...}.
+ *
+ * @param symbol the stock symbol
+ * @param dates the days written
+ */
+public record CacheInvalidation(String symbol, List<LocalDate> dates) {
+
+    private static final char SYMBOL_SEPARATOR = '|';
+
+    /**
+     * Returns the message announcing this invalidation.
+     */
+    public String encode() {
+        StringBuilder message = new StringBuilder(symbol.length() + 1 + dates.size() * 11).append(symbol)
+                .append(SYMBOL_SEPARATOR);
+        for (int i = 0; i < dates.size(); i++) {
+            if (i > 0) {
+                message.append(',');
+            }
+            message.append(dates.get(i));
+        }
+        return message.toString();
+    }
+
+    /**
+     * Parses a message built by {@link #encode}.
+     *
+     * @param message the message
+     * @return the invalidation
+     * @throws IllegalArgumentException if the message is malformed
+     */
+    public static CacheInvalidation decode(String message) {
+        int separator = message.lastIndexOf(SYMBOL_SEPARATOR);
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Malformed cache invalidation: " + message);
+        }
+        List<LocalDate> dates = new ArrayList<>();
+        if (separator < message.length() - 1) {
+            try {
+                for (String date : message.substring(separator + 1).split(",")) {
+                    dates.add(LocalDate.parse(date));
+                }
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Malformed cache invalidation: " + message, e);
+            }
+        }
+        return new CacheInvalidation(message.substring(0, separator), dates);
+    }
+}
@@ -0,0 +1,61 @@
+package com.leadiq.polygonapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.leadiq.polygonapi.dto.CacheStatistics;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Reads the statistics Caffeine records for each cache of the {@link CacheManager}, and for a
+ * {@link TwoTierCache} the lookups its shared tier answered. A {@link DayKeyedCache} keeps its own counters.
+ */
+@Component
+public class CacheStatisticsReader {
+
+    private final CacheManager cacheManager;
+
+    public CacheStatisticsReader(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Returns the counters of every Caffeine cache and {@link DayKeyedCache}, by cache name.
+     *
+     * @return one entry per cache; caches of other providers are left out
+     */
+    public List<CacheStatistics> read() {
+        List<CacheStatistics> statistics = new ArrayList<>();
+        for (String name : new TreeSet<>(cacheManager.getCacheNames())) {
+            org.springframework.cache.Cache cache = cacheManager.getCache(name);
+            TwoTierCache twoTierCache = cache instanceof TwoTierCache twoTier ? twoTier : null;
+            if (twoTierCache != null) {
+                cache = twoTierCache.getLocalCache();
+            }
+            if (cache instanceof CaffeineCache caffeineCache) {
+                Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                long weightedBytes = nativeCache.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L);
+                statistics.add(new CacheStatistics(name, nativeCache.estimatedSize(), weightedBytes,
+                        stats.hitCount(), stats.missCount(), stats.hitRate(), stats.loadSuccessCount(),
+                        stats.loadFailureCount(), stats.evictionCount(),
+                        twoTierCache == null ? 0 : twoTierCache.getSharedHits(),
+                        twoTierCache == null ? 0 : twoTierCache.getSharedMisses()));
+            } else if (cache instanceof DayKeyedCache dayKeyedCache) {
+                long hits = dayKeyedCache.getHits();
+                long misses = dayKeyedCache.getMisses();
+                statistics.add(new CacheStatistics(name, dayKeyedCache.getSize(), dayKeyedCache.getEstimatedBytes(),
+                        hits, misses, hits + misses == 0 ? 1.0 : (double) hits / (hits + misses), 0, 0,
+                        dayKeyedCache.getEvictions(), 0, 0));
+            }
+        }
+        return statistics;
+    }
+}
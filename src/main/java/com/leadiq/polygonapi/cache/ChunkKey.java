@@ -0,0 +1,37 @@
+package com.leadiq.polygonapi.cache;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Key of a cached chunk: the stored rows of one symbol within one calendar month.
+ *
+ * @param symbol the stock symbol
+ * @param month the month covered by the chunk
+ */
+public record ChunkKey(String symbol, YearMonth month) {
+
+    /**
+     * Returns the key of the chunk holding a symbol's row for a day.
+     *
+     * @param symbol the stock symbol
+     * @param date the day
+     * @return the key of the day's month
+     */
+    public static ChunkKey of(String symbol, LocalDate date) {
+        return new ChunkKey(symbol, YearMonth.from(date));
+    }
+
+    public LocalDate firstDay() {
+        return month.atDay(1);
+    }
+
+    public LocalDate lastDay() {
+        return month.atEndOfMonth();
+    }
+
+    @Override
+    public String toString() {
+        return symbol + "_" + month;
+    }
+}
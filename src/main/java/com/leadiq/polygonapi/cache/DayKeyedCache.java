@@ -0,0 +1,312 @@
+package com.leadiq.polygonapi.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.leadiq.polygonapi.config.HotDayCacheConfig;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Cache of single-day values under primitive {@code long} keys, each packing a symbol ID and an epoch day. Symbols
+ * get their IDs when their first value is stored. The slots are primitive arrays split into segments, each
+ * guarded by a {@link StampedLock}; a key can live in one of {@value #WAYS} adjacent slots, and a full set
+ * replaces its oldest entry. Values should be immutable, since they are handed out as stored.
+ * <p>
+ * {@link #get(String, LocalDate)} builds no key string, evaluates no expression and takes no lock unless a write
+ * to the same segment overlaps it, so a hit allocates nothing. The {@link org.springframework.cache.Cache} methods
+ * take the {@code SYMBOL_yyyy-MM-dd} keys of {@link StockPriceCaches#key}, so the cache invalidation evicts it like
+ * the other single-day caches.
+ */
+public class DayKeyedCache extends AbstractValueAdaptingCache {
+
+    /** Slots a key may occupy. */
+    private static final int WAYS = 8;
+    private static final int MAX_SEGMENTS = 16;
+    /** Heap cost of a slot: its key, its write time and the reference to its value. */
+    private static final int SLOT_BYTES = 2 * Long.BYTES + 4;
+
+    private final String name;
+    private final long ttlNanos;
+    private final Ticker ticker;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int setMask;
+    private final Map<String, Integer> symbolIds = new ConcurrentHashMap<>();
+    private final AtomicInteger lastSymbolId = new AtomicInteger();
+    private final LongAdder size = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public DayKeyedCache(String name, HotDayCacheConfig config, Ticker ticker) {
+        super(false);
+        this.name = name;
+        this.ttlNanos = config.getTtl().toNanos();
+        this.ticker = ticker;
+
+        int slots = Integer.highestOneBit(Math.max(WAYS, config.getMaxEntries()) - 1) << 1;
+        int segmentCount = Math.min(MAX_SEGMENTS, slots / WAYS);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(slots / segmentCount);
+        }
+        this.segmentMask = segmentCount - 1;
+        this.setMask = slots / segmentCount / WAYS - 1;
+    }
+
+    /**
+     * Packs a symbol ID and a day into a key.
+     *
+     * @param symbolId the ID of the symbol, positive so that no key is zero
+     * @param date the day
+     * @return the symbol ID in the high 32 bits and the epoch day in the low 32 bits
+     */
+    public static long pack(int symbolId, LocalDate date) {
+        return ((long) symbolId << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the value cached for a symbol and day.
+     *
+     * @param symbol the stock symbol
+     * @param date the day
+     * @return the value, or null if it is not cached or has expired
+     */
+    public Object get(String symbol, LocalDate date) {
+        Integer symbolId = symbolIds.get(symbol);
+        if (symbolId == null) {
+            misses.increment();
+            return null;
+        }
+
+        long key = pack(symbolId, date);
+        int hash = hash(key);
+        Segment segment = segments[hash & segmentMask];
+        int base = ((hash >>> 8) & setMask) * WAYS;
+        long now = ticker.read();
+
+        StampedLock lock = segment.lock;
+        long stamp = lock.tryOptimisticRead();
+        Object value = segment.find(key, base, now, ttlNanos);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = segment.find(key, base, now, ttlNanos);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Caches the value of a symbol and day, replacing the oldest entry of its set if the set is full.
+     *
+     * @param symbol the stock symbol
+     * @param date the day
+     * @param value the value, which should be immutable
+     */
+    public void put(String symbol, LocalDate date, Object value) {
+        int symbolId = symbolIds.computeIfAbsent(symbol, ignored -> lastSymbolId.incrementAndGet());
+        long key = pack(symbolId, date);
+        int hash = hash(key);
+        Segment segment = segments[hash & segmentMask];
+        int base = ((hash >>> 8) & setMask) * WAYS;
+        long now = ticker.read();
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = segment.slotOf(key, base);
+            if (slot < 0) {
+                slot = segment.slotOf(0, base);
+                if (slot >= 0) {
+                    size.increment();
+                } else {
+                    slot = segment.oldest(base);
+                    if (now - segment.writtenAt[slot] < ttlNanos) {
+                        evictions.increment();
+                    }
+                }
+            }
+            segment.keys[slot] = key;
+            segment.values[slot] = value;
+            segment.writtenAt[slot] = now;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Drops the value of a symbol and day.
+     *
+     * @param symbol the stock symbol
+     * @param date the day
+     */
+    public void evict(String symbol, LocalDate date) {
+        Integer symbolId = symbolIds.get(symbol);
+        if (symbolId == null) {
+            return;
+        }
+
+        long key = pack(symbolId, date);
+        int hash = hash(key);
+        Segment segment = segments[hash & segmentMask];
+        int base = ((hash >>> 8) & setMask) * WAYS;
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = segment.slotOf(key, base);
+            if (slot >= 0) {
+                segment.keys[slot] = 0;
+                segment.values[slot] = null;
+                size.decrement();
+            }
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return get(StockPriceCaches.symbol(key), StockPriceCaches.date(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) value;
+        }
+        try {
+            T loaded = valueLoader.call();
+            put(key, loaded);
+            return loaded;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value != null) {
+            put(StockPriceCaches.symbol(key), StockPriceCaches.date(key), value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        evict(StockPriceCaches.symbol(key), StockPriceCaches.date(key));
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            long stamp = segment.lock.writeLock();
+            try {
+                for (long key : segment.keys) {
+                    if (key != 0) {
+                        size.decrement();
+                    }
+                }
+                Arrays.fill(segment.keys, 0);
+                Arrays.fill(segment.values, null);
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    public long getSize() {
+        return size.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Estimates the heap bytes held by the slots and the cached views.
+     */
+    public long getEstimatedBytes() {
+        long slots = (long) segments.length * segments[0].keys.length;
+        return slots * SLOT_BYTES + getSize() * StockPriceCaches.STOCK_PRICE_VIEW_BYTES;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Segment {
+        final StampedLock lock = new StampedLock();
+        final long[] keys;
+        final Object[] values;
+        final long[] writtenAt;
+
+        Segment(int slots) {
+            this.keys = new long[slots];
+            this.values = new Object[slots];
+            this.writtenAt = new long[slots];
+        }
+
+        int slotOf(long key, int base) {
+            for (int i = base; i < base + WAYS; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int oldest(int base) {
+            int oldest = base;
+            for (int i = base + 1; i < base + WAYS; i++) {
+                if (writtenAt[i] - writtenAt[oldest] < 0) {
+                    oldest = i;
+                }
+            }
+            return oldest;
+        }
+
+        Object find(long key, int base, long now, long ttlNanos) {
+            for (int i = base; i < base + WAYS; i++) {
+                if (keys[i] == key && now - writtenAt[i] < ttlNanos) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+    }
+}
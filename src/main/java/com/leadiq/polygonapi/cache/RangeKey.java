@@ -0,0 +1,22 @@
+package com.leadiq.polygonapi.cache;
+
+import java.time.LocalDate;
+
+/**
+ * Key of a cached range page: the arguments of {@code StockPriceService.getStockPriceViews}.
+ *
+ * @param symbol the stock symbol
+ * @param fromDate the start of the range
+ * @param toDate the end of the range
+ * @param cursor the cursor of the page, or null for the first page
+ * @param size the page size
+ */
+public record RangeKey(String symbol, LocalDate fromDate, LocalDate toDate, String cursor, int size) {
+
+    /**
+     * Returns the key of the page within its symbol, as stored in the shared tier.
+     */
+    public String field() {
+        return fromDate + "/" + toDate + "/" + size + "/" + (cursor == null ? "" : cursor);
+    }
+}
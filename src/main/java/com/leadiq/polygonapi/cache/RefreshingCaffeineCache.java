@@ -0,0 +1,21 @@
+package com.leadiq.polygonapi.cache;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * Spring cache over a Caffeine {@link LoadingCache} whose loader only serves background refreshes. A lookup
+ * returns the cached value or nothing, so misses still run the service's own lookup, with its routing and error
+ * handling, instead of the loader.
+ */
+public class RefreshingCaffeineCache extends CaffeineCache {
+
+    public RefreshingCaffeineCache(String name, LoadingCache<Object, Object> cache) {
+        super(name, cache, false);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return getNativeCache().getIfPresent(key);
+    }
+}
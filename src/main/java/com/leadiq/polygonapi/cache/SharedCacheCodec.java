@@ -0,0 +1,93 @@
+package com.leadiq.polygonapi.cache;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.leadiq.polygonapi.converter.StockPriceProtoMapper;
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.proto.StockPriceCursorPage;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary encoding of the values stored in the shared cache tier: a type byte followed by the Protobuf message
+ * the HTTP and gRPC encodings already use. A day is a varint epoch day and a price an 8-byte double, so an
+ * entry takes about 50 bytes instead of the few hundred of JDK or JSON serialization.
+ */
+public final class SharedCacheCodec {
+
+    private static final byte VIEW = 2;
+    private static final byte VIEW_PAGE = 3;
+
+    private SharedCacheCodec() {
+    }
+
+    /**
+     * Encodes a cached value.
+     *
+     * @param value a {@link StockPriceView} or a {@link CursorPage} of views
+     * @return the encoded value
+     * @throws IllegalArgumentException if the value is of another type
+     */
+    public static byte[] encode(Object value) {
+        if (value instanceof StockPriceView view) {
+            return withType(VIEW, StockPriceProtoMapper.toStockPrice(view).toByteArray());
+        }
+        if (value instanceof CursorPage<?> page) {
+            StockPriceCursorPage.Builder message = StockPriceCursorPage.newBuilder();
+            for (Object row : page.content()) {
+                if (!(row instanceof StockPriceView view)) {
+                    throw new IllegalArgumentException("Cannot encode a page of " + row.getClass().getName());
+                }
+                message.addContent(StockPriceProtoMapper.toStockPrice(view));
+            }
+            if (page.next() != null) {
+                message.setNext(page.next());
+            }
+            return withType(VIEW_PAGE, message.build().toByteArray());
+        }
+        throw new IllegalArgumentException("Cannot encode " + (value == null ? "null" : value.getClass().getName()));
+    }
+
+    /**
+     * Decodes a value built by {@link #encode}.
+     *
+     * @param data the encoded value
+     * @return the value
+     * @throws IllegalArgumentException if the data is not an encoded value
+     */
+    public static Object decode(byte[] data) {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("Empty cache value");
+        }
+        byte[] message = Arrays.copyOfRange(data, 1, data.length);
+        try {
+            return switch (data[0]) {
+                case VIEW -> StockPriceProtoMapper.toView(com.leadiq.polygonapi.proto.StockPrice.parseFrom(message));
+                case VIEW_PAGE -> {
+                    StockPriceCursorPage page = StockPriceCursorPage.parseFrom(message);
+                    List<StockPriceView> rows = page.getContentList().stream()
+                            .map(StockPriceProtoMapper::toView)
+                            .toList();
+                    yield new CursorPage<>(rows, page.hasNext() ? page.getNext() : null);
+                }
+                default -> throw new IllegalArgumentException("Unknown cache value type " + data[0]);
+            };
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException("Malformed cache value", e);
+        }
+    }
+
+    private static byte[] withType(byte type, byte[] message) {
+        byte[] data = new byte[message.length + 1];
+        data[0] = type;
+        System.arraycopy(message, 0, data, 1, message.length);
+        return data;
+    }
+
+    static StockPriceView toView(StockPrice entity) {
+        return new StockPriceView(entity.getCompanySymbol(), entity.getDate(), entity.getOpenPrice(),
+                entity.getClosePrice(), entity.getHighPrice(), entity.getLowPrice(), entity.getVolume());
+    }
+}
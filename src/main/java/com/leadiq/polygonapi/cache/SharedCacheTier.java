@@ -0,0 +1,301 @@
+package com.leadiq.polygonapi.cache;
+
+import com.leadiq.polygonapi.config.SharedCacheConfig;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The shared (L2) cache tier: a Redis-protocol server every instance reads on a local cache miss and writes on
+ * a cache fill, so an instance that just started is served the entries the others loaded instead of querying
+ * the database for them.
+ * <p>
+ * The entries of one symbol and cache are fields of one hash, {@code <prefix><cache>:<symbol>}, whose TTL is
+ * renewed on every write. Values are encoded with {@link SharedCacheCodec}.
+ * <p>
+ * The writer puts the fresh values of written days in the tier, then announces the write on a pub/sub channel as
+ * a {@link CacheInvalidation}, tagged with the writer's instance ID. Every other instance evicts the written days
+ * from its local caches when one arrives, so its next read is served the fresh values from the tier. The tier is an
+ * optimization: when the server cannot be reached, lookups are misses and fills and announcements are skipped,
+ * with a warning.
+ * <p>
+ * Range pages are built from sources that may lag a write made elsewhere until its announcement arrives, such as
+ * in-process series or a replica, so their hash is versioned per symbol: {@code <prefix>stockPriceRanges:<symbol>:v<n>}.
+ * Every announced write increments the symbol's version on the server and carries it. An instance reads and writes
+ * the pages of the version it has caught up with, the last announced write it applied, so pages built before that
+ * write land in a version no up-to-date instance reads.
+ */
+@Component
+@ConditionalOnProperty(prefix = "polygon.cache.shared", name = "enabled", havingValue = "true")
+public class SharedCacheTier {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedCacheTier.class);
+
+    /** Separates the writer's instance ID, the symbol's new range version and the invalidation in an announcement. */
+    private static final char ORIGIN_SEPARATOR = '@';
+
+    private final SharedCacheConfig config;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, Long> rangeVersions = new ConcurrentHashMap<>();
+
+    public SharedCacheTier(SharedCacheConfig config, RedisConnectionFactory connectionFactory) {
+        this.config = config;
+
+        this.redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setHashKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.setHashValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.afterPropertiesSet();
+
+        this.listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener((message, pattern) ->
+                onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(config.getChannel()));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    /**
+     * Registers a callback run for every invalidation announced by another instance.
+     *
+     * @param listener evicts the invalidated days from a local cache
+     */
+    public void addInvalidationListener(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Looks up an entry.
+     *
+     * @param cacheName the cache
+     * @param symbol the stock symbol the entry belongs to
+     * @param field the entry within the symbol
+     * @return the encoded value, or null if it is not cached or the server cannot be reached
+     */
+    public byte[] get(String cacheName, String symbol, String field) {
+        try {
+            return redisTemplate.<String, byte[]>opsForHash().get(hashKey(cacheName, symbol), field);
+        } catch (RuntimeException e) {
+            logger.warn("Error reading {} {} {} from the shared cache: {}", cacheName, symbol, field, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores an entry and renews the TTL of its symbol's entries.
+     *
+     * @param cacheName the cache
+     * @param symbol the stock symbol the entry belongs to
+     * @param field the entry within the symbol
+     * @param value the encoded value
+     */
+    public void put(String cacheName, String symbol, String field, byte[] value) {
+        putAll(cacheName, symbol, Map.of(field, value));
+    }
+
+    /**
+     * Stores entries of one symbol in one round trip and renews the TTL of its entries.
+     *
+     * @param cacheName the cache
+     * @param symbol the stock symbol the entries belong to
+     * @param values the encoded values, by entry within the symbol
+     */
+    public void putAll(String cacheName, String symbol, Map<String, byte[]> values) {
+        write(hashKey(cacheName, symbol), cacheName, symbol, values);
+    }
+
+    /**
+     * Stores an entry loaded from the database unless the tier already holds one, and renews the TTL of its
+     * symbol's entries. A held entry is either as fresh or written through by a write the load may predate.
+     *
+     * @param cacheName the cache
+     * @param symbol the stock symbol the entry belongs to
+     * @param field the entry within the symbol
+     * @param value the encoded value
+     */
+    public void fill(String cacheName, String symbol, String field, byte[] value) {
+        byte[] key = bytes(hashKey(cacheName, symbol));
+        long ttlSeconds = Math.max(1, config.getTtl().toSeconds());
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.hashCommands().hSetNX(key, bytes(field), value);
+                connection.keyCommands().expire(key, ttlSeconds);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Error filling {} {} {} in the shared cache: {}", cacheName, symbol, field, e.getMessage());
+        }
+    }
+
+    /**
+     * Stores a range page built from reads that started at the given range version, under that version.
+     *
+     * @param symbol the stock symbol the page belongs to
+     * @param field the page within the symbol
+     * @param value the encoded page
+     * @param rangeVersion the {@link #rangeVersion} read before the page was built
+     */
+    public void putRange(String symbol, String field, byte[] value, long rangeVersion) {
+        write(rangesKey(symbol, rangeVersion), StockPriceCaches.STOCK_PRICE_RANGES, symbol, Map.of(field, value));
+    }
+
+    /**
+     * Returns the range version of a symbol this instance has caught up with: the number of the last announced write
+     * of the symbol whose invalidation was applied here. It is read from the server the first time a symbol is used.
+     *
+     * @param symbol the stock symbol
+     * @return the version, or 0 if the symbol was never written or the server cannot be reached
+     */
+    public long rangeVersion(String symbol) {
+        Long version = rangeVersions.get(symbol);
+        if (version != null) {
+            return version;
+        }
+
+        try {
+            byte[] stored = redisTemplate.opsForValue().get(versionKey(symbol));
+            long seeded = stored == null ? 0 : Long.parseLong(new String(stored, StandardCharsets.UTF_8));
+            return rangeVersions.merge(symbol, seeded, Math::max);
+        } catch (RuntimeException e) {
+            logger.warn("Error reading the range version of {} from the shared cache: {}", symbol, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Deletes an entry.
+     *
+     * @param cacheName the cache
+     * @param symbol the stock symbol the entry belongs to
+     * @param field the entry within the symbol
+     */
+    public void evict(String cacheName, String symbol, String field) {
+        try {
+            redisTemplate.opsForHash().delete(hashKey(cacheName, symbol), field);
+        } catch (RuntimeException e) {
+            logger.warn("Error evicting {} {} {} from the shared cache: {}", cacheName, symbol, field, e.getMessage());
+        }
+    }
+
+    /**
+     * Announces a write whose fresh values were already put in the tier: moves the symbol's range pages to a new
+     * version, deleting the previous one, and tells the other instances to evict the written days from their local
+     * caches.
+     *
+     * @param invalidation the symbol and days written
+     */
+    public void announceWrite(CacheInvalidation invalidation) {
+        String symbol = invalidation.symbol();
+        try {
+            long version = redisTemplate.opsForValue().increment(versionKey(symbol));
+            byte[] message = bytes(instanceId + ORIGIN_SEPARATOR + version + ORIGIN_SEPARATOR + invalidation.encode());
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.keyCommands().del(bytes(rangesKey(symbol, version - 1)));
+                connection.publish(bytes(config.getChannel()), message);
+                return null;
+            });
+            rangeVersions.merge(symbol, version, Math::max);
+        } catch (RuntimeException e) {
+            logger.warn("Error announcing {} written days of {} in the shared cache: {}", invalidation.dates().size(),
+                    symbol, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    /**
+     * Applies an announced write: runs the listeners, which evict what the write made stale, then moves on to the
+     * write's range version. If the version had already been read from the server, pages may have been built here
+     * from sources that predate the write, so the pages of that version are deleted.
+     */
+    private void onInvalidation(String message) {
+        int separator = message.indexOf(ORIGIN_SEPARATOR);
+        if (separator >= 0 && message.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+
+        try {
+            int versionEnd = message.indexOf(ORIGIN_SEPARATOR, separator + 1);
+            long version = Long.parseLong(message.substring(separator + 1, versionEnd));
+            CacheInvalidation invalidation = CacheInvalidation.decode(message.substring(versionEnd + 1));
+            listeners.forEach(listener -> listener.accept(invalidation));
+
+            Long caughtUp = rangeVersions.get(invalidation.symbol());
+            if (caughtUp != null && caughtUp >= version) {
+                redisTemplate.delete(rangesKey(invalidation.symbol(), version));
+            } else {
+                rangeVersions.merge(invalidation.symbol(), version, Math::max);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring cache invalidation {}: {}", message, e.getMessage());
+        }
+    }
+
+    private void write(String hashKey, String cacheName, String symbol, Map<String, byte[]> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        byte[] key = bytes(hashKey);
+        Map<byte[], byte[]> hash = new LinkedHashMap<>();
+        values.forEach((field, value) -> hash.put(bytes(field), value));
+        long ttlSeconds = Math.max(1, config.getTtl().toSeconds());
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                RedisHashCommands hashCommands = connection.hashCommands();
+                hashCommands.hMSet(key, hash);
+                connection.keyCommands().expire(key, ttlSeconds);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Error writing {} {} entries of {} to the shared cache: {}", values.size(), cacheName, symbol,
+                    e.getMessage());
+        }
+    }
+
+    private String hashKey(String cacheName, String symbol) {
+        if (StockPriceCaches.STOCK_PRICE_RANGES.equals(cacheName)) {
+            return rangesKey(symbol, rangeVersion(symbol));
+        }
+        return config.getKeyPrefix() + cacheName + ":" + symbol;
+    }
+
+    private String rangesKey(String symbol, long version) {
+        return config.getKeyPrefix() + StockPriceCaches.STOCK_PRICE_RANGES + ":" + symbol + ":v" + version;
+    }
+
+    private String versionKey(String symbol) {
+        return config.getKeyPrefix() + "stockPriceRangeVersion:" + symbol;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
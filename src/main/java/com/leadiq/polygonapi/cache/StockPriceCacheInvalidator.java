@@ -0,0 +1,104 @@
+package com.leadiq.polygonapi.cache;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes ingested rows through to the caches before the write is acknowledged, so a freshly ingested day is served
+ * from memory on its first read. The single-day caches get the written rows, cached month chunks have them merged
+ * in, and what cannot be updated in place is evicted: the symbol's range pages and the days' remembered misses.
+ * <p>
+ * When the {@link SharedCacheTier} is enabled, the single-day caches write the rows to it as well, and the write is
+ * then announced so the other instances evict their local entries and read the fresh ones from the tier.
+ */
+@Component
+public class StockPriceCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final ObjectProvider<SharedCacheTier> sharedCacheTier;
+
+    public StockPriceCacheInvalidator(CacheManager cacheManager, ObjectProvider<SharedCacheTier> sharedCacheTier) {
+        this.cacheManager = cacheManager;
+        this.sharedCacheTier = sharedCacheTier;
+    }
+
+    /**
+     * Updates or invalidates the cached entries of stored rows.
+     *
+     * @param stockPrices the rows just written
+     */
+    public void recordWrites(List<StockPrice> stockPrices) {
+        Map<String, Map<LocalDate, StockPrice>> rowsBySymbol = new LinkedHashMap<>();
+        for (StockPrice stockPrice : stockPrices) {
+            rowsBySymbol.computeIfAbsent(stockPrice.getCompanySymbol(), symbol -> new LinkedHashMap<>())
+                    .put(stockPrice.getDate(), stockPrice);
+        }
+
+        SharedCacheTier shared = sharedCacheTier.getIfAvailable();
+        rowsBySymbol.forEach((symbol, rows) -> {
+            CacheInvalidation invalidation = new CacheInvalidation(symbol, List.copyOf(rows.keySet()));
+            for (String cacheName : cacheManager.getCacheNames()) {
+                Cache cache = cacheManager.getCache(cacheName);
+                switch (cacheName) {
+                    case StockPriceCaches.STOCK_PRICE_VIEWS, StockPriceCaches.STOCK_PRICE_HOT_VIEWS ->
+                            putAll(cache, symbol, rows, SharedCacheCodec::toView);
+                    case StockPriceCaches.STOCK_PRICE_CHUNKS -> mergeChunks(cache, symbol, rows.values());
+                    default -> StockPriceCaches.evictLocally(cache, invalidation);
+                }
+            }
+            if (shared != null) {
+                shared.announceWrite(invalidation);
+            }
+        });
+    }
+
+    private static void putAll(Cache cache, String symbol, Map<LocalDate, StockPrice> rows,
+                               Function<StockPrice, Object> toValue) {
+        Map<Object, Object> values = new LinkedHashMap<>();
+        rows.forEach((date, row) -> values.put(StockPriceCaches.key(symbol, date), toValue.apply(row)));
+        if (cache instanceof TwoTierCache twoTierCache) {
+            twoTierCache.putAll(symbol, values);
+        } else {
+            values.forEach(cache::put);
+        }
+    }
+
+    /**
+     * Merges written rows into the cached chunks of their months. Chunks that are not cached are left to be
+     * loaded on first read.
+     */
+    @SuppressWarnings("unchecked")
+    private static void mergeChunks(Cache cache, String symbol, Collection<StockPrice> rows) {
+        if (!(cache instanceof CaffeineCache caffeineCache)) {
+            StockPriceCaches.evictLocally(cache, new CacheInvalidation(symbol,
+                    rows.stream().map(StockPrice::getDate).toList()));
+            return;
+        }
+
+        Map<YearMonth, List<StockPriceView>> writtenByMonth = rows.stream()
+                .map(SharedCacheCodec::toView)
+                .collect(Collectors.groupingBy(view -> YearMonth.from(view.date())));
+        writtenByMonth.forEach((month, written) -> caffeineCache.getNativeCache().asMap()
+                .computeIfPresent(new ChunkKey(symbol, month), (key, chunk) -> {
+                    Map<LocalDate, StockPriceView> merged = new TreeMap<>();
+                    ((List<StockPriceView>) chunk).forEach(view -> merged.put(view.date(), view));
+                    written.forEach(view -> merged.put(view.date(), view));
+                    return List.copyOf(merged.values());
+                }));
+    }
+}
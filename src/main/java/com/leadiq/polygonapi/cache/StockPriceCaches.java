@@ -0,0 +1,310 @@
+package com.leadiq.polygonapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.leadiq.polygonapi.config.CacheConfig;
+import com.leadiq.polygonapi.config.ChunkCacheConfig;
+import com.leadiq.polygonapi.config.MissCacheConfig;
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Names, keys and construction of the single-day and range caches. Each cache is a Caffeine cache bounded by the
+ * estimated memory of its entries, evicting with W-TinyLFU, so a burst of one-off lookups does not push out the
+ * hot days.
+ * <p>
+ * Entries for recent days, which re-ingestion may still correct, expire after a short TTL and are reloaded in the
+ * background when read past the refresh age. Entries for older days are immutable in practice: they get a long
+ * TTL and are never reloaded. A range page or chunk counts as recent when it ends on a recent day.
+ */
+public final class StockPriceCaches {
+
+    /** Cache of {@link StockPriceView} records read by {@code StockPriceService.getStockPriceView}. */
+    public static final String STOCK_PRICE_VIEWS = "stockPriceViews";
+    /** Cache of range pages read by {@code StockPriceService.getStockPriceViews}, keyed by {@link RangeKey}. */
+    public static final String STOCK_PRICE_RANGES = "stockPriceRanges";
+    /** Cache of single days found not to be stored, read by {@code StockPriceMissCache}. */
+    public static final String STOCK_PRICE_MISSES = "stockPriceMisses";
+    /** Cache of month chunks read by {@code StockPriceChunkCache}, keyed by {@link ChunkKey}. */
+    public static final String STOCK_PRICE_CHUNKS = "stockPriceChunks";
+    /** Cache of hot {@link StockPriceView} records in front of {@link #STOCK_PRICE_VIEWS}, a {@link DayKeyedCache}. */
+    public static final String STOCK_PRICE_HOT_VIEWS = "stockPriceHotViews";
+
+    /** Rough heap cost of a cache node and its key string, on top of two bytes per key character. */
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+    /** Rough heap cost of a {@link StockPriceView} with its boxed fields and date. */
+    static final int STOCK_PRICE_VIEW_BYTES = 176;
+    private static final int OTHER_VALUE_BYTES = 64;
+
+    private StockPriceCaches() {
+    }
+
+    /**
+     * Returns the key of a symbol and day in the single-day caches.
+     *
+     * @param symbol the stock symbol
+     * @param date the day
+     * @return the cache key, {@code SYMBOL_yyyy-MM-dd}
+     */
+    public static String key(String symbol, LocalDate date) {
+        return symbol + "_" + date;
+    }
+
+    /**
+     * Returns the symbol of a cache key.
+     *
+     * @param key a key built by {@link #key}, or a {@link RangeKey}
+     * @return the stock symbol
+     */
+    public static String symbol(Object key) {
+        if (key instanceof RangeKey rangeKey) {
+            return rangeKey.symbol();
+        }
+        String text = key.toString();
+        return text.substring(0, text.lastIndexOf('_'));
+    }
+
+    /**
+     * Returns the part of a cache key that tells the entries of one symbol apart.
+     *
+     * @param key a key built by {@link #key}, or a {@link RangeKey}
+     * @return the day, or the range and page
+     */
+    public static String field(Object key) {
+        if (key instanceof RangeKey rangeKey) {
+            return rangeKey.field();
+        }
+        String text = key.toString();
+        return text.substring(text.lastIndexOf('_') + 1);
+    }
+
+    /**
+     * Returns the day of a cache key.
+     *
+     * @param key a key built by {@link #key}
+     * @return the day
+     */
+    public static LocalDate date(Object key) {
+        String text = key.toString();
+        return LocalDate.parse(text.substring(text.lastIndexOf('_') + 1));
+    }
+
+    /**
+     * Estimates the heap bytes held by an entry, which is its weight against the cache's memory limit.
+     */
+    public static int weigh(Object key, Object value) {
+        int valueBytes = value instanceof StockPriceView ? STOCK_PRICE_VIEW_BYTES
+                : value instanceof CursorPage<?> page
+                        ? OTHER_VALUE_BYTES + page.content().size() * STOCK_PRICE_VIEW_BYTES
+                : value instanceof List<?> rows
+                        ? OTHER_VALUE_BYTES + rows.size() * STOCK_PRICE_VIEW_BYTES
+                : OTHER_VALUE_BYTES;
+        return ENTRY_OVERHEAD_BYTES + 2 * key.toString().length() + valueBytes;
+    }
+
+    /**
+     * Builds a single-day cache.
+     *
+     * @param config the cache settings
+     * @param loader reads the value of a symbol and day from the database when a recent entry is refreshed;
+     *               returns null if there is none, which drops the entry
+     * @param ticker the time source, {@link Ticker#systemTicker()} outside tests
+     * @param executor runs refreshes and maintenance
+     * @return the cache, recording hit, miss, load and eviction statistics
+     */
+    public static LoadingCache<Object, Object> build(CacheConfig config, BiFunction<String, LocalDate, Object> loader,
+                                                     Ticker ticker, Executor executor) {
+        DayExpiry expiry = new DayExpiry(config, StockPriceCaches::date);
+        return Caffeine.newBuilder()
+                .maximumWeight(config.getMaxMemory().toBytes())
+                .weigher(StockPriceCaches::weigh)
+                .expireAfter(expiry)
+                .refreshAfterWrite(config.getRefreshAfter())
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Object load(Object key) {
+                        return loader.apply(symbol(key), date(key));
+                    }
+
+                    @Override
+                    public CompletableFuture<?> asyncReload(Object key, Object oldValue, Executor reloadExecutor) {
+                        if (!expiry.isRecent(key)) {
+                            return CompletableFuture.completedFuture(oldValue);
+                        }
+                        return CompletableFuture.supplyAsync(() -> load(key), reloadExecutor);
+                    }
+                });
+    }
+
+    /**
+     * Builds the range page cache. Pages are not refreshed: a write to their symbol evicts them instead.
+     *
+     * @param config the cache settings
+     * @param ticker the time source, {@link Ticker#systemTicker()} outside tests
+     * @param executor runs maintenance
+     * @return the cache, keyed by {@link RangeKey}, recording hit, miss and eviction statistics
+     */
+    public static Cache<Object, Object> buildRanges(CacheConfig config, Ticker ticker, Executor executor) {
+        return Caffeine.newBuilder()
+                .maximumWeight(config.getMaxMemory().toBytes())
+                .weigher(StockPriceCaches::weigh)
+                .expireAfter(new DayExpiry(config, key -> ((RangeKey) key).toDate()))
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Builds the month chunk cache. Chunks are not refreshed: a write to one of their days evicts them instead.
+     *
+     * @param config the cache settings, for the TTLs
+     * @param chunkConfig the chunk cache settings, for the memory limit
+     * @param ticker the time source, {@link Ticker#systemTicker()} outside tests
+     * @param executor runs maintenance
+     * @return the cache, keyed by {@link ChunkKey}, recording hit, miss and eviction statistics
+     */
+    public static Cache<Object, Object> buildChunks(CacheConfig config, ChunkCacheConfig chunkConfig, Ticker ticker,
+                                                    Executor executor) {
+        return Caffeine.newBuilder()
+                .maximumWeight(chunkConfig.getMaxMemory().toBytes())
+                .weigher(StockPriceCaches::weigh)
+                .expireAfter(new DayExpiry(config, key -> ((ChunkKey) key).lastDay()))
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Builds the cache of days found not to be stored. It only lives in-process: a miss is cheap to rediscover,
+     * and every instance forgets it when the day is written.
+     *
+     * @param config the miss cache settings
+     * @param ticker the time source, {@link Ticker#systemTicker()} outside tests
+     * @param executor runs maintenance
+     * @return the cache, recording hit, miss and eviction statistics
+     */
+    public static Cache<Object, Object> buildMisses(MissCacheConfig config, Ticker ticker, Executor executor) {
+        return Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfterWrite(config.getTtl())
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the version to read before loading a value of a symbol that is then stored with {@link #fill}.
+     *
+     * @param cache the cache the value is stored in
+     * @param symbol the stock symbol
+     * @return the {@link TwoTierCache#rangeVersion} of the symbol, or 0 for a local cache
+     */
+    public static long versionOf(org.springframework.cache.Cache cache, String symbol) {
+        return cache instanceof TwoTierCache twoTierCache ? twoTierCache.rangeVersion(symbol) : 0;
+    }
+
+    /**
+     * Stores a value loaded from the database, sharing it through a {@link TwoTierCache} only if no write of its
+     * symbol was applied since the load started.
+     *
+     * @param cache the cache
+     * @param key the cache key
+     * @param value the value
+     * @param version the {@link #versionOf} the symbol, read before the value was loaded
+     */
+    public static void fill(org.springframework.cache.Cache cache, Object key, Object value, long version) {
+        if (cache instanceof TwoTierCache twoTierCache) {
+            twoTierCache.put(key, value, version);
+        } else {
+            cache.put(key, value);
+        }
+    }
+
+    /**
+     * Evicts the entries an invalidation makes stale from the local tier of a cache: the written days from a
+     * single-day cache, the chunks of their months from the chunk cache, or every page of the symbol from the
+     * range cache.
+     *
+     * @param cache a cache built by this class, or a {@link TwoTierCache} over one
+     * @param invalidation the symbol and days written
+     */
+    public static void evictLocally(org.springframework.cache.Cache cache, CacheInvalidation invalidation) {
+        org.springframework.cache.Cache local = cache instanceof TwoTierCache twoTierCache
+                ? twoTierCache.getLocalCache()
+                : cache;
+        if (local == null) {
+            return;
+        }
+        if (STOCK_PRICE_RANGES.equals(local.getName())) {
+            if (local instanceof CaffeineCache caffeineCache) {
+                caffeineCache.getNativeCache().asMap().keySet().removeIf(key ->
+                        key instanceof RangeKey rangeKey && rangeKey.symbol().equals(invalidation.symbol()));
+            } else {
+                local.clear();
+            }
+            return;
+        }
+        if (STOCK_PRICE_CHUNKS.equals(local.getName())) {
+            invalidation.dates().stream().map(YearMonth::from).distinct()
+                    .forEach(month -> local.evict(new ChunkKey(invalidation.symbol(), month)));
+            return;
+        }
+        for (LocalDate date : invalidation.dates()) {
+            local.evict(key(invalidation.symbol(), date));
+        }
+    }
+
+    /**
+     * Gives entries the TTL of their day's age. An update keeps the remaining time of an older day, so a
+     * skipped refresh does not extend it.
+     */
+    private static final class DayExpiry implements Expiry<Object, Object> {
+
+        private final CacheConfig config;
+        private final Function<Object, LocalDate> dayOfKey;
+
+        DayExpiry(CacheConfig config, Function<Object, LocalDate> dayOfKey) {
+            this.config = config;
+            this.dayOfKey = dayOfKey;
+        }
+
+        boolean isRecent(Object key) {
+            return !dayOfKey.apply(key).isBefore(LocalDate.now(ZoneOffset.UTC).minus(config.getRecentPeriod()));
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return (isRecent(key) ? config.getRecentTtl() : config.getHistoricalTtl()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return isRecent(key) ? config.getRecentTtl().toNanos() : currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
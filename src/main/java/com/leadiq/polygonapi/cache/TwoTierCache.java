@@ -0,0 +1,190 @@
+package com.leadiq.polygonapi.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Near cache: an in-process Caffeine cache (L1) in front of the {@link SharedCacheTier} (L2). A local miss is
+ * looked up in the shared tier and, when found there, copied into the local cache; a value loaded from the
+ * database is written to both if no write of its symbol was applied since the load started, which
+ * {@link #put(Object, Object, long)} checks against the symbol's {@link #rangeVersion}. A value put without that
+ * version may come from a stale read, so {@link #put(Object, Object)} keeps it locally only. The local cache keeps
+ * its own bounds, TTLs and refreshes.
+ * <p>
+ * {@link #clear} only empties the local cache: shared entries are dropped by write invalidations or their TTL.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoTierCache.class);
+
+    private final CaffeineCache localCache;
+    private final SharedCacheTier sharedCacheTier;
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder sharedMisses = new LongAdder();
+
+    public TwoTierCache(CaffeineCache localCache, SharedCacheTier sharedCacheTier) {
+        super(false);
+        this.localCache = localCache;
+        this.sharedCacheTier = sharedCacheTier;
+    }
+
+    @Override
+    public String getName() {
+        return localCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache.getNativeCache();
+    }
+
+    public CaffeineCache getLocalCache() {
+        return localCache;
+    }
+
+    /** Local misses answered by the shared tier. */
+    public long getSharedHits() {
+        return sharedHits.sum();
+    }
+
+    /** Local misses the shared tier had no entry for either. */
+    public long getSharedMisses() {
+        return sharedMisses.sum();
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        ValueWrapper local = localCache.get(key);
+        if (local != null) {
+            return local.get();
+        }
+
+        byte[] data = sharedCacheTier.get(getName(), StockPriceCaches.symbol(key), StockPriceCaches.field(key));
+        if (data == null) {
+            sharedMisses.increment();
+            return null;
+        }
+
+        Object value;
+        try {
+            value = SharedCacheCodec.decode(data);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Dropping undecodable {} entry {}: {}", getName(), key, e.getMessage());
+            sharedCacheTier.evict(getName(), StockPriceCaches.symbol(key), StockPriceCaches.field(key));
+            sharedMisses.increment();
+            return null;
+        }
+        sharedHits.increment();
+        localCache.put(key, value);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        long rangeVersion = rangeVersion(StockPriceCaches.symbol(key));
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value, rangeVersion);
+        return value;
+    }
+
+    /**
+     * Stores a value in the local cache only: without the version it was read at, it cannot be told from a read
+     * that predates a write, which must not overwrite the written value in the shared tier.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        localCache.put(key, value);
+    }
+
+    /**
+     * Returns the range version of a symbol that this instance has caught up with, to be read before loading a
+     * value that is then stored with {@link #put(Object, Object, long)}.
+     *
+     * @param symbol the stock symbol
+     * @return the version
+     */
+    public long rangeVersion(String symbol) {
+        return sharedCacheTier.rangeVersion(symbol);
+    }
+
+    /**
+     * Stores a value loaded by reads that started at the given range version. If a write of its symbol was applied
+     * since, the value may predate it and is not cached; otherwise it is shared, range pages under that version and
+     * other values unless the shared tier already holds one, since a write announced here only after the check
+     * has already put its fresh value there.
+     *
+     * @param key the cache key
+     * @param value the value
+     * @param rangeVersion the {@link #rangeVersion} read before the value was loaded
+     */
+    public void put(Object key, Object value, long rangeVersion) {
+        String symbol = StockPriceCaches.symbol(key);
+        if (value == null || sharedCacheTier.rangeVersion(symbol) != rangeVersion) {
+            return;
+        }
+
+        localCache.put(key, value);
+        if (sharedCacheTier.rangeVersion(symbol) != rangeVersion) {
+            localCache.evict(key);
+            return;
+        }
+        try {
+            byte[] data = SharedCacheCodec.encode(value);
+            if (StockPriceCaches.STOCK_PRICE_RANGES.equals(getName())) {
+                sharedCacheTier.putRange(symbol, StockPriceCaches.field(key), data, rangeVersion);
+            } else {
+                sharedCacheTier.fill(getName(), symbol, StockPriceCaches.field(key), data);
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("Not sharing {} entry {}: {}", getName(), key, e.getMessage());
+        }
+    }
+
+    /**
+     * Stores entries of one symbol in both tiers, with one round trip to the shared tier.
+     *
+     * @param symbol the stock symbol the entries belong to
+     * @param values the values, by cache key
+     */
+    public void putAll(String symbol, Map<Object, Object> values) {
+        Map<String, byte[]> shared = new LinkedHashMap<>();
+        values.forEach((key, value) -> {
+            localCache.put(key, value);
+            try {
+                shared.put(StockPriceCaches.field(key), SharedCacheCodec.encode(value));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Not sharing {} entry {}: {}", getName(), key, e.getMessage());
+            }
+        });
+        sharedCacheTier.putAll(getName(), symbol, shared);
+    }
+
+    @Override
+    public void evict(Object key) {
+        localCache.evict(key);
+        sharedCacheTier.evict(getName(), StockPriceCaches.symbol(key), StockPriceCaches.field(key));
+    }
+
+    @Override
+    public void clear() {
+        localCache.clear();
+    }
+}
@@ -0,0 +1,28 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Settings for the single-day cache ({@code stockPriceViews}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.cache.entries")
+@Data
+public class CacheConfig {
+    /** Upper bound on the estimated memory of each cache; W-TinyLFU picks the entries to evict beyond it. */
+    private DataSize maxMemory = DataSize.ofMegabytes(32);
+    /** Days within this period before today are recent, since re-ingestion may still correct them. */
+    private Period recentPeriod = Period.ofDays(7);
+    /** How long an entry for a recent day is kept. */
+    private Duration recentTtl = Duration.ofMinutes(5);
+    /** How long an entry for an older day is kept. */
+    private Duration historicalTtl = Duration.ofHours(24);
+    /** Age after which a read of a recent day's entry reloads it in the background while still serving it. */
+    private Duration refreshAfter = Duration.ofMinutes(1);
+}
@@ -0,0 +1,82 @@
+package com.leadiq.polygonapi.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.leadiq.polygonapi.cache.DayKeyedCache;
+import com.leadiq.polygonapi.cache.RefreshingCaffeineCache;
+import com.leadiq.polygonapi.cache.SharedCacheTier;
+import com.leadiq.polygonapi.cache.StockPriceCaches;
+import com.leadiq.polygonapi.cache.TwoTierCache;
+import com.leadiq.polygonapi.service.ReadYourWritesGuard;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Replaces the default unbounded {@code ConcurrentMapCache} manager with bounded Caffeine caches, built by
+ * {@link StockPriceCaches}. Refreshes of recent days read the same source as the service.
+ * <p>
+ * Hot single-day views are also kept in a {@link DayKeyedCache} in front of {@code stockPriceViews}.
+ * <p>
+ * When the {@link SharedCacheTier} is enabled, each cache except the in-process miss, chunk and hot-view caches
+ * becomes the local tier of a {@link TwoTierCache}, range pages are cached as well, and invalidations announced by other
+ * instances evict the local tiers.
+ */
+@Configuration
+public class CacheManagerConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheConfig cacheConfig,
+                                     StockPriceStorage stockPriceStorage,
+                                     ReadYourWritesGuard readYourWritesGuard,
+                                     MissCacheConfig missCacheConfig,
+                                     ChunkCacheConfig chunkCacheConfig,
+                                     HotDayCacheConfig hotDayCacheConfig,
+                                     ObjectProvider<SharedCacheTier> sharedCacheTierProvider) {
+        List<CaffeineCache> localCaches = new ArrayList<>(List.of(
+                new RefreshingCaffeineCache(StockPriceCaches.STOCK_PRICE_VIEWS, StockPriceCaches.build(cacheConfig,
+                        (symbol, date) -> readYourWritesGuard
+                                .read(symbol, () -> stockPriceStorage.findBySymbolAndDate(symbol, date))
+                                .orElse(null),
+                        Ticker.systemTicker(), ForkJoinPool.commonPool()))));
+
+        List<Cache> inProcessCaches = new ArrayList<>(List.of(new CaffeineCache(
+                StockPriceCaches.STOCK_PRICE_MISSES,
+                StockPriceCaches.buildMisses(missCacheConfig, Ticker.systemTicker(), ForkJoinPool.commonPool()), false)));
+        if (chunkCacheConfig.isEnabled()) {
+            inProcessCaches.add(new CaffeineCache(StockPriceCaches.STOCK_PRICE_CHUNKS, StockPriceCaches.buildChunks(
+                    cacheConfig, chunkCacheConfig, Ticker.systemTicker(), ForkJoinPool.commonPool()), false));
+        }
+        if (hotDayCacheConfig.isEnabled()) {
+            inProcessCaches.add(new DayKeyedCache(StockPriceCaches.STOCK_PRICE_HOT_VIEWS, hotDayCacheConfig,
+                    Ticker.systemTicker()));
+        }
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        SharedCacheTier sharedCacheTier = sharedCacheTierProvider.getIfAvailable();
+        if (sharedCacheTier == null) {
+            List<Cache> caches = new ArrayList<>(localCaches);
+            caches.addAll(inProcessCaches);
+            cacheManager.setCaches(caches);
+            return cacheManager;
+        }
+
+        localCaches.add(new CaffeineCache(StockPriceCaches.STOCK_PRICE_RANGES,
+                StockPriceCaches.buildRanges(cacheConfig, Ticker.systemTicker(), ForkJoinPool.commonPool()), false));
+        List<Cache> caches = new ArrayList<>();
+        localCaches.forEach(localCache -> caches.add(new TwoTierCache(localCache, sharedCacheTier)));
+        caches.addAll(inProcessCaches);
+        sharedCacheTier.addInvalidationListener(invalidation ->
+                caches.forEach(cache -> StockPriceCaches.evictLocally(cache, invalidation)));
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+}
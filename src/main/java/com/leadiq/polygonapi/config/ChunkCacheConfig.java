@@ -0,0 +1,19 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the cache of month-aligned chunks that range reads are assembled from.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.cache.chunks")
+@Data
+public class ChunkCacheConfig {
+    /** Whether range reads are served from the {@code stockPriceChunks} cache when the series store is disabled. */
+    private boolean enabled = true;
+    /** Upper bound on the estimated memory held by cached chunks. */
+    private DataSize maxMemory = DataSize.ofMegabytes(64);
+}
@@ -0,0 +1,63 @@
+package com.leadiq.polygonapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.leadiq.polygonapi.converter.ColumnarJsonHttpMessageConverter;
+import com.leadiq.polygonapi.converter.StockPriceProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Response encodings chosen by the {@code Accept} header, in addition to JSON:
+ * <ul>
+ *     <li>{@code application/x-jackson-smile} and {@code application/cbor}: the JSON documents in binary form</li>
+ *     <li>{@code application/x-protobuf}: the fixed messages of {@code stock_price.proto}</li>
+ *     <li>{@code application/vnd.leadiq.columnar+json}: JSON with one array per field</li>
+ * </ul>
+ * JSON stays the default when the client accepts any type.
+ */
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public ContentNegotiationConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Replaces Spring's default Smile converter with one built from Boot's customized mapper,
+     * so Smile documents match the JSON ones (ISO dates, same inclusion rules).
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Same as {@link #smileHttpMessageConverter} for CBOR.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        int json = 0;
+        while (json < converters.size() && !(converters.get(json) instanceof MappingJackson2HttpMessageConverter)) {
+            json++;
+        }
+        converters.add(json, new ColumnarJsonHttpMessageConverter(objectMapper));
+        converters.add(new StockPriceProtobufHttpMessageConverter());
+    }
+}
@@ -0,0 +1,36 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for routing read-only transactions to read replicas.
+ * Routing is disabled unless {@code polygon.datasource.routing.enabled=true} and at least one replica is configured;
+ * the primary datasource is always the one configured under {@code spring.datasource}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.datasource.routing")
+@Data
+public class DataSourceRoutingConfig {
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+    /**
+     * How long reads for a symbol stay on the primary after that symbol was written,
+     * so a read issued right after an ingestion does not miss rows still replicating.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+        private String url;
+        /** Defaults to {@code spring.datasource.username} when not set. */
+        private String username;
+        /** Defaults to {@code spring.datasource.password} when not set. */
+        private String password;
+    }
+}
@@ -0,0 +1,31 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the streaming export endpoint.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.export")
+@Data
+public class ExportConfig {
+    /** Rows fetched from the database cursor per round trip. */
+    private int fetchSize = 1000;
+    /** Maximum number of symbols in one export request. */
+    private int maxSymbols = 100;
+    /** Time one export may take to stream before the request is timed out. */
+    private Duration timeout = Duration.ofMinutes(30);
+    /** Rows per Arrow record batch. */
+    private int arrowBatchSize = 4096;
+    /** Off-heap memory available to all concurrent Arrow exports. */
+    private DataSize arrowMemoryLimit = DataSize.ofMegabytes(256);
+    /** Bytes buffered per Parquet row group before it is written out. */
+    private DataSize parquetRowGroupSize = DataSize.ofMegabytes(8);
+    private CompressionCodecName parquetCompression = CompressionCodecName.ZSTD;
+}
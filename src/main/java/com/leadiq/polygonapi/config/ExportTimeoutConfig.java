@@ -0,0 +1,42 @@
+package com.leadiq.polygonapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Gives streamed exports their own async timeout, {@code polygon.export.timeout}, so long downloads do not need
+ * a global {@code spring.mvc.async.request-timeout} that would also apply to every other async request.
+ * The export endpoint marks its request with {@link #EXPORT_ATTRIBUTE}; the timeout is set just before the
+ * response body starts streaming on its async thread.
+ */
+@Configuration
+public class ExportTimeoutConfig implements WebMvcConfigurer {
+
+    public static final String EXPORT_ATTRIBUTE = ExportTimeoutConfig.class.getName() + ".EXPORT";
+
+    private final ExportConfig exportConfig;
+
+    public ExportTimeoutConfig(ExportConfig exportConfig) {
+        this.exportConfig = exportConfig;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest
+                        && request.getAttribute(EXPORT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+                    asyncRequest.setTimeout(exportConfig.getTimeout().toMillis());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the gRPC server that runs next to the HTTP API.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.grpc")
+@Data
+public class GrpcConfig {
+    private boolean enabled = true;
+    /** Port the gRPC server listens on; 0 picks a free port. */
+    private int port = 9090;
+    /** How long in-flight calls may run after shutdown starts before they are cancelled. */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+    /** How long a streaming call may wait for a client that stopped reading before it is ended. */
+    private Duration streamIdleTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,22 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the allocation-free cache of hot single-day views in front of the {@code stockPriceViews} cache.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.cache.hot-days")
+@Data
+public class HotDayCacheConfig {
+    /** Whether single-day views are looked up in the {@code stockPriceHotViews} cache first. */
+    private boolean enabled = true;
+    /** Number of slots, rounded up to a power of two; each holds one symbol and day. */
+    private int maxEntries = 65_536;
+    /** How long a view is served before it is read from {@code stockPriceViews} again. */
+    private Duration ttl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,20 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the cache of computed technical indicators.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.cache.indicators")
+@Data
+public class IndicatorConfig {
+    /** Upper bound on cached series, one per symbol, indicator and parameter set; the least recently read go first. */
+    private int maxSeries = 1000;
+    /** How long a computed series is served before it is recomputed, so rows written by other instances show up. */
+    private Duration ttl = Duration.ofMinutes(10);
+}
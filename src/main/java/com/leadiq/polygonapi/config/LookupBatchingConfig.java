@@ -0,0 +1,25 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the optional stage that collapses concurrent single-day lookups into multi-key queries.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.read.lookup-batching")
+@Data
+public class LookupBatchingConfig {
+    private boolean enabled = false;
+    /** Longest time a lookup waits for others to share its query; this is the added latency at low load. */
+    private Duration window = Duration.ofMillis(2);
+    /** Number of waiting lookups that triggers a query right away, and the maximum lookups per query. */
+    private int maxBatchSize = 100;
+    /** Number of threads running the batched queries. */
+    private int threads = 2;
+    /** How long a caller waits for its batch to be queried. */
+    private Duration timeout = Duration.ofSeconds(5);
+}
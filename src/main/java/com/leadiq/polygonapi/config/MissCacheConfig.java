@@ -0,0 +1,27 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for answering single-day lookups of days that are not stored without querying the database.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.cache.misses")
+@Data
+public class MissCacheConfig {
+    /** Whether lookups that found nothing are remembered in the {@code stockPriceMisses} cache. */
+    private boolean enabled = true;
+    /** How long a miss is remembered; ingestion of the day forgets it sooner. */
+    private Duration ttl = Duration.ofMinutes(5);
+    /** Upper bound on the remembered misses. */
+    private long maxEntries = 100_000;
+    /**
+     * Whether the in-memory bitmap of each symbol's stored days answers misses before the database. Only applies
+     * with the shared cache tier, which brings the days written by other instances.
+     */
+    private boolean dateIndex = true;
+}
@@ -18,6 +18,7 @@ import java.util.stream.Collectors;
 public class OpenApiTagConfig {
 
     public static final String TAG_STOCK_PRICES = "Stock Prices";
+    public static final String TAG_CACHES = "Caches";
 
     /**
      * Customizes the OpenAPI documentation by adding and sorting tags.
@@ -28,7 +29,8 @@ public class OpenApiTagConfig {
     public OpenApiCustomizer sortTagsAlphabetically() {
         return openApi -> {
             List<Tag> tags = List.of(
-                    createTag(TAG_STOCK_PRICES, "Operations related to stock prices")
+                    createTag(TAG_STOCK_PRICES, "Operations related to stock prices"),
+                    createTag(TAG_CACHES, "Statistics of the server-side caches")
             );
 
             List<Tag> sortedTags = tags.stream()
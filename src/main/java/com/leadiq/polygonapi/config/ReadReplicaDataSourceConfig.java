@@ -0,0 +1,66 @@
+package com.leadiq.polygonapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured datasource with a {@link ReadWriteRoutingDataSource} when
+ * {@code polygon.datasource.routing.enabled=true}. The primary pool is built from {@code spring.datasource}
+ * and each replica pool reuses its driver, pool size and driver properties.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "polygon.datasource.routing", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaDataSourceConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 DataSourceProperties properties,
+                                 DataSourceRoutingConfig routingConfig) {
+        List<DataSource> replicas = new ArrayList<>();
+
+        for (int i = 0; i < routingConfig.getReplicas().size(); i++) {
+            DataSourceRoutingConfig.Replica replica = routingConfig.getReplicas().get(i);
+
+            HikariDataSource replicaDataSource = new HikariDataSource();
+            replicaDataSource.setPoolName("replica-" + i);
+            replicaDataSource.setJdbcUrl(replica.getUrl());
+            replicaDataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.getUsername());
+            replicaDataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.getPassword());
+            replicaDataSource.setDriverClassName(properties.determineDriverClassName());
+            if (primaryDataSource.getMaximumPoolSize() > 0) {
+                replicaDataSource.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            }
+            replicaDataSource.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            replicaDataSource.setReadOnly(true);
+            replicas.add(replicaDataSource);
+        }
+
+        logger.info("Routing read-only transactions to {} read replica(s)", replicas.size());
+
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primaryDataSource, replicas);
+        routingDataSource.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,25 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the shared (L2) cache tier, a Redis-protocol server behind the in-process caches of every
+ * instance. The connection itself is configured with the standard {@code spring.data.redis.*} properties.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.cache.shared")
+@Data
+public class SharedCacheConfig {
+    /** Whether cache misses are looked up in, and cache fills written to, the shared tier. */
+    private boolean enabled = false;
+    /** Prefix of every key the tier writes, so several deployments can share one server. */
+    private String keyPrefix = "polygon:";
+    /** Pub/sub channel on which instances announce the days they wrote. */
+    private String channel = "polygon:cache:invalidations";
+    /** How long a symbol's entries are kept after the last one was written; writes invalidate them sooner. */
+    private Duration ttl = Duration.ofHours(24);
+}
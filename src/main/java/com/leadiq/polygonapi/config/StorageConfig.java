@@ -0,0 +1,89 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Selects the backend that serves stock price reads. MySQL stays the system of record either way.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.storage")
+@Data
+public class StorageConfig {
+
+    public enum Engine {
+        /** Reads go to MySQL over the JDBC read path. */
+        JDBC,
+        /** Reads go to per-symbol memory-mapped files kept current by ingestion. */
+        MAPPED,
+        /** Reads go to an embedded DuckDB database kept current by ingestion. */
+        DUCKDB,
+        /** Reads go to compressed per-symbol-year blocks in MySQL kept current by ingestion. */
+        BLOCKS
+    }
+
+    private Engine engine = Engine.JDBC;
+    private Mapped mapped = new Mapped();
+    private Duckdb duckdb = new Duckdb();
+    private Blocks blocks = new Blocks();
+    private Cold cold = new Cold();
+
+    @Data
+    public static class Mapped {
+        /** Directory holding one file per symbol. */
+        private String directory = "data/stock-prices";
+        /** Whether a symbol without a file is copied from MySQL on first use. */
+        private boolean backfill = true;
+        /** Whether every write is forced to disk before it is acknowledged, instead of left to the page cache. */
+        private boolean syncOnWrite = false;
+        /** How long a symbol found to have no rows is answered as empty before MySQL is asked again. */
+        private Duration missingTtl = Duration.ofMinutes(1);
+        /** Maximum number of symbols remembered as having no rows. */
+        private long maxMissingSymbols = 10_000;
+    }
+
+    @Data
+    public static class Duckdb {
+        /** Database file; empty for an in-memory database that is rebuilt from MySQL on every start. */
+        private String path = "data/stock-prices.duckdb";
+        /** Whether an empty database is loaded from MySQL at startup, and symbols out of sync are reloaded. */
+        private boolean backfill = true;
+        /** Time between two checks of the symbols written since the last one; zero checks only at startup. */
+        private Duration resyncInterval = Duration.ofMinutes(10);
+        /** Minimum time between two checks that compare every symbol instead of only those written. */
+        private Duration fullResyncInterval = Duration.ofHours(1);
+        /** Native memory DuckDB may use for queries, outside the JVM heap. */
+        private DataSize memoryLimit = DataSize.ofMegabytes(256);
+    }
+
+    @Data
+    public static class Blocks {
+        /** Whether a symbol without blocks is encoded from its stock_price rows on first use. */
+        private boolean backfill = true;
+        /** Maximum number of symbols remembered as backfilled; others are checked for blocks on next use. */
+        private long maxLoadedSymbols = 10_000;
+    }
+
+    @Data
+    public static class Cold {
+        /** Whether old rows are moved out of MySQL into Parquet files and merged back into reads. */
+        private boolean enabled = false;
+        /** Directory holding one Parquet file per symbol and year. */
+        private String directory = "data/cold";
+        /** Age after which a row is moved to the cold tier. */
+        private Period hotPeriod = Period.ofYears(2);
+        /** Time between two archive runs; the first one starts this long after startup. */
+        private Duration archiveInterval = Duration.ofDays(1);
+        /** How long an archive run holds off other instances without renewing its lease; renewed per symbol and year. */
+        private Duration archiverLease = Duration.ofMinutes(10);
+        private CompressionCodecName compression = CompressionCodecName.ZSTD;
+        /** Bytes buffered per Parquet row group before it is written out. */
+        private DataSize rowGroupSize = DataSize.ofMegabytes(1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory columnar store that serves range reads of hot symbols.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.cache.series")
+@Data
+public class SymbolSeriesConfig {
+    private boolean enabled = false;
+    /** Upper bound on the estimated memory held by loaded symbols; the cache evicts symbols beyond it. */
+    private DataSize maxMemory = DataSize.ofMegabytes(64);
+    /** How long a loaded symbol is served before it is reloaded, so rows written by other instances show up. */
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,34 @@
+package com.leadiq.polygonapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the optional write-behind stage that coalesces ingested rows from concurrent
+ * {@code /fetch} calls into large batched upserts.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "polygon.ingest.write-behind")
+@Data
+public class WriteBehindConfig {
+    private boolean enabled = false;
+    /** Maximum number of rows waiting in the buffer; callers wait up to the ack timeout when it is full. */
+    private int capacity = 10000;
+    /** Number of buffered rows that triggers a flush, and the maximum rows per upsert batch. */
+    private int batchSize = 500;
+    /** Maximum time a row waits in the buffer before it is flushed. */
+    private Duration flushInterval = Duration.ofMillis(50);
+    private Mode mode = Mode.DURABLE;
+    /** How long a DURABLE caller waits for its rows to be flushed, and any caller for room in a full buffer. */
+    private Duration ackTimeout = Duration.ofSeconds(30);
+
+    public enum Mode {
+        /** The caller returns only after its rows are committed. */
+        DURABLE,
+        /** The caller returns immediately; rows become visible once the writer flushes them. */
+        EVENTUAL
+    }
+}
@@ -0,0 +1,50 @@
+package com.leadiq.polygonapi.controller;
+
+import com.leadiq.polygonapi.cache.CacheStatisticsReader;
+import com.leadiq.polygonapi.config.OpenApiTagConfig;
+import com.leadiq.polygonapi.dto.CacheStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * CacheController reports the size and hit, miss and eviction counters of the server-side caches, to size
+ * their memory limits and TTLs.
+ */
+@RestController
+@RequestMapping("/api/v1/caches")
+@RequiredArgsConstructor
+@Tag(name = OpenApiTagConfig.TAG_CACHES)
+public class CacheController {
+
+    private final CacheStatisticsReader cacheStatisticsReader;
+
+    /**
+     * Retrieves the statistics of every cache.
+     */
+    @Operation(
+            summary = "Get cache statistics",
+            description = "Returns, for each cache, its entry count, estimated memory, and the hits, misses, " +
+                    "background refreshes and evictions counted since the application started."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully retrieved the cache statistics",
+            content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = CacheStatistics.class)))
+    )
+    @GetMapping
+    public ResponseEntity<List<CacheStatistics>> getCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsReader.read());
+    }
+}
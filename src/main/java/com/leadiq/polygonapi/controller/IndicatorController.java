@@ -0,0 +1,90 @@
+package com.leadiq.polygonapi.controller;
+
+import com.leadiq.polygonapi.config.OpenApiTagConfig;
+import com.leadiq.polygonapi.dto.IndicatorSeries;
+import com.leadiq.polygonapi.exception.ErrorResponse;
+import com.leadiq.polygonapi.indicator.IndicatorType;
+import com.leadiq.polygonapi.service.IndicatorService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * IndicatorController serves technical indicators computed server-side from stored stock prices, so clients
+ * do not need to download a symbol's full history to compute them.
+ */
+@RestController
+@RequestMapping("/api/v1/stocks")
+@RequiredArgsConstructor
+@Tag(name = OpenApiTagConfig.TAG_STOCK_PRICES)
+public class IndicatorController {
+
+    private final IndicatorService indicatorService;
+
+    /**
+     * Retrieves a technical indicator of a company symbol within a date range.
+     */
+    @Operation(
+            summary = "Get a technical indicator by symbol and date range",
+            description = "Computes sma, ema, rsi, macd, bollinger or atr over the symbol's stored history and " +
+                    "returns its values on the trading days of the date range, in columns. " +
+                    "Parameters are positional and default when omitted: sma, ema (period=20); rsi, atr " +
+                    "(period=14); macd (fastPeriod=12, slowPeriod=26, signalPeriod=9); bollinger (period=20, " +
+                    "width=2). Days within the warm-up period have no value and are left out."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully computed the indicator",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = IndicatorSeries.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Unsupported indicator or invalid input parameters",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping("/{symbol}/indicators/{indicator}")
+    public ResponseEntity<IndicatorSeries> getIndicator(
+            @Parameter(description = "Stock symbol (e.g., AAPL)", required = true, example = "AAPL")
+            @PathVariable("symbol") String symbol,
+
+            @Parameter(description = "Indicator: sma, ema, rsi, macd, bollinger or atr", required = true,
+                    example = "rsi")
+            @PathVariable("indicator") String indicator,
+
+            @Parameter(description = "Start date in ISO format (YYYY-MM-DD)", required = true, example = "2023-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+
+            @Parameter(description = "End date in ISO format (YYYY-MM-DD)", required = true, example = "2023-12-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+
+            @Parameter(description = "Comma-separated indicator parameters; omit for the defaults", example = "14")
+            @RequestParam(required = false) List<Double> params
+    ) {
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("From date cannot be after to date");
+        }
+
+        IndicatorType type = IndicatorType.from(indicator);
+        return ResponseEntity.ok(indicatorService.getIndicator(symbol, type, params == null ? List.of() : params,
+                fromDate, toDate));
+    }
+}
@@ -1,12 +1,21 @@
 package com.leadiq.polygonapi.controller;
 
+import com.leadiq.polygonapi.config.ExportTimeoutConfig;
 import com.leadiq.polygonapi.config.OpenApiTagConfig;
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceLookup;
 import com.leadiq.polygonapi.dto.StockPriceResponseDTO;
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
 import com.leadiq.polygonapi.entity.StockPrice;
 import com.leadiq.polygonapi.exception.ErrorResponse;
+import com.leadiq.polygonapi.service.BarInterval;
+import com.leadiq.polygonapi.service.ExportFormat;
+import com.leadiq.polygonapi.service.StockPriceExportService;
 import com.leadiq.polygonapi.service.StockPriceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,16 +24,28 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 /**
  * StockPriceController is a REST controller responsible for managing stock price data.
  * It provides endpoints for fetching and saving stock prices as well as retrieving stock prices
  * for a specific company symbol on a given date.
+ * Read endpoints return {@link StockPriceView} records from the JDBC read path, without JPA entities.
+ * Responses are JSON by default; see {@code ContentNegotiationConfig} for the binary and columnar encodings.
  */
 @RestController
 @RequestMapping("/api/v1/stocks")
@@ -32,7 +53,12 @@ import java.time.LocalDate;
 @Tag(name = OpenApiTagConfig.TAG_STOCK_PRICES)
 public class StockPriceController {
 
+    private static final int MAX_RANGE_PAGE_SIZE = 1000;
+    private static final int MAX_SUMMARY_SYMBOLS = 1000;
+    private static final int MAX_BATCH_CELLS = 10_000;
+
     private final StockPriceService stockPriceService;
+    private final StockPriceExportService stockPriceExportService;
 
     /**
      * Fetches stock price data for a given company symbol within the specified date range,
@@ -93,6 +119,61 @@ public class StockPriceController {
         return ResponseEntity.ok(dtoPage);
     }
 
+    /**
+     * Fetches and saves stock prices like {@code /fetch}, but returns a slice without a total count.
+     */
+    @Operation(
+            summary = "Fetch and save stock prices without a total count",
+            description = "Same as /fetch, selected with mode=slice. Returns a slice that only tells whether " +
+                    "another page follows, so no count over the date range is needed."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved stock prices",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Slice.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input parameters",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Polygon API service unavailable",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping(value = "/fetch", params = "mode=slice")
+    public ResponseEntity<Slice<StockPriceResponseDTO>> fetchAndSaveStockPricesSlice(
+            @Parameter(description = "Stock symbol (e.g., AAPL)", required = true, example = "AAPL")
+            @RequestParam String companySymbol,
+
+            @Parameter(description = "Start date in ISO format (YYYY-MM-DD)", required = true, example = "2023-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+
+            @Parameter(description = "End date in ISO format (YYYY-MM-DD)", required = true, example = "2023-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+
+            @Parameter(description = "Page number (zero-based)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+
+            @Parameter(description = "Number of items per page", example = "20")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("From date cannot be after to date");
+        }
+
+        Slice<StockPrice> stockPrices = stockPriceService.fetchAndSavePricesSlice(
+                companySymbol, fromDate.toString(), toDate.toString(), PageRequest.of(page, size));
+
+        return ResponseEntity.ok(stockPrices.map(this::convertToDTO));
+    }
+
     /**
      * Retrieves the stock price for a specific company symbol on a given date.
      */
@@ -105,7 +186,7 @@ public class StockPriceController {
                     responseCode = "200",
                     description = "Successfully retrieved stock price",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = StockPriceResponseDTO.class))
+                            schema = @Schema(implementation = StockPriceView.class))
             ),
             @ApiResponse(
                     responseCode = "404",
@@ -121,20 +202,240 @@ public class StockPriceController {
             )
     })
     @GetMapping("/{symbol}")
-    public ResponseEntity<StockPriceResponseDTO> getStockPriceBySymbolAndDate(
+    public ResponseEntity<StockPriceView> getStockPriceBySymbolAndDate(
             @Parameter(description = "Stock symbol (e.g., AAPL)", required = true, example = "AAPL")
             @PathVariable("symbol") String symbol,
 
             @Parameter(description = "Date in ISO format (YYYY-MM-DD)", required = true, example = "2023-01-15")
             @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
     ) {
-        StockPrice stockPrice = stockPriceService.getStockPrice(symbol, date);
+        StockPriceView stockPrice = stockPriceService.getStockPriceView(symbol, date);
 
         if (stockPrice == null) {
             return ResponseEntity.notFound().build();
         }
 
-        return ResponseEntity.ok(convertToDTO(stockPrice));
+        return ResponseEntity.ok(stockPrice);
+    }
+
+    /**
+     * Retrieves the stock prices of several company symbols on several dates in one request.
+     */
+    @Operation(
+            summary = "Get stock prices for several symbols and dates",
+            description = "Looks up every combination of the given symbols and dates, as a batch form of " +
+                    "GET /{symbol}?date=. Returns one cell per symbol and date, grouped by symbol in the order given; " +
+                    "cells without stored data have found=false instead of failing the request. " +
+                    "At most " + MAX_BATCH_CELLS + " symbol and date combinations per request."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully looked up stock prices",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = StockPriceLookup.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input parameters",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<List<StockPriceLookup>> getStockPricesBySymbolsAndDates(
+            @Parameter(description = "Comma-separated stock symbols", required = true, example = "AAPL,MSFT")
+            @RequestParam List<String> symbols,
+
+            @Parameter(description = "Comma-separated dates in ISO format (YYYY-MM-DD)", required = true,
+                    example = "2023-01-03,2023-01-04")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) List<LocalDate> dates
+    ) {
+        List<String> uniqueSymbols = new ArrayList<>(new LinkedHashSet<>(symbols));
+        List<LocalDate> uniqueDates = new ArrayList<>(new LinkedHashSet<>(dates));
+        if ((long) uniqueSymbols.size() * uniqueDates.size() > MAX_BATCH_CELLS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_CELLS
+                    + " symbol and date combinations can be looked up at once");
+        }
+
+        Map<String, Map<LocalDate, StockPriceView>> found =
+                stockPriceService.getStockPriceMatrix(uniqueSymbols, uniqueDates);
+
+        List<StockPriceLookup> cells = new ArrayList<>(uniqueSymbols.size() * uniqueDates.size());
+        for (String symbol : uniqueSymbols) {
+            Map<LocalDate, StockPriceView> byDate = found.getOrDefault(symbol, Map.of());
+            for (LocalDate date : uniqueDates) {
+                StockPriceView stockPrice = byDate.get(date);
+                cells.add(new StockPriceLookup(symbol, date, stockPrice != null, stockPrice));
+            }
+        }
+        return ResponseEntity.ok(cells);
+    }
+
+    /**
+     * Retrieves stored stock prices for a company symbol within a date range, one cursor page at a time.
+     */
+    @Operation(
+            summary = "Get stock prices by symbol and date range",
+            description = "Retrieves stored stock prices for a company symbol within a date range, ordered by date. " +
+                    "Pass the 'next' cursor of a response as 'cursor' to get the following page; " +
+                    "every page costs the same regardless of its depth. " +
+                    "With interval=week, month, quarter or year, returns precomputed candles instead, each dated " +
+                    "by the first day of its period and covering the whole period."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved stock prices",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input parameters or cursor",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping("/{symbol}/range")
+    public ResponseEntity<CursorPage<StockPriceView>> getStockPricesBySymbolAndDateRange(
+            @Parameter(description = "Stock symbol (e.g., AAPL)", required = true, example = "AAPL")
+            @PathVariable("symbol") String symbol,
+
+            @Parameter(description = "Start date in ISO format (YYYY-MM-DD)", required = true, example = "2023-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+
+            @Parameter(description = "End date in ISO format (YYYY-MM-DD)", required = true, example = "2023-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+
+            @Parameter(description = "Cursor from the previous page's 'next' field; omit for the first page")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Number of items per page", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+
+            @Parameter(description = "Candle interval: day, week, month, quarter or year", example = "day")
+            @RequestParam(defaultValue = "day") String interval
+    ) {
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("From date cannot be after to date");
+        }
+
+        if (size < 1 || size > MAX_RANGE_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_RANGE_PAGE_SIZE);
+        }
+
+        BarInterval barInterval = BarInterval.from(interval);
+        if (barInterval == BarInterval.DAY) {
+            return ResponseEntity.ok(stockPriceService.getStockPriceViews(symbol, fromDate, toDate, cursor, size));
+        }
+
+        return ResponseEntity.ok(stockPriceService.getStockPriceRollups(symbol, barInterval, fromDate, toDate,
+                cursor, size));
+    }
+
+    /**
+     * Aggregates stored stock prices per symbol over a date range.
+     */
+    @Operation(
+            summary = "Summarize stock prices",
+            description = "Returns, for each symbol, the number of stored trading days, the first and last day, " +
+                    "the high, the low, the average close and the total volume within the date range. " +
+                    "Omit 'symbols' to summarize every stored symbol; the mapped and blocks storage engines " +
+                    "only hold symbols used on this instance, so they require 'symbols' and answer 400 without. " +
+                    "Runs on the configured storage engine; the duckdb engine scans it column by column."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully summarized stock prices",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = StockPriceSummary.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input parameters",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping("/summary")
+    public ResponseEntity<List<StockPriceSummary>> summarizeStockPrices(
+            @Parameter(description = "Comma-separated stock symbols; omit for all symbols", example = "AAPL,MSFT")
+            @RequestParam(required = false) List<String> symbols,
+
+            @Parameter(description = "Start date in ISO format (YYYY-MM-DD)", required = true, example = "2023-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+
+            @Parameter(description = "End date in ISO format (YYYY-MM-DD)", required = true, example = "2023-12-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate
+    ) {
+        if (symbols != null && symbols.size() > MAX_SUMMARY_SYMBOLS) {
+            throw new IllegalArgumentException("At most " + MAX_SUMMARY_SYMBOLS + " symbols can be summarized at once");
+        }
+
+        return ResponseEntity.ok(stockPriceService.getStockPriceSummaries(symbols, fromDate, toDate));
+    }
+
+    /**
+     * Streams the stored stock prices of one or more symbols within a date range as CSV, NDJSON,
+     * Arrow IPC or Parquet. The stream is limited by {@code polygon.export.timeout}.
+     */
+    @Operation(
+            summary = "Export stock prices",
+            description = "Streams every stored stock price of the given symbols within the date range, " +
+                    "grouped by symbol and ordered by date, as CSV, newline-delimited JSON, " +
+                    "an Arrow IPC stream or a Parquet file. " +
+                    "Rows are written as they are read, so exports of any size use constant memory."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stock prices streamed",
+                    content = {
+                            @Content(mediaType = "text/csv"),
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "application/vnd.apache.arrow.stream"),
+                            @Content(mediaType = "application/vnd.apache.parquet")
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input parameters",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStockPrices(
+            @Parameter(description = "Comma-separated stock symbols", required = true, example = "AAPL,MSFT")
+            @RequestParam List<String> symbols,
+
+            @Parameter(description = "Start date in ISO format (YYYY-MM-DD)", required = true, example = "2023-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+
+            @Parameter(description = "End date in ISO format (YYYY-MM-DD)", required = true, example = "2023-12-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+
+            @Parameter(description = "Output format: csv, ndjson, arrow or parquet", example = "csv")
+            @RequestParam(defaultValue = "csv") String format,
+
+            NativeWebRequest request
+    ) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        List<String> distinctSymbols = stockPriceExportService.validate(symbols, fromDate, toDate);
+        request.setAttribute(ExportTimeoutConfig.EXPORT_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+
+        StreamingResponseBody body = out ->
+                stockPriceExportService.export(distinctSymbols, fromDate, toDate, exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("stock-prices." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     /**
@@ -0,0 +1,81 @@
+package com.leadiq.polygonapi.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leadiq.polygonapi.dto.ColumnarStockPricePage;
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceColumns;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes stock price responses as columnar JSON: one array per field ({@link StockPriceColumns})
+ * instead of an array of row objects. Write-only.
+ * <p>
+ * The media type ends in {@code +json}, which the regular Jackson converter also accepts, so this
+ * converter must be registered ahead of it. It only answers when the client asked for it explicitly:
+ * it does not offer itself for {@code Accept: *}{@code /*}, which keeps plain JSON the default.
+ */
+public class ColumnarJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType COLUMNAR_JSON = new MediaType("application", "vnd.leadiq.columnar+json");
+
+    private final ObjectMapper objectMapper;
+
+    public ColumnarJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(COLUMNAR_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return StockPriceBodies.isSupported(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return mediaType != null && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar JSON request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        objectMapper.writeValue(StreamUtils.nonClosing(outputMessage.getBody()), toColumnar(body));
+    }
+
+    static Object toColumnar(Object body) {
+        if (body instanceof CursorPage<?> page) {
+            return new ColumnarStockPricePage(columns(page.content()), null, null, null, null, null, page.next());
+        }
+        if (body instanceof Page<?> page) {
+            return new ColumnarStockPricePage(columns(page.getContent()), page.getNumber(), page.getSize(),
+                    page.hasNext(), page.getTotalElements(), page.getTotalPages(), null);
+        }
+        if (body instanceof Slice<?> slice) {
+            return new ColumnarStockPricePage(columns(slice.getContent()), slice.getNumber(), slice.getSize(),
+                    slice.hasNext(), null, null, null);
+        }
+        return StockPriceColumns.of(List.of(StockPriceBodies.toView(body)));
+    }
+
+    private static StockPriceColumns columns(List<?> rows) {
+        return StockPriceColumns.of(StockPriceBodies.toViews(rows));
+    }
+}
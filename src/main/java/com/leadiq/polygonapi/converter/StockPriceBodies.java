@@ -0,0 +1,41 @@
+package com.leadiq.polygonapi.converter;
+
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceResponseDTO;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.util.List;
+
+/**
+ * The response bodies of {@code StockPriceController} that the compact encodings understand:
+ * single rows, offset pages and slices of rows, and cursor pages of rows.
+ */
+final class StockPriceBodies {
+
+    private StockPriceBodies() {
+    }
+
+    static boolean isSupported(Class<?> clazz) {
+        return StockPriceView.class.isAssignableFrom(clazz)
+                || StockPriceResponseDTO.class.isAssignableFrom(clazz)
+                || CursorPage.class.isAssignableFrom(clazz)
+                || Slice.class.isAssignableFrom(clazz);
+    }
+
+    static List<StockPriceView> toViews(List<?> rows) {
+        return rows.stream().map(StockPriceBodies::toView).toList();
+    }
+
+    static StockPriceView toView(Object row) {
+        if (row instanceof StockPriceView view) {
+            return view;
+        }
+        if (row instanceof StockPriceResponseDTO dto) {
+            return new StockPriceView(dto.getSymbol(), dto.getDate(), dto.getOpenPrice(), dto.getClosePrice(),
+                    dto.getHighPrice(), dto.getLowPrice(), dto.getVolume());
+        }
+        throw new HttpMessageNotWritableException("Cannot encode " + row.getClass().getName() + " as a stock price");
+    }
+}
@@ -0,0 +1,61 @@
+package com.leadiq.polygonapi.converter;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.proto.StockPrice;
+
+import java.time.LocalDate;
+
+/**
+ * Maps read models to and from the Protobuf {@code StockPrice} message shared by the HTTP encoding, the gRPC API
+ * and the shared cache tier.
+ */
+public final class StockPriceProtoMapper {
+
+    private StockPriceProtoMapper() {
+    }
+
+    /**
+     * Converts a view to its message. Missing prices and volume are left unset.
+     *
+     * @param view the stock price
+     * @return the message
+     */
+    public static StockPrice toStockPrice(StockPriceView view) {
+        StockPrice.Builder builder = StockPrice.newBuilder()
+                .setSymbol(view.symbol())
+                .setEpochDay(Math.toIntExact(view.date().toEpochDay()));
+        if (view.openPrice() != null) {
+            builder.setOpenPrice(view.openPrice());
+        }
+        if (view.closePrice() != null) {
+            builder.setClosePrice(view.closePrice());
+        }
+        if (view.highPrice() != null) {
+            builder.setHighPrice(view.highPrice());
+        }
+        if (view.lowPrice() != null) {
+            builder.setLowPrice(view.lowPrice());
+        }
+        if (view.volume() != null) {
+            builder.setVolume(view.volume());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Converts a message back to a view. Unset prices and volume become null.
+     *
+     * @param message the message
+     * @return the stock price
+     */
+    public static StockPriceView toView(StockPrice message) {
+        return new StockPriceView(
+                message.getSymbol(),
+                LocalDate.ofEpochDay(message.getEpochDay()),
+                message.hasOpenPrice() ? message.getOpenPrice() : null,
+                message.hasClosePrice() ? message.getClosePrice() : null,
+                message.hasHighPrice() ? message.getHighPrice() : null,
+                message.hasLowPrice() ? message.getLowPrice() : null,
+                message.hasVolume() ? message.getVolume() : null);
+    }
+}
@@ -0,0 +1,119 @@
+package com.leadiq.polygonapi.converter;
+
+import com.google.protobuf.Message;
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.exception.ErrorBody;
+import com.leadiq.polygonapi.exception.ErrorResponse;
+import com.leadiq.polygonapi.proto.StockPrice;
+import com.leadiq.polygonapi.proto.StockPriceCursorPage;
+import com.leadiq.polygonapi.proto.StockPricePage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes stock price responses and errors as the Protobuf messages defined in {@code stock_price.proto}.
+ * Error bodies, whether {@link ErrorResponse} or the {@link ErrorBody} maps built by {@code GlobalExceptionHandler},
+ * become the {@code ErrorResponse} message; other maps are not supported, so they get 406 Not Acceptable. The response names the message type in the {@value #MESSAGE_HEADER}
+ * header. Write-only.
+ */
+public class StockPriceProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public static final String MESSAGE_HEADER = "X-Protobuf-Message";
+
+    public StockPriceProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return StockPriceBodies.isSupported(clazz)
+                || ErrorResponse.class.isAssignableFrom(clazz)
+                || ErrorBody.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        Message message = toMessage(body);
+        outputMessage.getHeaders().set(MESSAGE_HEADER, message.getDescriptorForType().getFullName());
+        message.writeTo(outputMessage.getBody());
+    }
+
+    static Message toMessage(Object body) {
+        if (body instanceof CursorPage<?> page) {
+            StockPriceCursorPage.Builder builder = StockPriceCursorPage.newBuilder();
+            page.content().forEach(row -> builder.addContent(toStockPrice(row)));
+            if (page.next() != null) {
+                builder.setNext(page.next());
+            }
+            return builder.build();
+        }
+        if (body instanceof Slice<?> slice) {
+            StockPricePage.Builder builder = StockPricePage.newBuilder()
+                    .setNumber(slice.getNumber())
+                    .setSize(slice.getSize())
+                    .setHasNext(slice.hasNext());
+            slice.getContent().forEach(row -> builder.addContent(toStockPrice(row)));
+            if (slice instanceof Page<?> page) {
+                builder.setTotalElements(page.getTotalElements()).setTotalPages(page.getTotalPages());
+            }
+            return builder.build();
+        }
+        if (body instanceof ErrorResponse error) {
+            return com.leadiq.polygonapi.proto.ErrorResponse.newBuilder()
+                    .setError(nullToEmpty(error.getCode()))
+                    .setMessage(nullToEmpty(error.getMessage()))
+                    .setTimestamp(error.getTimestamp().toString())
+                    .setPath(nullToEmpty(error.getPath()))
+                    .setRequestId(error.getRequestId())
+                    .build();
+        }
+        if (body instanceof ErrorBody error) {
+            return toErrorResponse(error);
+        }
+        return toStockPrice(body);
+    }
+
+    private static StockPrice toStockPrice(Object row) {
+        return StockPriceProtoMapper.toStockPrice(StockPriceBodies.toView(row));
+    }
+
+    /**
+     * Converts the map bodies built by {@code GlobalExceptionHandler} (status, error, message, path, timestamp).
+     */
+    private static Message toErrorResponse(Map<String, Object> error) {
+        com.leadiq.polygonapi.proto.ErrorResponse.Builder builder = com.leadiq.polygonapi.proto.ErrorResponse.newBuilder()
+                .setError(nullToEmpty(error.get("error")))
+                .setMessage(nullToEmpty(error.get("message")))
+                .setTimestamp(nullToEmpty(error.get("timestamp")))
+                .setPath(nullToEmpty(error.get("path")));
+        if (error.get("status") instanceof Integer status) {
+            builder.setStatus(status);
+        }
+        return builder.build();
+    }
+
+    private static String nullToEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
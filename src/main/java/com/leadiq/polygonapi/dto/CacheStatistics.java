@@ -0,0 +1,45 @@
+package com.leadiq.polygonapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Counters of one cache since the application started.
+ */
+@Schema(description = "Size and hit, miss, load and eviction counters of a cache")
+public record CacheStatistics(
+        @Schema(description = "Cache name", example = "stockPriceViews")
+        String name,
+
+        @Schema(description = "Approximate number of entries", example = "120000")
+        long entries,
+
+        @Schema(description = "Estimated heap bytes held by the entries", example = "41200000")
+        long weightedBytes,
+
+        @Schema(description = "Lookups that found an entry", example = "9800000")
+        long hits,
+
+        @Schema(description = "Lookups that found no entry", example = "200000")
+        long misses,
+
+        @Schema(description = "Hits divided by lookups", example = "0.98")
+        double hitRate,
+
+        @Schema(description = "Background refreshes of recent days", example = "5300")
+        long refreshes,
+
+        @Schema(description = "Refreshes that failed", example = "0")
+        long refreshFailures,
+
+        @Schema(description = "Entries evicted to stay within the memory limit", example = "80000")
+        long evictions,
+
+        @Schema(description = "Local misses answered by the shared cache tier; 0 when it is disabled",
+                example = "150000")
+        long sharedHits,
+
+        @Schema(description = "Local misses the shared cache tier had no entry for; 0 when it is disabled",
+                example = "50000")
+        long sharedMisses
+) {
+}
@@ -0,0 +1,34 @@
+package com.leadiq.polygonapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * A page of stock prices in the columnar JSON encoding. Offset pages carry their position and,
+ * unless they are slices, their totals; cursor pages carry only the next cursor.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "A page of stock prices with one array per field")
+public record ColumnarStockPricePage(
+        @Schema(description = "Rows on this page, by column")
+        StockPriceColumns content,
+
+        @Schema(description = "Page number (zero-based); offset pages only")
+        Integer number,
+
+        @Schema(description = "Requested page size; offset pages only")
+        Integer size,
+
+        @Schema(description = "Whether another page follows; offset pages only")
+        Boolean hasNext,
+
+        @Schema(description = "Rows in the whole range; offset pages that are not slices only")
+        Long totalElements,
+
+        @Schema(description = "Pages in the whole range; offset pages that are not slices only")
+        Integer totalPages,
+
+        @Schema(description = "Cursor to the next page; cursor pages only, absent on the last page")
+        String next
+) {
+}
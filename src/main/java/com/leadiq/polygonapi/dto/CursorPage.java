@@ -0,0 +1,33 @@
+package com.leadiq.polygonapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of results from a keyset (cursor-based) query.
+ *
+ * @param content the items on this page
+ * @param next an opaque cursor for the following page, or null if this is the last page
+ */
+@Schema(description = "A page of results with an opaque cursor to the next page")
+public record CursorPage<T>(
+        @Schema(description = "Items on this page")
+        List<T> content,
+
+        @Schema(description = "Cursor to pass as 'cursor' to fetch the next page; absent on the last page",
+                example = "QUFQTDoxOTM2OA")
+        String next
+) {
+
+    /**
+     * Returns a page with the same cursor and each item converted with the given function.
+     *
+     * @param converter the conversion applied to each item
+     * @return the converted page
+     */
+    public <U> CursorPage<U> map(Function<? super T, ? extends U> converter) {
+        return new CursorPage<>(content.stream().<U>map(converter).toList(), next);
+    }
+}
@@ -0,0 +1,31 @@
+package com.leadiq.polygonapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A technical indicator of one symbol over a date range, in columns: one date per bar, and per output one value
+ * per date. Bars within the indicator's warm-up period have no value and are left out.
+ */
+@Schema(description = "Technical indicator of a symbol over a date range, one column per output")
+public record IndicatorSeries(
+        @Schema(description = "Stock symbol representing the company", example = "AAPL")
+        String symbol,
+
+        @Schema(description = "Indicator name", example = "bollinger")
+        String indicator,
+
+        @Schema(description = "Parameters the indicator was computed with, by name", example = "{\"period\": 20, \"width\": 2}")
+        Map<String, Double> params,
+
+        @Schema(description = "Trading days with a value, oldest first")
+        List<LocalDate> dates,
+
+        @Schema(description = "Values of each output, aligned with the dates",
+                example = "{\"middle\": [150.2], \"upper\": [158.9], \"lower\": [141.5]}")
+        Map<String, double[]> values
+) {
+}
@@ -0,0 +1,59 @@
+package com.leadiq.polygonapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stock prices laid out by column: element {@code i} of every list belongs to row {@code i}.
+ * Field names match {@link StockPriceView}, so each row's values can be zipped back into one.
+ */
+@Schema(description = "Stock prices with one array per field instead of one object per row")
+public record StockPriceColumns(
+        @Schema(description = "Stock symbol of each row")
+        List<String> symbol,
+
+        @Schema(description = "Date of each row")
+        List<LocalDate> date,
+
+        @Schema(description = "Opening price of each row, null where not reported")
+        List<Double> openPrice,
+
+        @Schema(description = "Closing price of each row, null where not reported")
+        List<Double> closePrice,
+
+        @Schema(description = "Highest price of each row, null where not reported")
+        List<Double> highPrice,
+
+        @Schema(description = "Lowest price of each row, null where not reported")
+        List<Double> lowPrice,
+
+        @Schema(description = "Trading volume of each row, null where not reported")
+        List<Long> volume
+) {
+
+    /**
+     * Transposes rows into columns.
+     *
+     * @param rows the rows, in output order
+     * @return the columns
+     */
+    public static StockPriceColumns of(List<StockPriceView> rows) {
+        int size = rows.size();
+        StockPriceColumns columns = new StockPriceColumns(new ArrayList<>(size), new ArrayList<>(size),
+                new ArrayList<>(size), new ArrayList<>(size), new ArrayList<>(size), new ArrayList<>(size),
+                new ArrayList<>(size));
+        for (StockPriceView row : rows) {
+            columns.symbol.add(row.symbol());
+            columns.date.add(row.date());
+            columns.openPrice.add(row.openPrice());
+            columns.closePrice.add(row.closePrice());
+            columns.highPrice.add(row.highPrice());
+            columns.lowPrice.add(row.lowPrice());
+            columns.volume.add(row.volume());
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,24 @@
+package com.leadiq.polygonapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+/**
+ * One cell of a batch lookup: a symbol and date, and the stored stock price if there is one.
+ */
+@Schema(description = "Result of looking up one symbol on one date in a batch")
+public record StockPriceLookup(
+        @Schema(description = "Stock symbol representing the company", example = "AAPL")
+        String symbol,
+
+        @Schema(description = "Date that was looked up", example = "2023-01-03")
+        LocalDate date,
+
+        @Schema(description = "Whether a stock price is stored for the symbol on the date", example = "true")
+        boolean found,
+
+        @Schema(description = "The stored stock price; null when not found")
+        StockPriceView price
+) {
+}
@@ -0,0 +1,36 @@
+package com.leadiq.polygonapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+/**
+ * Aggregate of one symbol's stored stock prices over a date range.
+ */
+@Schema(description = "Aggregate of a symbol's stock prices over a date range")
+public record StockPriceSummary(
+        @Schema(description = "Stock symbol representing the company", example = "AAPL")
+        String symbol,
+
+        @Schema(description = "Number of trading days stored in the range", example = "250")
+        long days,
+
+        @Schema(description = "First trading day stored in the range", example = "2024-01-02")
+        LocalDate firstDate,
+
+        @Schema(description = "Last trading day stored in the range", example = "2024-12-31")
+        LocalDate lastDate,
+
+        @Schema(description = "Highest price in the range", example = "260.10")
+        Double highPrice,
+
+        @Schema(description = "Lowest price in the range", example = "164.08")
+        Double lowPrice,
+
+        @Schema(description = "Average closing price in the range", example = "207.31")
+        Double averageClosePrice,
+
+        @Schema(description = "Total trading volume in the range", example = "14000000000")
+        Long totalVolume
+) {
+}
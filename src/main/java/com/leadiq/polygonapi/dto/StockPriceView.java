@@ -0,0 +1,34 @@
+package com.leadiq.polygonapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable stock price read model, mapped straight from query results without a JPA entity.
+ * Serializes to the same JSON as {@link StockPriceResponseDTO}.
+ */
+@Schema(description = "Stock price information for a specific company on a particular date")
+public record StockPriceView(
+        @Schema(description = "Stock symbol representing the company", example = "AAPL")
+        String symbol,
+
+        @Schema(description = "Date of the stock price information", example = "2025-03-14")
+        LocalDate date,
+
+        @Schema(description = "Opening price of the stock", example = "150.25")
+        Double openPrice,
+
+        @Schema(description = "Closing price of the stock", example = "152.75")
+        Double closePrice,
+
+        @Schema(description = "Highest price of the stock during the day", example = "153.50")
+        Double highPrice,
+
+        @Schema(description = "Lowest price of the stock during the day", example = "149.80")
+        Double lowPrice,
+
+        @Schema(description = "Trading volume for the day", example = "15000000")
+        Long volume
+) {
+}
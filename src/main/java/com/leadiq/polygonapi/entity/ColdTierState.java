@@ -0,0 +1,36 @@
+package com.leadiq.polygonapi.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Represents the state shared by the instances that enable the cold tier.
+ * This entity is mapped to the "cold_tier_state" table, which holds a single row written by
+ * {@code ColdTierStateRepository}.
+ * Fields:
+ * - id: Always 1.
+ * - directoryId: The id stored in the cold tier directory when the first instance registered it.
+ * - archiver: The id of the instance holding the archiving lease, or null if none does.
+ * - archiverUntil: The epoch milliseconds at which the lease expires.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "cold_tier_state")
+public class ColdTierState {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private int id;
+
+    @Column(name = "directory_id", nullable = false, length = 36)
+    private String directoryId;
+
+    @Column(name = "archiver", length = 36)
+    private String archiver;
+
+    @Column(name = "archiver_until")
+    private Long archiverUntil;
+}
@@ -0,0 +1,78 @@
+package com.leadiq.polygonapi.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Represents one candle of a symbol over a week, month, quarter or year, aggregated from its daily stock prices.
+ * This entity is mapped to the "stock_price_rollup" table, keyed by symbol, interval and the first day of the
+ * period. Rows are written by {@code StockPriceRollupService} whenever daily rows of the period are ingested.
+ * Fields:
+ * - companySymbol: The stock symbol representing the company.
+ * - barInterval: The interval of the candle (WEEK, MONTH, QUARTER or YEAR).
+ * - periodStart: The first calendar day of the period; weeks start on Monday.
+ * - lastDate: The last trading day stored within the period.
+ * - tradingDays: The number of daily rows aggregated into the candle.
+ * - openPrice: The opening price of the first trading day.
+ * - closePrice: The closing price of the last trading day.
+ * - highPrice: The highest price within the period.
+ * - lowPrice: The lowest price within the period.
+ * - volume: The total volume within the period.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "stock_price_rollup")
+@IdClass(StockPriceRollup.Key.class)
+public class StockPriceRollup {
+
+    @Id
+    @Column(name = "company_symbol", nullable = false)
+    private String companySymbol;
+
+    @Id
+    @Column(name = "bar_interval", nullable = false, length = 16)
+    private String barInterval;
+
+    @Id
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "last_date", nullable = false)
+    private LocalDate lastDate;
+
+    @Column(name = "trading_days", nullable = false)
+    private int tradingDays;
+
+    @Column(name = "open_price")
+    private Double openPrice;
+
+    @Column(name = "close_price")
+    private Double closePrice;
+
+    @Column(name = "high_price")
+    private Double highPrice;
+
+    @Column(name = "low_price")
+    private Double lowPrice;
+
+    @Column(name = "volume")
+    private Long volume;
+
+    /**
+     * Primary key of a rollup row.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String companySymbol;
+        private String barInterval;
+        private LocalDate periodStart;
+    }
+}
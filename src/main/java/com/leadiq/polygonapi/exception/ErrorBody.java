@@ -0,0 +1,11 @@
+package com.leadiq.polygonapi.exception;
+
+import java.util.LinkedHashMap;
+
+/**
+ * The map body built by {@link GlobalExceptionHandler} (timestamp, status, error, message, path).
+ * Serializes as a plain JSON object; the type lets message converters tell these error maps from
+ * any other map a handler might return.
+ */
+public class ErrorBody extends LinkedHashMap<String, Object> {
+}
@@ -9,7 +9,6 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
-import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -47,7 +46,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Object> handlePolygonApiException(PolygonApiException ex, WebRequest request) {
         logger.error("Polygon API exception", ex);
 
-        Map<String, Object> body = new LinkedHashMap<>();
+        Map<String, Object> body = new ErrorBody();
         body.put("timestamp", LocalDateTime.now());
         body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
         body.put("error", "Polygon API Error");
@@ -70,7 +69,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Object> handleStockDataParsingException(StockDataParsingException ex, WebRequest request) {
         logger.error("Stock data parsing exception", ex);
 
-        Map<String, Object> body = new LinkedHashMap<>();
+        Map<String, Object> body = new ErrorBody();
         body.put("timestamp", LocalDateTime.now());
         body.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
         body.put("error", "Data Processing Error");
@@ -112,7 +111,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Object> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
         logger.warn("Invalid request parameters: {}", ex.getMessage());
 
-        Map<String, Object> body = new LinkedHashMap<>();
+        Map<String, Object> body = new ErrorBody();
         body.put("timestamp", LocalDateTime.now());
         body.put("status", HttpStatus.BAD_REQUEST.value());
         body.put("error", "Bad Request");
@@ -134,7 +133,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Object> handleGenericException(Exception ex, WebRequest request) {
         logger.error("Unhandled exception", ex);
 
-        Map<String, Object> body = new LinkedHashMap<>();
+        Map<String, Object> body = new ErrorBody();
         body.put("timestamp", LocalDateTime.now());
         body.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
         body.put("error", "Internal Server Error");
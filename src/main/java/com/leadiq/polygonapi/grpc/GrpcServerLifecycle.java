@@ -0,0 +1,87 @@
+package com.leadiq.polygonapi.grpc;
+
+import com.leadiq.polygonapi.config.GrpcConfig;
+import io.grpc.BindableService;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a gRPC server with every {@link BindableService} bean on {@code polygon.grpc.port},
+ * started and stopped with the application context.
+ */
+@Component
+@ConditionalOnProperty(prefix = "polygon.grpc", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServerLifecycle.class);
+
+    private final GrpcConfig config;
+    private final List<BindableService> services;
+
+    private volatile Server server;
+
+    public GrpcServerLifecycle(GrpcConfig config, List<BindableService> services) {
+        this.config = config;
+        this.services = services;
+    }
+
+    @Override
+    public void start() {
+        ServerBuilder<?> builder = Grpc.newServerBuilderForPort(config.getPort(), InsecureServerCredentials.create());
+        services.forEach(builder::addService);
+
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start gRPC server on port " + config.getPort(), e);
+        }
+        logger.info("gRPC server started on port {} with {} services", server.getPort(), services.size());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(config.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("gRPC calls still running after {}, cancelling them", config.getShutdownTimeout());
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running.shutdownNow();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Returns the port the server is bound to, which differs from the configured one when that is 0.
+     *
+     * @return the bound port, or -1 if the server is not running
+     */
+    public int getPort() {
+        Server running = server;
+        return running == null ? -1 : running.getPort();
+    }
+}
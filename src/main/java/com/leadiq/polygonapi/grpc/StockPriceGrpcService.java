@@ -0,0 +1,156 @@
+package com.leadiq.polygonapi.grpc;
+
+import com.leadiq.polygonapi.config.GrpcConfig;
+import com.leadiq.polygonapi.converter.StockPriceProtoMapper;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.exception.StockDataNotFoundException;
+import com.leadiq.polygonapi.proto.GetStockPriceRequest;
+import com.leadiq.polygonapi.proto.StockPrice;
+import com.leadiq.polygonapi.proto.StockPriceServiceGrpc;
+import com.leadiq.polygonapi.proto.StreamBatchRequest;
+import com.leadiq.polygonapi.proto.StreamStockPricesRequest;
+import com.leadiq.polygonapi.service.StockPriceExportService;
+import com.leadiq.polygonapi.service.StockPriceService;
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * gRPC counterpart of {@code StockPriceController}: single-day lookup, and range and multi-symbol
+ * reads streamed row by row from the database cursor.
+ * <p>
+ * Streams respect flow control: when the client falls behind, the handler waits before reading the
+ * next row instead of buffering the rest of the range, and stops reading if the call is cancelled.
+ * A client that takes no message for {@code polygon.grpc.stream-idle-timeout} gets {@code DEADLINE_EXCEEDED},
+ * so a stalled reader cannot hold the database cursor and its pooled connection indefinitely.
+ * Errors map to gRPC statuses the way {@code GlobalExceptionHandler} maps them to HTTP ones.
+ */
+@Component
+public class StockPriceGrpcService extends StockPriceServiceGrpc.StockPriceServiceImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockPriceGrpcService.class);
+
+    private static final long READY_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final StockPriceService stockPriceService;
+    private final StockPriceExportService stockPriceExportService;
+    private final long streamIdleTimeoutNanos;
+
+    public StockPriceGrpcService(StockPriceService stockPriceService,
+                                 StockPriceExportService stockPriceExportService,
+                                 GrpcConfig config) {
+        this.stockPriceService = stockPriceService;
+        this.stockPriceExportService = stockPriceExportService;
+        this.streamIdleTimeoutNanos = config.getStreamIdleTimeout().toNanos();
+    }
+
+    @Override
+    public void getStockPrice(GetStockPriceRequest request, StreamObserver<StockPrice> responseObserver) {
+        try {
+            StockPriceView view = stockPriceService.getStockPriceView(
+                    request.getSymbol(), LocalDate.ofEpochDay(request.getEpochDay()));
+            responseObserver.onNext(StockPriceProtoMapper.toStockPrice(view));
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+        }
+    }
+
+    @Override
+    public void streamStockPrices(StreamStockPricesRequest request, StreamObserver<StockPrice> responseObserver) {
+        stream(responseObserver, sender -> stockPriceService.streamStockPriceViews(request.getSymbol(),
+                LocalDate.ofEpochDay(request.getFromEpochDay()), LocalDate.ofEpochDay(request.getToEpochDay()), sender));
+    }
+
+    @Override
+    public void streamBatch(StreamBatchRequest request, StreamObserver<StockPrice> responseObserver) {
+        stream(responseObserver, sender -> {
+            LocalDate fromDate = LocalDate.ofEpochDay(request.getFromEpochDay());
+            LocalDate toDate = LocalDate.ofEpochDay(request.getToEpochDay());
+            List<String> symbols = stockPriceExportService.validate(request.getSymbolsList(), fromDate, toDate);
+            for (String symbol : symbols) {
+                stockPriceService.streamStockPriceViews(symbol, fromDate, toDate, sender);
+            }
+        });
+    }
+
+    /**
+     * Runs a streaming read, sending each row as the reader produces it and completing the call at the end.
+     */
+    private void stream(StreamObserver<StockPrice> responseObserver, Consumer<Consumer<StockPriceView>> reader) {
+        ServerCallStreamObserver<StockPrice> call = (ServerCallStreamObserver<StockPrice>) responseObserver;
+        Context context = Context.current();
+
+        try {
+            reader.accept(row -> {
+                awaitReady(call, context);
+                call.onNext(StockPriceProtoMapper.toStockPrice(row));
+            });
+            call.onCompleted();
+        } catch (CallCancelledException e) {
+            logger.debug("Stock price stream cancelled by the client");
+        } catch (RuntimeException e) {
+            call.onError(toStatus(e));
+        }
+    }
+
+    /**
+     * Waits until the transport can take another message. Readiness callbacks are delivered on the
+     * call's own executor, which this handler occupies while it streams, so readiness is polled.
+     * Gives up with {@code DEADLINE_EXCEEDED} once the client has not been ready for the idle timeout.
+     */
+    private void awaitReady(ServerCallStreamObserver<StockPrice> call, Context context) {
+        long waitingSince = System.nanoTime();
+        while (!call.isReady()) {
+            if (context.isCancelled()) {
+                throw new CallCancelledException();
+            }
+            if (System.nanoTime() - waitingSince > streamIdleTimeoutNanos) {
+                logger.warn("Stopping stock price stream: client read nothing for {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(streamIdleTimeoutNanos));
+                throw Status.DEADLINE_EXCEEDED
+                        .withDescription("Client stopped reading the stream")
+                        .asRuntimeException();
+            }
+            LockSupport.parkNanos(READY_POLL_NANOS);
+        }
+        if (context.isCancelled()) {
+            throw new CallCancelledException();
+        }
+    }
+
+    private static StatusRuntimeException toStatus(RuntimeException e) {
+        if (e instanceof StatusRuntimeException status) {
+            return status;
+        }
+        if (e instanceof IllegalArgumentException || e instanceof DateTimeException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof StockDataNotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException();
+        }
+        logger.error("Unexpected error in gRPC call", e);
+        return Status.INTERNAL.withDescription("An unexpected error occurred").asRuntimeException();
+    }
+
+    /**
+     * Thrown from the row consumer to stop the database cursor once the client has gone away.
+     */
+    private static class CallCancelledException extends RuntimeException {
+        CallCancelledException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.leadiq.polygonapi.indicator;
+
+/**
+ * Wilder's average true range. The true range of a bar is its high minus its low, widened to the previous close
+ * when the bar gaps; the average is seeded with the mean of the first {@code period} true ranges, then smoothed
+ * by {@code 1 / period}.
+ */
+final class AverageTrueRange implements Indicator {
+
+    private final int period;
+    private int count;
+    private double previousClose = Double.NaN;
+    private double average;
+
+    AverageTrueRange(int period) {
+        this.period = period;
+    }
+
+    @Override
+    public void append(double high, double low, double close) {
+        double trueRange = high - low;
+        if (!Double.isNaN(previousClose)) {
+            trueRange = Math.max(trueRange, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+        }
+        if (count < period) {
+            average += (trueRange - average) / ++count;
+        } else {
+            average += (trueRange - average) / period;
+        }
+        previousClose = close;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == period;
+    }
+
+    @Override
+    public double value(int output) {
+        return isReady() ? average : Double.NaN;
+    }
+}
@@ -0,0 +1,61 @@
+package com.leadiq.polygonapi.indicator;
+
+/**
+ * Bollinger bands: the simple moving average of the last {@code period} closes, and that average plus and minus
+ * {@code width} population standard deviations of the same closes. The mean and the sum of squared deviations
+ * are updated in place as closes enter and leave the window, which avoids the cancellation of a sum of squares.
+ */
+final class BollingerBands implements Indicator {
+
+    static final int MIDDLE = 0;
+    static final int UPPER = 1;
+    static final int LOWER = 2;
+
+    private final double[] window;
+    private final double width;
+    private int next;
+    private int count;
+    private double mean;
+    private double squaredDeviations;
+
+    BollingerBands(int period, double width) {
+        this.window = new double[period];
+        this.width = width;
+    }
+
+    @Override
+    public void append(double high, double low, double close) {
+        if (count < window.length) {
+            count++;
+            double delta = close - mean;
+            mean += delta / count;
+            squaredDeviations += delta * (close - mean);
+        } else {
+            double leaving = window[next];
+            double previousMean = mean;
+            mean += (close - leaving) / count;
+            squaredDeviations += (close - leaving) * (close - mean + leaving - previousMean);
+        }
+        window[next] = close;
+        next = next + 1 == window.length ? 0 : next + 1;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == window.length;
+    }
+
+    @Override
+    public double value(int output) {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        double deviation = Math.sqrt(Math.max(squaredDeviations, 0) / count);
+        return switch (output) {
+            case MIDDLE -> mean;
+            case UPPER -> mean + width * deviation;
+            case LOWER -> mean - width * deviation;
+            default -> throw new IndexOutOfBoundsException(output);
+        };
+    }
+}
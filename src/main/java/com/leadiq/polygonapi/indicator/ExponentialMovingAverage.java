@@ -0,0 +1,41 @@
+package com.leadiq.polygonapi.indicator;
+
+/**
+ * Exponential moving average of closes with smoothing {@code 2 / (period + 1)}, seeded with the simple average
+ * of the first {@code period} closes.
+ */
+final class ExponentialMovingAverage implements Indicator {
+
+    private final int period;
+    private final double alpha;
+    private int count;
+    private double average;
+
+    ExponentialMovingAverage(int period) {
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    @Override
+    public void append(double high, double low, double close) {
+        add(close);
+    }
+
+    void add(double value) {
+        if (count < period) {
+            average += (value - average) / ++count;
+        } else {
+            average += alpha * (value - average);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == period;
+    }
+
+    @Override
+    public double value(int output) {
+        return isReady() ? average : Double.NaN;
+    }
+}
@@ -0,0 +1,33 @@
+package com.leadiq.polygonapi.indicator;
+
+/**
+ * Running state of a technical indicator over a series of daily bars. Each appended bar updates the state in
+ * constant time and memory, whatever the length of the history, so an indicator computed over a symbol's history
+ * can be extended by newly ingested bars without recomputing it.
+ */
+public interface Indicator {
+
+    /**
+     * Adds the next bar, which must be later than every bar added before.
+     *
+     * @param high the bar's high price
+     * @param low the bar's low price
+     * @param close the bar's closing price
+     */
+    void append(double high, double low, double close);
+
+    /**
+     * Tells whether enough bars were added for {@link #value(int)} to be defined.
+     *
+     * @return true once the warm-up period is over
+     */
+    boolean isReady();
+
+    /**
+     * Returns one output of the indicator as of the last added bar.
+     *
+     * @param output the index of the output, in the order of {@link IndicatorType#outputs()}
+     * @return the value, or {@code NaN} before the indicator is ready
+     */
+    double value(int output);
+}
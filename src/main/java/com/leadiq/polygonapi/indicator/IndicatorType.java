@@ -0,0 +1,140 @@
+package com.leadiq.polygonapi.indicator;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Supported technical indicators, with the names and defaults of their parameters and the names of their
+ * outputs. Parameters are positional: {@code MACD} with {@code 5, 35} keeps the default signal period.
+ */
+public enum IndicatorType {
+
+    SMA(List.of("period"), new double[]{20}, List.of("sma")) {
+        @Override
+        public Indicator create(double[] params) {
+            return new SimpleMovingAverage((int) params[0]);
+        }
+    },
+    EMA(List.of("period"), new double[]{20}, List.of("ema")) {
+        @Override
+        public Indicator create(double[] params) {
+            return new ExponentialMovingAverage((int) params[0]);
+        }
+    },
+    RSI(List.of("period"), new double[]{14}, List.of("rsi")) {
+        @Override
+        public Indicator create(double[] params) {
+            return new RelativeStrengthIndex((int) params[0]);
+        }
+    },
+    MACD(List.of("fastPeriod", "slowPeriod", "signalPeriod"), new double[]{12, 26, 9},
+            List.of("macd", "signal", "histogram")) {
+        @Override
+        public Indicator create(double[] params) {
+            return new MovingAverageConvergenceDivergence((int) params[0], (int) params[1], (int) params[2]);
+        }
+
+        @Override
+        void validate(double[] params) {
+            super.validate(params);
+            if (params[0] >= params[1]) {
+                throw new IllegalArgumentException("MACD fast period must be shorter than its slow period");
+            }
+        }
+    },
+    BOLLINGER(List.of("period", "width"), new double[]{20, 2}, List.of("middle", "upper", "lower")) {
+        @Override
+        public Indicator create(double[] params) {
+            return new BollingerBands((int) params[0], params[1]);
+        }
+    },
+    ATR(List.of("period"), new double[]{14}, List.of("atr")) {
+        @Override
+        public Indicator create(double[] params) {
+            return new AverageTrueRange((int) params[0]);
+        }
+    };
+
+    /** Upper bound on any period, which keeps the window buffers small. */
+    public static final int MAX_PERIOD = 1000;
+
+    private final List<String> paramNames;
+    private final double[] defaults;
+    private final List<String> outputs;
+
+    IndicatorType(List<String> paramNames, double[] defaults, List<String> outputs) {
+        this.paramNames = paramNames;
+        this.defaults = defaults;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Creates the running state of this indicator.
+     *
+     * @param params resolved parameters, as returned by {@link #resolveParams(List)}
+     * @return a state that has seen no bars
+     */
+    public abstract Indicator create(double[] params);
+
+    public List<String> paramNames() {
+        return paramNames;
+    }
+
+    public List<String> outputs() {
+        return outputs;
+    }
+
+    /**
+     * Fills in the defaults of omitted trailing parameters and validates the result.
+     *
+     * @param params the given parameters, possibly fewer than this indicator takes
+     * @return one value per parameter name
+     * @throws IllegalArgumentException if there are too many parameters or one is out of range
+     */
+    public double[] resolveParams(List<Double> params) {
+        if (params.size() > defaults.length) {
+            throw new IllegalArgumentException(name() + " takes at most " + defaults.length + " parameters: "
+                    + String.join(", ", paramNames));
+        }
+        double[] resolved = defaults.clone();
+        for (int i = 0; i < params.size(); i++) {
+            resolved[i] = params.get(i);
+        }
+        validate(resolved);
+        return resolved;
+    }
+
+    /**
+     * Checks that every parameter whose name ends in {@code period} is a whole number within range and that
+     * the others are positive.
+     */
+    void validate(double[] params) {
+        for (int i = 0; i < params.length; i++) {
+            String name = paramNames.get(i);
+            if (name.toLowerCase(Locale.ROOT).endsWith("period")) {
+                if (params[i] != Math.rint(params[i]) || params[i] < 1 || params[i] > MAX_PERIOD) {
+                    throw new IllegalArgumentException(name() + " " + name + " must be a whole number between 1 and "
+                            + MAX_PERIOD);
+                }
+            } else if (!(params[i] > 0) || Double.isInfinite(params[i])) {
+                throw new IllegalArgumentException(name() + " " + name + " must be positive");
+            }
+        }
+    }
+
+    /**
+     * Resolves an indicator from its case-insensitive name.
+     *
+     * @param name the indicator name, e.g. {@code rsi}
+     * @return the matching indicator
+     * @throws IllegalArgumentException if the indicator is not supported
+     */
+    public static IndicatorType from(String name) {
+        for (IndicatorType type : values()) {
+            if (type.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported indicator: " + name);
+    }
+}
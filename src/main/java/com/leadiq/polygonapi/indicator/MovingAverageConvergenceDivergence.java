@@ -0,0 +1,51 @@
+package com.leadiq.polygonapi.indicator;
+
+/**
+ * MACD: the fast minus the slow exponential moving average of closes, its signal line (an exponential moving
+ * average of the MACD line) and their difference, the histogram.
+ */
+final class MovingAverageConvergenceDivergence implements Indicator {
+
+    static final int MACD = 0;
+    static final int SIGNAL = 1;
+    static final int HISTOGRAM = 2;
+
+    private final ExponentialMovingAverage fast;
+    private final ExponentialMovingAverage slow;
+    private final ExponentialMovingAverage signal;
+    private double macd = Double.NaN;
+
+    MovingAverageConvergenceDivergence(int fastPeriod, int slowPeriod, int signalPeriod) {
+        this.fast = new ExponentialMovingAverage(fastPeriod);
+        this.slow = new ExponentialMovingAverage(slowPeriod);
+        this.signal = new ExponentialMovingAverage(signalPeriod);
+    }
+
+    @Override
+    public void append(double high, double low, double close) {
+        fast.add(close);
+        slow.add(close);
+        if (fast.isReady() && slow.isReady()) {
+            macd = fast.value(0) - slow.value(0);
+            signal.add(macd);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return signal.isReady();
+    }
+
+    @Override
+    public double value(int output) {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        return switch (output) {
+            case MACD -> macd;
+            case SIGNAL -> signal.value(0);
+            case HISTOGRAM -> macd - signal.value(0);
+            default -> throw new IndexOutOfBoundsException(output);
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package com.leadiq.polygonapi.indicator;
+
+/**
+ * Wilder's relative strength index: the average gain and loss of the closes are seeded with their simple mean
+ * over the first {@code period} changes, then smoothed by {@code 1 / period}. Ready after {@code period + 1}
+ * bars.
+ */
+final class RelativeStrengthIndex implements Indicator {
+
+    private final int period;
+    private int changes;
+    private double previousClose = Double.NaN;
+    private double averageGain;
+    private double averageLoss;
+
+    RelativeStrengthIndex(int period) {
+        this.period = period;
+    }
+
+    @Override
+    public void append(double high, double low, double close) {
+        if (!Double.isNaN(previousClose)) {
+            double change = close - previousClose;
+            double gain = Math.max(change, 0);
+            double loss = Math.max(-change, 0);
+            if (changes < period) {
+                changes++;
+                averageGain += (gain - averageGain) / changes;
+                averageLoss += (loss - averageLoss) / changes;
+            } else {
+                averageGain += (gain - averageGain) / period;
+                averageLoss += (loss - averageLoss) / period;
+            }
+        }
+        previousClose = close;
+    }
+
+    @Override
+    public boolean isReady() {
+        return changes == period;
+    }
+
+    @Override
+    public double value(int output) {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        if (averageLoss == 0) {
+            return averageGain == 0 ? 50 : 100;
+        }
+        return 100 - 100 / (1 + averageGain / averageLoss);
+    }
+}
@@ -0,0 +1,42 @@
+package com.leadiq.polygonapi.indicator;
+
+/**
+ * Mean of the last {@code period} closes, kept as a running sum over a ring buffer of the window.
+ */
+final class SimpleMovingAverage implements Indicator {
+
+    private final double[] window;
+    private int next;
+    private int count;
+    private double sum;
+
+    SimpleMovingAverage(int period) {
+        this.window = new double[period];
+    }
+
+    @Override
+    public void append(double high, double low, double close) {
+        add(close);
+    }
+
+    void add(double value) {
+        if (count == window.length) {
+            sum -= window[next];
+        } else {
+            count++;
+        }
+        window[next] = value;
+        sum += value;
+        next = next + 1 == window.length ? 0 : next + 1;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == window.length;
+    }
+
+    @Override
+    public double value(int output) {
+        return isReady() ? sum / window.length : Double.NaN;
+    }
+}
@@ -0,0 +1,73 @@
+package com.leadiq.polygonapi.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reads and writes the single {@code cold_tier_state} row over plain JDBC. Every statement runs on the primary,
+ * since instances coordinate through it.
+ */
+@Repository
+public class ColdTierStateRepository {
+
+    private static final int ID = 1;
+
+    private static final String INSERT = "INSERT INTO cold_tier_state (id, directory_id) VALUES (?, ?)";
+
+    private static final String FIND_DIRECTORY_ID = "SELECT directory_id FROM cold_tier_state WHERE id = ?";
+
+    private static final String ACQUIRE_ARCHIVER =
+            "UPDATE cold_tier_state SET archiver = ?, archiver_until = ? " +
+            "WHERE id = ? AND (archiver IS NULL OR archiver = ? OR archiver_until < ?)";
+
+    private static final String RELEASE_ARCHIVER =
+            "UPDATE cold_tier_state SET archiver = NULL, archiver_until = NULL WHERE id = ? AND archiver = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ColdTierStateRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Registers the id of a cold tier directory unless one is registered already.
+     *
+     * @param directoryId the id stored in this instance's directory
+     * @return the registered id, which differs from {@code directoryId} if another directory was registered first
+     */
+    public String registerDirectory(String directoryId) {
+        try {
+            jdbcTemplate.update(INSERT, ID, directoryId);
+        } catch (DuplicateKeyException e) {
+            // Registered by an earlier start or another instance.
+        }
+        List<String> registered = jdbcTemplate.queryForList(FIND_DIRECTORY_ID, String.class, ID);
+        return registered.get(0);
+    }
+
+    /**
+     * Takes or renews the archiving lease. Within a transaction, the row stays locked until it ends, so other
+     * instances cannot take the lease meanwhile.
+     *
+     * @param owner the id of the instance
+     * @param lease how long the lease lasts unless renewed
+     * @return true if the instance holds the lease
+     */
+    public boolean acquireArchiver(String owner, Duration lease) {
+        long now = System.currentTimeMillis();
+        return jdbcTemplate.update(ACQUIRE_ARCHIVER, owner, now + lease.toMillis(), ID, owner, now) == 1;
+    }
+
+    /**
+     * Gives up the archiving lease if the instance holds it.
+     *
+     * @param owner the id of the instance
+     */
+    public void releaseArchiver(String owner) {
+        jdbcTemplate.update(RELEASE_ARCHIVER, ID, owner);
+    }
+}
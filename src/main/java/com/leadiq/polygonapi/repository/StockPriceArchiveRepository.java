@@ -0,0 +1,82 @@
+package com.leadiq.polygonapi.repository;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queries that move aged stock prices out of MySQL into the cold tier. They run on the primary, since rows
+ * are deleted right after they are read and a lagging replica could miss some.
+ */
+@Repository
+@Transactional(propagation = Propagation.MANDATORY)
+public class StockPriceArchiveRepository {
+
+    private static final String FIND_OLDEST_DATES =
+            "SELECT company_symbol, MIN(date) FROM stock_price WHERE date < ? " +
+            "GROUP BY company_symbol ORDER BY company_symbol";
+
+    private static final String LOCK_RANGE =
+            "SELECT company_symbol, date, open_price, close_price, high_price, low_price, volume FROM stock_price " +
+            "WHERE company_symbol = ? AND date BETWEEN ? AND ? ORDER BY date FOR UPDATE";
+
+    private static final String DELETE = "DELETE FROM stock_price WHERE company_symbol = ? AND date = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockPriceArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Finds the symbols with rows before a date, with the oldest date of each.
+     *
+     * @param cutoff the exclusive upper bound
+     * @return the oldest date per symbol, ordered by symbol
+     */
+    @Transactional
+    public Map<String, LocalDate> findOldestDatesBefore(LocalDate cutoff) {
+        Map<String, LocalDate> oldest = new LinkedHashMap<>();
+        jdbcTemplate.query(FIND_OLDEST_DATES,
+                rs -> {
+                    oldest.put(rs.getString(1), rs.getObject(2, LocalDate.class));
+                },
+                Date.valueOf(cutoff));
+        return oldest;
+    }
+
+    /**
+     * Reads the stock prices of a symbol within a date range and locks them until the surrounding transaction
+     * ends, so a concurrent upsert of the same rows waits for them to be archived and deleted.
+     *
+     * @param symbol the stock symbol
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @return the rows, oldest first
+     */
+    public List<StockPriceView> lockRange(String symbol, LocalDate fromDate, LocalDate toDate) {
+        return jdbcTemplate.query(LOCK_RANGE, StockPriceQueryRepository.ROW_MAPPER,
+                symbol, Date.valueOf(fromDate), Date.valueOf(toDate));
+    }
+
+    /**
+     * Deletes the given rows.
+     *
+     * @param rows the rows to delete, identified by (symbol, date)
+     * @param batchSize the maximum number of statements per JDBC batch
+     */
+    public void deleteAll(List<StockPriceView> rows, int batchSize) {
+        jdbcTemplate.batchUpdate(DELETE, rows, batchSize, (ps, row) -> {
+            ps.setString(1, row.symbol());
+            ps.setDate(2, Date.valueOf(row.date()));
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package com.leadiq.polygonapi.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Reads and writes {@code stock_price_block} rows: one compressed block of daily bars per symbol and year.
+ * The blocks are opaque here; the storage engine that reads them encodes and decodes them.
+ * <p>
+ * Reads follow {@link StockPriceQueryRepository}: they join a surrounding transaction if there is one and are
+ * otherwise marked read-only so the routing data source may send them to a replica.
+ */
+@Repository
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+public class StockPriceBlockRepository {
+
+    private static final String FIND_BLOCKS =
+            "SELECT block_year, data FROM stock_price_block WHERE company_symbol = ? AND block_year BETWEEN ? AND ? " +
+            "ORDER BY block_year LIMIT ?";
+
+    private static final String FIND_BLOCK =
+            "SELECT data FROM stock_price_block WHERE company_symbol = ? AND block_year = ?";
+
+    private static final String EXISTS_BY_SYMBOL =
+            "SELECT COUNT(*) FROM stock_price_block WHERE company_symbol = ?";
+
+    private static final String MYSQL_UPSERT =
+            "INSERT INTO stock_price_block (company_symbol, block_year, row_count, first_date, last_date, data) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE row_count = VALUES(row_count), first_date = VALUES(first_date), " +
+            "last_date = VALUES(last_date), data = VALUES(data)";
+
+    private static final String MERGE_UPSERT =
+            "MERGE INTO stock_price_block (company_symbol, block_year, row_count, first_date, last_date, data) " +
+            "KEY (company_symbol, block_year) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String upsertSql;
+
+    public StockPriceBlockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Streams the oldest blocks of a symbol within a range of years.
+     *
+     * @param symbol the stock symbol
+     * @param fromYear the first year (inclusive)
+     * @param toYear the last year (inclusive)
+     * @param maxBlocks the maximum number of blocks to stream
+     * @param consumer receives the year and the data of each block, oldest first
+     * @return the number of blocks streamed
+     */
+    public int forEachBlock(String symbol, int fromYear, int toYear, int maxBlocks, ObjIntConsumer<byte[]> consumer) {
+        int[] count = {0};
+        jdbcTemplate.query(FIND_BLOCKS, (ResultSet rs) -> {
+            consumer.accept(rs.getBytes(2), rs.getInt(1));
+            count[0]++;
+        }, symbol, fromYear, toYear, maxBlocks);
+        return count[0];
+    }
+
+    /**
+     * Finds the block of a symbol and year.
+     *
+     * @param symbol the stock symbol
+     * @param year the year
+     * @return the block, or empty if the year has no rows
+     */
+    public Optional<byte[]> findBlock(String symbol, int year) {
+        List<byte[]> blocks = jdbcTemplate.query(FIND_BLOCK, (rs, rowNum) -> rs.getBytes(1), symbol, year);
+        return blocks.stream().findFirst();
+    }
+
+    /**
+     * Returns whether a symbol has any block.
+     *
+     * @param symbol the stock symbol
+     * @return true if at least one block is stored
+     */
+    public boolean existsBySymbol(String symbol) {
+        Long count = jdbcTemplate.queryForObject(EXISTS_BY_SYMBOL, Long.class, symbol);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Inserts or replaces the block of a symbol and year.
+     *
+     * @param symbol the stock symbol
+     * @param year the year
+     * @param rowCount the number of rows in the block
+     * @param firstDate the date of the first row
+     * @param lastDate the date of the last row
+     * @param data the encoded block
+     */
+    @Transactional
+    public void upsert(String symbol, int year, int rowCount, LocalDate firstDate, LocalDate lastDate, byte[] data) {
+        jdbcTemplate.update(upsertSql(), symbol, year, rowCount, Date.valueOf(firstDate), Date.valueOf(lastDate), data);
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            sql = isMySql() ? MYSQL_UPSERT : MERGE_UPSERT;
+            upsertSql = sql;
+        }
+        return sql;
+    }
+
+    private boolean isMySql() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(
+                    jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+            return product != null && product.toLowerCase().contains("mysql");
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to determine database product for upserts", e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.leadiq.polygonapi.repository;
+
+import com.leadiq.polygonapi.config.ExportConfig;
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read-only stock price queries over plain JDBC, mapping each row straight into a {@link StockPriceView}.
+ * No entity, persistence context or dirty-checking snapshot is involved.
+ * <p>
+ * Methods join a surrounding transaction if there is one and otherwise run without starting one
+ * ({@code SUPPORTS}), but still mark the scope read-only so the routing data source sends them to a replica.
+ * The SQL is fixed per method so the driver's prepared-statement cache can reuse the statements.
+ */
+@Repository
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+public class StockPriceQueryRepository {
+
+    private static final String COLUMNS =
+            "company_symbol, date, open_price, close_price, high_price, low_price, volume";
+
+    private static final String FIND_BY_SYMBOL_AND_DATE =
+            "SELECT " + COLUMNS + " FROM stock_price WHERE company_symbol = ? AND date = ?";
+
+    private static final String FIND_RANGE_AFTER =
+            "SELECT " + COLUMNS + " FROM stock_price WHERE company_symbol = ? AND date > ? AND date <= ? " +
+            "ORDER BY date LIMIT ?";
+
+    static final RowMapper<StockPriceView> ROW_MAPPER = (rs, rowNum) -> new StockPriceView(
+            rs.getString(1),
+            rs.getObject(2, LocalDate.class),
+            rs.getObject(3, Double.class),
+            rs.getObject(4, Double.class),
+            rs.getObject(5, Double.class),
+            rs.getObject(6, Double.class),
+            rs.getObject(7, Long.class)
+    );
+
+    private static final String STREAM_RANGE =
+            "SELECT " + COLUMNS + " FROM stock_price WHERE company_symbol = ? AND date BETWEEN ? AND ? ORDER BY date";
+
+    private static final String STREAM_ALL = "SELECT " + COLUMNS + " FROM stock_price";
+
+    private static final String SUMMARY_COLUMNS =
+            "company_symbol, COUNT(*), MIN(date), MAX(date), MAX(high_price), MIN(low_price), AVG(close_price), " +
+            "SUM(volume)";
+
+    private static final String SUMMARIZE =
+            "SELECT " + SUMMARY_COLUMNS + " FROM stock_price WHERE date BETWEEN :fromDate AND :toDate " +
+            "GROUP BY company_symbol ORDER BY company_symbol";
+
+    private static final String SUMMARIZE_SYMBOLS =
+            "SELECT " + SUMMARY_COLUMNS + " FROM stock_price " +
+            "WHERE company_symbol IN (:symbols) AND date BETWEEN :fromDate AND :toDate " +
+            "GROUP BY company_symbol ORDER BY company_symbol";
+
+    /**
+     * Maps a summary row. Aggregates are read as plain numbers because their SQL types differ between
+     * databases (MySQL sums into DECIMAL).
+     */
+    private static final RowMapper<StockPriceSummary> SUMMARY_MAPPER = (rs, rowNum) -> new StockPriceSummary(
+            rs.getString(1),
+            rs.getLong(2),
+            rs.getObject(3, LocalDate.class),
+            rs.getObject(4, LocalDate.class),
+            doubleOrNull(rs.getObject(5)),
+            doubleOrNull(rs.getObject(6)),
+            doubleOrNull(rs.getObject(7)),
+            rs.getObject(8) == null ? null : ((Number) rs.getObject(8)).longValue()
+    );
+
+    private final JdbcClient jdbcClient;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public StockPriceQueryRepository(JdbcClient jdbcClient, DataSource dataSource, ExportConfig exportConfig) {
+        this.jdbcClient = jdbcClient;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(exportConfig.getFetchSize());
+    }
+
+    /**
+     * Finds the stock price of a symbol on a date.
+     *
+     * @param companySymbol the stock symbol
+     * @param date the trading day
+     * @return the stock price, or empty if none is stored
+     */
+    public Optional<StockPriceView> findBySymbolAndDate(String companySymbol, LocalDate date) {
+        return jdbcClient.sql(FIND_BY_SYMBOL_AND_DATE)
+                .param(companySymbol)
+                .param(date)
+                .query(ROW_MAPPER)
+                .optional();
+    }
+
+    /**
+     * Finds the stock prices of a symbol after a date and up to another, ordered by date.
+     *
+     * @param companySymbol the stock symbol
+     * @param afterDate the exclusive lower bound
+     * @param toDate the inclusive upper bound
+     * @param limit the maximum number of rows to return
+     * @return at most {@code limit} stock prices, oldest first
+     */
+    public List<StockPriceView> findRangeAfter(String companySymbol, LocalDate afterDate, LocalDate toDate, int limit) {
+        return jdbcClient.sql(FIND_RANGE_AFTER)
+                .param(companySymbol)
+                .param(afterDate)
+                .param(toDate)
+                .param(limit)
+                .query(ROW_MAPPER)
+                .list();
+    }
+
+    /**
+     * Streams the stock prices of a symbol within a date range, ordered by date, to a consumer.
+     * Rows are read from a database cursor {@code fetchSize} rows at a time (with MySQL this needs
+     * {@code useCursorFetch=true}), so memory use does not grow with the number of rows.
+     *
+     * @param companySymbol the stock symbol
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @param consumer receives each row in date order
+     */
+    public void streamRange(String companySymbol, LocalDate fromDate, LocalDate toDate,
+                            Consumer<StockPriceView> consumer) {
+        streamingJdbcTemplate.query(STREAM_RANGE, ps -> {
+            ps.setString(1, companySymbol);
+            ps.setObject(2, fromDate);
+            ps.setObject(3, toDate);
+        }, (ResultSet rs) -> consumer.accept(ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Streams every stored stock price to a consumer, in no particular order, over a database cursor.
+     *
+     * @param consumer receives each row
+     */
+    public void streamAll(Consumer<StockPriceView> consumer) {
+        streamingJdbcTemplate.query(STREAM_ALL,
+                (ResultSet rs) -> consumer.accept(ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Aggregates the stock prices of each symbol within a date range.
+     *
+     * @param symbols the stock symbols, or an empty collection for every stored symbol
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @return one summary per symbol with rows in the range, ordered by symbol
+     */
+    public List<StockPriceSummary> summarize(Collection<String> symbols, LocalDate fromDate, LocalDate toDate) {
+        JdbcClient.StatementSpec statement = symbols.isEmpty()
+                ? jdbcClient.sql(SUMMARIZE)
+                : jdbcClient.sql(SUMMARIZE_SYMBOLS).param("symbols", symbols);
+
+        return statement
+                .param("fromDate", fromDate)
+                .param("toDate", toDate)
+                .query(SUMMARY_MAPPER)
+                .list();
+    }
+
+    private static Double doubleOrNull(Object value) {
+        return value == null ? null : ((Number) value).doubleValue();
+    }
+}
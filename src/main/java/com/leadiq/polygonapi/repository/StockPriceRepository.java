@@ -1,17 +1,27 @@
 package com.leadiq.polygonapi.repository;
 
+import com.leadiq.polygonapi.dto.StockPriceView;
 import com.leadiq.polygonapi.entity.StockPrice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for accessing and managing {@link StockPrice} entities.
  * Extends the {@link JpaRepository} to provide CRUD operations and query execution capabilities.
+ * Query methods run in read-only transactions so they can be routed to a read replica;
+ * the inherited write operations keep their own read-write transactions.
  */
+@Transactional(readOnly = true)
 public interface StockPriceRepository extends JpaRepository<StockPrice, Long> {
     Optional<StockPrice> findByCompanySymbolAndDate(String companySymbol, LocalDate date);
 
@@ -30,4 +40,57 @@ public interface StockPriceRepository extends JpaRepository<StockPrice, Long> {
         LocalDate toDate,
         Pageable pageable
     );
-}
\ No newline at end of file
+
+    /**
+     * Finds stock prices for a specific company symbol within a date range without counting the total.
+     * Fetches one row more than the page size to tell whether a next slice exists.
+     *
+     * @param companySymbol the stock symbol to search for
+     * @param fromDate the start date of the range (inclusive)
+     * @param toDate the end date of the range (inclusive)
+     * @param pageable pagination information
+     * @return a Slice of StockPrice entities matching the criteria
+     */
+    Slice<StockPrice> findSliceByCompanySymbolAndDateBetween(
+        String companySymbol,
+        LocalDate fromDate,
+        LocalDate toDate,
+        Pageable pageable
+    );
+
+    /**
+     * Finds every date stored for a company symbol.
+     *
+     * @param companySymbol the stock symbol to search for
+     * @return the stored dates, oldest first
+     */
+    @Query("select s.date from StockPrice s where s.companySymbol = :companySymbol order by s.date")
+    List<LocalDate> findDatesByCompanySymbol(@Param("companySymbol") String companySymbol);
+
+    /**
+     * Finds the whole stored history of a company symbol as read models, in date order, without
+     * managing entities.
+     *
+     * @param companySymbol the stock symbol to search for
+     * @return every stored stock price of the symbol, ordered by date
+     */
+    @Query("select new com.leadiq.polygonapi.dto.StockPriceView(s.companySymbol, s.date, s.openPrice, "
+            + "s.closePrice, s.highPrice, s.lowPrice, s.volume) "
+            + "from StockPrice s where s.companySymbol = :companySymbol order by s.date")
+    List<StockPriceView> findViewsByCompanySymbol(@Param("companySymbol") String companySymbol);
+
+    /**
+     * Finds the stock prices of every combination of the given company symbols and dates in one query, served by
+     * the (company_symbol, date) unique index, as read models without managing entities. Combinations without a
+     * stored row are simply absent.
+     *
+     * @param companySymbols the stock symbols to search for
+     * @param dates the dates to search for
+     * @return the stored stock prices, in no particular order
+     */
+    @Query("select new com.leadiq.polygonapi.dto.StockPriceView(s.companySymbol, s.date, s.openPrice, "
+            + "s.closePrice, s.highPrice, s.lowPrice, s.volume) "
+            + "from StockPrice s where s.companySymbol in :companySymbols and s.date in :dates")
+    List<StockPriceView> findViewsByCompanySymbolInAndDateIn(@Param("companySymbols") Collection<String> companySymbols,
+                                                             @Param("dates") Collection<LocalDate> dates);
+}
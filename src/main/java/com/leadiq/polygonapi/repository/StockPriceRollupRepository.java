@@ -0,0 +1,142 @@
+package com.leadiq.polygonapi.repository;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPriceRollup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reads and writes {@code stock_price_rollup} rows over plain JDBC. Candles are read as {@link StockPriceView}s
+ * dated by the first day of their period, so they travel through the same encodings as daily rows.
+ * <p>
+ * Reads follow {@link StockPriceQueryRepository}: they join a surrounding transaction if there is one and are
+ * otherwise marked read-only so the routing data source may send them to a replica.
+ */
+@Repository
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+public class StockPriceRollupRepository {
+
+    private static final String FIND_RANGE_AFTER =
+            "SELECT company_symbol, period_start, open_price, close_price, high_price, low_price, volume " +
+            "FROM stock_price_rollup WHERE company_symbol = ? AND bar_interval = ? " +
+            "AND period_start > ? AND period_start <= ? ORDER BY period_start LIMIT ?";
+
+    private static final String EXISTS_BY_SYMBOL =
+            "SELECT COUNT(*) FROM stock_price_rollup WHERE company_symbol = ?";
+
+    private static final String MYSQL_UPSERT =
+            "INSERT INTO stock_price_rollup (company_symbol, bar_interval, period_start, last_date, trading_days, " +
+            "open_price, close_price, high_price, low_price, volume) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE last_date = VALUES(last_date), trading_days = VALUES(trading_days), " +
+            "open_price = VALUES(open_price), close_price = VALUES(close_price), " +
+            "high_price = VALUES(high_price), low_price = VALUES(low_price), volume = VALUES(volume)";
+
+    private static final String MERGE_UPSERT =
+            "MERGE INTO stock_price_rollup (company_symbol, bar_interval, period_start, last_date, trading_days, " +
+            "open_price, close_price, high_price, low_price, volume) " +
+            "KEY (company_symbol, bar_interval, period_start) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String upsertSql;
+
+    public StockPriceRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Finds the candles of a symbol whose period starts after a date and up to another, ordered by period.
+     *
+     * @param companySymbol the stock symbol
+     * @param barInterval the interval name, e.g. {@code MONTH}
+     * @param afterDate the exclusive lower bound on the period start
+     * @param toDate the inclusive upper bound on the period start
+     * @param limit the maximum number of candles to return
+     * @return at most {@code limit} candles, oldest first
+     */
+    public List<StockPriceView> findRangeAfter(String companySymbol, String barInterval, LocalDate afterDate,
+                                               LocalDate toDate, int limit) {
+        return jdbcTemplate.query(FIND_RANGE_AFTER, StockPriceQueryRepository.ROW_MAPPER,
+                companySymbol, barInterval, Date.valueOf(afterDate), Date.valueOf(toDate), limit);
+    }
+
+    /**
+     * Returns whether a symbol has any candle.
+     *
+     * @param companySymbol the stock symbol
+     * @return true if at least one candle is stored
+     */
+    public boolean existsBySymbol(String companySymbol) {
+        Long count = jdbcTemplate.queryForObject(EXISTS_BY_SYMBOL, Long.class, companySymbol);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Inserts or replaces candles in one batch.
+     *
+     * @param rollups the candles to write
+     */
+    @Transactional
+    public void upsertAll(List<StockPriceRollup> rollups) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(upsertSql(), rollups, rollups.size(), this::bind);
+    }
+
+    private void bind(PreparedStatement ps, StockPriceRollup rollup) throws SQLException {
+        ps.setString(1, rollup.getCompanySymbol());
+        ps.setString(2, rollup.getBarInterval());
+        ps.setDate(3, Date.valueOf(rollup.getPeriodStart()));
+        ps.setDate(4, Date.valueOf(rollup.getLastDate()));
+        ps.setInt(5, rollup.getTradingDays());
+        setDouble(ps, 6, rollup.getOpenPrice());
+        setDouble(ps, 7, rollup.getClosePrice());
+        setDouble(ps, 8, rollup.getHighPrice());
+        setDouble(ps, 9, rollup.getLowPrice());
+        if (rollup.getVolume() == null) {
+            ps.setNull(10, Types.BIGINT);
+        } else {
+            ps.setLong(10, rollup.getVolume());
+        }
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.DOUBLE);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            sql = isMySql() ? MYSQL_UPSERT : MERGE_UPSERT;
+            upsertSql = sql;
+        }
+        return sql;
+    }
+
+    private boolean isMySql() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(
+                    jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+            return product != null && product.toLowerCase().contains("mysql");
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to determine database product for upserts", e);
+        }
+    }
+}
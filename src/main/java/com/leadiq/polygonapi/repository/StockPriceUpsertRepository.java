@@ -0,0 +1,97 @@
+package com.leadiq.polygonapi.repository;
+
+import com.leadiq.polygonapi.entity.StockPrice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Writes {@link StockPrice} rows with plain JDBC batched upserts keyed on (company_symbol, date).
+ * Unlike {@code saveAll}, re-ingesting an existing day updates the row instead of violating the unique key,
+ * and the inserts are sent as JDBC batches (identity ids prevent hibernate from batching them).
+ */
+@Repository
+public class StockPriceUpsertRepository {
+
+    private static final String MYSQL_UPSERT =
+            "INSERT INTO stock_price (company_symbol, date, open_price, close_price, high_price, low_price, volume) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE open_price = VALUES(open_price), close_price = VALUES(close_price), " +
+            "high_price = VALUES(high_price), low_price = VALUES(low_price), volume = VALUES(volume)";
+
+    private static final String MERGE_UPSERT =
+            "MERGE INTO stock_price (company_symbol, date, open_price, close_price, high_price, low_price, volume) " +
+            "KEY (company_symbol, date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String upsertSql;
+
+    public StockPriceUpsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts or updates the given rows in one transaction, in JDBC batches of {@code batchSize}.
+     *
+     * @param stockPrices the rows to write; at most one row per (symbol, date)
+     * @param batchSize the maximum number of statements per JDBC batch
+     */
+    @Transactional
+    public void upsertAll(List<StockPrice> stockPrices, int batchSize) {
+        if (stockPrices.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(upsertSql(), stockPrices, batchSize, this::bind);
+    }
+
+    private void bind(PreparedStatement ps, StockPrice stockPrice) throws SQLException {
+        ps.setString(1, stockPrice.getCompanySymbol());
+        ps.setDate(2, Date.valueOf(stockPrice.getDate()));
+        setDouble(ps, 3, stockPrice.getOpenPrice());
+        setDouble(ps, 4, stockPrice.getClosePrice());
+        setDouble(ps, 5, stockPrice.getHighPrice());
+        setDouble(ps, 6, stockPrice.getLowPrice());
+        if (stockPrice.getVolume() == null) {
+            ps.setNull(7, Types.BIGINT);
+        } else {
+            ps.setLong(7, stockPrice.getVolume());
+        }
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.DOUBLE);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            sql = isMySql() ? MYSQL_UPSERT : MERGE_UPSERT;
+            upsertSql = sql;
+        }
+        return sql;
+    }
+
+    private boolean isMySql() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(
+                    jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+            return product != null && product.toLowerCase().contains("mysql");
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to determine database product for upserts", e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes stock prices as an Arrow IPC stream of ZSTD-compressed record batches.
+ * Rows are appended straight into off-heap column vectors, which are written out and reused
+ * every {@code batchSize} rows, so memory use is bounded by one batch.
+ */
+final class ArrowStockPriceWriter implements StockPriceRowWriter {
+
+    static final Schema SCHEMA = new Schema(List.of(
+            new Field("symbol", FieldType.notNullable(ArrowType.Utf8.INSTANCE), null),
+            new Field("date", FieldType.notNullable(new ArrowType.Date(DateUnit.DAY)), null),
+            Field.nullable("open_price", new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)),
+            Field.nullable("close_price", new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)),
+            Field.nullable("high_price", new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)),
+            Field.nullable("low_price", new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)),
+            Field.nullable("volume", new ArrowType.Int(64, true))
+    ));
+
+    private final BufferAllocator allocator;
+    private final VectorSchemaRoot root;
+    private final ArrowStreamWriter writer;
+    private final int batchSize;
+
+    private final VarCharVector symbol;
+    private final DateDayVector date;
+    private final Float8Vector openPrice;
+    private final Float8Vector closePrice;
+    private final Float8Vector highPrice;
+    private final Float8Vector lowPrice;
+    private final BigIntVector volume;
+
+    private byte[] lastSymbol = new byte[0];
+    private String lastSymbolText;
+    private int rows;
+
+    ArrowStockPriceWriter(BufferAllocator allocator, int batchSize, OutputStream out) throws IOException {
+        this.allocator = allocator;
+        this.batchSize = batchSize;
+        this.root = VectorSchemaRoot.create(SCHEMA, allocator);
+        this.symbol = (VarCharVector) root.getVector("symbol");
+        this.date = (DateDayVector) root.getVector("date");
+        this.openPrice = (Float8Vector) root.getVector("open_price");
+        this.closePrice = (Float8Vector) root.getVector("close_price");
+        this.highPrice = (Float8Vector) root.getVector("high_price");
+        this.lowPrice = (Float8Vector) root.getVector("low_price");
+        this.volume = (BigIntVector) root.getVector("volume");
+
+        root.getFieldVectors().forEach(vector -> vector.setInitialCapacity(batchSize));
+        root.allocateNew();
+
+        this.writer = new ArrowStreamWriter(root, null, Channels.newChannel(out), IpcOption.DEFAULT,
+                CommonsCompressionFactory.INSTANCE, CompressionUtil.CodecType.ZSTD);
+        writer.start();
+    }
+
+    @Override
+    public void write(StockPriceView row) throws IOException {
+        symbol.setSafe(rows, symbolBytes(row.symbol()));
+        date.setSafe(rows, Math.toIntExact(row.date().toEpochDay()));
+        setDouble(openPrice, row.openPrice());
+        setDouble(closePrice, row.closePrice());
+        setDouble(highPrice, row.highPrice());
+        setDouble(lowPrice, row.lowPrice());
+        if (row.volume() == null) {
+            volume.setNull(rows);
+        } else {
+            volume.setSafe(rows, row.volume());
+        }
+
+        if (++rows == batchSize) {
+            writeBatch();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rows > 0) {
+                writeBatch();
+            }
+            writer.end();
+        } finally {
+            root.close();
+            allocator.close();
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        root.setRowCount(rows);
+        writer.writeBatch();
+        root.getFieldVectors().forEach(FieldVector::reset);
+        rows = 0;
+    }
+
+    private void setDouble(Float8Vector vector, Double value) {
+        if (value == null) {
+            vector.setNull(rows);
+        } else {
+            vector.setSafe(rows, value);
+        }
+    }
+
+    /** Exports are grouped by symbol, so the encoded symbol is reused until it changes. */
+    private byte[] symbolBytes(String value) {
+        if (!value.equals(lastSymbolText)) {
+            lastSymbolText = value;
+            lastSymbol = value.getBytes(StandardCharsets.UTF_8);
+        }
+        return lastSymbol;
+    }
+}
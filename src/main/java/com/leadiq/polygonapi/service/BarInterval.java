@@ -0,0 +1,68 @@
+package com.leadiq.polygonapi.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Candle intervals served by the range endpoint. {@code DAY} returns the stored daily rows; the others return
+ * the rollups maintained by {@link StockPriceRollupService}, one candle per calendar period.
+ */
+public enum BarInterval {
+    DAY,
+    /** ISO weeks, starting on Monday. */
+    WEEK,
+    MONTH,
+    QUARTER,
+    YEAR;
+
+    /**
+     * Returns the first day of the period containing a date.
+     *
+     * @param date a day within the period
+     * @return the first calendar day of the period
+     */
+    public LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case QUARTER -> LocalDate.of(date.getYear(), (date.getMonthValue() - 1) / 3 * 3 + 1, 1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * Returns the last day of the period containing a date.
+     *
+     * @param date a day within the period
+     * @return the last calendar day of the period
+     */
+    public LocalDate periodEnd(LocalDate date) {
+        LocalDate start = periodStart(date);
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> start.plusDays(6);
+            case MONTH -> start.plusMonths(1).minusDays(1);
+            case QUARTER -> start.plusMonths(3).minusDays(1);
+            case YEAR -> start.plusYears(1).minusDays(1);
+        };
+    }
+
+    /**
+     * Resolves an interval from its case-insensitive name.
+     *
+     * @param name the interval name, e.g. {@code month}
+     * @return the matching interval
+     * @throws IllegalArgumentException if the interval is not supported
+     */
+    public static BarInterval from(String name) {
+        for (BarInterval interval : values()) {
+            if (interval.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported interval: " + name);
+    }
+}
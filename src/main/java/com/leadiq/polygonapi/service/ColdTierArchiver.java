@@ -0,0 +1,145 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.config.StorageConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.repository.ColdTierStateRepository;
+import com.leadiq.polygonapi.repository.StockPriceArchiveRepository;
+import com.leadiq.polygonapi.storage.ColdStockPriceTier;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that moves stock prices older than {@code polygon.storage.cold.hot-period} from MySQL into the
+ * {@link ColdStockPriceTier}, one symbol and year at a time.
+ * <p>
+ * Each (symbol, year) is moved in its own transaction: the rows are read with a row lock, merged into the year's
+ * Parquet file and deleted. An upsert of one of those rows waits for the lock and then inserts it again, so the
+ * newer value lands in the hot tier, which wins over the archive on reads. If the transaction fails after the
+ * file was written, the rows stay in both tiers until the next run moves them again.
+ * <p>
+ * Only one instance archives at a time: a run first takes a lease in {@code cold_tier_state} and skips if
+ * another instance holds it. Each (symbol, year) transaction renews the lease, which keeps the row locked until
+ * it commits, so two instances never rewrite the shared files at once. A run that lost its lease stops.
+ */
+@Component
+@ConditionalOnProperty(name = "polygon.storage.cold.enabled", havingValue = "true")
+public class ColdTierArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColdTierArchiver.class);
+
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final StorageConfig.Cold config;
+    private final StockPriceArchiveRepository archiveRepository;
+    private final ColdTierStateRepository stateRepository;
+    private final ColdStockPriceTier coldTier;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService scheduler;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public ColdTierArchiver(StorageConfig storageConfig,
+                            StockPriceArchiveRepository archiveRepository,
+                            ColdTierStateRepository stateRepository,
+                            ColdStockPriceTier coldTier,
+                            PlatformTransactionManager transactionManager) {
+        this.config = storageConfig.getCold();
+        this.archiveRepository = archiveRepository;
+        this.stateRepository = stateRepository;
+        this.coldTier = coldTier;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-price-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, config.getArchiveInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::archiveAged, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Moves every row before a date to the cold tier, unless another instance is archiving.
+     *
+     * @param cutoff the exclusive upper bound of the rows to move
+     * @return the number of rows moved
+     */
+    public long archiveBefore(LocalDate cutoff) {
+        if (!stateRepository.acquireArchiver(instanceId, config.getArchiverLease())) {
+            logger.info("Skipping the cold tier run, another instance is archiving");
+            return 0;
+        }
+
+        try {
+            Map<String, LocalDate> oldestDates = transactionTemplate.execute(
+                    status -> archiveRepository.findOldestDatesBefore(cutoff));
+            LocalDate lastDate = cutoff.minusDays(1);
+            long moved = 0;
+
+            for (Map.Entry<String, LocalDate> oldest : oldestDates.entrySet()) {
+                String symbol = oldest.getKey();
+                for (int year = oldest.getValue().getYear(); year <= lastDate.getYear(); year++) {
+                    Integer rows = archiveYear(symbol, year, lastDate);
+                    if (rows == null) {
+                        logger.warn("Stopping the cold tier run after {} records, its lease was taken over", moved);
+                        return moved;
+                    }
+                    moved += rows;
+                }
+            }
+
+            logger.info("Moved {} stock price records of {} symbols before {} to the cold tier",
+                    moved, oldestDates.size(), cutoff);
+            return moved;
+        } finally {
+            stateRepository.releaseArchiver(instanceId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void archiveAged() {
+        try {
+            archiveBefore(LocalDate.now().minus(config.getHotPeriod()));
+        } catch (RuntimeException e) {
+            logger.error("Error moving stock prices to the cold tier", e);
+        }
+    }
+
+    /**
+     * Moves the rows of one symbol and year.
+     *
+     * @return the number of rows moved, or null if the lease was lost
+     */
+    private Integer archiveYear(String symbol, int year, LocalDate lastDate) {
+        LocalDate toDate = LocalDate.of(year, 12, 31);
+        LocalDate last = toDate.isAfter(lastDate) ? lastDate : toDate;
+
+        return transactionTemplate.execute(status -> {
+            if (!stateRepository.acquireArchiver(instanceId, config.getArchiverLease())) {
+                return null;
+            }
+            List<StockPriceView> rows = archiveRepository.lockRange(symbol, LocalDate.of(year, 1, 1), last);
+            if (!rows.isEmpty()) {
+                coldTier.archive(symbol, year, rows);
+                archiveRepository.deleteAll(rows, DELETE_BATCH_SIZE);
+            }
+            return rows.size();
+        });
+    }
+}
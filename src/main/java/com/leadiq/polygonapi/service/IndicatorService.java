@@ -0,0 +1,271 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.config.IndicatorConfig;
+import com.leadiq.polygonapi.dto.IndicatorSeries;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.indicator.Indicator;
+import com.leadiq.polygonapi.indicator.IndicatorType;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Computes technical indicators over a symbol's whole stored history and caches each computed series per symbol,
+ * indicator and parameter set, together with the indicator's running state.
+ * <p>
+ * Ingested rows later than the last cached bar are appended to the running state, which costs constant time per
+ * bar. A row on or before the last cached bar, such as a corrected day, drops the cached series so it is
+ * recomputed on next read. Series are recomputed after the configured TTL so rows written by other instances
+ * show up, and the least recently read series are dropped beyond the configured count.
+ * <p>
+ * A series computed while rows of its symbol were recorded is returned but not cached, since it may miss them.
+ * Writes are counted per stripe of symbols, so a write of another symbol in the stripe may also skip caching.
+ * <p>
+ * Bars without a close are skipped; a missing high or low is taken to be the close.
+ */
+@Service
+public class IndicatorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndicatorService.class);
+
+    private final IndicatorConfig config;
+    private final StockPriceStorage stockPriceStorage;
+    private final SymbolSeriesStore symbolSeriesStore;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray writes = new AtomicLongArray(SymbolLocks.STRIPES);
+
+    public IndicatorService(IndicatorConfig config,
+                            StockPriceStorage stockPriceStorage,
+                            SymbolSeriesStore symbolSeriesStore,
+                            ReadYourWritesGuard readYourWritesGuard) {
+        this.config = config;
+        this.stockPriceStorage = stockPriceStorage;
+        this.symbolSeriesStore = symbolSeriesStore;
+        this.readYourWritesGuard = readYourWritesGuard;
+    }
+
+    /**
+     * Returns an indicator of a symbol within a date range. The indicator is computed from the start of the
+     * symbol's history, so values near {@code fromDate} do not depend on where the range starts.
+     *
+     * @param symbol the stock symbol
+     * @param type the indicator
+     * @param params the indicator's parameters; omitted trailing parameters take their defaults
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @return the indicator's values on the trading days of the range past its warm-up period
+     * @throws IllegalArgumentException if the parameters are invalid
+     */
+    public IndicatorSeries getIndicator(String symbol, IndicatorType type, List<Double> params,
+                                        LocalDate fromDate, LocalDate toDate) {
+        double[] resolved = type.resolveParams(params);
+        Key key = new Key(symbol, type, Arrays.stream(resolved).boxed().toList());
+        Entry entry = load(key, resolved);
+
+        Map<String, Double> paramsByName = new LinkedHashMap<>();
+        for (int i = 0; i < resolved.length; i++) {
+            paramsByName.put(type.paramNames().get(i), resolved[i]);
+        }
+        return entry.slice(symbol, type, paramsByName, fromDate, toDate);
+    }
+
+    /**
+     * Appends freshly written rows to the cached series of their symbols. Must be called after the configured
+     * storage has recorded the rows, since dropped series are recomputed from it.
+     *
+     * @param stockPrices the rows that were just committed
+     */
+    public void recordWrites(Collection<StockPrice> stockPrices) {
+        Map<String, List<StockPrice>> bySymbol = new LinkedHashMap<>();
+        for (StockPrice stockPrice : stockPrices) {
+            bySymbol.computeIfAbsent(stockPrice.getCompanySymbol(), symbol -> new ArrayList<>()).add(stockPrice);
+        }
+        bySymbol.keySet().forEach(symbol -> writes.incrementAndGet(SymbolLocks.stripe(symbol)));
+        if (entries.isEmpty()) {
+            return;
+        }
+        bySymbol.values().forEach(rows -> rows.sort(Comparator.comparing(StockPrice::getDate)));
+
+        for (Key key : entries.keySet()) {
+            List<StockPrice> rows = bySymbol.get(key.symbol());
+            if (rows != null) {
+                entries.computeIfPresent(key, (ignored, entry) -> entry.append(rows) ? entry : null);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cached series.
+     *
+     * @return the count of cached series
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private Entry load(Key key, double[] params) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - now > 0) {
+            entry.lastRead = now;
+            return entry;
+        }
+
+        long writesBefore = writes.get(SymbolLocks.stripe(key.symbol()));
+        SymbolSeries series = symbolSeriesStore.isEnabled()
+                ? symbolSeriesStore.range(key.symbol(), StockPriceStorage.FIRST_DAY, StockPriceStorage.LAST_DAY).series()
+                : SymbolSeries.of(key.symbol(), readYourWritesGuard.read(key.symbol(),
+                        () -> stockPriceStorage.findBySymbol(key.symbol())));
+
+        Entry loaded = new Entry(key.type().create(params), key.type().outputs().size(),
+                series.size(), now + config.getTtl().toNanos());
+        for (int i = 0; i < series.size(); i++) {
+            loaded.append(series.epochDay(i), series.high(i), series.low(i), series.close(i));
+        }
+        loaded.lastRead = now;
+
+        Entry cached = entries.compute(key, (ignored, current) ->
+                writes.get(SymbolLocks.stripe(key.symbol())) == writesBefore ? loaded : current);
+        if (cached == loaded) {
+            evictColdSeries(key);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the least recently read series until the cache fits its limit, sparing the series being read.
+     */
+    private void evictColdSeries(Key keep) {
+        while (entries.size() > config.getMaxSeries()) {
+            Key coldest = null;
+            long coldestRead = 0;
+            for (Map.Entry<Key, Entry> candidate : entries.entrySet()) {
+                if (candidate.getKey().equals(keep)) {
+                    continue;
+                }
+                if (coldest == null || candidate.getValue().lastRead - coldestRead < 0) {
+                    coldest = candidate.getKey();
+                    coldestRead = candidate.getValue().lastRead;
+                }
+            }
+            if (coldest == null) {
+                return;
+            }
+            logger.debug("Evicting indicator series {} to stay within {} series", coldest, config.getMaxSeries());
+            entries.remove(coldest);
+        }
+    }
+
+    private record Key(String symbol, IndicatorType type, List<Double> params) {
+    }
+
+    /**
+     * A computed series in growable columns, holding only bars past the warm-up period, and the indicator state
+     * as of its last bar.
+     */
+    private static final class Entry {
+
+        private final Indicator indicator;
+        private final long expiresAt;
+        private int[] epochDays;
+        private double[][] values;
+        private int size;
+        private long lastEpochDay = Long.MIN_VALUE;
+        private volatile long lastRead;
+
+        Entry(Indicator indicator, int outputs, int capacity, long expiresAt) {
+            this.indicator = indicator;
+            this.expiresAt = expiresAt;
+            this.epochDays = new int[Math.max(capacity, 16)];
+            this.values = new double[outputs][epochDays.length];
+        }
+
+        /**
+         * Appends rows sorted by date.
+         *
+         * @return false if a row is not later than the last bar, in which case the entry must be dropped
+         */
+        synchronized boolean append(List<StockPrice> rows) {
+            for (StockPrice row : rows) {
+                int epochDay = Math.toIntExact(row.getDate().toEpochDay());
+                if (epochDay <= lastEpochDay) {
+                    return false;
+                }
+                append(epochDay, orNaN(row.getHighPrice()), orNaN(row.getLowPrice()), orNaN(row.getClosePrice()));
+            }
+            return true;
+        }
+
+        synchronized void append(int epochDay, double high, double low, double close) {
+            lastEpochDay = epochDay;
+            if (Double.isNaN(close)) {
+                return;
+            }
+            indicator.append(Double.isNaN(high) ? close : high, Double.isNaN(low) ? close : low, close);
+            if (!indicator.isReady()) {
+                return;
+            }
+
+            if (size == epochDays.length) {
+                int capacity = size + (size >> 1);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                for (int output = 0; output < values.length; output++) {
+                    values[output] = Arrays.copyOf(values[output], capacity);
+                }
+            }
+            epochDays[size] = epochDay;
+            for (int output = 0; output < values.length; output++) {
+                values[output][size] = indicator.value(output);
+            }
+            size++;
+        }
+
+        synchronized IndicatorSeries slice(String symbol, IndicatorType type, Map<String, Double> params,
+                                           LocalDate fromDate, LocalDate toDate) {
+            int start = lowerBound(fromDate.toEpochDay());
+            int end = lowerBound(toDate.toEpochDay() + 1);
+
+            List<LocalDate> dates = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                dates.add(LocalDate.ofEpochDay(epochDays[i]));
+            }
+            Map<String, double[]> columns = new LinkedHashMap<>();
+            for (int output = 0; output < values.length; output++) {
+                columns.put(type.outputs().get(output), Arrays.copyOfRange(values[output], start, end));
+            }
+            return new IndicatorSeries(symbol, type.name().toLowerCase(Locale.ROOT), params, dates, columns);
+        }
+
+        private int lowerBound(long epochDay) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (epochDays[mid] < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static double orNaN(Double price) {
+            return price == null ? Double.NaN : price;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.bytes.DirectByteBufferAllocator;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Writes stock prices as a Parquet file straight onto a (non-seekable) output stream.
+ * Rows are written into the column writers as they arrive; each row group is buffered off-heap
+ * up to {@code rowGroupSize} bytes and then flushed, so memory use is bounded by one row group.
+ */
+public final class ParquetStockPriceWriter implements StockPriceRowWriter {
+
+    public static final MessageType SCHEMA = Types.buildMessage()
+            .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("symbol")
+            .required(PrimitiveTypeName.INT32).as(LogicalTypeAnnotation.dateType()).named("date")
+            .optional(PrimitiveTypeName.DOUBLE).named("open_price")
+            .optional(PrimitiveTypeName.DOUBLE).named("close_price")
+            .optional(PrimitiveTypeName.DOUBLE).named("high_price")
+            .optional(PrimitiveTypeName.DOUBLE).named("low_price")
+            .optional(PrimitiveTypeName.INT64).named("volume")
+            .named("stock_price");
+
+    private final ParquetWriter<StockPriceView> writer;
+
+    public ParquetStockPriceWriter(OutputStream out, CompressionCodecName codec, long rowGroupSize) throws IOException {
+        this.writer = new Builder(new StreamOutputFile(out))
+                .withConf(new PlainParquetConfiguration())
+                .withCompressionCodec(codec)
+                .withRowGroupSize(rowGroupSize)
+                .withAllocator(new DirectByteBufferAllocator())
+                .build();
+    }
+
+    @Override
+    public void write(StockPriceView row) throws IOException {
+        writer.write(row);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private static final class Builder extends ParquetWriter.Builder<StockPriceView, Builder> {
+
+        private Builder(OutputFile file) {
+            super(file);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<StockPriceView> getWriteSupport(Configuration conf) {
+            return new StockPriceWriteSupport();
+        }
+
+        @Override
+        protected WriteSupport<StockPriceView> getWriteSupport(ParquetConfiguration conf) {
+            return new StockPriceWriteSupport();
+        }
+    }
+
+    private static final class StockPriceWriteSupport extends WriteSupport<StockPriceView> {
+
+        private RecordConsumer consumer;
+
+        @Override
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(SCHEMA, Map.of());
+        }
+
+        @Override
+        public WriteContext init(ParquetConfiguration configuration) {
+            return new WriteContext(SCHEMA, Map.of());
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.consumer = recordConsumer;
+        }
+
+        @Override
+        public void write(StockPriceView row) {
+            consumer.startMessage();
+            consumer.startField("symbol", 0);
+            consumer.addBinary(Binary.fromString(row.symbol()));
+            consumer.endField("symbol", 0);
+            consumer.startField("date", 1);
+            consumer.addInteger(Math.toIntExact(row.date().toEpochDay()));
+            consumer.endField("date", 1);
+            writeDouble("open_price", 2, row.openPrice());
+            writeDouble("close_price", 3, row.closePrice());
+            writeDouble("high_price", 4, row.highPrice());
+            writeDouble("low_price", 5, row.lowPrice());
+            if (row.volume() != null) {
+                consumer.startField("volume", 6);
+                consumer.addLong(row.volume());
+                consumer.endField("volume", 6);
+            }
+            consumer.endMessage();
+        }
+
+        private void writeDouble(String field, int index, Double value) {
+            if (value != null) {
+                consumer.startField(field, index);
+                consumer.addDouble(value);
+                consumer.endField(field, index);
+            }
+        }
+    }
+
+    /**
+     * Parquet output over a plain stream: Parquet only needs the current position to write its footer,
+     * so the file can be streamed to the client without a temporary file.
+     */
+    private static final class StreamOutputFile implements OutputFile {
+
+        private final OutputStream out;
+
+        private StreamOutputFile(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new PositionOutputStream() {
+                private long position;
+
+                @Override
+                public long getPos() {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    position += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    out.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    out.flush();
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+}
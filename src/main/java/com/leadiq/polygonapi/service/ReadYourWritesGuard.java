@@ -0,0 +1,90 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.config.ReadWriteRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps reads consistent with recent writes when read-only transactions are routed to replicas.
+ * After a symbol is written, reads for it are pinned to the primary for the configured window,
+ * which covers the replication lag of the replicas. Does nothing when routing is disabled.
+ */
+@Component
+public class ReadYourWritesGuard {
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesGuard(DataSourceRoutingConfig routingConfig) {
+        this.enabled = routingConfig.isEnabled();
+        this.windowNanos = routingConfig.getReadYourWritesWindow().toNanos();
+    }
+
+    /**
+     * Records that rows for the given symbol were just committed on the primary.
+     *
+     * @param symbol the stock symbol that was written
+     */
+    public void recordWrite(String symbol) {
+        if (enabled) {
+            pinnedUntil.put(symbol, System.nanoTime() + windowNanos);
+        }
+    }
+
+    /**
+     * Returns whether reads for the given symbol must still go to the primary.
+     *
+     * @param symbol the stock symbol about to be read
+     * @return true if the symbol was written within the read-your-writes window
+     */
+    public boolean requiresPrimary(String symbol) {
+        if (!enabled) {
+            return false;
+        }
+
+        Long until = pinnedUntil.get(symbol);
+        if (until == null) {
+            return false;
+        }
+
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+
+        pinnedUntil.remove(symbol, until);
+        return false;
+    }
+
+    /**
+     * Runs a read for the given symbol, on the primary if the symbol was recently written.
+     *
+     * @param symbol the stock symbol being read
+     * @param query the repository call to run
+     * @return the result of the query
+     */
+    public <T> T read(String symbol, Supplier<T> query) {
+        return requiresPrimary(symbol) ? ReadWriteRoutingDataSource.onPrimary(query) : query.get();
+    }
+
+    /**
+     * Runs a read spanning several symbols, on the primary if any of them was recently written.
+     *
+     * @param symbols the stock symbols being read
+     * @param query the repository call to run
+     * @return the result of the query
+     */
+    public <T> T readAll(Collection<String> symbols, Supplier<T> query) {
+        for (String symbol : symbols) {
+            if (requiresPrimary(symbol)) {
+                return ReadWriteRoutingDataSource.onPrimary(query);
+            }
+        }
+        return query.get();
+    }
+}
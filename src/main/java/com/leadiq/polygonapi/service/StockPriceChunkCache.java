@@ -0,0 +1,116 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.cache.ChunkKey;
+import com.leadiq.polygonapi.cache.StockPriceCaches;
+import com.leadiq.polygonapi.config.ChunkCacheConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves range reads from the {@code stockPriceChunks} cache, which holds each symbol's stored rows in calendar
+ * month chunks. A range is assembled from the chunks it overlaps, trimmed to its bounds, so unaligned ranges reuse
+ * the chunks of earlier reads. A chunk that is not cached is loaded from the {@link StockPriceStorage} on its own;
+ * a month without stored days is cached as an empty chunk, and the read then looks up the next stored day and
+ * skips to its month, so a range far beyond a symbol's history costs two queries instead of one per month.
+ * <p>
+ * Ingestion merges the written rows into the cached chunks of their months, through the
+ * {@link com.leadiq.polygonapi.cache.StockPriceCacheInvalidator}; other instances evict those chunks. A chunk is
+ * loaded atomically per key, so an update racing with its load waits for the load and then applies to it.
+ */
+@Component
+public class StockPriceChunkCache {
+
+    /** Upper bound on the rows of one month. */
+    private static final int MAX_ROWS_PER_CHUNK = 31;
+
+    private final ChunkCacheConfig config;
+    private final CacheManager cacheManager;
+    private final StockPriceStorage stockPriceStorage;
+    private final ReadYourWritesGuard readYourWritesGuard;
+
+    public StockPriceChunkCache(ChunkCacheConfig config,
+                                CacheManager cacheManager,
+                                StockPriceStorage stockPriceStorage,
+                                ReadYourWritesGuard readYourWritesGuard) {
+        this.config = config;
+        this.cacheManager = cacheManager;
+        this.stockPriceStorage = stockPriceStorage;
+        this.readYourWritesGuard = readYourWritesGuard;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled() && cacheManager.getCache(StockPriceCaches.STOCK_PRICE_CHUNKS) != null;
+    }
+
+    /**
+     * Returns the first stored rows of a symbol within a date range, ordered by date, loading the chunks that
+     * are not cached. Chunks past the one that fills the limit are not read.
+     *
+     * @param symbol the stock symbol
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @param limit the maximum number of rows to return
+     * @return the rows in the range, at most {@code limit}
+     */
+    public List<StockPriceView> range(String symbol, LocalDate fromDate, LocalDate toDate, int limit) {
+        Cache chunks = cacheManager.getCache(StockPriceCaches.STOCK_PRICE_CHUNKS);
+        List<StockPriceView> rows = new ArrayList<>();
+        YearMonth month = YearMonth.from(fromDate);
+        while (!month.isAfter(YearMonth.from(toDate)) && rows.size() < limit) {
+            ChunkKey key = new ChunkKey(symbol, month);
+            LocalDate from = fromDate.isAfter(key.firstDay()) ? fromDate : key.firstDay();
+            LocalDate to = toDate.isBefore(key.lastDay()) ? toDate : key.lastDay();
+            if (from.isAfter(to)) {
+                break;
+            }
+
+            List<StockPriceView> chunk = chunks.get(key, () -> load(key));
+            for (StockPriceView row : chunk) {
+                if (rows.size() == limit || row.date().isAfter(to)) {
+                    break;
+                }
+                if (!row.date().isBefore(from)) {
+                    rows.add(row);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                month = month.plusMonths(1);
+                continue;
+            }
+            Optional<LocalDate> next = nextStoredDay(symbol, key.lastDay(), toDate);
+            if (next.isEmpty()) {
+                break;
+            }
+            month = YearMonth.from(next.get());
+        }
+        return rows;
+    }
+
+    private List<StockPriceView> load(ChunkKey key) {
+        return List.copyOf(readYourWritesGuard.read(key.symbol(), () -> stockPriceStorage.findRangeAfter(
+                key.symbol(), key.firstDay().minusDays(1), key.lastDay(), MAX_ROWS_PER_CHUNK)));
+    }
+
+    /**
+     * Finds the first stored day after an empty month, so the months up to it are skipped instead of loaded.
+     */
+    private Optional<LocalDate> nextStoredDay(String symbol, LocalDate afterDate, LocalDate toDate) {
+        if (!afterDate.isBefore(toDate)) {
+            return Optional.empty();
+        }
+        return readYourWritesGuard.read(symbol, () -> stockPriceStorage.findRangeAfter(symbol, afterDate, toDate, 1))
+                .stream()
+                .map(StockPriceView::date)
+                .findFirst();
+    }
+}
@@ -0,0 +1,42 @@
+package com.leadiq.polygonapi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position of a keyset page: the last (symbol, date) returned. Clients only see the encoded form,
+ * a URL-safe base64 token, so its layout can change without breaking them.
+ *
+ * @param symbol the stock symbol of the last row returned
+ * @param date the date of the last row returned
+ */
+record StockPriceCursor(String symbol, LocalDate date) {
+
+    String encode() {
+        String raw = symbol + ':' + date.toEpochDay();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor token produced by {@link #encode()}.
+     *
+     * @param token the opaque cursor token
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static StockPriceCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new StockPriceCursor(raw.substring(0, separator),
+                    LocalDate.ofEpochDay(Long.parseLong(raw.substring(separator + 1))));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.leadiq.polygonapi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.leadiq.polygonapi.config.ExportConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import jakarta.annotation.PreDestroy;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streams full stock price histories for one or more symbols as CSV, NDJSON, Arrow IPC or Parquet.
+ * Rows go from the storage engine's cursor straight into the format's writer one at a time, so memory use
+ * is bounded by the writer's batch (Arrow) or row group (Parquet) regardless of the number of rows exported.
+ */
+@Service
+public class StockPriceExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockPriceExportService.class);
+
+    private static final String CSV_HEADER = "symbol,date,open_price,close_price,high_price,low_price,volume";
+
+    private final StockPriceStorage stockPriceStorage;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final ExportConfig exportConfig;
+    private final ObjectMapper objectMapper;
+    private final BufferAllocator arrowAllocator;
+
+    public StockPriceExportService(StockPriceStorage stockPriceStorage,
+                                   ReadYourWritesGuard readYourWritesGuard,
+                                   ExportConfig exportConfig,
+                                   ObjectMapper objectMapper) {
+        this.stockPriceStorage = stockPriceStorage;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.exportConfig = exportConfig;
+        this.objectMapper = objectMapper.copy()
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.arrowAllocator = new RootAllocator(exportConfig.getArrowMemoryLimit().toBytes());
+    }
+
+    /**
+     * Validates an export request and returns its distinct symbols in request order.
+     * Called before the response is committed so invalid requests still get a 400.
+     *
+     * @param symbols the requested stock symbols
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @return the distinct, trimmed symbols
+     * @throws IllegalArgumentException if a parameter is invalid
+     */
+    public List<String> validate(List<String> symbols, LocalDate fromDate, LocalDate toDate) {
+        if (symbols == null || symbols.isEmpty()) {
+            throw new IllegalArgumentException("At least one stock symbol is required");
+        }
+
+        if (fromDate == null || toDate == null) {
+            throw new IllegalArgumentException("Date range cannot be null");
+        }
+
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("From date cannot be after to date");
+        }
+
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            if (symbol == null || symbol.trim().isEmpty()) {
+                throw new IllegalArgumentException("Stock symbol cannot be null or empty");
+            }
+            distinct.add(symbol.trim());
+        }
+
+        if (distinct.size() > exportConfig.getMaxSymbols()) {
+            throw new IllegalArgumentException("At most " + exportConfig.getMaxSymbols() + " symbols can be exported at once");
+        }
+
+        return List.copyOf(distinct);
+    }
+
+    /**
+     * Writes the stored prices of each symbol within the date range to the output stream,
+     * grouped by symbol in request order and ordered by date.
+     *
+     * @param symbols the stock symbols, as returned by {@link #validate}
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @param format the output format
+     * @param out the stream to write to; it is flushed but not closed
+     * @throws IOException if writing to the stream fails
+     */
+    public void export(List<String> symbols, LocalDate fromDate, LocalDate toDate, ExportFormat format,
+                       OutputStream out) throws IOException {
+        try (StockPriceRowWriter rowWriter = openWriter(format, out)) {
+            for (String symbol : symbols) {
+                readYourWritesGuard.read(symbol, () -> {
+                    stockPriceStorage.streamRange(symbol, fromDate, toDate, row -> {
+                        try {
+                            rowWriter.write(row);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    return null;
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        out.flush();
+        logger.info("Exported {} symbols from {} to {} as {}", symbols.size(), fromDate, toDate, format);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        arrowAllocator.close();
+    }
+
+    private StockPriceRowWriter openWriter(ExportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvWriter(out);
+            case NDJSON -> new NdjsonWriter(out, objectMapper);
+            case ARROW -> new ArrowStockPriceWriter(
+                    arrowAllocator.newChildAllocator("export", 0, arrowAllocator.getLimit()),
+                    exportConfig.getArrowBatchSize(), out);
+            case PARQUET -> new ParquetStockPriceWriter(
+                    out, exportConfig.getParquetCompression(), exportConfig.getParquetRowGroupSize().toBytes());
+        };
+    }
+
+    private static final class CsvWriter implements StockPriceRowWriter {
+
+        private final Writer writer;
+
+        private CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(StockPriceView row) throws IOException {
+            writer.write(csvField(row.symbol()));
+            writer.write(',');
+            writer.write(row.date().toString());
+            writer.write(',');
+            writer.write(csvField(row.openPrice()));
+            writer.write(',');
+            writer.write(csvField(row.closePrice()));
+            writer.write(',');
+            writer.write(csvField(row.highPrice()));
+            writer.write(',');
+            writer.write(csvField(row.lowPrice()));
+            writer.write(',');
+            writer.write(csvField(row.volume()));
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private static String csvField(Object value) {
+            if (value == null) {
+                return "";
+            }
+
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class NdjsonWriter implements StockPriceRowWriter {
+
+        private final Writer writer;
+        private final ObjectMapper objectMapper;
+
+        private NdjsonWriter(OutputStream out, ObjectMapper objectMapper) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public void write(StockPriceView row) throws IOException {
+            objectMapper.writeValue(writer, row);
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.cache.StockPriceCacheInvalidator;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Announces committed stock price rows to everything derived from them, in order: the read-your-writes guard,
+ * the {@link SymbolDateIndex}, the {@link StockPriceStorage}, the {@link SymbolSeriesStore}, the rollups, the
+ * indicators and the caches. Rollups and indicators are recomputed from the storage, so they run after it.
+ * <p>
+ * The rows are already committed to MySQL when they are published, so a listener that fails is logged and the
+ * others still run; the write is not failed. If the storage fails, it discards the batch's symbols so they are
+ * read from MySQL again; the other listeners expire or reload what they hold.
+ */
+@Component
+public class StockPriceIngestion {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockPriceIngestion.class);
+
+    private final List<Listener> listeners;
+
+    public StockPriceIngestion(ReadYourWritesGuard readYourWritesGuard,
+                               SymbolDateIndex symbolDateIndex,
+                               StockPriceStorage stockPriceStorage,
+                               SymbolSeriesStore symbolSeriesStore,
+                               StockPriceRollupService stockPriceRollupService,
+                               IndicatorService indicatorService,
+                               StockPriceCacheInvalidator stockPriceCacheInvalidator) {
+        this.listeners = List.of(
+                new Listener("read-your-writes guard", rows -> symbolsOf(rows).forEach(readYourWritesGuard::recordWrite)),
+                new Listener("date index", symbolDateIndex::recordWrites),
+                new Listener("storage", rows -> recordStorageWrites(stockPriceStorage, rows)),
+                new Listener("series store", symbolSeriesStore::recordWrites),
+                new Listener("rollups", stockPriceRollupService::recordWrites),
+                new Listener("indicators", indicatorService::recordWrites),
+                new Listener("caches", stockPriceCacheInvalidator::recordWrites));
+    }
+
+    /**
+     * Runs every listener on rows that were just committed.
+     *
+     * @param stockPrices the committed rows
+     */
+    public void publish(List<StockPrice> stockPrices) {
+        if (stockPrices.isEmpty()) {
+            return;
+        }
+
+        for (Listener listener : listeners) {
+            try {
+                listener.action().accept(stockPrices);
+            } catch (RuntimeException e) {
+                logger.error("Error updating the {} with {} committed stock price records for {}",
+                        listener.name(), stockPrices.size(), symbolsOf(stockPrices), e);
+            }
+        }
+    }
+
+    /**
+     * Applies rows to the storage, discarding their symbols from it if that fails.
+     */
+    private static void recordStorageWrites(StockPriceStorage stockPriceStorage, List<StockPrice> stockPrices) {
+        try {
+            stockPriceStorage.recordWrites(stockPrices);
+        } catch (RuntimeException e) {
+            symbolsOf(stockPrices).forEach(stockPriceStorage::discard);
+            throw e;
+        }
+    }
+
+    private static Set<String> symbolsOf(List<StockPrice> stockPrices) {
+        Set<String> symbols = new LinkedHashSet<>();
+        for (StockPrice stockPrice : stockPrices) {
+            symbols.add(stockPrice.getCompanySymbol());
+        }
+        return symbols;
+    }
+
+    private record Listener(String name, Consumer<List<StockPrice>> action) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.config.LookupBatchingConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataLoader-style batching of single-day lookups. Lookups from concurrent requests are queued, and once the
+ * batching window elapses after the first of them, or as soon as {@code maxBatchSize} are waiting, they are
+ * answered by one {@link StockPriceStorage#findBySymbolsAndDates} lookup over their distinct symbols and dates.
+ * Each caller's future is completed with its own row, or with an empty result if there is none.
+ * <p>
+ * Under load, queries per second drop by the batch size, at the cost of up to one window of latency per lookup.
+ * The query covers every combination of the batch's symbols and dates, so rows for combinations nobody asked for
+ * are read and discarded; with typical traffic, many symbols on a few recent dates, there are few of them.
+ */
+@Component
+public class StockPriceLookupBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockPriceLookupBatcher.class);
+
+    private final LookupBatchingConfig config;
+    private final StockPriceStorage stockPriceStorage;
+    private final ReadYourWritesGuard readYourWritesGuard;
+
+    private final ConcurrentLinkedQueue<PendingLookup> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedLookups = new AtomicInteger();
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService loader;
+
+    public StockPriceLookupBatcher(LookupBatchingConfig config,
+                                   StockPriceStorage stockPriceStorage,
+                                   ReadYourWritesGuard readYourWritesGuard) {
+        this.config = config;
+        this.stockPriceStorage = stockPriceStorage;
+        this.readYourWritesGuard = readYourWritesGuard;
+
+        if (config.isEnabled()) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.loader = Executors.newScheduledThreadPool(Math.max(1, config.getThreads()), runnable -> {
+                Thread thread = new Thread(runnable, "stock-price-loader-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.loader = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Looks up the stock price of a symbol on a date as part of the next batch, blocking until it is queried.
+     *
+     * @param symbol the stock symbol
+     * @param date the day
+     * @return the stored stock price, or empty if there is none
+     * @throws IllegalStateException if the batch could not be queried within the timeout
+     */
+    public Optional<StockPriceView> find(String symbol, LocalDate date) {
+        try {
+            return load(symbol, date).get(config.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a stock price lookup", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Error looking up stock price: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for a stock price lookup", e);
+        }
+    }
+
+    /**
+     * Queues a lookup for the next batch.
+     *
+     * @param symbol the stock symbol
+     * @param date the day
+     * @return a future completed with the stored stock price, or empty if there is none, once the batch is queried
+     */
+    public CompletableFuture<Optional<StockPriceView>> load(String symbol, LocalDate date) {
+        if (loader == null) {
+            try {
+                return CompletableFuture.completedFuture(readYourWritesGuard.read(symbol,
+                        () -> stockPriceStorage.findBySymbolAndDate(symbol, date)));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        PendingLookup pending = new PendingLookup(symbol, date, new CompletableFuture<>());
+        queue.offer(pending);
+
+        if (queuedLookups.incrementAndGet() >= config.getMaxBatchSize()) {
+            loader.execute(this::dispatch);
+        } else if (dispatchScheduled.compareAndSet(false, true)) {
+            loader.schedule(this::dispatch, Math.max(1, config.getWindow().toNanos()), TimeUnit.NANOSECONDS);
+        }
+
+        return pending.result();
+    }
+
+    /**
+     * Drains the queue, querying at most {@code maxBatchSize} lookups at a time. Lookups queued after the drain
+     * starts either join it or schedule the next one.
+     */
+    void dispatch() {
+        dispatchScheduled.set(false);
+
+        while (true) {
+            List<PendingLookup> batch = new ArrayList<>();
+            PendingLookup pending;
+            while (batch.size() < config.getMaxBatchSize() && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            queuedLookups.addAndGet(-batch.size());
+            query(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (loader == null) {
+            return;
+        }
+
+        loader.shutdown();
+        try {
+            if (!loader.awaitTermination(config.getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Stock price loader did not stop in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dispatch();
+    }
+
+    private void query(List<PendingLookup> batch) {
+        Set<String> symbols = new LinkedHashSet<>();
+        Set<LocalDate> dates = new LinkedHashSet<>();
+        for (PendingLookup pending : batch) {
+            symbols.add(pending.symbol());
+            dates.add(pending.date());
+        }
+
+        try {
+            List<StockPriceView> rows = readYourWritesGuard.readAll(symbols,
+                    () -> stockPriceStorage.findBySymbolsAndDates(symbols, dates));
+            Map<String, StockPriceView> byKey = new HashMap<>();
+            for (StockPriceView row : rows) {
+                byKey.put(row.symbol() + "_" + row.date(), row);
+            }
+            logger.debug("Answered {} stock price lookups with one query", batch.size());
+            batch.forEach(pending -> pending.result()
+                    .complete(Optional.ofNullable(byKey.get(pending.symbol() + "_" + pending.date()))));
+        } catch (RuntimeException e) {
+            logger.error("Error looking up {} batched stock prices", batch.size(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private record PendingLookup(String symbol, LocalDate date, CompletableFuture<Optional<StockPriceView>> result) {
+    }
+}
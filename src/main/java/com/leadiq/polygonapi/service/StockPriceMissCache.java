@@ -0,0 +1,102 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.cache.SharedCacheTier;
+import com.leadiq.polygonapi.cache.StockPriceCaches;
+import com.leadiq.polygonapi.config.MissCacheConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Answers single-day lookups of days that are not stored, such as weekends, holidays or unknown tickers,
+ * without a database round trip. A lookup that found nothing is remembered in the {@code stockPriceMisses} cache
+ * for the configured TTL, and the {@link SymbolDateIndex} bitmap of the symbol's stored days rules out the other
+ * missing days once the symbol is loaded. Ingestion of a day forgets its miss through the cache invalidation.
+ * <p>
+ * Days written by other instances only reach the bitmap with the shared tier's invalidations, so the bitmap is
+ * consulted only when the shared tier is enabled; otherwise a day written elsewhere would be answered as missing
+ * until the bitmap is reloaded. Within the read-your-writes window of a symbol neither is consulted, and a miss read
+ * then is not remembered, so a replica lagging behind the write cannot leave the day cached as missing.
+ */
+@Component
+public class StockPriceMissCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockPriceMissCache.class);
+
+    private final MissCacheConfig config;
+    private final CacheManager cacheManager;
+    private final SymbolDateIndex symbolDateIndex;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final boolean dateIndex;
+
+    public StockPriceMissCache(MissCacheConfig config,
+                               CacheManager cacheManager,
+                               SymbolDateIndex symbolDateIndex,
+                               ReadYourWritesGuard readYourWritesGuard,
+                               ObjectProvider<SharedCacheTier> sharedCacheTier) {
+        this.config = config;
+        this.cacheManager = cacheManager;
+        this.symbolDateIndex = symbolDateIndex;
+        this.readYourWritesGuard = readYourWritesGuard;
+
+        SharedCacheTier tier = config.isEnabled() && config.isDateIndex() ? sharedCacheTier.getIfAvailable() : null;
+        this.dateIndex = tier != null;
+        if (tier != null) {
+            tier.addInvalidationListener(invalidation ->
+                    symbolDateIndex.recordDays(invalidation.symbol(), invalidation.dates()));
+        } else if (config.isEnabled() && config.isDateIndex()) {
+            logger.info("Not answering misses from the date index: days written by other instances reach it only "
+                    + "through the shared cache tier, which is disabled");
+        }
+    }
+
+    /**
+     * Returns whether a day is known not to be stored for a symbol, remembering the miss if it was found in the
+     * date index.
+     *
+     * @param symbol the stock symbol
+     * @param date the day
+     * @return true if the lookup can be answered as not found without querying the database
+     */
+    public boolean isKnownMissing(String symbol, LocalDate date) {
+        if (!config.isEnabled()) {
+            return false;
+        }
+
+        Cache misses = cacheManager.getCache(StockPriceCaches.STOCK_PRICE_MISSES);
+        if (readYourWritesGuard.requiresPrimary(symbol)) {
+            if (misses != null) {
+                misses.evict(StockPriceCaches.key(symbol, date));
+            }
+            return false;
+        }
+
+        if (misses != null && misses.get(StockPriceCaches.key(symbol, date)) != null) {
+            return true;
+        }
+
+        if (dateIndex && !symbolDateIndex.contains(symbol, date)) {
+            recordMiss(symbol, date);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remembers that a lookup found nothing.
+     *
+     * @param symbol the stock symbol
+     * @param date the day
+     */
+    public void recordMiss(String symbol, LocalDate date) {
+        Cache misses = cacheManager.getCache(StockPriceCaches.STOCK_PRICE_MISSES);
+        if (config.isEnabled() && misses != null && !readYourWritesGuard.requiresPrimary(symbol)) {
+            misses.put(StockPriceCaches.key(symbol, date), Boolean.TRUE);
+        }
+    }
+}
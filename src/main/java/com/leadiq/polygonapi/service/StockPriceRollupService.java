@@ -0,0 +1,230 @@
+package com.leadiq.polygonapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.entity.StockPriceRollup;
+import com.leadiq.polygonapi.repository.StockPriceRollupRepository;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Maintains the weekly, monthly, quarterly and yearly candles of {@code stock_price_rollup} and serves them.
+ * <p>
+ * When daily rows are ingested, only the periods containing their dates are re-aggregated, from the daily rows
+ * of the configured {@link StockPriceStorage}, so re-ingesting a day replaces its contribution instead of adding
+ * to it. A symbol without candles, such as one stored before rollups existed, is aggregated over its whole
+ * history the first time it is read or written. Symbols checked for candles are remembered up to the configured
+ * count, beyond which the least valuable are checked again on next use.
+ * <p>
+ * Aggregation of a symbol holds one of a fixed set of lock stripes chosen by the symbol, so re-aggregating or
+ * backfilling one symbol's history does not hold up ingestion of the others.
+ */
+@Service
+public class StockPriceRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockPriceRollupService.class);
+
+    private static final List<BarInterval> INTERVALS =
+            List.of(BarInterval.WEEK, BarInterval.MONTH, BarInterval.QUARTER, BarInterval.YEAR);
+
+    private final StockPriceRollupRepository rollupRepository;
+    private final StockPriceStorage stockPriceStorage;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final Cache<String, Boolean> loaded;
+    private final SymbolLocks locks = new SymbolLocks();
+
+    public StockPriceRollupService(StockPriceRollupRepository rollupRepository,
+                                   StockPriceStorage stockPriceStorage,
+                                   ReadYourWritesGuard readYourWritesGuard,
+                                   @Value("${polygon.rollups.max-loaded-symbols:10000}") long maxLoadedSymbols) {
+        this.rollupRepository = rollupRepository;
+        this.stockPriceStorage = stockPriceStorage;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.loaded = Caffeine.newBuilder().maximumSize(maxLoadedSymbols).build();
+    }
+
+    /**
+     * Finds the candles of a symbol whose period starts after a date and up to another, ordered by period.
+     * Each candle is dated by the first day of its period.
+     *
+     * @param symbol the stock symbol
+     * @param interval the candle interval; not {@code DAY}
+     * @param afterDate the exclusive lower bound on the period start
+     * @param toDate the inclusive upper bound on the period start
+     * @param limit the maximum number of candles to return
+     * @return at most {@code limit} candles, oldest first
+     */
+    public List<StockPriceView> findRangeAfter(String symbol, BarInterval interval, LocalDate afterDate,
+                                               LocalDate toDate, int limit) {
+        if (interval == BarInterval.DAY) {
+            throw new IllegalArgumentException("Daily rows are not rolled up");
+        }
+
+        load(symbol);
+        return readYourWritesGuard.read(symbol,
+                () -> rollupRepository.findRangeAfter(symbol, interval.name(), afterDate, toDate, limit));
+    }
+
+    /**
+     * Re-aggregates the periods containing committed daily rows. Must be called after the configured storage
+     * has recorded the rows, since candles are aggregated from it.
+     *
+     * @param stockPrices the committed rows
+     */
+    public void recordWrites(Collection<StockPrice> stockPrices) {
+        Map<String, TreeSet<LocalDate>> datesBySymbol = new TreeMap<>();
+        for (StockPrice stockPrice : stockPrices) {
+            datesBySymbol.computeIfAbsent(stockPrice.getCompanySymbol(), symbol -> new TreeSet<>())
+                    .add(stockPrice.getDate());
+        }
+
+        datesBySymbol.forEach((symbol, dates) -> {
+            synchronized (locks.of(symbol)) {
+                if (load(symbol)) {
+                    return;
+                }
+                Set<PeriodKey> touched = new HashSet<>();
+                for (LocalDate date : dates) {
+                    for (BarInterval interval : INTERVALS) {
+                        touched.add(new PeriodKey(interval, interval.periodStart(date)));
+                    }
+                }
+                LocalDate from = earliest(BarInterval.WEEK.periodStart(dates.first()),
+                        BarInterval.YEAR.periodStart(dates.first()));
+                LocalDate to = latest(BarInterval.WEEK.periodEnd(dates.last()), BarInterval.YEAR.periodEnd(dates.last()));
+                rollupRepository.upsertAll(aggregate(symbol, from, to, touched));
+            }
+        });
+    }
+
+    /**
+     * Aggregates every candle of a symbol the first time it is used on this instance, unless it already has
+     * candles.
+     *
+     * @return true if the whole history was aggregated now
+     */
+    private boolean load(String symbol) {
+        if (loaded.getIfPresent(symbol) != null) {
+            return false;
+        }
+
+        synchronized (locks.of(symbol)) {
+            if (loaded.getIfPresent(symbol) != null) {
+                return false;
+            }
+
+            boolean missing = !rollupRepository.existsBySymbol(symbol);
+            if (missing) {
+                List<StockPriceRollup> rollups = aggregate(symbol, StockPriceStorage.FIRST_DAY, StockPriceStorage.LAST_DAY, null);
+                if (!rollups.isEmpty()) {
+                    logger.info("Aggregating {} candles for symbol {}", rollups.size(), symbol);
+                    rollupRepository.upsertAll(rollups);
+                }
+            }
+            loaded.put(symbol, Boolean.TRUE);
+            return missing;
+        }
+    }
+
+    /**
+     * Aggregates the daily rows of a symbol within a date range into candles, keeping only the given periods.
+     *
+     * @param touched the periods to keep, or null for all of them
+     */
+    private List<StockPriceRollup> aggregate(String symbol, LocalDate fromDate, LocalDate toDate,
+                                             Set<PeriodKey> touched) {
+        Map<PeriodKey, Candle> candles = new LinkedHashMap<>();
+        readYourWritesGuard.read(symbol, () -> {
+            stockPriceStorage.streamRange(symbol, fromDate, toDate, row -> {
+                for (BarInterval interval : INTERVALS) {
+                    PeriodKey key = new PeriodKey(interval, interval.periodStart(row.date()));
+                    if (touched == null || touched.contains(key)) {
+                        candles.computeIfAbsent(key, k -> new Candle()).add(row);
+                    }
+                }
+            });
+            return null;
+        });
+
+        List<StockPriceRollup> rollups = new ArrayList<>(candles.size());
+        candles.forEach((key, candle) -> rollups.add(candle.toRollup(symbol, key)));
+        return rollups;
+    }
+
+    private static LocalDate earliest(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate latest(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private record PeriodKey(BarInterval interval, LocalDate periodStart) {
+    }
+
+    /**
+     * OHLCV of one period, fed with its daily rows in date order. Missing values are skipped: the open is the
+     * first reported open and the close the last reported close.
+     */
+    private static final class Candle {
+
+        private LocalDate lastDate;
+        private int tradingDays;
+        private Double openPrice;
+        private Double closePrice;
+        private Double highPrice;
+        private Double lowPrice;
+        private Long volume;
+
+        void add(StockPriceView row) {
+            lastDate = row.date();
+            tradingDays++;
+            if (openPrice == null) {
+                openPrice = row.openPrice();
+            }
+            if (row.closePrice() != null) {
+                closePrice = row.closePrice();
+            }
+            if (row.highPrice() != null && (highPrice == null || row.highPrice() > highPrice)) {
+                highPrice = row.highPrice();
+            }
+            if (row.lowPrice() != null && (lowPrice == null || row.lowPrice() < lowPrice)) {
+                lowPrice = row.lowPrice();
+            }
+            if (row.volume() != null) {
+                volume = volume == null ? row.volume() : volume + row.volume();
+            }
+        }
+
+        StockPriceRollup toRollup(String symbol, PeriodKey key) {
+            return StockPriceRollup.builder()
+                    .companySymbol(symbol)
+                    .barInterval(key.interval().name())
+                    .periodStart(key.periodStart())
+                    .lastDate(lastDate)
+                    .tradingDays(tradingDays)
+                    .openPrice(openPrice)
+                    .closePrice(closePrice)
+                    .highPrice(highPrice)
+                    .lowPrice(lowPrice)
+                    .volume(volume)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Encodes exported stock price rows, one at a time, onto an output stream in a specific format.
+ */
+interface StockPriceRowWriter extends Closeable {
+
+    void write(StockPriceView row) throws IOException;
+
+    /**
+     * Writes any buffered rows and the format's trailer, and releases the writer's buffers.
+     * The underlying stream is flushed but not closed.
+     */
+    @Override
+    void close() throws IOException;
+}
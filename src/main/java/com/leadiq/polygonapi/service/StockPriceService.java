@@ -3,17 +3,29 @@ package com.leadiq.polygonapi.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leadiq.polygonapi.cache.DayKeyedCache;
+import com.leadiq.polygonapi.cache.RangeKey;
+import com.leadiq.polygonapi.cache.StockPriceCaches;
+import com.leadiq.polygonapi.cache.TwoTierCache;
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
 import com.leadiq.polygonapi.entity.StockPrice;
 import com.leadiq.polygonapi.exception.PolygonApiException;
 import com.leadiq.polygonapi.exception.StockDataNotFoundException;
 import com.leadiq.polygonapi.exception.StockDataParsingException;
 import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -21,7 +33,17 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Service responsible for handling stock price data, including fetching, parsing, saving,
@@ -33,12 +55,28 @@ public class StockPriceService {
 
     private static final Logger logger = LoggerFactory.getLogger(StockPriceService.class);
 
+    /** Upper bound on the dates in one multi-key query, which keeps its IN list short. */
+    private static final int MAX_DATES_PER_QUERY = 500;
+    /** Upper bound on the symbol and date combinations covered by one multi-key query. */
+    private static final int MAX_CELLS_PER_QUERY = 1000;
+
     private final StockPriceRepository stockPriceRepository;
+    private final StockPriceStorage stockPriceStorage;
     private final PolygonClient polygonClient;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final StockPriceWriteBuffer stockPriceWriteBuffer;
+    private final SymbolDateIndex symbolDateIndex;
+    private final SymbolSeriesStore symbolSeriesStore;
+    private final StockPriceRollupService stockPriceRollupService;
+    private final CacheManager cacheManager;
+    private final StockPriceLookupBatcher stockPriceLookupBatcher;
+    private final StockPriceMissCache stockPriceMissCache;
+    private final StockPriceChunkCache stockPriceChunkCache;
 
     /**
      * Fetches stock price data for a given stock symbol within a specified date range,
      * parses the data, and saves it to the repository. Returns a paginated list of saved stock prices.
+     * The page total comes from the {@link SymbolDateIndex} instead of a {@code COUNT(*)} query.
      *
      * @param symbol The stock symbol for which to fetch the price data. Cannot be null or empty.
      * @param fromDate The start date of the range for which to fetch stock price data. Cannot be null or empty.
@@ -50,6 +88,63 @@ public class StockPriceService {
      * @throws RuntimeException If an unexpected error occurs during processing.
      */
     public Page<StockPrice> fetchAndSavePrices(String symbol, String fromDate, String toDate, Pageable pageable) {
+        List<StockPrice> stockPrices = fetchAndSave(symbol, fromDate, toDate);
+
+        if (stockPrices.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        LocalDate from = LocalDate.parse(fromDate);
+        LocalDate to = LocalDate.parse(toDate);
+
+        if (answersFromParsedRows()) {
+            return pageOf(stockPrices, from, to, pageable);
+        }
+
+        Slice<StockPrice> slice = readYourWritesGuard.read(symbol,
+                () -> stockPriceRepository.findSliceByCompanySymbolAndDateBetween(symbol, from, to, pageable));
+        long total = symbolDateIndex.countBetween(symbol, from, to);
+
+        return new PageImpl<>(slice.getContent(), pageable, total);
+    }
+
+    /**
+     * Fetches and saves stock price data like {@link #fetchAndSavePrices}, but returns a slice that only tells
+     * whether more rows follow, so no total count is needed.
+     *
+     * @param symbol The stock symbol for which to fetch the price data. Cannot be null or empty.
+     * @param fromDate The start date of the range for which to fetch stock price data. Cannot be null or empty.
+     * @param toDate The end date of the range for which to fetch stock price data. Cannot be null or empty.
+     * @param pageable Pagination information including page number and size.
+     * @return A Slice of StockPrice objects that were successfully fetched and saved.
+     * @throws IllegalArgumentException If the input parameters are null or empty.
+     * @throws PolygonApiException If there is an error while fetching data from the Polygon API.
+     * @throws RuntimeException If an unexpected error occurs during processing.
+     */
+    public Slice<StockPrice> fetchAndSavePricesSlice(String symbol, String fromDate, String toDate, Pageable pageable) {
+        List<StockPrice> stockPrices = fetchAndSave(symbol, fromDate, toDate);
+
+        if (stockPrices.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+
+        LocalDate from = LocalDate.parse(fromDate);
+        LocalDate to = LocalDate.parse(toDate);
+
+        if (answersFromParsedRows()) {
+            return pageOf(stockPrices, from, to, pageable);
+        }
+
+        return readYourWritesGuard.read(symbol,
+                () -> stockPriceRepository.findSliceByCompanySymbolAndDateBetween(symbol, from, to, pageable));
+    }
+
+    /**
+     * Fetches stock price data from the Polygon API, parses it and saves it.
+     *
+     * @return the parsed stock prices, or an empty list if the API returned no data
+     */
+    private List<StockPrice> fetchAndSave(String symbol, String fromDate, String toDate) {
         if (symbol == null || symbol.trim().isEmpty()) {
             throw new IllegalArgumentException("Stock symbol cannot be null or empty");
         }
@@ -65,25 +160,18 @@ public class StockPriceService {
         logger.info("Fetching stock prices for symbol {} from {} to {}", symbol, fromDate, toDate);
 
         try {
-            // First fetch and save all the data
             String polygonResponse = polygonClient.fetchStockData(symbol, fromDate, toDate);
             List<StockPrice> stockPrices = parsePolygonResponse(symbol, polygonResponse);
 
             if (stockPrices.isEmpty()) {
                 logger.warn("No stock price data found for symbol {} in the specified date range", symbol);
-                return Page.empty(pageable);
+                return stockPrices;
             }
 
             logger.info("Saving {} stock price records for symbol {}", stockPrices.size(), symbol);
-            stockPriceRepository.saveAll(stockPrices);
-
-            // Then retrieve the paginated results
-            return stockPriceRepository.findByCompanySymbolAndDateBetween(
-                symbol,
-                LocalDate.parse(fromDate),
-                LocalDate.parse(toDate),
-                pageable
-            );
+            stockPriceWriteBuffer.write(stockPrices);
+
+            return stockPrices;
         } catch (PolygonApiException e) {
             logger.error("Error fetching stock data from Polygon API", e);
             throw e;
@@ -97,16 +185,106 @@ public class StockPriceService {
     }
 
     /**
-     * Retrieves the stock price for a given company symbol on a specific date.
+     * Returns whether ingestion responses are built from the parsed rows because they may not be committed yet.
+     */
+    private boolean answersFromParsedRows() {
+        return stockPriceWriteBuffer.isEnabled() && stockPriceWriteBuffer.isEventuallyConsistent();
+    }
+
+    /**
+     * Retrieves the stock prices of every combination of the given symbols and dates, as a batch form of
+     * {@link #getStockPriceView}. Combinations already in the {@code stockPriceViews} cache are served from it;
+     * the others are loaded from the configured {@link StockPriceStorage} with one multi-key lookup per chunk of
+     * symbols and dates, and added to the cache. Combinations without stored data are left out instead of
+     * raising {@link StockDataNotFoundException}.
+     *
+     * @param symbols the stock symbols to retrieve; must not be empty or contain blank symbols
+     * @param dates the dates to retrieve for each symbol; must not be empty or contain nulls
+     * @return the stock prices found, by symbol and then by date
+     * @throws IllegalArgumentException if a symbol is blank, a date is null, or either collection is empty
+     */
+    public Map<String, Map<LocalDate, StockPriceView>> getStockPriceMatrix(Collection<String> symbols,
+                                                                           Collection<LocalDate> dates) {
+        if (symbols == null || symbols.isEmpty() || symbols.stream().anyMatch(s -> s == null || s.trim().isEmpty())) {
+            throw new IllegalArgumentException("Stock symbols cannot be empty or contain empty symbols");
+        }
+
+        if (dates == null || dates.isEmpty() || dates.stream().anyMatch(date -> date == null)) {
+            throw new IllegalArgumentException("Dates cannot be empty or contain null dates");
+        }
+
+        Cache cache = cacheManager.getCache(StockPriceCaches.STOCK_PRICE_VIEWS);
+        Map<String, Map<LocalDate, StockPriceView>> found = new LinkedHashMap<>();
+        Map<String, Set<LocalDate>> missing = new LinkedHashMap<>();
+        Set<LocalDate> missingDates = new LinkedHashSet<>();
+        for (String symbol : new LinkedHashSet<>(symbols)) {
+            for (LocalDate date : dates) {
+                StockPriceView cached = cache == null
+                        ? null : cache.get(StockPriceCaches.key(symbol, date), StockPriceView.class);
+                if (cached != null) {
+                    found.computeIfAbsent(symbol, key -> new LinkedHashMap<>()).put(date, cached);
+                } else {
+                    missing.computeIfAbsent(symbol, key -> new LinkedHashSet<>()).add(date);
+                    missingDates.add(date);
+                }
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        logger.info("Loading {} uncached stock prices of {} symbols",
+                missing.values().stream().mapToInt(Set::size).sum(), missing.size());
+
+        Map<String, Long> versions = new HashMap<>();
+        if (cache != null) {
+            missing.keySet().forEach(symbol -> versions.put(symbol, StockPriceCaches.versionOf(cache, symbol)));
+        }
+        List<String> missingSymbols = new ArrayList<>(missing.keySet());
+        List<LocalDate> dateList = new ArrayList<>(missingDates);
+        for (int dateStart = 0; dateStart < dateList.size(); dateStart += MAX_DATES_PER_QUERY) {
+            List<LocalDate> dateChunk = dateList.subList(dateStart,
+                    Math.min(dateStart + MAX_DATES_PER_QUERY, dateList.size()));
+            int symbolsPerQuery = Math.max(1, MAX_CELLS_PER_QUERY / dateChunk.size());
+            for (int symbolStart = 0; symbolStart < missingSymbols.size(); symbolStart += symbolsPerQuery) {
+                List<String> symbolChunk = missingSymbols.subList(symbolStart,
+                        Math.min(symbolStart + symbolsPerQuery, missingSymbols.size()));
+                List<StockPriceView> rows = readYourWritesGuard.readAll(symbolChunk,
+                        () -> stockPriceStorage.findBySymbolsAndDates(symbolChunk, dateChunk));
+                for (StockPriceView row : rows) {
+                    Set<LocalDate> wanted = missing.get(row.symbol());
+                    if (wanted != null && wanted.contains(row.date())) {
+                        found.computeIfAbsent(row.symbol(), key -> new LinkedHashMap<>()).put(row.date(), row);
+                        if (cache != null) {
+                            StockPriceCaches.fill(cache, StockPriceCaches.key(row.symbol(), row.date()), row,
+                                    versions.get(row.symbol()));
+                        }
+                    }
+                }
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Retrieves the stock price for a given company symbol on a specific date from the configured
+     * {@link StockPriceStorage}, or from the {@link SymbolSeriesStore} when it is enabled, as an immutable view
+     * without loading a JPA entity. Days known not to be stored are answered by the {@link StockPriceMissCache}.
+     * When lookup batching is enabled, concurrent storage lookups share one multi-key lookup through the
+     * {@link StockPriceLookupBatcher}.
+     * <p>
+     * Views are looked up in the {@code stockPriceHotViews} {@link DayKeyedCache} first, under a packed
+     * {@code long} key, so a hit builds no key string and allocates nothing; then in {@code stockPriceViews}.
      *
-     * @param symbol the stock symbol of the company for which the price is to be retrieved; must not be null or empty
+     * @param symbol the stock symbol of the company; must not be null or empty
      * @param date the date for which the stock price is to be retrieved; must not be null
      * @return the stock price for the specified company symbol and date
      * @throws IllegalArgumentException if the symbol is null, empty, or the date is null
      * @throws StockDataNotFoundException if no stock data is found for the specified symbol and date
      */
-    @Cacheable(value = "stockPrices", key = "#symbol + '_' + #date")
-    public StockPrice getStockPrice(String symbol, LocalDate date) {
+    public StockPriceView getStockPriceView(String symbol, LocalDate date) {
         if (symbol == null || symbol.trim().isEmpty()) {
             throw new IllegalArgumentException("Stock symbol cannot be null or empty");
         }
@@ -115,14 +293,269 @@ public class StockPriceService {
             throw new IllegalArgumentException("Date cannot be null");
         }
 
-        logger.info("Retrieving stock price for symbol {} on date {}", symbol, date);
+        DayKeyedCache hotViews = cacheManager.getCache(StockPriceCaches.STOCK_PRICE_HOT_VIEWS)
+                instanceof DayKeyedCache dayKeyedCache ? dayKeyedCache : null;
+        if (hotViews != null && hotViews.get(symbol, date) instanceof StockPriceView hot) {
+            return hot;
+        }
+
+        Cache views = cacheManager.getCache(StockPriceCaches.STOCK_PRICE_VIEWS);
+        String key = StockPriceCaches.key(symbol, date);
+        StockPriceView view = views == null ? null : views.get(key, StockPriceView.class);
+        if (view == null) {
+            long version = views == null ? 0 : StockPriceCaches.versionOf(views, symbol);
+            view = loadStockPriceView(symbol, date);
+            if (views != null) {
+                StockPriceCaches.fill(views, key, view, version);
+            }
+        }
+
+        if (hotViews != null) {
+            hotViews.put(symbol, date, view);
+        }
+        return view;
+    }
+
+    private StockPriceView loadStockPriceView(String symbol, LocalDate date) {
+        if (stockPriceMissCache.isKnownMissing(symbol, date)) {
+            throw notFound(symbol, date);
+        }
+
+        Optional<StockPriceView> stockPrice = symbolSeriesStore.isEnabled()
+                ? symbolSeriesStore.find(symbol, date)
+                : stockPriceLookupBatcher.isEnabled()
+                ? stockPriceLookupBatcher.find(symbol, date)
+                : readYourWritesGuard.read(symbol, () -> stockPriceStorage.findBySymbolAndDate(symbol, date));
+
+        return stockPrice.orElseThrow(() -> {
+            stockPriceMissCache.recordMiss(symbol, date);
+            return notFound(symbol, date);
+        });
+    }
+
+    private static StockDataNotFoundException notFound(String symbol, LocalDate date) {
+        logger.warn("Stock data not found for symbol {} on date {}", symbol, date);
+        return new StockDataNotFoundException(symbol, date);
+    }
+
+    /**
+     * Retrieves stored stock prices for a company symbol within a date range using keyset pagination.
+     * Each page continues after the (symbol, date) encoded in the cursor, so deep pages cost the same
+     * index seek as the first one and no count query is run. Rows are read from the configured
+     * {@link StockPriceStorage}, as immutable views without loading JPA entities. When the
+     * {@link SymbolSeriesStore} is enabled, pages are sliced from the symbol's in-memory columns instead, and
+     * otherwise assembled from the month chunks of the {@link StockPriceChunkCache} when it is enabled. When the
+     * shared cache tier is enabled, pages are cached in {@code stockPriceRanges} until their symbol is written, under
+     * the symbol's range version read before the rows, so a page read from sources that predate a write made by
+     * another instance is not shared past it.
+     *
+     * @param symbol the stock symbol to retrieve; must not be null or empty
+     * @param fromDate the start of the range (inclusive); must not be null
+     * @param toDate the end of the range (inclusive); must not be null
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of rows per page; must be positive
+     * @return the page of stock prices, with a cursor to the next page if there are more rows
+     * @throws IllegalArgumentException if a parameter is invalid or the cursor does not belong to the symbol
+     */
+    public CursorPage<StockPriceView> getStockPriceViews(String symbol, LocalDate fromDate, LocalDate toDate,
+                                                         String cursor, int size) {
+        LocalDate afterDate = resolveAfterDate(symbol, fromDate, toDate, cursor, size);
+        TwoTierCache cache = cacheManager.getCache(StockPriceCaches.STOCK_PRICE_RANGES)
+                instanceof TwoTierCache twoTierCache ? twoTierCache : null;
+        RangeKey key = new RangeKey(symbol, fromDate, toDate, cursor, size);
+        long rangeVersion = cache == null ? 0 : cache.rangeVersion(symbol);
+        if (cache != null) {
+            @SuppressWarnings("unchecked")
+            CursorPage<StockPriceView> cached = cache.get(key, CursorPage.class);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        List<StockPriceView> rows = symbolSeriesStore.isEnabled()
+                ? symbolSeriesStore.range(symbol, afterDate.plusDays(1), toDate).toViews(size + 1)
+                : stockPriceChunkCache.isEnabled()
+                ? stockPriceChunkCache.range(symbol, afterDate.plusDays(1), toDate, size + 1)
+                : readYourWritesGuard.read(symbol,
+                        () -> stockPriceStorage.findRangeAfter(symbol, afterDate, toDate, size + 1));
+
+        CursorPage<StockPriceView> page = cursorPage(symbol, rows, size, StockPriceView::date);
+        if (cache != null) {
+            cache.put(key, page, rangeVersion);
+        }
+        return page;
+    }
+
+    /**
+     * Retrieves the weekly, monthly, quarterly or yearly candles of a company symbol within a date range,
+     * one cursor page at a time, from the rollups maintained at ingestion. Each candle is dated by the first day
+     * of its period and covers the whole period, so the first candle may start before {@code fromDate}.
+     *
+     * @param symbol the stock symbol to retrieve; must not be null or empty
+     * @param interval the candle interval; {@code DAY} returns the daily rows of {@link #getStockPriceViews}
+     * @param fromDate the start of the range (inclusive); must not be null
+     * @param toDate the end of the range (inclusive); must not be null
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of candles per page; must be positive
+     * @return the page of candles, with a cursor to the next page if there are more
+     * @throws IllegalArgumentException if a parameter is invalid or the cursor does not belong to the symbol
+     */
+    public CursorPage<StockPriceView> getStockPriceRollups(String symbol, BarInterval interval, LocalDate fromDate,
+                                                           LocalDate toDate, String cursor, int size) {
+        if (interval == null) {
+            throw new IllegalArgumentException("Interval cannot be null");
+        }
+
+        if (interval == BarInterval.DAY) {
+            return getStockPriceViews(symbol, fromDate, toDate, cursor, size);
+        }
+
+        LocalDate afterDate = resolveAfterDate(symbol, fromDate == null ? null : interval.periodStart(fromDate),
+                toDate, cursor, size);
+        List<StockPriceView> rows = stockPriceRollupService.findRangeAfter(symbol, interval, afterDate, toDate,
+                size + 1);
+
+        return cursorPage(symbol, rows, size, StockPriceView::date);
+    }
+
+    /**
+     * Streams the stored stock prices of a symbol within a date range, ordered by date, handing each row
+     * to the consumer as it is read from the configured {@link StockPriceStorage}. Nothing is buffered, so the
+     * consumer sees the first row before the last one has been read. When the {@link SymbolSeriesStore} is enabled, the
+     * rows come from the symbol's in-memory columns instead.
+     *
+     * @param symbol the stock symbol to retrieve; must not be null or empty
+     * @param fromDate the start of the range (inclusive); must not be null
+     * @param toDate the end of the range (inclusive); must not be before fromDate
+     * @param consumer receives each row; an exception thrown by it stops the stream and is rethrown
+     * @throws IllegalArgumentException if a parameter is invalid
+     */
+    public void streamStockPriceViews(String symbol, LocalDate fromDate, LocalDate toDate,
+                                      Consumer<StockPriceView> consumer) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Stock symbol cannot be null or empty");
+        }
+
+        if (fromDate == null || toDate == null) {
+            throw new IllegalArgumentException("Date range cannot be null");
+        }
+
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("From date cannot be after to date");
+        }
+
+        if (symbolSeriesStore.isEnabled()) {
+            symbolSeriesStore.range(symbol, fromDate, toDate).forEach(consumer);
+            return;
+        }
+
+        readYourWritesGuard.read(symbol, () -> {
+            stockPriceStorage.streamRange(symbol, fromDate, toDate, consumer);
+            return null;
+        });
+    }
+
+    /**
+     * Aggregates the stored stock prices of each symbol within a date range on the configured
+     * {@link StockPriceStorage}. Without symbols, every stored symbol is summarized, on the engines that can
+     * list them.
+     *
+     * @param symbols the stock symbols, or null or empty for every stored symbol
+     * @param fromDate the start of the range (inclusive); must not be null
+     * @param toDate the end of the range (inclusive); must not be before fromDate
+     * @return one summary per symbol with rows in the range, ordered by symbol
+     * @throws IllegalArgumentException if a parameter is invalid, or symbols are missing on an engine that
+     *                                  cannot summarize every symbol
+     */
+    public List<StockPriceSummary> getStockPriceSummaries(List<String> symbols, LocalDate fromDate, LocalDate toDate) {
+        if (fromDate == null || toDate == null) {
+            throw new IllegalArgumentException("Date range cannot be null");
+        }
+
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("From date cannot be after to date");
+        }
+
+        Set<String> distinct = new LinkedHashSet<>();
+        if (symbols != null) {
+            for (String symbol : symbols) {
+                if (symbol == null || symbol.trim().isEmpty()) {
+                    throw new IllegalArgumentException("Stock symbol cannot be null or empty");
+                }
+                distinct.add(symbol.trim());
+            }
+        }
+
+        return stockPriceStorage.summarize(distinct, fromDate, toDate);
+    }
+
+    /**
+     * Validates a cursor page request and returns the date after which the page starts.
+     */
+    private static LocalDate resolveAfterDate(String symbol, LocalDate fromDate, LocalDate toDate,
+                                              String cursor, int size) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Stock symbol cannot be null or empty");
+        }
+
+        if (fromDate == null || toDate == null) {
+            throw new IllegalArgumentException("Date range cannot be null");
+        }
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+
+        LocalDate after = fromDate.minusDays(1);
+        if (cursor != null && !cursor.isEmpty()) {
+            StockPriceCursor position = StockPriceCursor.decode(cursor);
+            if (!position.symbol().equals(symbol)) {
+                throw new IllegalArgumentException("Cursor does not belong to symbol " + symbol);
+            }
+            if (position.date().isAfter(after)) {
+                after = position.date();
+            }
+        }
+        return after;
+    }
+
+    /**
+     * Trims rows fetched with a {@code size + 1} limit to a page, with a cursor after its last row
+     * if the extra row shows that more follow.
+     */
+    private static <T> CursorPage<T> cursorPage(String symbol, List<T> rows, int size, Function<T, LocalDate> dateOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<T> content = rows.subList(0, size);
+        LocalDate last = dateOf.apply(content.get(size - 1));
+        return new CursorPage<>(content, new StockPriceCursor(symbol, last).encode());
+    }
+
+    /**
+     * Builds a page from freshly parsed rows, ordered by date and restricted to the requested range,
+     * for responses that must not wait for the rows to be committed.
+     *
+     * @param stockPrices the parsed rows
+     * @param fromDate the start of the requested range (inclusive)
+     * @param toDate the end of the requested range (inclusive)
+     * @param pageable pagination information
+     * @return the requested page of the parsed rows
+     */
+    private Page<StockPrice> pageOf(List<StockPrice> stockPrices, LocalDate fromDate, LocalDate toDate, Pageable pageable) {
+        List<StockPrice> inRange = stockPrices.stream()
+                .filter(sp -> !sp.getDate().isBefore(fromDate) && !sp.getDate().isAfter(toDate))
+                .sorted(Comparator.comparing(StockPrice::getDate))
+                .toList();
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(inRange, pageable, inRange.size());
+        }
 
-        return stockPriceRepository
-                .findByCompanySymbolAndDate(symbol, date)
-                .orElseThrow(() -> {
-                    logger.warn("Stock data not found for symbol {} on date {}", symbol, date);
-                    return new StockDataNotFoundException(symbol, date);
-                });
+        int start = (int) Math.min(pageable.getOffset(), inRange.size());
+        int end = Math.min(start + pageable.getPageSize(), inRange.size());
+        return new PageImpl<>(inRange.subList(start, end), pageable, inRange.size());
     }
 
     /**
@@ -0,0 +1,267 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.config.WriteBehindConfig;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceUpsertRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind stage for ingested stock prices. Rows submitted by concurrent requests are queued in a
+ * bounded, lock-free buffer and a single background writer flushes them as one batched upsert per
+ * {@code batchSize} rows, either when enough rows are waiting or when the flush interval elapses.
+ * Rows for the same (symbol, date) submitted before a flush are coalesced into the latest one.
+ * <p>
+ * In {@code DURABLE} mode {@link #write(List)} returns only once the caller's rows are committed.
+ * In {@code EVENTUAL} mode it returns immediately. When the buffer is full, the caller waits for the writer to
+ * make room, up to the acknowledgement timeout, and fails after it: writing its rows directly could let older
+ * buffered rows, flushed later, overwrite them. Once the writer has shut down, callers write their rows directly.
+ * <p>
+ * When write-behind is disabled, every caller upserts its own rows directly, so re-fetching a stored day updates
+ * it instead of failing on the unique key.
+ */
+@Component
+public class StockPriceWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockPriceWriteBuffer.class);
+
+    private final WriteBehindConfig config;
+    private final StockPriceUpsertRepository upsertRepository;
+    private final StockPriceIngestion stockPriceIngestion;
+
+    private final ConcurrentLinkedQueue<PendingWrite> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferedRows = new AtomicInteger();
+    private final Semaphore space;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService writer;
+
+    public StockPriceWriteBuffer(WriteBehindConfig config,
+                                 StockPriceUpsertRepository upsertRepository,
+                                 StockPriceIngestion stockPriceIngestion) {
+        this.config = config;
+        this.upsertRepository = upsertRepository;
+        this.stockPriceIngestion = stockPriceIngestion;
+        this.space = new Semaphore(config.getCapacity());
+
+        if (config.isEnabled()) {
+            this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stock-price-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = Math.max(1, config.getFlushInterval().toMillis());
+            writer.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.writer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Returns whether callers get their response before their rows are committed.
+     *
+     * @return true in {@code EVENTUAL} mode
+     */
+    public boolean isEventuallyConsistent() {
+        return config.getMode() == WriteBehindConfig.Mode.EVENTUAL;
+    }
+
+    /**
+     * Buffers the given rows for the background writer. In {@code DURABLE} mode, blocks until they are committed.
+     *
+     * @param stockPrices the parsed rows to persist
+     * @throws IllegalStateException if the rows could not be buffered, or committed within the acknowledgement
+     *                               timeout
+     */
+    public void write(List<StockPrice> stockPrices) {
+        CompletableFuture<Void> flushed = submit(stockPrices);
+
+        if (isEventuallyConsistent() && !flushed.isDone()) {
+            return;
+        }
+
+        try {
+            flushed.get(config.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for stock prices to be written", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error writing stock prices: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for stock prices to be written", e);
+        }
+    }
+
+    /**
+     * Buffers the given rows and returns a future completed once they are committed.
+     *
+     * @param stockPrices the parsed rows to persist
+     * @return a future completed when the rows are flushed, or completed exceptionally if the flush fails or the
+     *         buffer stays full for the acknowledgement timeout
+     */
+    public CompletableFuture<Void> submit(List<StockPrice> stockPrices) {
+        if (stockPrices.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (writer == null || writer.isShutdown()) {
+            return writeDirectly(stockPrices);
+        }
+
+        int permits = Math.min(stockPrices.size(), config.getCapacity());
+        if (!reserve(permits)) {
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "Write-behind buffer stayed full for " + config.getAckTimeout()));
+        }
+
+        PendingWrite pending = new PendingWrite(stockPrices, permits, new CompletableFuture<>());
+        bufferedRows.addAndGet(stockPrices.size());
+        queue.offer(pending);
+
+        if (bufferedRows.get() >= config.getBatchSize()) {
+            requestFlush();
+        }
+        if (writer.isShutdown()) {
+            flush();
+        }
+
+        return pending.flushed();
+    }
+
+    /**
+     * Drains the buffer, writing its rows in batches of at most {@code batchSize}.
+     * Called from the writer thread, and by callers once the writer has shut down.
+     */
+    synchronized void flush() {
+        flushRequested.set(false);
+
+        while (!queue.isEmpty()) {
+            List<PendingWrite> batch = new ArrayList<>();
+            int rows = 0;
+            PendingWrite pending;
+
+            while (rows < config.getBatchSize() && (pending = queue.poll()) != null) {
+                batch.add(pending);
+                rows += pending.stockPrices().size();
+            }
+
+            bufferedRows.addAndGet(-rows);
+            try {
+                writeBatch(batch);
+            } finally {
+                space.release(batch.stream().mapToInt(PendingWrite::permits).sum());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(config.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Write-behind writer did not stop in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Takes room for rows in the buffer, asking the writer to flush and waiting for it if the buffer is full.
+     */
+    private boolean reserve(int permits) {
+        if (space.tryAcquire(permits)) {
+            return true;
+        }
+
+        logger.warn("Write-behind buffer full, waiting to buffer {} stock price records", permits);
+        requestFlush();
+        try {
+            return space.tryAcquire(permits, config.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writer.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            flush();
+        }
+    }
+
+    private CompletableFuture<Void> writeDirectly(List<StockPrice> stockPrices) {
+        List<StockPrice> rows = coalesce(List.of(new PendingWrite(stockPrices, 0, null)));
+        try {
+            upsertRepository.upsertAll(rows, config.getBatchSize());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        stockPriceIngestion.publish(rows);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        List<StockPrice> rows = coalesce(batch);
+
+        try {
+            upsertRepository.upsertAll(rows, config.getBatchSize());
+        } catch (RuntimeException e) {
+            logger.error("Error flushing {} buffered stock price records", rows.size(), e);
+            batch.forEach(pending -> pending.flushed().completeExceptionally(e));
+            return;
+        }
+
+        stockPriceIngestion.publish(rows);
+        logger.debug("Flushed {} stock price records from {} requests", rows.size(), batch.size());
+        batch.forEach(pending -> pending.flushed().complete(null));
+    }
+
+    private static List<StockPrice> coalesce(List<PendingWrite> batch) {
+        Map<RowKey, StockPrice> latest = new LinkedHashMap<>();
+        for (PendingWrite pending : batch) {
+            for (StockPrice stockPrice : pending.stockPrices()) {
+                latest.put(new RowKey(stockPrice.getCompanySymbol(), stockPrice.getDate()), stockPrice);
+            }
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private record PendingWrite(List<StockPrice> stockPrices, int permits, CompletableFuture<Void> flushed) {
+    }
+
+    private record RowKey(String symbol, LocalDate date) {
+    }
+}
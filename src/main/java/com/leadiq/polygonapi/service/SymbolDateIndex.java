@@ -0,0 +1,182 @@
+package com.leadiq.polygonapi.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * In-memory index of the days stored for each symbol, kept as one bitmap per symbol (one bit per day).
+ * Serves row counts for any date range without a {@code COUNT(*)} query, and tells which days are not stored
+ * so their lookups can be answered without a query. A symbol's bitmap is loaded from the configured
+ * {@link StockPriceStorage} on first use, so days moved to the cold tier stay counted, updated by ingestion, and
+ * reloaded after the configured TTL so rows written by other instances are eventually counted. At most the
+ * configured number of symbols are kept, so probes of unknown symbols cannot grow the index without bound.
+ * <p>
+ * A symbol is loaded once by the first reader, outside any lock, while concurrent readers wait for the same
+ * load. Rows committed while it loads are applied to the loaded bitmap as soon as it completes instead of being
+ * skipped.
+ */
+@Component
+public class SymbolDateIndex {
+
+    private final StockPriceStorage stockPriceStorage;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final AsyncCache<String, StoredDays> storedDays;
+
+    public SymbolDateIndex(StockPriceStorage stockPriceStorage,
+                           ReadYourWritesGuard readYourWritesGuard,
+                           @Value("${polygon.cache.symbol-dates.ttl:10m}") Duration ttl,
+                           @Value("${polygon.cache.symbol-dates.max-symbols:10000}") long maxSymbols) {
+        this.stockPriceStorage = stockPriceStorage;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.storedDays = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSymbols)
+                .buildAsync();
+    }
+
+    /**
+     * Counts the stored rows for a symbol within a date range.
+     *
+     * @param symbol the stock symbol
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @return the number of stored days in the range
+     */
+    public long countBetween(String symbol, LocalDate fromDate, LocalDate toDate) {
+        return load(symbol).count(fromDate.toEpochDay(), toDate.toEpochDay());
+    }
+
+    /**
+     * Returns whether a day is stored for a symbol, as of the last load plus the writes recorded since.
+     *
+     * @param symbol the stock symbol
+     * @param date the day
+     * @return false if the day is not stored, or was not when the symbol was loaded
+     */
+    public boolean contains(String symbol, LocalDate date) {
+        return load(symbol).contains(date.toEpochDay());
+    }
+
+    /**
+     * Marks the days of freshly written rows as stored. Symbols that are not loaded yet are skipped;
+     * they are read from storage on first use.
+     *
+     * @param stockPrices the rows that were just committed
+     */
+    public void recordWrites(Collection<StockPrice> stockPrices) {
+        Map<String, List<LocalDate>> bySymbol = new LinkedHashMap<>();
+        for (StockPrice stockPrice : stockPrices) {
+            bySymbol.computeIfAbsent(stockPrice.getCompanySymbol(), symbol -> new ArrayList<>())
+                    .add(stockPrice.getDate());
+        }
+        bySymbol.forEach(this::recordDays);
+    }
+
+    /**
+     * Marks days written to a symbol, for instance by another instance, as stored. Symbols that are not loaded
+     * yet are skipped.
+     *
+     * @param symbol the stock symbol
+     * @param dates the days written
+     */
+    public void recordDays(String symbol, Collection<LocalDate> dates) {
+        CompletableFuture<StoredDays> days = storedDays.getIfPresent(symbol);
+        if (days != null) {
+            days.thenAccept(loaded -> dates.forEach(date -> loaded.add(date.toEpochDay())));
+        }
+    }
+
+    /**
+     * Drops the cached days of a symbol so they are reloaded on next use.
+     *
+     * @param symbol the stock symbol
+     */
+    public void evict(String symbol) {
+        storedDays.synchronous().invalidate(symbol);
+    }
+
+    /**
+     * Returns the loaded days of a symbol, loading them on this thread unless another one already is.
+     */
+    private StoredDays load(String symbol) {
+        CompletableFuture<StoredDays> loading = new CompletableFuture<>();
+        CompletableFuture<StoredDays> current = storedDays.asMap().putIfAbsent(symbol, loading);
+        if (current != null) {
+            try {
+                return current.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            List<LocalDate> dates = readYourWritesGuard.read(symbol, () -> stockPriceStorage.findDates(symbol));
+            StoredDays loaded = new StoredDays();
+            dates.forEach(date -> loaded.add(date.toEpochDay()));
+            loading.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Bitmap of stored days, offset by the earliest day seen so a symbol's history only costs one bit per
+     * day since its first row.
+     */
+    static final class StoredDays {
+
+        private long base = Long.MIN_VALUE;
+        private BitSet bits = new BitSet();
+
+        synchronized void add(long epochDay) {
+            if (base == Long.MIN_VALUE) {
+                base = epochDay;
+            } else if (epochDay < base) {
+                int shift = Math.toIntExact(base - epochDay);
+                BitSet shifted = new BitSet(bits.length() + shift);
+                for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                    shifted.set(i + shift);
+                }
+                bits = shifted;
+                base = epochDay;
+            }
+            bits.set(Math.toIntExact(epochDay - base));
+        }
+
+        synchronized boolean contains(long epochDay) {
+            return base != Long.MIN_VALUE && epochDay >= base && epochDay - base <= Integer.MAX_VALUE
+                    && bits.get((int) (epochDay - base));
+        }
+
+        synchronized long count(long fromEpochDay, long toEpochDay) {
+            if (base == Long.MIN_VALUE || toEpochDay < base) {
+                return 0;
+            }
+
+            int from = (int) Math.max(0, fromEpochDay - base);
+            long to = Math.min(toEpochDay - base, Integer.MAX_VALUE - 1);
+            long count = 0;
+            for (int i = bits.nextSetBit(from); i >= 0 && i <= to; i = bits.nextSetBit(i + 1)) {
+                count++;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.leadiq.polygonapi.service;
+
+/**
+ * A fixed set of locks striped by symbol, so slow work on one symbol, such as backfilling its history, only holds
+ * up the symbols that hash to the same stripe instead of every other one.
+ */
+public final class SymbolLocks {
+
+    /** Number of stripes symbols are spread over. */
+    public static final int STRIPES = 64;
+
+    private final Object[] locks = new Object[STRIPES];
+
+    public SymbolLocks() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Returns the lock guarding a symbol's stripe.
+     *
+     * @param symbol the stock symbol
+     * @return the lock to synchronize on
+     */
+    public Object of(String symbol) {
+        return locks[stripe(symbol)];
+    }
+
+    /**
+     * Returns the stripe a symbol falls in, for state kept per stripe instead of behind a lock.
+     *
+     * @param symbol the stock symbol
+     * @return an index below {@link #STRIPES}
+     */
+    public static int stripe(String symbol) {
+        return Math.floorMod(symbol.hashCode(), STRIPES);
+    }
+}
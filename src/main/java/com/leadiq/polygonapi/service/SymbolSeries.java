@@ -0,0 +1,258 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Immutable history of one symbol held as primitive columns, sorted by day: epoch days in an {@code int[]},
+ * prices in {@code double[]} and volumes in a {@code long[]}. Missing prices are {@code NaN} and a missing
+ * volume is {@link #MISSING_VOLUME}. Updates return a new series, so readers never need a lock.
+ */
+public final class SymbolSeries {
+
+    /** Stored in the volume column for rows without a volume. */
+    public static final long MISSING_VOLUME = Long.MIN_VALUE;
+
+    /** Bytes per row across all columns. */
+    private static final int ROW_BYTES = Integer.BYTES + 4 * Double.BYTES + Long.BYTES;
+    /** Rough fixed cost of the object, its arrays and the store entry. */
+    private static final int OVERHEAD_BYTES = 256;
+
+    private final String symbol;
+    private final int[] epochDays;
+    private final double[] open;
+    private final double[] close;
+    private final double[] high;
+    private final double[] low;
+    private final long[] volume;
+
+    private SymbolSeries(String symbol, int size) {
+        this.symbol = symbol;
+        this.epochDays = new int[size];
+        this.open = new double[size];
+        this.close = new double[size];
+        this.high = new double[size];
+        this.low = new double[size];
+        this.volume = new long[size];
+    }
+
+    /**
+     * Builds a series from rows sorted by date.
+     *
+     * @param symbol the stock symbol
+     * @param rows the symbol's rows, in ascending date order without duplicates
+     * @return the series
+     */
+    public static SymbolSeries of(String symbol, List<StockPriceView> rows) {
+        SymbolSeries series = new SymbolSeries(symbol, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            StockPriceView row = rows.get(i);
+            series.set(i, Math.toIntExact(row.date().toEpochDay()), row.openPrice(), row.closePrice(),
+                    row.highPrice(), row.lowPrice(), row.volume());
+        }
+        return series;
+    }
+
+    /**
+     * Returns a series with the given rows added, replacing rows already stored for the same day.
+     *
+     * @param rows rows of this symbol, in any order
+     * @return the merged series
+     */
+    public SymbolSeries merge(Collection<StockPrice> rows) {
+        List<StockPrice> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(StockPrice::getDate));
+
+        SymbolSeries merged = new SymbolSeries(symbol, size() + sorted.size());
+        int i = 0;
+        int size = 0;
+        for (int j = 0; j < sorted.size(); j++) {
+            StockPrice row = sorted.get(j);
+            int day = Math.toIntExact(row.getDate().toEpochDay());
+            if (j + 1 < sorted.size() && sorted.get(j + 1).getDate().equals(row.getDate())) {
+                continue;
+            }
+            while (i < size() && epochDays[i] < day) {
+                merged.copyFrom(this, i++, size++);
+            }
+            if (i < size() && epochDays[i] == day) {
+                i++;
+            }
+            merged.set(size++, day, row.getOpenPrice(), row.getClosePrice(), row.getHighPrice(),
+                    row.getLowPrice(), row.getVolume());
+        }
+        while (i < size()) {
+            merged.copyFrom(this, i++, size++);
+        }
+        return size == merged.size() ? merged : merged.truncate(size);
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    /**
+     * Finds the first row on or after a day.
+     *
+     * @param epochDay days since 1970-01-01
+     * @return the index of the first row whose day is not before {@code epochDay}, or {@link #size()}
+     */
+    public int lowerBound(long epochDay) {
+        if (epochDay > Integer.MAX_VALUE) {
+            return size();
+        }
+        if (epochDay < Integer.MIN_VALUE) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(epochDays, (int) epochDay);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Returns the rows within a date range as a contiguous slice of the columns.
+     *
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @return the rows in the range, possibly empty
+     */
+    public Range range(LocalDate fromDate, LocalDate toDate) {
+        int start = lowerBound(fromDate.toEpochDay());
+        int end = Math.max(start, lowerBound(toDate.toEpochDay() + 1));
+        return new Range(this, start, end);
+    }
+
+    public int epochDay(int index) {
+        return epochDays[index];
+    }
+
+    public double open(int index) {
+        return open[index];
+    }
+
+    public double close(int index) {
+        return close[index];
+    }
+
+    public double high(int index) {
+        return high[index];
+    }
+
+    public double low(int index) {
+        return low[index];
+    }
+
+    public long volume(int index) {
+        return volume[index];
+    }
+
+    /**
+     * Materializes one row.
+     *
+     * @param index the row index
+     * @return the row as a view, with missing values as null
+     */
+    public StockPriceView view(int index) {
+        return new StockPriceView(symbol, LocalDate.ofEpochDay(epochDays[index]), boxed(open[index]),
+                boxed(close[index]), boxed(high[index]), boxed(low[index]),
+                volume[index] == MISSING_VOLUME ? null : volume[index]);
+    }
+
+    /**
+     * Estimates the heap held by this series.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimatedBytes() {
+        return OVERHEAD_BYTES + (long) size() * ROW_BYTES;
+    }
+
+    private void set(int index, int epochDay, Double openPrice, Double closePrice, Double highPrice,
+                     Double lowPrice, Long volumeValue) {
+        epochDays[index] = epochDay;
+        open[index] = unboxed(openPrice);
+        close[index] = unboxed(closePrice);
+        high[index] = unboxed(highPrice);
+        low[index] = unboxed(lowPrice);
+        volume[index] = volumeValue == null ? MISSING_VOLUME : volumeValue;
+    }
+
+    private void copyFrom(SymbolSeries source, int from, int to) {
+        epochDays[to] = source.epochDays[from];
+        open[to] = source.open[from];
+        close[to] = source.close[from];
+        high[to] = source.high[from];
+        low[to] = source.low[from];
+        volume[to] = source.volume[from];
+    }
+
+    private SymbolSeries truncate(int size) {
+        SymbolSeries truncated = new SymbolSeries(symbol, size);
+        System.arraycopy(epochDays, 0, truncated.epochDays, 0, size);
+        System.arraycopy(open, 0, truncated.open, 0, size);
+        System.arraycopy(close, 0, truncated.close, 0, size);
+        System.arraycopy(high, 0, truncated.high, 0, size);
+        System.arraycopy(low, 0, truncated.low, 0, size);
+        System.arraycopy(volume, 0, truncated.volume, 0, size);
+        return truncated;
+    }
+
+    private static double unboxed(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    /**
+     * Rows {@code [start, end)} of a series.
+     *
+     * @param series the series the rows belong to
+     * @param start the index of the first row (inclusive)
+     * @param end the index after the last row (exclusive)
+     */
+    public record Range(SymbolSeries series, int start, int end) {
+
+        public int size() {
+            return end - start;
+        }
+
+        /**
+         * Materializes up to {@code limit} rows from the start of the range.
+         *
+         * @param limit the maximum number of rows
+         * @return the rows, in date order
+         */
+        public List<StockPriceView> toViews(int limit) {
+            int last = start + Math.min(size(), limit);
+            List<StockPriceView> views = new ArrayList<>(last - start);
+            for (int i = start; i < last; i++) {
+                views.add(series.view(i));
+            }
+            return views;
+        }
+
+        /**
+         * Hands every row of the range to the consumer, in date order.
+         *
+         * @param consumer receives each row
+         */
+        public void forEach(Consumer<StockPriceView> consumer) {
+            for (int i = start; i < end; i++) {
+                consumer.accept(series.view(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.leadiq.polygonapi.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.leadiq.polygonapi.cache.SharedCacheTier;
+import com.leadiq.polygonapi.config.SymbolSeriesConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * In-process store of hot symbols' histories as {@link SymbolSeries} columns. Range reads are a binary
+ * search plus a contiguous slice, with no database round trip.
+ * <p>
+ * A symbol is loaded from the {@link StockPriceStorage} on first read, kept current by ingestion, and reloaded
+ * after the configured TTL so rows written by other instances show up. Symbols are weighed by their
+ * {@link SymbolSeries#estimatedBytes()}, and the cache evicts the least valuable ones beyond the memory limit.
+ * <p>
+ * A symbol is loaded once by the first reader, outside any lock, while concurrent readers wait for the same
+ * load. Rows committed while it loads are merged into the loaded series as soon as it completes instead of being
+ * skipped.
+ * <p>
+ * When the {@link SharedCacheTier} is enabled, a write announced by another instance evicts the symbol, and reads
+ * of it go to the primary for the read-your-writes window, so it is reloaded with the write instead of from a
+ * replica that has not applied it yet.
+ */
+@Component
+public class SymbolSeriesStore {
+
+    private final SymbolSeriesConfig config;
+    private final StockPriceStorage stockPriceStorage;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final AsyncCache<String, SymbolSeries> entries;
+
+    public SymbolSeriesStore(SymbolSeriesConfig config,
+                             StockPriceStorage stockPriceStorage,
+                             ReadYourWritesGuard readYourWritesGuard,
+                             ObjectProvider<SharedCacheTier> sharedCacheTier) {
+        this.config = config;
+        this.stockPriceStorage = stockPriceStorage;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(config.getMaxMemory().toBytes())
+                .weigher((String symbol, SymbolSeries series) ->
+                        (int) Math.min(Integer.MAX_VALUE, series.estimatedBytes()))
+                .expireAfter(new LoadedExpiry(config.getTtl()))
+                .buildAsync();
+
+        sharedCacheTier.ifAvailable(tier -> tier.addInvalidationListener(invalidation -> {
+            readYourWritesGuard.recordWrite(invalidation.symbol());
+            evict(invalidation.symbol());
+        }));
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Returns the stored rows of a symbol within a date range, loading the symbol if needed.
+     *
+     * @param symbol the stock symbol
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @return the rows in the range
+     */
+    public SymbolSeries.Range range(String symbol, LocalDate fromDate, LocalDate toDate) {
+        return load(symbol).range(fromDate, toDate);
+    }
+
+    /**
+     * Returns the stored row of a symbol on one day, loading the symbol if needed.
+     *
+     * @param symbol the stock symbol
+     * @param date the day
+     * @return the row, or empty if none is stored
+     */
+    public Optional<StockPriceView> find(String symbol, LocalDate date) {
+        SymbolSeries.Range range = range(symbol, date, date);
+        return range.size() == 0 ? Optional.empty() : Optional.of(range.series().view(range.start()));
+    }
+
+    /**
+     * Adds freshly written rows to the symbols that are loaded or loading; rows of a loading symbol are merged
+     * in when its load completes. Symbols that are not loaded are skipped; they are read from storage on first use.
+     *
+     * @param stockPrices the rows that were just committed
+     */
+    public void recordWrites(Collection<StockPrice> stockPrices) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Map<String, List<StockPrice>> bySymbol = new LinkedHashMap<>();
+        for (StockPrice stockPrice : stockPrices) {
+            bySymbol.computeIfAbsent(stockPrice.getCompanySymbol(), symbol -> new ArrayList<>()).add(stockPrice);
+        }
+
+        bySymbol.forEach((symbol, rows) -> entries.asMap().computeIfPresent(symbol,
+                (key, series) -> series.thenApply(loaded -> loaded.merge(rows))));
+    }
+
+    /**
+     * Drops a symbol so it is reloaded on next use.
+     *
+     * @param symbol the stock symbol
+     */
+    public void evict(String symbol) {
+        entries.synchronous().invalidate(symbol);
+    }
+
+    /**
+     * Returns the estimated memory held by loaded symbols.
+     *
+     * @return the estimated size in bytes
+     */
+    public long usedBytes() {
+        entries.synchronous().cleanUp();
+        return entries.synchronous().policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    /**
+     * Returns the loaded series of a symbol, loading it on this thread unless another one already is.
+     */
+    private SymbolSeries load(String symbol) {
+        CompletableFuture<SymbolSeries> loading = new CompletableFuture<>();
+        CompletableFuture<SymbolSeries> current = entries.asMap().putIfAbsent(symbol, loading);
+        if (current != null) {
+            try {
+                return current.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            List<StockPriceView> rows = readYourWritesGuard.read(symbol, () -> stockPriceStorage.findBySymbol(symbol));
+            SymbolSeries loaded = SymbolSeries.of(symbol, rows);
+            loading.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Expires a symbol the TTL after it was loaded; merging written rows does not extend it.
+     */
+    private static final class LoadedExpiry implements Expiry<String, SymbolSeries> {
+
+        private final long ttlNanos;
+
+        LoadedExpiry(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String symbol, SymbolSeries series, long currentTime) {
+            return ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String symbol, SymbolSeries series, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String symbol, SymbolSeries series, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.leadiq.polygonapi.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leadiq.polygonapi.config.StorageConfig;
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceBlockRepository;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.service.ReadYourWritesGuard;
+import com.leadiq.polygonapi.service.SymbolLocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Engine that serves reads from {@code stock_price_block}, a compact read copy of {@code stock_price} where each
+ * symbol's year of daily bars is one row holding a {@link StockPriceBlockCodec} block. A range read fetches one
+ * row per year and decodes the rows it needs, so the database reads a few kilobytes instead of an index range of
+ * hundreds of rows. {@code stock_price} is still kept in full, so the blocks cost storage on top of it.
+ * <p>
+ * A symbol without blocks is encoded from its {@code stock_price} rows on first use when backfill is enabled.
+ * Ingestion re-encodes the blocks of the years it writes. Rows written to MySQL by other instances do not reach
+ * the blocks of symbols this instance already loaded.
+ * <p>
+ * Backfills and block rewrites of a symbol hold one of a fixed set of lock stripes chosen by the symbol, so
+ * a slow backfill only holds up writes that hash to the same stripe. The symbols known to be backfilled are
+ * kept in a bounded cache; a symbol that falls out of it is checked against {@code stock_price_block} again.
+ * A symbol whose blocks failed to take committed rows is re-encoded from MySQL on its next use.
+ */
+@Component
+@ConditionalOnProperty(name = "polygon.storage.engine", havingValue = "blocks")
+public class BlockStockPriceStorage implements StockPriceStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockStockPriceStorage.class);
+
+    private static final int TRADING_DAYS_PER_YEAR = 252;
+
+    private final StorageConfig.Blocks config;
+    private final StockPriceBlockRepository blockRepository;
+    private final StockPriceRepository stockPriceRepository;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final Cache<String, Boolean> loaded;
+    private final Set<String> discarded = ConcurrentHashMap.newKeySet();
+    private final SymbolLocks locks = new SymbolLocks();
+
+    public BlockStockPriceStorage(StorageConfig storageConfig,
+                                  StockPriceBlockRepository blockRepository,
+                                  StockPriceRepository stockPriceRepository,
+                                  ReadYourWritesGuard readYourWritesGuard) {
+        this.config = storageConfig.getBlocks();
+        this.blockRepository = blockRepository;
+        this.stockPriceRepository = stockPriceRepository;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.loaded = Caffeine.newBuilder().maximumSize(config.getMaxLoadedSymbols()).build();
+    }
+
+    @Override
+    public Optional<StockPriceView> findBySymbolAndDate(String symbol, LocalDate date) {
+        List<StockPriceView> rows = new ArrayList<>(1);
+        forEachRow(symbol, date, date, 1, rows::add);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Decodes each symbol's blocks from the first to the last date once, instead of once per date.
+     */
+    @Override
+    public List<StockPriceView> findBySymbolsAndDates(Collection<String> symbols, Collection<LocalDate> dates) {
+        TreeSet<LocalDate> wanted = new TreeSet<>(dates);
+        List<StockPriceView> rows = new ArrayList<>();
+        if (wanted.isEmpty()) {
+            return rows;
+        }
+        for (String symbol : symbols) {
+            forEachRow(symbol, wanted.first(), wanted.last(), Long.MAX_VALUE, row -> {
+                if (wanted.contains(row.date())) {
+                    rows.add(row);
+                }
+            });
+        }
+        return rows;
+    }
+
+    @Override
+    public List<StockPriceView> findRangeAfter(String symbol, LocalDate afterDate, LocalDate toDate, int limit) {
+        List<StockPriceView> rows = new ArrayList<>();
+        if (afterDate.isBefore(toDate)) {
+            forEachRow(symbol, afterDate.plusDays(1), toDate, limit, rows::add);
+        }
+        return rows;
+    }
+
+    @Override
+    public void streamRange(String symbol, LocalDate fromDate, LocalDate toDate, Consumer<StockPriceView> consumer) {
+        forEachRow(symbol, fromDate, toDate, Long.MAX_VALUE, consumer);
+    }
+
+    @Override
+    public List<StockPriceView> findBySymbol(String symbol) {
+        List<StockPriceView> rows = new ArrayList<>();
+        forEachRow(symbol, FIRST_DAY, LAST_DAY, Long.MAX_VALUE, rows::add);
+        return rows;
+    }
+
+    @Override
+    public List<LocalDate> findDates(String symbol) {
+        List<LocalDate> dates = new ArrayList<>();
+        forEachRow(symbol, FIRST_DAY, LAST_DAY, Long.MAX_VALUE, row -> dates.add(row.date()));
+        return dates;
+    }
+
+    /**
+     * Aggregates each symbol by decoding its blocks in the range. Symbols are required: blocks exist only for
+     * symbols read or written since the engine was enabled, so a summary of every symbol would silently leave
+     * the others out.
+     *
+     * @throws IllegalArgumentException if no symbols are given
+     */
+    @Override
+    public List<StockPriceSummary> summarize(Collection<String> symbols, LocalDate fromDate, LocalDate toDate) {
+        if (symbols.isEmpty()) {
+            throw new IllegalArgumentException("The blocks storage engine only summarizes the symbols given");
+        }
+
+        List<StockPriceSummary> summaries = new ArrayList<>();
+        for (String symbol : new TreeSet<>(symbols)) {
+            SummaryAccumulator accumulator = new SummaryAccumulator(symbol);
+            streamRange(symbol, fromDate, toDate, accumulator);
+            if (accumulator.days() > 0) {
+                summaries.add(accumulator.toSummary());
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Merges committed rows into the blocks of their years and re-encodes them. A symbol without blocks is
+     * backfilled from MySQL first, which already holds these rows.
+     */
+    @Override
+    public void recordWrites(Collection<StockPrice> stockPrices) {
+        Map<String, Map<Integer, List<StockPrice>>> bySymbolAndYear = new TreeMap<>();
+        for (StockPrice stockPrice : stockPrices) {
+            bySymbolAndYear.computeIfAbsent(stockPrice.getCompanySymbol(), symbol -> new TreeMap<>())
+                    .computeIfAbsent(stockPrice.getDate().getYear(), year -> new ArrayList<>())
+                    .add(stockPrice);
+        }
+
+        bySymbolAndYear.forEach((symbol, byYear) -> {
+            synchronized (locks.of(symbol)) {
+                load(symbol);
+                byYear.forEach((year, rows) -> {
+                    Map<LocalDate, StockPriceView> merged = new TreeMap<>();
+                    blockRepository.findBlock(symbol, year).ifPresent(block -> decode(symbol, block, merged));
+                    for (StockPrice row : rows) {
+                        merged.put(row.getDate(), new StockPriceView(row.getCompanySymbol(), row.getDate(),
+                                row.getOpenPrice(), row.getClosePrice(), row.getHighPrice(), row.getLowPrice(),
+                                row.getVolume()));
+                    }
+                    write(symbol, year, new ArrayList<>(merged.values()));
+                });
+            }
+        });
+    }
+
+    /**
+     * Re-encodes the symbol's blocks from MySQL on its next use, whether or not backfill is enabled.
+     */
+    @Override
+    public void discard(String symbol) {
+        synchronized (locks.of(symbol)) {
+            discarded.add(symbol);
+            loaded.invalidate(symbol);
+        }
+    }
+
+    /**
+     * Decodes the blocks of a symbol covering a date range and hands at most {@code limit} rows within it to a
+     * consumer, in date order. Blocks are fetched a few at a time, enough for the rows still wanted at a year of
+     * trading days per block, so a page does not pull every later year of the range. One decoder is reused for
+     * every block.
+     */
+    private void forEachRow(String symbol, LocalDate fromDate, LocalDate toDate, long limit,
+                            Consumer<StockPriceView> consumer) {
+        load(symbol);
+
+        long fromDay = fromDate.toEpochDay();
+        long toDay = toDate.toEpochDay();
+        StockPriceBlockCodec.Decoder decoder = new StockPriceBlockCodec.Decoder();
+        long[] remaining = {limit};
+        int[] lastYear = {fromDate.getYear() - 1};
+
+        int batch;
+        int fetched;
+        do {
+            batch = (int) Math.min(Integer.MAX_VALUE, remaining[0] / TRADING_DAYS_PER_YEAR + 1);
+            fetched = blockRepository.forEachBlock(symbol, lastYear[0] + 1, toDate.getYear(), batch, (block, year) -> {
+                lastYear[0] = year;
+                decoder.reset(block);
+                while (remaining[0] > 0 && decoder.next()) {
+                    long day = decoder.epochDay();
+                    if (day > toDay) {
+                        break;
+                    }
+                    if (day >= fromDay) {
+                        consumer.accept(view(symbol, decoder));
+                        remaining[0]--;
+                    }
+                }
+            });
+        } while (fetched == batch && remaining[0] > 0 && lastYear[0] < toDate.getYear());
+    }
+
+    /**
+     * Backfills a symbol's blocks from MySQL the first time it is used, unless it already has blocks, and
+     * re-encodes the blocks of a discarded symbol.
+     */
+    private void load(String symbol) {
+        boolean stale = discarded.contains(symbol);
+        if (!stale && (!config.isBackfill() || loaded.getIfPresent(symbol) != null)) {
+            return;
+        }
+
+        synchronized (locks.of(symbol)) {
+            if (discarded.contains(symbol)) {
+                backfill(symbol);
+                discarded.remove(symbol);
+            } else if (loaded.getIfPresent(symbol) != null) {
+                return;
+            } else if (!blockRepository.existsBySymbol(symbol)) {
+                backfill(symbol);
+            }
+            loaded.put(symbol, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Encodes every year of a symbol's MySQL rows into its blocks.
+     */
+    private void backfill(String symbol) {
+        List<StockPriceView> rows = readYourWritesGuard.read(symbol,
+                () -> stockPriceRepository.findViewsByCompanySymbol(symbol));
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        logger.info("Backfilling {} stock price records of {} into blocks", rows.size(), symbol);
+        Map<Integer, List<StockPriceView>> byYear = new TreeMap<>();
+        for (StockPriceView row : rows) {
+            byYear.computeIfAbsent(row.date().getYear(), year -> new ArrayList<>()).add(row);
+        }
+        byYear.forEach((year, yearRows) -> write(symbol, year, yearRows));
+    }
+
+    private void write(String symbol, int year, List<StockPriceView> rows) {
+        blockRepository.upsert(symbol, year, rows.size(), rows.get(0).date(), rows.get(rows.size() - 1).date(),
+                StockPriceBlockCodec.encode(rows));
+    }
+
+    private static void decode(String symbol, byte[] block, Map<LocalDate, StockPriceView> rows) {
+        StockPriceBlockCodec.Decoder decoder = new StockPriceBlockCodec.Decoder();
+        decoder.reset(block);
+        while (decoder.next()) {
+            StockPriceView row = view(symbol, decoder);
+            rows.put(row.date(), row);
+        }
+    }
+
+    private static StockPriceView view(String symbol, StockPriceBlockCodec.Decoder decoder) {
+        return new StockPriceView(
+                symbol,
+                LocalDate.ofEpochDay(decoder.epochDay()),
+                priceOrNull(decoder.openPrice()),
+                priceOrNull(decoder.closePrice()),
+                priceOrNull(decoder.highPrice()),
+                priceOrNull(decoder.lowPrice()),
+                decoder.volume() == Long.MIN_VALUE ? null : decoder.volume());
+    }
+
+    private static Double priceOrNull(double price) {
+        return Double.isNaN(price) ? null : price;
+    }
+}
@@ -0,0 +1,207 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.service.ParquetStockPriceWriter;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.Operators.IntColumn;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes one Parquet file of the cold tier: the rows of one symbol in one year, ordered by date,
+ * in the schema of the Parquet export.
+ * <p>
+ * Reads push the date range down to the reader, which skips row groups and pages whose date statistics fall
+ * outside it before decoding them, and drops the remaining rows outside the range while assembling records.
+ */
+final class ColdParquetFile {
+
+    private static final IntColumn DATE = FilterApi.intColumn("date");
+
+    private ColdParquetFile() {
+    }
+
+    /**
+     * Reads the rows of a file within a date range, ordered by date.
+     *
+     * @param path the file
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @return the rows in the range
+     */
+    static List<StockPriceView> read(Path path, LocalDate fromDate, LocalDate toDate) throws IOException {
+        FilterCompat.Filter filter = FilterCompat.get(FilterApi.and(
+                FilterApi.gtEq(DATE, Math.toIntExact(fromDate.toEpochDay())),
+                FilterApi.ltEq(DATE, Math.toIntExact(toDate.toEpochDay()))));
+
+        List<StockPriceView> rows = new ArrayList<>();
+        try (ParquetReader<StockPriceView> reader = new Builder(new LocalInputFile(path))
+                .withFilter(filter)
+                .build()) {
+            StockPriceView row;
+            while ((row = reader.read()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Writes rows into a new file that atomically replaces the given one.
+     *
+     * @param path the file to create or replace
+     * @param rows the rows, ordered by date
+     * @param codec the compression codec
+     * @param rowGroupSize the bytes buffered per row group
+     */
+    static void write(Path path, Collection<StockPriceView> rows, CompressionCodecName codec, long rowGroupSize)
+            throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp);
+             ParquetStockPriceWriter writer = new ParquetStockPriceWriter(out, codec, rowGroupSize)) {
+            for (StockPriceView row : rows) {
+                writer.write(row);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class Builder extends ParquetReader.Builder<StockPriceView> {
+
+        private Builder(InputFile file) {
+            super(file, new PlainParquetConfiguration());
+        }
+
+        @Override
+        protected ReadSupport<StockPriceView> getReadSupport() {
+            return new StockPriceReadSupport();
+        }
+    }
+
+    private static final class StockPriceReadSupport extends ReadSupport<StockPriceView> {
+
+        @Override
+        public ReadContext init(InitContext context) {
+            return new ReadContext(ParquetStockPriceWriter.SCHEMA);
+        }
+
+        @Override
+        public RecordMaterializer<StockPriceView> prepareForRead(Configuration configuration,
+                                                                 Map<String, String> keyValueMetaData,
+                                                                 MessageType fileSchema,
+                                                                 ReadContext readContext) {
+            return new StockPriceMaterializer();
+        }
+
+        @Override
+        public RecordMaterializer<StockPriceView> prepareForRead(ParquetConfiguration configuration,
+                                                                 Map<String, String> keyValueMetaData,
+                                                                 MessageType fileSchema,
+                                                                 ReadContext readContext) {
+            return new StockPriceMaterializer();
+        }
+    }
+
+    /**
+     * Assembles a {@link StockPriceView} from the columns of one record. Absent optional columns stay null.
+     */
+    private static final class StockPriceMaterializer extends RecordMaterializer<StockPriceView> {
+
+        private String symbol;
+        private int day;
+        private final Double[] prices = new Double[4];
+        private Long volume;
+
+        private final Converter[] converters = {
+                new PrimitiveConverter() {
+                    @Override
+                    public void addBinary(Binary value) {
+                        symbol = value.toStringUsingUTF8();
+                    }
+                },
+                new PrimitiveConverter() {
+                    @Override
+                    public void addInt(int value) {
+                        day = value;
+                    }
+                },
+                new PriceConverter(0),
+                new PriceConverter(1),
+                new PriceConverter(2),
+                new PriceConverter(3),
+                new PrimitiveConverter() {
+                    @Override
+                    public void addLong(long value) {
+                        volume = value;
+                    }
+                }
+        };
+
+        private final GroupConverter root = new GroupConverter() {
+            @Override
+            public Converter getConverter(int fieldIndex) {
+                return converters[fieldIndex];
+            }
+
+            @Override
+            public void start() {
+                prices[0] = prices[1] = prices[2] = prices[3] = null;
+                volume = null;
+            }
+
+            @Override
+            public void end() {
+            }
+        };
+
+        @Override
+        public StockPriceView getCurrentRecord() {
+            return new StockPriceView(symbol, LocalDate.ofEpochDay(day), prices[0], prices[1], prices[2], prices[3],
+                    volume);
+        }
+
+        @Override
+        public GroupConverter getRootConverter() {
+            return root;
+        }
+
+        private final class PriceConverter extends PrimitiveConverter {
+
+            private final int index;
+
+            private PriceConverter(int index) {
+                this.index = index;
+            }
+
+            @Override
+            public void addDouble(double value) {
+                prices[index] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.config.StorageConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.repository.ColdTierStateRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier of stock prices that have aged out of MySQL: one compressed {@link ColdParquetFile} per symbol and
+ * year, laid out as {@code <directory>/<symbol>/<year>.parquet}. The layout prunes by symbol and year before any
+ * file is opened, and the Parquet reader prunes row groups and pages within a file by date.
+ * <p>
+ * Archived rows are deleted from MySQL, so every instance must read the same directory, typically a network
+ * share. The first instance to start stores a random id in the directory and registers it in MySQL; an instance
+ * whose directory holds another id, or none, refuses to start instead of serving history without its archive.
+ */
+@Component
+@ConditionalOnProperty(name = "polygon.storage.cold.enabled", havingValue = "true")
+public class ColdStockPriceTier {
+
+    private static final String EXTENSION = ".parquet";
+    private static final String ID_FILE = ".cold-tier-id";
+
+    private final StorageConfig.Cold config;
+    private final Path directory;
+
+    public ColdStockPriceTier(StorageConfig storageConfig, ColdTierStateRepository stateRepository)
+            throws IOException {
+        this.config = storageConfig.getCold();
+        this.directory = Path.of(config.getDirectory());
+        Files.createDirectories(directory);
+
+        String directoryId = directoryId();
+        String registered = stateRepository.registerDirectory(directoryId);
+        if (!registered.equals(directoryId)) {
+            throw new IllegalStateException("Cold tier directory " + directory.toAbsolutePath()
+                    + " is not the one registered by the other instances (id " + registered + " instead of "
+                    + directoryId + "); polygon.storage.cold.directory must point to the directory they share");
+        }
+    }
+
+    /**
+     * Finds the archived stock price of a symbol on a date.
+     *
+     * @param symbol the stock symbol
+     * @param date the trading day
+     * @return the stock price, or empty if none is archived
+     */
+    public Optional<StockPriceView> find(String symbol, LocalDate date) {
+        Iterator<StockPriceView> rows = read(symbol, date, date);
+        return rows.hasNext() ? Optional.of(rows.next()) : Optional.empty();
+    }
+
+    /**
+     * Reads the archived stock prices of a symbol within a date range, ordered by date. Files are opened one
+     * year at a time as the iterator advances, so at most one year of rows is held.
+     *
+     * @param symbol the stock symbol
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @return the rows in the range
+     */
+    public Iterator<StockPriceView> read(String symbol, LocalDate fromDate, LocalDate toDate) {
+        return new RangeIterator(years(symbol, fromDate, toDate).iterator(), symbol, fromDate, toDate);
+    }
+
+    /**
+     * Returns whether a symbol has an archive file for any year of a date range.
+     *
+     * @param symbol the stock symbol
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @return true if the range may have archived rows
+     */
+    public boolean covers(String symbol, LocalDate fromDate, LocalDate toDate) {
+        return !years(symbol, fromDate, toDate).isEmpty();
+    }
+
+    /**
+     * Returns the symbols that have archive files.
+     *
+     * @return the symbols, sorted
+     */
+    public Set<String> symbols() {
+        Set<String> symbols = new TreeSet<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.filter(Files::isDirectory)
+                    .map(path -> SymbolFileNames.decode(path.getFileName().toString()))
+                    .forEach(symbols::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error listing " + directory, e);
+        }
+        return symbols;
+    }
+
+    /**
+     * Adds rows of one symbol and year to the archive, replacing archived rows of the same dates.
+     * The year's file is rewritten into a copy that atomically replaces it, so readers see either version.
+     *
+     * @param symbol the stock symbol
+     * @param year the year all rows belong to
+     * @param rows the rows to archive
+     */
+    public synchronized void archive(String symbol, int year, Collection<StockPriceView> rows) {
+        Path path = pathOf(symbol, year);
+        try {
+            Map<LocalDate, StockPriceView> merged = new TreeMap<>();
+            if (Files.exists(path)) {
+                for (StockPriceView row : ColdParquetFile.read(path, LocalDate.of(year, 1, 1),
+                        LocalDate.of(year, 12, 31))) {
+                    merged.put(row.date(), row);
+                }
+            }
+            for (StockPriceView row : rows) {
+                merged.put(row.date(), row);
+            }
+
+            Files.createDirectories(path.getParent());
+            ColdParquetFile.write(path, merged.values(), config.getCompression(), config.getRowGroupSize().toBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error archiving " + year + " stock prices of " + symbol, e);
+        }
+    }
+
+    /**
+     * Reads the id stored in the directory, storing a new one if there is none. The id is written to a copy that
+     * is then linked into place, which fails if another instance linked its own first, so instances starting
+     * together on an empty directory agree on one.
+     */
+    private String directoryId() throws IOException {
+        Path idFile = directory.resolve(ID_FILE);
+        if (!Files.exists(idFile)) {
+            Path copy = Files.createTempFile(directory, ID_FILE, ".tmp");
+            try {
+                Files.writeString(copy, UUID.randomUUID().toString());
+                Files.createLink(idFile, copy);
+            } catch (FileAlreadyExistsException e) {
+                // Stored by another instance meanwhile.
+            } finally {
+                Files.deleteIfExists(copy);
+            }
+        }
+        return Files.readString(idFile).trim();
+    }
+
+    Path pathOf(String symbol, int year) {
+        return directory.resolve(SymbolFileNames.encode(symbol)).resolve(year + EXTENSION);
+    }
+
+    /**
+     * Returns the years of a date range that a symbol has archive files for, in ascending order.
+     */
+    private List<Integer> years(String symbol, LocalDate fromDate, LocalDate toDate) {
+        Path symbolDirectory = directory.resolve(SymbolFileNames.encode(symbol));
+        if (!Files.isDirectory(symbolDirectory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> paths = Files.list(symbolDirectory)) {
+            return paths.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(EXTENSION))
+                    .map(name -> Integer.parseInt(name.substring(0, name.length() - EXTENSION.length())))
+                    .filter(year -> year >= fromDate.getYear() && year <= toDate.getYear())
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error listing " + symbolDirectory, e);
+        }
+    }
+
+    private final class RangeIterator implements Iterator<StockPriceView> {
+
+        private final Iterator<Integer> years;
+        private final String symbol;
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+        private Iterator<StockPriceView> rows = List.<StockPriceView>of().iterator();
+
+        private RangeIterator(Iterator<Integer> years, String symbol, LocalDate fromDate, LocalDate toDate) {
+            this.years = years;
+            this.symbol = symbol;
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!rows.hasNext() && years.hasNext()) {
+                int year = years.next();
+                LocalDate first = LocalDate.of(year, 1, 1);
+                LocalDate last = LocalDate.of(year, 12, 31);
+                try {
+                    rows = ColdParquetFile.read(pathOf(symbol, year),
+                            fromDate.isAfter(first) ? fromDate : first,
+                            toDate.isBefore(last) ? toDate : last).iterator();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error reading " + year + " stock prices of " + symbol, e);
+                }
+            }
+            return rows.hasNext();
+        }
+
+        @Override
+        public StockPriceView next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return rows.next();
+        }
+    }
+}
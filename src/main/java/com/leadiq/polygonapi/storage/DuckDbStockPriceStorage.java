@@ -0,0 +1,554 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.config.ReadWriteRoutingDataSource;
+import com.leadiq.polygonapi.config.StorageConfig;
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceQueryRepository;
+import jakarta.annotation.PreDestroy;
+import org.duckdb.DuckDBAppender;
+import org.duckdb.DuckDBConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Engine that serves reads from an embedded DuckDB database, a columnar engine running inside this process.
+ * Aggregations over many symbols and years read only the columns they use, in vectorized batches, which is
+ * where it outperforms row-oriented MySQL.
+ * <p>
+ * The database mirrors the {@code stock_price} table. An empty database is loaded from MySQL at startup and
+ * sorted by symbol and date, so single-symbol reads skip row groups by their min/max statistics. Ingestion
+ * applies each committed batch afterwards. The table has no primary key, because DuckDB holds such indexes in
+ * memory; a batch replaces its (symbol, date) rows with one join against a staging table instead. Rows
+ * written to MySQL by other instances are only mirrored by the next full resync.
+ * <p>
+ * A database that is not empty at startup is checked against MySQL by comparing per-symbol watermarks (row count,
+ * first and last day, high, low, average close and total volume). Every {@code resync-interval} the symbols
+ * written since the last check are compared the same way, and every {@code full-resync-interval} all of them.
+ * Symbols that differ, including those whose ingestion batch failed to apply, are reloaded from MySQL, so rows
+ * missed while the instance was down or a write failed do not stay missing. These reads run on the primary,
+ * since a lagging replica would undo rows that were just applied.
+ */
+@Component
+@ConditionalOnProperty(name = "polygon.storage.engine", havingValue = "duckdb")
+public class DuckDbStockPriceStorage implements StockPriceStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuckDbStockPriceStorage.class);
+
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS stock_price (company_symbol VARCHAR NOT NULL, date DATE NOT NULL, " +
+            "open_price DOUBLE, close_price DOUBLE, high_price DOUBLE, low_price DOUBLE, volume BIGINT)";
+
+    private static final String COLUMNS =
+            "company_symbol, date, open_price, close_price, high_price, low_price, volume";
+
+    private static final String FIND_BY_SYMBOL_AND_DATE =
+            "SELECT " + COLUMNS + " FROM stock_price WHERE company_symbol = :symbol AND date = :date";
+
+    private static final String FIND_BY_SYMBOLS_AND_DATES =
+            "SELECT " + COLUMNS + " FROM stock_price WHERE company_symbol IN (:symbols) AND date IN (:dates)";
+
+    private static final String FIND_RANGE_AFTER =
+            "SELECT " + COLUMNS + " FROM stock_price " +
+            "WHERE company_symbol = :symbol AND date > :afterDate AND date <= :toDate ORDER BY date LIMIT :limit";
+
+    private static final String STREAM_RANGE =
+            "SELECT " + COLUMNS + " FROM stock_price " +
+            "WHERE company_symbol = :symbol AND date BETWEEN :fromDate AND :toDate ORDER BY date";
+
+    private static final String FIND_BY_SYMBOL =
+            "SELECT " + COLUMNS + " FROM stock_price WHERE company_symbol = :symbol ORDER BY date";
+
+    private static final String FIND_DATES =
+            "SELECT date FROM stock_price WHERE company_symbol = :symbol ORDER BY date";
+
+    private static final String SUMMARY_COLUMNS =
+            "company_symbol, COUNT(*), MIN(date), MAX(date), MAX(high_price), MIN(low_price), AVG(close_price), " +
+            "CAST(SUM(volume) AS BIGINT)";
+
+    private static final String SUMMARIZE =
+            "SELECT " + SUMMARY_COLUMNS + " FROM stock_price WHERE date BETWEEN :fromDate AND :toDate " +
+            "GROUP BY company_symbol ORDER BY company_symbol";
+
+    private static final String SUMMARIZE_SYMBOLS =
+            "SELECT " + SUMMARY_COLUMNS + " FROM stock_price " +
+            "WHERE company_symbol IN (:symbols) AND date BETWEEN :fromDate AND :toDate " +
+            "GROUP BY company_symbol ORDER BY company_symbol";
+
+    private static final String STAGE = "CREATE TEMP TABLE staged_stock_price AS SELECT * FROM stock_price LIMIT 0";
+
+    private static final String INSERT_STAGED = "INSERT INTO staged_stock_price VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETE_REPLACED =
+            "DELETE FROM stock_price USING staged_stock_price s " +
+            "WHERE stock_price.company_symbol = s.company_symbol AND stock_price.date = s.date";
+
+    private static final String APPLY_STAGED =
+            "INSERT INTO stock_price SELECT DISTINCT ON (company_symbol, date) * FROM staged_stock_price";
+
+    private static final String DELETE_SYMBOL = "DELETE FROM stock_price WHERE company_symbol = ?";
+
+    private static final String INSERT = "INSERT INTO stock_price VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final double AVERAGE_TOLERANCE = 1e-9;
+
+    /*
+     * DuckDB's getObject(int, Class) returns 0 for NULL numbers, so nullable columns are read untyped.
+     */
+    private static final RowMapper<StockPriceView> ROW_MAPPER = (rs, rowNum) -> new StockPriceView(
+            rs.getString(1),
+            rs.getObject(2, LocalDate.class),
+            doubleOrNull(rs.getObject(3)),
+            doubleOrNull(rs.getObject(4)),
+            doubleOrNull(rs.getObject(5)),
+            doubleOrNull(rs.getObject(6)),
+            longOrNull(rs.getObject(7))
+    );
+
+    private static final RowMapper<StockPriceSummary> SUMMARY_MAPPER = (rs, rowNum) -> new StockPriceSummary(
+            rs.getString(1),
+            rs.getLong(2),
+            rs.getObject(3, LocalDate.class),
+            rs.getObject(4, LocalDate.class),
+            doubleOrNull(rs.getObject(5)),
+            doubleOrNull(rs.getObject(6)),
+            doubleOrNull(rs.getObject(7)),
+            longOrNull(rs.getObject(8))
+    );
+
+    private final StockPriceQueryRepository stockPriceQueryRepository;
+    private final DuckDBConnection database;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Set<String> pendingResync = ConcurrentHashMap.newKeySet();
+    private final Set<String> written = ConcurrentHashMap.newKeySet();
+    private final long fullResyncIntervalNanos;
+    private volatile long lastFullResync;
+    private final ScheduledExecutorService scheduler;
+
+    public DuckDbStockPriceStorage(StorageConfig storageConfig, StockPriceQueryRepository stockPriceQueryRepository) {
+        StorageConfig.Duckdb config = storageConfig.getDuckdb();
+        this.stockPriceQueryRepository = stockPriceQueryRepository;
+        this.fullResyncIntervalNanos = config.getFullResyncInterval().toNanos();
+
+        try {
+            if (!config.getPath().isEmpty()) {
+                Files.createDirectories(Path.of(config.getPath()).toAbsolutePath().getParent());
+            }
+            this.database = (DuckDBConnection) DriverManager.getConnection("jdbc:duckdb:" + config.getPath());
+            try (Statement statement = database.createStatement()) {
+                statement.execute("SET memory_limit = '" + config.getMemoryLimit().toMegabytes() + "MB'");
+                statement.execute(CREATE_TABLE);
+            }
+        } catch (IOException | SQLException e) {
+            throw new IllegalStateException("Cannot open DuckDB database " + config.getPath(), e);
+        }
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(new DuplicatingDataSource(database));
+
+        this.lastFullResync = System.nanoTime();
+        if (config.isBackfill() && isEmpty()) {
+            backfill();
+        } else if (config.isBackfill()) {
+            resync();
+        }
+
+        if (config.isBackfill() && config.getResyncInterval().toMillis() > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "duckdb-resync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = config.getResyncInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::scheduledResync, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    @Override
+    public Optional<StockPriceView> findBySymbolAndDate(String symbol, LocalDate date) {
+        return jdbcTemplate.query(FIND_BY_SYMBOL_AND_DATE,
+                new MapSqlParameterSource("symbol", symbol).addValue("date", date),
+                ROW_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public List<StockPriceView> findBySymbolsAndDates(Collection<String> symbols, Collection<LocalDate> dates) {
+        if (symbols.isEmpty() || dates.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(FIND_BY_SYMBOLS_AND_DATES,
+                new MapSqlParameterSource("symbols", symbols).addValue("dates", dates), ROW_MAPPER);
+    }
+
+    @Override
+    public List<StockPriceView> findRangeAfter(String symbol, LocalDate afterDate, LocalDate toDate, int limit) {
+        return jdbcTemplate.query(FIND_RANGE_AFTER, new MapSqlParameterSource("symbol", symbol)
+                .addValue("afterDate", afterDate)
+                .addValue("toDate", toDate)
+                .addValue("limit", limit), ROW_MAPPER);
+    }
+
+    @Override
+    public void streamRange(String symbol, LocalDate fromDate, LocalDate toDate, Consumer<StockPriceView> consumer) {
+        jdbcTemplate.query(STREAM_RANGE, new MapSqlParameterSource("symbol", symbol)
+                        .addValue("fromDate", fromDate)
+                        .addValue("toDate", toDate),
+                (RowCallbackHandler) rs -> consumer.accept(ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    @Override
+    public List<StockPriceView> findBySymbol(String symbol) {
+        return jdbcTemplate.query(FIND_BY_SYMBOL, new MapSqlParameterSource("symbol", symbol), ROW_MAPPER);
+    }
+
+    @Override
+    public List<LocalDate> findDates(String symbol) {
+        return jdbcTemplate.query(FIND_DATES, new MapSqlParameterSource("symbol", symbol),
+                (rs, rowNum) -> rs.getObject(1, LocalDate.class));
+    }
+
+    @Override
+    public List<StockPriceSummary> summarize(Collection<String> symbols, LocalDate fromDate, LocalDate toDate) {
+        MapSqlParameterSource params = new MapSqlParameterSource("fromDate", fromDate).addValue("toDate", toDate);
+        if (symbols.isEmpty()) {
+            return jdbcTemplate.query(SUMMARIZE, params, SUMMARY_MAPPER);
+        }
+        return jdbcTemplate.query(SUMMARIZE_SYMBOLS, params.addValue("symbols", symbols), SUMMARY_MAPPER);
+    }
+
+    /**
+     * Replaces the committed rows' (symbol, date) pairs in one transaction. If that fails, the symbols are
+     * reloaded from MySQL by the next {@link #resync()}.
+     *
+     * @throws IllegalStateException if the rows could not be written
+     */
+    @Override
+    public synchronized void recordWrites(Collection<StockPrice> stockPrices) {
+        if (stockPrices.isEmpty()) {
+            return;
+        }
+
+        try (Connection connection = database.duplicate()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(STAGE);
+            }
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_STAGED)) {
+                for (StockPrice stockPrice : stockPrices) {
+                    insert.setString(1, stockPrice.getCompanySymbol());
+                    insert.setObject(2, stockPrice.getDate());
+                    insert.setObject(3, stockPrice.getOpenPrice());
+                    insert.setObject(4, stockPrice.getClosePrice());
+                    insert.setObject(5, stockPrice.getHighPrice());
+                    insert.setObject(6, stockPrice.getLowPrice());
+                    insert.setObject(7, stockPrice.getVolume());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(DELETE_REPLACED);
+                statement.execute(APPLY_STAGED);
+                statement.execute("DROP TABLE staged_stock_price");
+            }
+            connection.commit();
+            stockPrices.forEach(stockPrice -> written.add(stockPrice.getCompanySymbol()));
+        } catch (SQLException e) {
+            stockPrices.forEach(stockPrice -> pendingResync.add(stockPrice.getCompanySymbol()));
+            throw new IllegalStateException("Error writing stock prices to DuckDB: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Marks a symbol for the next resync, which reloads it from MySQL.
+     */
+    @Override
+    public void discard(String symbol) {
+        pendingResync.add(symbol);
+    }
+
+    /**
+     * Reloads from MySQL every symbol whose watermark differs from MySQL's, or whose last ingestion batch
+     * failed to apply. Each symbol is replaced under the write lock, so a batch committed meanwhile is applied
+     * after the reload instead of being overwritten by it.
+     *
+     * @return the number of symbols reloaded
+     */
+    public int resync() {
+        return resync(true);
+    }
+
+    /**
+     * Like {@link #resync()}, but unless {@code full} only compares the watermarks of symbols written since the
+     * last check, so a quiet database costs no query.
+     */
+    int resync(boolean full) {
+        Set<String> stale = new TreeSet<>(pendingResync);
+        pendingResync.removeAll(stale);
+        Set<String> recent = new HashSet<>(written);
+        written.removeAll(recent);
+
+        if (full || !recent.isEmpty()) {
+            try {
+                stale.addAll(drifted(full ? Set.of() : recent));
+            } catch (RuntimeException e) {
+                pendingResync.addAll(stale);
+                written.addAll(recent);
+                throw e;
+            }
+        }
+
+        for (String symbol : stale) {
+            try {
+                reload(symbol);
+            } catch (RuntimeException e) {
+                pendingResync.add(symbol);
+                throw e;
+            }
+        }
+        if (!stale.isEmpty()) {
+            logger.info("Reloaded {} symbols that were out of sync with MySQL into DuckDB", stale.size());
+        }
+        return stale.size();
+    }
+
+    /**
+     * Returns the symbols whose watermark differs from the primary's.
+     *
+     * @param symbols the symbols to compare; empty compares every symbol on either side
+     */
+    private Set<String> drifted(Set<String> symbols) {
+        Map<String, StockPriceSummary> mysql = bySymbol(ReadWriteRoutingDataSource.onPrimary(() ->
+                stockPriceQueryRepository.summarize(symbols, FIRST_DAY, LAST_DAY)));
+        Map<String, StockPriceSummary> mirrored = bySymbol(summarize(symbols, FIRST_DAY, LAST_DAY));
+
+        Set<String> drifted = new HashSet<>();
+        for (String symbol : mysql.keySet()) {
+            if (!sameWatermark(mysql.get(symbol), mirrored.get(symbol))) {
+                drifted.add(symbol);
+            }
+        }
+        for (String symbol : mirrored.keySet()) {
+            if (!mysql.containsKey(symbol)) {
+                drifted.add(symbol);
+            }
+        }
+        return drifted;
+    }
+
+    /**
+     * Replaces the database's rows with a copy of MySQL's. Rows are streamed from a database cursor into
+     * DuckDB's bulk appender, then sorted by symbol and date into the table that reads use.
+     *
+     * @return the number of rows copied
+     * @throws IllegalStateException if the copy fails; the previous rows stay in place
+     */
+    public synchronized long backfill() {
+        long start = System.nanoTime();
+        long[] rows = {0};
+
+        try (DuckDBConnection connection = (DuckDBConnection) database.duplicate()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE OR REPLACE TABLE stock_price_load AS SELECT * FROM stock_price LIMIT 0");
+            }
+            try (DuckDBAppender appender = connection.createAppender(DuckDBConnection.DEFAULT_SCHEMA, "stock_price_load")) {
+                stockPriceQueryRepository.streamAll(row -> {
+                    append(appender, row);
+                    rows[0]++;
+                });
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE OR REPLACE TABLE stock_price AS " +
+                        "SELECT * FROM stock_price_load ORDER BY company_symbol, date");
+                statement.execute("DROP TABLE stock_price_load");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error loading stock prices into DuckDB: " + e.getMessage(), e);
+        }
+
+        logger.info("Loaded {} stock price records into DuckDB in {} ms", rows[0], (System.nanoTime() - start) / 1_000_000);
+        return rows[0];
+    }
+
+    @PreDestroy
+    public void close() throws SQLException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        database.close();
+    }
+
+    private void scheduledResync() {
+        try {
+            long now = System.nanoTime();
+            boolean full = now - lastFullResync >= fullResyncIntervalNanos;
+            resync(full);
+            if (full) {
+                lastFullResync = now;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error resynchronizing DuckDB with MySQL", e);
+        }
+    }
+
+    /**
+     * Replaces one symbol's rows with the primary's in one transaction.
+     */
+    private synchronized void reload(String symbol) {
+        List<StockPriceView> rows = new ArrayList<>();
+        ReadWriteRoutingDataSource.onPrimary(() -> {
+            stockPriceQueryRepository.streamRange(symbol, FIRST_DAY, LAST_DAY, rows::add);
+            return null;
+        });
+
+        try (Connection connection = database.duplicate()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement delete = connection.prepareStatement(DELETE_SYMBOL)) {
+                delete.setString(1, symbol);
+                delete.executeUpdate();
+            }
+            try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                for (StockPriceView row : rows) {
+                    insert.setString(1, row.symbol());
+                    insert.setObject(2, row.date());
+                    insert.setObject(3, row.openPrice());
+                    insert.setObject(4, row.closePrice());
+                    insert.setObject(5, row.highPrice());
+                    insert.setObject(6, row.lowPrice());
+                    insert.setObject(7, row.volume());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error reloading stock prices of " + symbol + " into DuckDB: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, StockPriceSummary> bySymbol(List<StockPriceSummary> summaries) {
+        Map<String, StockPriceSummary> bySymbol = new HashMap<>();
+        summaries.forEach(summary -> bySymbol.put(summary.symbol(), summary));
+        return bySymbol;
+    }
+
+    /**
+     * Compares two summaries of a symbol's whole history. Averages are computed in different orders by
+     * MySQL and DuckDB, so they only need to agree within a small relative tolerance.
+     */
+    static boolean sameWatermark(StockPriceSummary expected, StockPriceSummary actual) {
+        if (actual == null) {
+            return false;
+        }
+        return expected.days() == actual.days()
+                && Objects.equals(expected.firstDate(), actual.firstDate())
+                && Objects.equals(expected.lastDate(), actual.lastDate())
+                && Objects.equals(expected.highPrice(), actual.highPrice())
+                && Objects.equals(expected.lowPrice(), actual.lowPrice())
+                && Objects.equals(expected.totalVolume(), actual.totalVolume())
+                && (expected.averageClosePrice() == null
+                        ? actual.averageClosePrice() == null
+                        : actual.averageClosePrice() != null && Math.abs(expected.averageClosePrice()
+                                - actual.averageClosePrice()) <= AVERAGE_TOLERANCE * Math.abs(expected.averageClosePrice()));
+    }
+
+    private boolean isEmpty() {
+        return jdbcTemplate.getJdbcTemplate().queryForList("SELECT 1 FROM stock_price LIMIT 1").isEmpty();
+    }
+
+    /**
+     * Appends a row. The appender takes dates as ISO strings and NULLs as null strings.
+     */
+    private static void append(DuckDBAppender appender, StockPriceView row) {
+        try {
+            appender.beginRow();
+            appender.append(row.symbol());
+            appender.append(row.date().toString());
+            append(appender, row.openPrice());
+            append(appender, row.closePrice());
+            append(appender, row.highPrice());
+            append(appender, row.lowPrice());
+            if (row.volume() == null) {
+                appender.append((String) null);
+            } else {
+                appender.append(row.volume().longValue());
+            }
+            appender.endRow();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error appending stock price of " + row.symbol() + " on " + row.date(), e);
+        }
+    }
+
+    private static void append(DuckDBAppender appender, Double price) throws SQLException {
+        if (price == null) {
+            appender.append((String) null);
+        } else {
+            appender.append(price.doubleValue());
+        }
+    }
+
+    private static Double doubleOrNull(Object value) {
+        return value == null ? null : ((Number) value).doubleValue();
+    }
+
+    private static Long longOrNull(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    /**
+     * Hands out a new connection to the shared database per operation, since a DuckDB connection
+     * must not be used by several threads at once.
+     */
+    private static final class DuplicatingDataSource extends AbstractDataSource {
+
+        private final DuckDBConnection database;
+
+        DuplicatingDataSource(DuckDBConnection database) {
+            this.database = database;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return database.duplicate();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return database.duplicate();
+        }
+    }
+}
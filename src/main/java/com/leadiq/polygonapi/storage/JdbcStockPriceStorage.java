@@ -0,0 +1,72 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceQueryRepository;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Default engine: every read is a MySQL query over the JDBC read path. Writes are already in MySQL,
+ * so there is nothing to record.
+ */
+@Component
+@ConditionalOnProperty(name = "polygon.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcStockPriceStorage implements StockPriceStorage {
+
+    private final StockPriceQueryRepository stockPriceQueryRepository;
+    private final StockPriceRepository stockPriceRepository;
+
+    public JdbcStockPriceStorage(StockPriceQueryRepository stockPriceQueryRepository,
+                                 StockPriceRepository stockPriceRepository) {
+        this.stockPriceQueryRepository = stockPriceQueryRepository;
+        this.stockPriceRepository = stockPriceRepository;
+    }
+
+    @Override
+    public Optional<StockPriceView> findBySymbolAndDate(String symbol, LocalDate date) {
+        return stockPriceQueryRepository.findBySymbolAndDate(symbol, date);
+    }
+
+    @Override
+    public List<StockPriceView> findBySymbolsAndDates(Collection<String> symbols, Collection<LocalDate> dates) {
+        return stockPriceRepository.findViewsByCompanySymbolInAndDateIn(symbols, dates);
+    }
+
+    @Override
+    public List<StockPriceView> findRangeAfter(String symbol, LocalDate afterDate, LocalDate toDate, int limit) {
+        return stockPriceQueryRepository.findRangeAfter(symbol, afterDate, toDate, limit);
+    }
+
+    @Override
+    public void streamRange(String symbol, LocalDate fromDate, LocalDate toDate, Consumer<StockPriceView> consumer) {
+        stockPriceQueryRepository.streamRange(symbol, fromDate, toDate, consumer);
+    }
+
+    @Override
+    public List<StockPriceView> findBySymbol(String symbol) {
+        return stockPriceRepository.findViewsByCompanySymbol(symbol);
+    }
+
+    @Override
+    public List<LocalDate> findDates(String symbol) {
+        return stockPriceRepository.findDatesByCompanySymbol(symbol);
+    }
+
+    @Override
+    public List<StockPriceSummary> summarize(Collection<String> symbols, LocalDate fromDate, LocalDate toDate) {
+        return stockPriceQueryRepository.summarize(symbols, fromDate, toDate);
+    }
+
+    @Override
+    public void recordWrites(Collection<StockPrice> stockPrices) {
+    }
+}
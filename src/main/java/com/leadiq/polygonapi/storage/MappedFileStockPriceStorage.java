@@ -0,0 +1,341 @@
+package com.leadiq.polygonapi.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leadiq.polygonapi.config.StorageConfig;
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.service.ReadYourWritesGuard;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Engine that serves reads from one memory-mapped {@link MappedSymbolFile} per symbol, so a lookup is a
+ * binary search over the page cache instead of a database round trip.
+ * <p>
+ * Nothing is loaded at startup: a symbol's file is mapped on first use, reading only its header and sparse
+ * index. A symbol without a file is copied from MySQL on first use when backfill is enabled; symbols found to
+ * have no rows are remembered for a short TTL, in a bounded set, so unknown symbols neither query MySQL on
+ * every read nor accumulate forever. Ingestion keeps
+ * the files current, and they survive restarts. Rows written to MySQL by other instances do not reach
+ * these files. A symbol whose file failed to take committed rows is deleted and copied from MySQL again on its
+ * next use.
+ * <p>
+ * A symbol's file is opened, backfilled or created by one thread at a time, outside any map lock, while other
+ * threads wanting it wait for that attempt and look again.
+ */
+@Component
+@ConditionalOnProperty(name = "polygon.storage.engine", havingValue = "mapped")
+public class MappedFileStockPriceStorage implements StockPriceStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedFileStockPriceStorage.class);
+
+    private static final String EXTENSION = ".spm";
+
+    private final StorageConfig.Mapped config;
+    private final StockPriceRepository stockPriceRepository;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final Path directory;
+    private final Map<String, MappedSymbolFile> files = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> opening = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> missing;
+    private final Set<String> discarded = ConcurrentHashMap.newKeySet();
+
+    public MappedFileStockPriceStorage(StorageConfig storageConfig,
+                                       StockPriceRepository stockPriceRepository,
+                                       ReadYourWritesGuard readYourWritesGuard) {
+        this.config = storageConfig.getMapped();
+        this.stockPriceRepository = stockPriceRepository;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.directory = Path.of(config.getDirectory());
+        this.missing = Caffeine.newBuilder()
+                .expireAfterWrite(config.getMissingTtl())
+                .maximumSize(config.getMaxMissingSymbols())
+                .build();
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create stock price directory " + directory, e);
+        }
+    }
+
+    @Override
+    public Optional<StockPriceView> findBySymbolAndDate(String symbol, LocalDate date) {
+        MappedSymbolFile file = file(symbol);
+        return file == null ? Optional.empty() : file.find(date);
+    }
+
+    @Override
+    public List<StockPriceView> findBySymbolsAndDates(Collection<String> symbols, Collection<LocalDate> dates) {
+        List<StockPriceView> rows = new ArrayList<>();
+        for (String symbol : symbols) {
+            MappedSymbolFile file = file(symbol);
+            if (file != null) {
+                for (LocalDate date : dates) {
+                    file.find(date).ifPresent(rows::add);
+                }
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public List<StockPriceView> findRangeAfter(String symbol, LocalDate afterDate, LocalDate toDate, int limit) {
+        List<StockPriceView> rows = new ArrayList<>();
+        MappedSymbolFile file = file(symbol);
+        if (file != null) {
+            file.forEach(afterDate.plusDays(1), toDate, limit, rows::add);
+        }
+        return rows;
+    }
+
+    @Override
+    public void streamRange(String symbol, LocalDate fromDate, LocalDate toDate, Consumer<StockPriceView> consumer) {
+        MappedSymbolFile file = file(symbol);
+        if (file != null) {
+            file.forEach(fromDate, toDate, Integer.MAX_VALUE, consumer);
+        }
+    }
+
+    @Override
+    public List<StockPriceView> findBySymbol(String symbol) {
+        List<StockPriceView> rows = new ArrayList<>();
+        streamRange(symbol, LocalDate.MIN, LocalDate.MAX, rows::add);
+        return rows;
+    }
+
+    @Override
+    public List<LocalDate> findDates(String symbol) {
+        List<LocalDate> dates = new ArrayList<>();
+        streamRange(symbol, LocalDate.MIN, LocalDate.MAX, row -> dates.add(row.date()));
+        return dates;
+    }
+
+    /**
+     * Aggregates each symbol by scanning its file. Symbols are required: files exist only for symbols read or
+     * written on this instance, so a summary of every symbol would silently leave the others out.
+     *
+     * @throws IllegalArgumentException if no symbols are given
+     */
+    @Override
+    public List<StockPriceSummary> summarize(Collection<String> symbols, LocalDate fromDate, LocalDate toDate) {
+        if (symbols.isEmpty()) {
+            throw new IllegalArgumentException("The mapped storage engine only summarizes the symbols given");
+        }
+
+        List<StockPriceSummary> summaries = new ArrayList<>();
+        for (String symbol : new TreeSet<>(symbols)) {
+            SummaryAccumulator accumulator = new SummaryAccumulator(symbol);
+            streamRange(symbol, fromDate, toDate, accumulator);
+            if (accumulator.days() > 0) {
+                summaries.add(accumulator.toSummary());
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Writes committed rows to their symbols' files. A symbol without a file is backfilled from MySQL,
+     * which already holds these rows, or gets a new file of just these rows when backfill is disabled.
+     */
+    @Override
+    public void recordWrites(Collection<StockPrice> stockPrices) {
+        Map<String, List<StockPriceView>> bySymbol = new LinkedHashMap<>();
+        for (StockPrice stockPrice : stockPrices) {
+            bySymbol.computeIfAbsent(stockPrice.getCompanySymbol(), symbol -> new ArrayList<>()).add(new StockPriceView(
+                    stockPrice.getCompanySymbol(),
+                    stockPrice.getDate(),
+                    stockPrice.getOpenPrice(),
+                    stockPrice.getClosePrice(),
+                    stockPrice.getHighPrice(),
+                    stockPrice.getLowPrice(),
+                    stockPrice.getVolume()));
+        }
+
+        bySymbol.forEach((symbol, rows) -> {
+            try {
+                MappedSymbolFile file;
+                do {
+                    missing.invalidate(symbol);
+                    file = file(symbol, key -> openOrBackfill(key, rows));
+                } while (file == null);
+                file.upsert(rows);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error writing stock prices of " + symbol, e);
+            }
+        });
+    }
+
+    /**
+     * Closes and deletes the symbol's file, so its next use copies it from MySQL, whether or not backfill is
+     * enabled. An open of the symbol in progress is not published, since it may predate the discard.
+     */
+    @Override
+    public void discard(String symbol) {
+        opening.compute(symbol, (key, attempt) -> {
+            discarded.add(key);
+            missing.invalidate(key);
+            try {
+                MappedSymbolFile file = files.remove(key);
+                if (file != null) {
+                    file.close();
+                }
+                Files.deleteIfExists(pathOf(key));
+            } catch (IOException e) {
+                logger.warn("Error deleting stock price file of {}: {}", key, e.getMessage());
+            }
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        files.forEach((symbol, file) -> {
+            try {
+                file.close();
+            } catch (IOException e) {
+                logger.warn("Error closing stock price file of {}", symbol, e);
+            }
+        });
+        files.clear();
+    }
+
+    /**
+     * Returns the file of a symbol, not necessarily existing yet, named by {@link SymbolFileNames}.
+     *
+     * @param symbol the stock symbol
+     * @return the path of the symbol's file
+     */
+    Path pathOf(String symbol) {
+        return directory.resolve(SymbolFileNames.encode(symbol) + EXTENSION);
+    }
+
+    /**
+     * Returns the mapped file of a symbol, opening or backfilling it on first use.
+     *
+     * @return the file, or null if the symbol has no rows
+     */
+    private MappedSymbolFile file(String symbol) {
+        return file(symbol, key -> openOrBackfill(key, null));
+    }
+
+    /**
+     * Returns the mapped file of a symbol, running the loader unless another thread is already opening it, in
+     * which case this one waits and looks again.
+     */
+    private MappedSymbolFile file(String symbol, SymbolLoader loader) {
+        while (true) {
+            MappedSymbolFile file = files.get(symbol);
+            if (file != null || missing.getIfPresent(symbol) != null) {
+                return file;
+            }
+
+            CompletableFuture<Void> attempt = new CompletableFuture<>();
+            CompletableFuture<Void> current = opening.putIfAbsent(symbol, attempt);
+            if (current != null) {
+                current.join();
+                continue;
+            }
+
+            try {
+                file = files.get(symbol);
+                if (file != null) {
+                    return file;
+                }
+                MappedSymbolFile loaded = loader.load(symbol);
+                if (publish(symbol, attempt, loaded)) {
+                    return loaded;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error opening stock price file of " + symbol, e);
+            } finally {
+                opening.remove(symbol, attempt);
+                attempt.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Makes a loaded file, or the symbol's lack of rows, visible unless the symbol was discarded while it loaded,
+     * in which case the file is closed.
+     *
+     * @return true if the attempt was still current
+     */
+    private boolean publish(String symbol, CompletableFuture<Void> attempt, MappedSymbolFile loaded) {
+        boolean[] published = {false};
+        opening.computeIfPresent(symbol, (key, current) -> {
+            if (current == attempt) {
+                if (loaded != null) {
+                    files.put(key, loaded);
+                } else {
+                    missing.put(key, Boolean.TRUE);
+                }
+                discarded.remove(key);
+                published[0] = true;
+            }
+            return current;
+        });
+        if (!published[0] && loaded != null) {
+            try {
+                loaded.close();
+            } catch (IOException e) {
+                logger.warn("Error closing stock price file of {}", symbol, e);
+            }
+        }
+        return published[0];
+    }
+
+    /**
+     * Opens the symbol's file, or copies it from MySQL if it has none or was discarded. With backfill disabled, a
+     * symbol without a file gets one of the given rows, if any.
+     *
+     * @return the file, or null if the symbol has no rows
+     */
+    private MappedSymbolFile openOrBackfill(String symbol, List<StockPriceView> written) throws IOException {
+        Path path = pathOf(symbol);
+        boolean stale = discarded.contains(symbol);
+        if (!stale && Files.exists(path)) {
+            return MappedSymbolFile.open(symbol, path, config.isSyncOnWrite());
+        }
+        if (!stale && !config.isBackfill()) {
+            return written == null ? null : MappedSymbolFile.create(symbol, path, written, config.isSyncOnWrite());
+        }
+
+        List<StockPriceView> rows = readYourWritesGuard.read(symbol,
+                () -> stockPriceRepository.findViewsByCompanySymbol(symbol));
+        if (rows.isEmpty()) {
+            Files.deleteIfExists(path);
+            return written == null ? null : MappedSymbolFile.create(symbol, path, written, config.isSyncOnWrite());
+        }
+        logger.info("Backfilling {} stock price records of {} into {}", rows.size(), symbol, path);
+        return MappedSymbolFile.create(symbol, path, rows, config.isSyncOnWrite());
+    }
+
+    @FunctionalInterface
+    private interface SymbolLoader {
+        MappedSymbolFile load(String symbol) throws IOException;
+    }
+}
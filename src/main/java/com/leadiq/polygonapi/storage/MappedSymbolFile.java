@@ -0,0 +1,382 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * One symbol's history in a memory-mapped file: a header followed by fixed-width records sorted by date,
+ * one per trading day.
+ * <pre>
+ * header (64 bytes): int magic, int version, long record count, zero padding
+ * record (48 bytes): int epoch day, int unused, double open, close, high, low, long volume
+ * </pre>
+ * Missing prices are stored as NaN and a missing volume as {@link Long#MIN_VALUE}.
+ * <p>
+ * Reads take no lock. They work on an immutable snapshot of the mapping and record count, reading
+ * straight from the page cache. Writes are serialized per file: rows for later days are appended and the
+ * record count is published after them, rows for stored days are overwritten in place, and rows for
+ * earlier missing days rewrite the file into a copy that replaces it atomically. In-place overwrites hold
+ * the write side of a {@link StampedLock}; each row is read under an optimistic stamp and read again under
+ * the read lock if an overwrite ran meanwhile, so a reader never returns a half-written row. Every
+ * {@value #INDEX_STRIDE}th day is kept in a small heap index, so a lookup binary-searches one block of the file.
+ */
+final class MappedSymbolFile implements Closeable {
+
+    static final int MAGIC = 0x53504D46;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 48;
+    static final int INDEX_STRIDE = 128;
+
+    private static final int COUNT_OFFSET = 8;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final long MISSING_VOLUME = Long.MIN_VALUE;
+
+    private final String symbol;
+    private final Path path;
+    private final boolean syncOnWrite;
+    private final StampedLock overwrites = new StampedLock();
+    private FileChannel channel;
+    private volatile Snapshot snapshot;
+
+    private MappedSymbolFile(String symbol, Path path, boolean syncOnWrite) {
+        this.symbol = symbol;
+        this.path = path;
+        this.syncOnWrite = syncOnWrite;
+    }
+
+    /**
+     * Maps an existing file, or creates an empty one. Only the header and the sparse index are read.
+     *
+     * @throws IOException if the file cannot be mapped or is not a stock price file
+     */
+    static MappedSymbolFile open(String symbol, Path path, boolean syncOnWrite) throws IOException {
+        MappedSymbolFile file = new MappedSymbolFile(symbol, path, syncOnWrite);
+        file.map();
+        return file;
+    }
+
+    /**
+     * Writes a new file holding the given rows. The rows go to a temporary copy that is moved into place,
+     * so a crash never leaves a partially written file behind.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    static MappedSymbolFile create(String symbol, Path path, Collection<StockPriceView> rows,
+                                   boolean syncOnWrite) throws IOException {
+        writeCopy(symbol, path, rows, syncOnWrite);
+        return open(symbol, path, syncOnWrite);
+    }
+
+    /**
+     * Returns the number of stored rows.
+     */
+    int size() {
+        return snapshot.count;
+    }
+
+    /**
+     * Finds the row of a day.
+     *
+     * @param date the day
+     * @return the row, or empty if none is stored
+     */
+    Optional<StockPriceView> find(LocalDate date) {
+        Snapshot current = snapshot;
+        int day = epochDay(date);
+        int at = lowerBound(current, day);
+        return at < current.count && epochDay(current.buffer, at) == day
+                ? Optional.of(read(current, at))
+                : Optional.empty();
+    }
+
+    /**
+     * Hands the rows within a date range to a consumer, oldest first.
+     *
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @param limit the maximum number of rows
+     * @param consumer receives each row
+     */
+    void forEach(LocalDate fromDate, LocalDate toDate, int limit, Consumer<StockPriceView> consumer) {
+        Snapshot current = snapshot;
+        int start = lowerBound(current, epochDay(fromDate));
+        long to = toDate.toEpochDay();
+        for (int i = start; i < current.count && i - start < limit && epochDay(current.buffer, i) <= to; i++) {
+            consumer.accept(read(current, i));
+        }
+    }
+
+    /**
+     * Stores rows, replacing the stored rows of the same days.
+     *
+     * @param rows the rows to store
+     * @throws IOException if the file cannot be grown or rewritten
+     */
+    synchronized void upsert(Collection<StockPriceView> rows) throws IOException {
+        Snapshot current = snapshot;
+        int last = current.count == 0 ? Integer.MIN_VALUE : epochDay(current.buffer, current.count - 1);
+        List<StockPriceView> added = new ArrayList<>();
+
+        long stamp = overwrites.writeLock();
+        try {
+            for (Map.Entry<Integer, StockPriceView> row : byDay(rows).entrySet()) {
+                int day = row.getKey();
+                int at = day > last ? current.count : lowerBound(current, day);
+                if (at < current.count && epochDay(current.buffer, at) == day) {
+                    write(current.buffer, at, row.getValue());
+                } else {
+                    added.add(row.getValue());
+                }
+            }
+        } finally {
+            overwrites.unlockWrite(stamp);
+        }
+
+        if (added.isEmpty()) {
+            sync(current.buffer);
+        } else if (epochDay(added.get(0).date()) > last) {
+            append(added);
+        } else {
+            rewrite(added);
+        }
+    }
+
+    /**
+     * Flushes pending writes to disk and releases the file. Rows already handed out stay valid.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        snapshot.buffer.force();
+        channel.close();
+    }
+
+    private void map() throws IOException {
+        channel = FileChannel.open(path, CREATE, READ, WRITE);
+        long size = channel.size();
+
+        if (size == 0) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) INITIAL_CAPACITY * RECORD_BYTES);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(COUNT_OFFSET, 0);
+            snapshot = new Snapshot(buffer, 0, new int[INITIAL_CAPACITY / INDEX_STRIDE + 1]);
+            return;
+        }
+
+        if (size < HEADER_BYTES) {
+            channel.close();
+            throw new IOException("Truncated stock price file " + path);
+        }
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        long count = buffer.getLong(COUNT_OFFSET);
+        int capacity = capacity(buffer);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || count < 0 || count > capacity) {
+            channel.close();
+            throw new IOException("Not a valid stock price file: " + path);
+        }
+
+        int[] index = new int[capacity / INDEX_STRIDE + 1];
+        for (int block = 0; (long) block * INDEX_STRIDE < count; block++) {
+            index[block] = epochDay(buffer, block * INDEX_STRIDE);
+        }
+        snapshot = new Snapshot(buffer, (int) count, index);
+    }
+
+    private void append(List<StockPriceView> rows) throws IOException {
+        Snapshot current = ensureCapacity(snapshot.count + rows.size());
+        int count = current.count;
+
+        for (StockPriceView row : rows) {
+            write(current.buffer, count, row);
+            if (count % INDEX_STRIDE == 0) {
+                current.index[count / INDEX_STRIDE] = epochDay(row.date());
+            }
+            count++;
+        }
+
+        sync(current.buffer);
+        current.buffer.putLong(COUNT_OFFSET, count);
+        sync(current.buffer);
+        snapshot = new Snapshot(current.buffer, count, current.index);
+    }
+
+    private void rewrite(List<StockPriceView> added) throws IOException {
+        Snapshot current = snapshot;
+        List<StockPriceView> merged = new ArrayList<>(current.count + added.size());
+        for (int i = 0; i < current.count; i++) {
+            merged.add(view(current.buffer, i));
+        }
+        merged.addAll(added);
+
+        writeCopy(symbol, path, merged, syncOnWrite);
+        channel.close();
+        map();
+    }
+
+    private static void writeCopy(String symbol, Path path, Collection<StockPriceView> rows,
+                                  boolean syncOnWrite) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        try (MappedSymbolFile copy = open(symbol, temp, syncOnWrite)) {
+            copy.append(new ArrayList<>(byDay(rows).values()));
+        }
+        Files.move(temp, path, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    private Snapshot ensureCapacity(int needed) throws IOException {
+        Snapshot current = snapshot;
+        int capacity = capacity(current.buffer);
+        if (needed <= capacity) {
+            return current;
+        }
+
+        int grown = Math.max(needed, capacity * 2);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_BYTES + (long) grown * RECORD_BYTES);
+        Snapshot remapped = new Snapshot(buffer, current.count, Arrays.copyOf(current.index, grown / INDEX_STRIDE + 1));
+        snapshot = remapped;
+        return remapped;
+    }
+
+    private void sync(MappedByteBuffer buffer) {
+        if (syncOnWrite) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Returns the position of the first row on or after a day.
+     */
+    private static int lowerBound(Snapshot snapshot, int day) {
+        int blocks = (snapshot.count + INDEX_STRIDE - 1) / INDEX_STRIDE;
+        int block = Arrays.binarySearch(snapshot.index, 0, blocks, day);
+        if (block >= 0) {
+            return block * INDEX_STRIDE;
+        }
+
+        int insertion = -block - 1;
+        if (insertion == 0) {
+            return 0;
+        }
+
+        int low = (insertion - 1) * INDEX_STRIDE + 1;
+        int high = Math.min(snapshot.count, insertion * INDEX_STRIDE);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDay(snapshot.buffer, mid) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Reads one row, again under the read lock if an in-place overwrite ran while it was read.
+     * The day of a stored row never changes, so positions found without the lock stay valid.
+     */
+    private StockPriceView read(Snapshot current, int i) {
+        long stamp = overwrites.tryOptimisticRead();
+        StockPriceView row = view(current.buffer, i);
+        if (overwrites.validate(stamp)) {
+            return row;
+        }
+
+        stamp = overwrites.readLock();
+        try {
+            return view(current.buffer, i);
+        } finally {
+            overwrites.unlockRead(stamp);
+        }
+    }
+
+    private StockPriceView view(ByteBuffer buffer, int i) {
+        int offset = HEADER_BYTES + i * RECORD_BYTES;
+        long volume = buffer.getLong(offset + 40);
+        return new StockPriceView(
+                symbol,
+                LocalDate.ofEpochDay(buffer.getInt(offset)),
+                price(buffer.getDouble(offset + 8)),
+                price(buffer.getDouble(offset + 16)),
+                price(buffer.getDouble(offset + 24)),
+                price(buffer.getDouble(offset + 32)),
+                volume == MISSING_VOLUME ? null : volume
+        );
+    }
+
+    private static void write(ByteBuffer buffer, int i, StockPriceView row) {
+        int offset = HEADER_BYTES + i * RECORD_BYTES;
+        buffer.putInt(offset, epochDay(row.date()));
+        buffer.putInt(offset + 4, 0);
+        buffer.putDouble(offset + 8, price(row.openPrice()));
+        buffer.putDouble(offset + 16, price(row.closePrice()));
+        buffer.putDouble(offset + 24, price(row.highPrice()));
+        buffer.putDouble(offset + 32, price(row.lowPrice()));
+        buffer.putLong(offset + 40, row.volume() == null ? MISSING_VOLUME : row.volume());
+    }
+
+    private static int epochDay(ByteBuffer buffer, int i) {
+        return buffer.getInt(HEADER_BYTES + i * RECORD_BYTES);
+    }
+
+    /**
+     * Converts a date to an epoch day, clamping the open-ended bounds {@link LocalDate#MIN} and
+     * {@link LocalDate#MAX} to the int range.
+     */
+    private static int epochDay(LocalDate date) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, date.toEpochDay()));
+    }
+
+    private static int capacity(ByteBuffer buffer) {
+        return (buffer.capacity() - HEADER_BYTES) / RECORD_BYTES;
+    }
+
+    private static Double price(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static double price(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    /**
+     * Orders rows by day, keeping the last row given for each day.
+     */
+    private static TreeMap<Integer, StockPriceView> byDay(Collection<StockPriceView> rows) {
+        TreeMap<Integer, StockPriceView> byDay = new TreeMap<>();
+        for (StockPriceView row : rows) {
+            byDay.put(epochDay(row.date()), row);
+        }
+        return byDay;
+    }
+
+    private record Snapshot(MappedByteBuffer buffer, int count, int[] index) {
+    }
+}
@@ -0,0 +1,490 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes the daily bars of one symbol and year into a single compressed block, stored column by column in
+ * one bit stream:
+ * <ul>
+ *   <li>dates as epoch days, delta-of-delta encoded: a trading day one weekday after the previous one costs one bit;</li>
+ *   <li>each price column, when every price in it has at most four decimals, as the zigzag difference from the
+ *       previous price in units of its last decimal, written in 6-bit groups: a move of a few cents costs
+ *       six or twelve bits;</li>
+ *   <li>any other price column Gorilla-style: the XOR with the previous price, storing only its meaningful bits
+ *       and reusing the previous leading/trailing zero window when it fits;</li>
+ *   <li>volumes as zigzag varints.</li>
+ * </ul>
+ * A price column with missing values prefixes every value with a presence bit; a missing volume is stored as 0.
+ * <p>
+ * The header holds a version byte, the row count and the bit offset of every column, so a {@link Decoder} reads
+ * the columns side by side, one row at a time, without allocating.
+ */
+final class StockPriceBlockCodec {
+
+    private static final int VERSION = 1;
+    private static final int PRICE_COLUMNS = 4;
+    /** Version byte, row count and the start of the four price columns and the volume column. */
+    private static final int HEADER_BITS = 8 + 32 + (PRICE_COLUMNS + 1) * 32;
+    /** Column mode marking Gorilla XOR encoding; modes 0 to 4 are the decimal scales. */
+    private static final int XOR_MODE = 7;
+    private static final int MAX_SCALE = 4;
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+    /** Largest scaled price still exactly representable as a double. */
+    private static final double MAX_SCALED = 1L << 53;
+
+    private StockPriceBlockCodec() {
+    }
+
+    /**
+     * Encodes rows into a block.
+     *
+     * @param rows the rows, ordered by date, with distinct dates
+     * @return the block
+     */
+    static byte[] encode(List<StockPriceView> rows) {
+        BitWriter dates = new BitWriter();
+        BitWriter[] prices = new BitWriter[PRICE_COLUMNS];
+        BitWriter volumes = new BitWriter();
+
+        encodeDates(rows, dates);
+        for (int column = 0; column < PRICE_COLUMNS; column++) {
+            prices[column] = new BitWriter();
+            encodePrices(rows, column, prices[column]);
+        }
+        for (StockPriceView row : rows) {
+            writeVarint(volumes, row.volume() == null ? 0 : zigzag(row.volume()) + 1);
+        }
+
+        BitWriter block = new BitWriter();
+        block.write(VERSION, 8);
+        block.write(rows.size(), 32);
+        long offset = dates.length();
+        for (BitWriter column : prices) {
+            block.write(offset, 32);
+            offset += column.length();
+        }
+        block.write(offset, 32);
+
+        block.append(dates);
+        for (BitWriter column : prices) {
+            block.append(column);
+        }
+        block.append(volumes);
+        return block.toByteArray();
+    }
+
+    private static void encodeDates(List<StockPriceView> rows, BitWriter out) {
+        long previousDay = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            long day = rows.get(i).date().toEpochDay();
+            if (i == 0) {
+                out.write(day, 32);
+            } else {
+                long delta = day - previousDay;
+                long deltaOfDelta = delta - previousDelta;
+                if (deltaOfDelta == 0) {
+                    out.write(0b0, 1);
+                } else if (deltaOfDelta >= -63 && deltaOfDelta <= 64) {
+                    out.write(0b10, 2);
+                    out.write(deltaOfDelta + 63, 7);
+                } else if (deltaOfDelta >= -255 && deltaOfDelta <= 256) {
+                    out.write(0b110, 3);
+                    out.write(deltaOfDelta + 255, 9);
+                } else if (deltaOfDelta >= -2047 && deltaOfDelta <= 2048) {
+                    out.write(0b1110, 4);
+                    out.write(deltaOfDelta + 2047, 12);
+                } else {
+                    out.write(0b1111, 4);
+                    out.write(deltaOfDelta, 32);
+                }
+                previousDelta = delta;
+            }
+            previousDay = day;
+        }
+    }
+
+    private static void encodePrices(List<StockPriceView> rows, int column, BitWriter out) {
+        boolean nullable = false;
+        for (StockPriceView row : rows) {
+            nullable |= price(row, column) == null;
+        }
+        out.write(nullable ? 1 : 0, 1);
+
+        int scale = scale(rows, column);
+        out.write(scale, 3);
+        if (scale != XOR_MODE) {
+            encodeDecimals(rows, column, nullable, POWERS_OF_TEN[scale], out);
+            return;
+        }
+
+        boolean started = false;
+        long previous = 0;
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (StockPriceView row : rows) {
+            Double price = price(row, column);
+            if (nullable) {
+                out.write(price == null ? 0 : 1, 1);
+            }
+            if (price == null) {
+                continue;
+            }
+
+            long bits = Double.doubleToRawLongBits(price);
+            if (!started) {
+                out.write(bits, 64);
+                started = true;
+            } else {
+                long xor = bits ^ previous;
+                if (xor == 0) {
+                    out.write(0b0, 1);
+                } else {
+                    int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                    int trailing = Long.numberOfTrailingZeros(xor);
+                    if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                        out.write(0b10, 2);
+                        out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+                    } else {
+                        int significant = 64 - leading - trailing;
+                        out.write(0b11, 2);
+                        out.write(leading, 5);
+                        out.write(significant - 1, 6);
+                        out.write(xor >>> trailing, significant);
+                        previousLeading = leading;
+                        previousTrailing = trailing;
+                    }
+                }
+            }
+            previous = bits;
+        }
+    }
+
+    private static void encodeDecimals(List<StockPriceView> rows, int column, boolean nullable, long unit,
+                                       BitWriter out) {
+        long previous = 0;
+        for (StockPriceView row : rows) {
+            Double price = price(row, column);
+            if (nullable) {
+                out.write(price == null ? 0 : 1, 1);
+            }
+            if (price != null) {
+                long scaled = Math.round(price * unit);
+                writeGroups(out, zigzag(scaled - previous));
+                previous = scaled;
+            }
+        }
+    }
+
+    /**
+     * Returns the fewest decimals, up to {@value #MAX_SCALE}, that represent every price of a column exactly,
+     * or {@link #XOR_MODE} if there are none.
+     */
+    private static int scale(List<StockPriceView> rows, int column) {
+        int scale = 0;
+        for (StockPriceView row : rows) {
+            Double price = price(row, column);
+            if (price == null) {
+                continue;
+            }
+            while (scale <= MAX_SCALE && !isDecimal(price, POWERS_OF_TEN[scale])) {
+                scale++;
+            }
+            if (scale > MAX_SCALE) {
+                return XOR_MODE;
+            }
+        }
+        return scale;
+    }
+
+    private static boolean isDecimal(double price, long unit) {
+        double scaled = price * unit;
+        return Math.abs(scaled) < MAX_SCALED
+                && Math.round(scaled) / (double) unit == price
+                && Double.doubleToRawLongBits(price) != Double.doubleToRawLongBits(-0.0);
+    }
+
+    private static Double price(StockPriceView row, int column) {
+        return switch (column) {
+            case 0 -> row.openPrice();
+            case 1 -> row.closePrice();
+            case 2 -> row.highPrice();
+            default -> row.lowPrice();
+        };
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Writes an unsigned value in 6-bit groups of a continuation bit and five value bits, lowest group first.
+     */
+    private static void writeGroups(BitWriter out, long value) {
+        while ((value & ~0x1FL) != 0) {
+            out.write((value & 0x1F) | 0x20, 6);
+            value >>>= 5;
+        }
+        out.write(value, 6);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(BitWriter out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+        out.write(value, 8);
+    }
+
+    /**
+     * Reads the value of {@code count} (1 to 64) bits starting at a bit position, most significant bit first.
+     */
+    static long readBits(byte[] data, long position, int count) {
+        long value = 0;
+        int index = (int) (position >>> 3);
+        int offset = (int) (position & 7);
+        int remaining = count;
+        while (remaining > 0) {
+            int available = 8 - offset;
+            int take = Math.min(available, remaining);
+            int bits = ((data[index] & 0xFF) >>> (available - take)) & ((1 << take) - 1);
+            value = (value << take) | bits;
+            remaining -= take;
+            offset = 0;
+            index++;
+        }
+        return value;
+    }
+
+    /**
+     * Decodes a block one row at a time. A decoder can be {@link #reset} onto any number of blocks; decoding
+     * allocates nothing. Missing prices read as NaN and a missing volume as {@link Long#MIN_VALUE}.
+     */
+    static final class Decoder {
+
+        private byte[] data;
+        private int count;
+        private int index;
+
+        private long datePosition;
+        private long day;
+        private long delta;
+
+        private final long[] pricePositions = new long[PRICE_COLUMNS];
+        private final boolean[] nullable = new boolean[PRICE_COLUMNS];
+        private final int[] modes = new int[PRICE_COLUMNS];
+        private final long[] scaled = new long[PRICE_COLUMNS];
+        private final boolean[] started = new boolean[PRICE_COLUMNS];
+        private final long[] priceBits = new long[PRICE_COLUMNS];
+        private final int[] leading = new int[PRICE_COLUMNS];
+        private final int[] trailing = new int[PRICE_COLUMNS];
+        private final double[] prices = new double[PRICE_COLUMNS];
+
+        private long volumePosition;
+        private long volume;
+
+        /**
+         * Positions the decoder before the first row of a block.
+         *
+         * @param block the block to decode
+         * @return the number of rows in the block
+         */
+        int reset(byte[] block) {
+            if (readBits(block, 0, 8) != VERSION) {
+                throw new IllegalStateException("Unsupported stock price block version " + readBits(block, 0, 8));
+            }
+            data = block;
+            count = (int) readBits(block, 8, 32);
+            index = 0;
+            datePosition = HEADER_BITS;
+            for (int column = 0; column < PRICE_COLUMNS; column++) {
+                long position = HEADER_BITS + readBits(block, 40 + column * 32L, 32);
+                nullable[column] = readBits(block, position, 1) == 1;
+                modes[column] = (int) readBits(block, position + 1, 3);
+                pricePositions[column] = position + 4;
+            }
+            volumePosition = HEADER_BITS + readBits(block, 40 + PRICE_COLUMNS * 32L, 32);
+            Arrays.fill(started, false);
+            Arrays.fill(leading, -1);
+            Arrays.fill(scaled, 0);
+            return count;
+        }
+
+        /**
+         * Advances to the next row.
+         *
+         * @return false if the block has no more rows
+         */
+        boolean next() {
+            if (index == count) {
+                return false;
+            }
+            nextDay();
+            for (int column = 0; column < PRICE_COLUMNS; column++) {
+                nextPrice(column);
+            }
+            nextVolume();
+            index++;
+            return true;
+        }
+
+        long epochDay() {
+            return day;
+        }
+
+        double openPrice() {
+            return prices[0];
+        }
+
+        double closePrice() {
+            return prices[1];
+        }
+
+        double highPrice() {
+            return prices[2];
+        }
+
+        double lowPrice() {
+            return prices[3];
+        }
+
+        long volume() {
+            return volume;
+        }
+
+        private void nextDay() {
+            if (index == 0) {
+                day = (int) readBits(data, datePosition, 32);
+                datePosition += 32;
+                delta = 0;
+                return;
+            }
+
+            long deltaOfDelta;
+            if (readBit(datePosition++) == 0) {
+                deltaOfDelta = 0;
+            } else if (readBit(datePosition++) == 0) {
+                deltaOfDelta = readBits(data, datePosition, 7) - 63;
+                datePosition += 7;
+            } else if (readBit(datePosition++) == 0) {
+                deltaOfDelta = readBits(data, datePosition, 9) - 255;
+                datePosition += 9;
+            } else if (readBit(datePosition++) == 0) {
+                deltaOfDelta = readBits(data, datePosition, 12) - 2047;
+                datePosition += 12;
+            } else {
+                deltaOfDelta = (int) readBits(data, datePosition, 32);
+                datePosition += 32;
+            }
+            delta += deltaOfDelta;
+            day += delta;
+        }
+
+        private void nextPrice(int column) {
+            long position = pricePositions[column];
+            if (nullable[column] && readBit(position++) == 0) {
+                pricePositions[column] = position;
+                prices[column] = Double.NaN;
+                return;
+            }
+
+            if (modes[column] != XOR_MODE) {
+                long group;
+                long value = 0;
+                int shift = 0;
+                do {
+                    group = readBits(data, position, 6);
+                    position += 6;
+                    value |= (group & 0x1F) << shift;
+                    shift += 5;
+                } while ((group & 0x20) != 0);
+                scaled[column] += unzigzag(value);
+                pricePositions[column] = position;
+                prices[column] = scaled[column] / (double) POWERS_OF_TEN[modes[column]];
+                return;
+            }
+
+            if (!started[column]) {
+                priceBits[column] = readBits(data, position, 64);
+                position += 64;
+                started[column] = true;
+            } else if (readBit(position++) == 1) {
+                if (readBit(position++) == 1) {
+                    leading[column] = (int) readBits(data, position, 5);
+                    trailing[column] = 64 - leading[column] - ((int) readBits(data, position + 5, 6) + 1);
+                    position += 11;
+                }
+                int significant = 64 - leading[column] - trailing[column];
+                priceBits[column] ^= readBits(data, position, significant) << trailing[column];
+                position += significant;
+            }
+            pricePositions[column] = position;
+            prices[column] = Double.longBitsToDouble(priceBits[column]);
+        }
+
+        private void nextVolume() {
+            long value = 0;
+            int shift = 0;
+            long group;
+            do {
+                group = readBits(data, volumePosition, 8);
+                volumePosition += 8;
+                value |= (group & 0x7F) << shift;
+                shift += 7;
+            } while ((group & 0x80) != 0);
+            volume = value == 0 ? Long.MIN_VALUE : unzigzag(value - 1);
+        }
+
+        private int readBit(long position) {
+            return (data[(int) (position >>> 3)] >>> (7 - (position & 7))) & 1;
+        }
+    }
+
+    /**
+     * Growable bit buffer, written most significant bit first.
+     */
+    private static final class BitWriter {
+
+        private byte[] buffer = new byte[64];
+        private long length;
+
+        void write(long value, int count) {
+            for (int remaining = count; remaining > 0; ) {
+                int index = (int) (length >>> 3);
+                if (index == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int free = 8 - (int) (length & 7);
+                int take = Math.min(free, remaining);
+                int bits = (int) (value >>> (remaining - take)) & ((1 << take) - 1);
+                buffer[index] |= (byte) (bits << (free - take));
+                remaining -= take;
+                length += take;
+            }
+        }
+
+        void append(BitWriter other) {
+            long position = 0;
+            while (position < other.length) {
+                int count = (int) Math.min(64, other.length - position);
+                write(readBits(other.buffer, position, count), count);
+                position += count;
+            }
+        }
+
+        long length() {
+            return length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, (int) ((length + 7) >>> 3));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Backend that serves stock price reads. The engine is chosen with {@code polygon.storage.engine};
+ * MySQL stays the system of record, and ingestion hands every committed batch to {@link #recordWrites}
+ * so engines that keep their own copy stay current.
+ * <p>
+ * Only this instance's ingestion reaches {@link #recordWrites}. An engine that keeps its own copy does not see
+ * rows other instances write to MySQL until it next reads the symbol from MySQL, if ever, so such engines suit
+ * single-writer deployments.
+ */
+public interface StockPriceStorage {
+
+    /** Lower bound of a range covering a symbol's whole history. */
+    LocalDate FIRST_DAY = LocalDate.of(1, 1, 1);
+
+    /** Upper bound of a range covering a symbol's whole history. */
+    LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+
+    /**
+     * Finds the stock price of a symbol on a date.
+     *
+     * @param symbol the stock symbol
+     * @param date the trading day
+     * @return the stock price, or empty if none is stored
+     */
+    Optional<StockPriceView> findBySymbolAndDate(String symbol, LocalDate date);
+
+    /**
+     * Finds the stock prices of every combination of the given symbols and dates. Combinations without a stored
+     * row are simply absent.
+     *
+     * @param symbols the stock symbols
+     * @param dates the trading days
+     * @return the stored stock prices, in no particular order
+     */
+    List<StockPriceView> findBySymbolsAndDates(Collection<String> symbols, Collection<LocalDate> dates);
+
+    /**
+     * Finds the stock prices of a symbol after a date and up to another, ordered by date.
+     *
+     * @param symbol the stock symbol
+     * @param afterDate the exclusive lower bound
+     * @param toDate the inclusive upper bound
+     * @param limit the maximum number of rows to return
+     * @return at most {@code limit} stock prices, oldest first
+     */
+    List<StockPriceView> findRangeAfter(String symbol, LocalDate afterDate, LocalDate toDate, int limit);
+
+    /**
+     * Streams the stock prices of a symbol within a date range, ordered by date, to a consumer
+     * without buffering the range.
+     *
+     * @param symbol the stock symbol
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @param consumer receives each row in date order
+     */
+    void streamRange(String symbol, LocalDate fromDate, LocalDate toDate, Consumer<StockPriceView> consumer);
+
+    /**
+     * Returns the whole stored history of a symbol, ordered by date.
+     *
+     * @param symbol the stock symbol
+     * @return the stock prices, oldest first
+     */
+    List<StockPriceView> findBySymbol(String symbol);
+
+    /**
+     * Returns the days stored for a symbol, ordered.
+     *
+     * @param symbol the stock symbol
+     * @return the stored days, oldest first
+     */
+    List<LocalDate> findDates(String symbol);
+
+    /**
+     * Aggregates the stock prices of each symbol within a date range.
+     *
+     * @param symbols the stock symbols, or an empty collection for every stored symbol
+     * @param fromDate the start of the range (inclusive)
+     * @param toDate the end of the range (inclusive)
+     * @return one summary per symbol with rows in the range, ordered by symbol
+     * @throws IllegalArgumentException if symbols are empty and the engine cannot list every symbol
+     */
+    List<StockPriceSummary> summarize(Collection<String> symbols, LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * Applies rows that were just committed to MySQL.
+     *
+     * @param stockPrices the committed rows
+     */
+    void recordWrites(Collection<StockPrice> stockPrices);
+
+    /**
+     * Drops what the engine keeps of a symbol after {@link #recordWrites} failed for it, so the symbol is read
+     * from MySQL again instead of from a copy that misses committed rows. Engines without a copy ignore it.
+     *
+     * @param symbol the stock symbol
+     */
+    default void discard(String symbol) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Builds a {@link StockPriceSummary} from one symbol's rows for engines that aggregate in Java.
+ * Missing values are skipped like SQL aggregates skip nulls.
+ */
+final class SummaryAccumulator implements Consumer<StockPriceView> {
+
+    private final String symbol;
+    private long days;
+    private LocalDate firstDate;
+    private LocalDate lastDate;
+    private Double highPrice;
+    private Double lowPrice;
+    private double closeSum;
+    private long closeCount;
+    private Long totalVolume;
+
+    SummaryAccumulator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    @Override
+    public void accept(StockPriceView row) {
+        days++;
+        if (firstDate == null || row.date().isBefore(firstDate)) {
+            firstDate = row.date();
+        }
+        if (lastDate == null || row.date().isAfter(lastDate)) {
+            lastDate = row.date();
+        }
+        if (row.highPrice() != null && (highPrice == null || row.highPrice() > highPrice)) {
+            highPrice = row.highPrice();
+        }
+        if (row.lowPrice() != null && (lowPrice == null || row.lowPrice() < lowPrice)) {
+            lowPrice = row.lowPrice();
+        }
+        if (row.closePrice() != null) {
+            closeSum += row.closePrice();
+            closeCount++;
+        }
+        if (row.volume() != null) {
+            totalVolume = totalVolume == null ? row.volume() : totalVolume + row.volume();
+        }
+    }
+
+    long days() {
+        return days;
+    }
+
+    StockPriceSummary toSummary() {
+        return new StockPriceSummary(symbol, days, firstDate, lastDate, highPrice, lowPrice,
+                closeCount == 0 ? null : closeSum / closeCount, totalVolume);
+    }
+}
@@ -0,0 +1,29 @@
+package com.leadiq.polygonapi.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Maps symbols to file names. Symbols that are plain tickers keep their name; anything else is hex-encoded
+ * behind a {@code ~} so it cannot escape the directory.
+ */
+final class SymbolFileNames {
+
+    private static final Pattern PLAIN_SYMBOL = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+
+    private SymbolFileNames() {
+    }
+
+    static String encode(String symbol) {
+        return PLAIN_SYMBOL.matcher(symbol).matches()
+                ? symbol
+                : "~" + HexFormat.of().formatHex(symbol.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decode(String name) {
+        return name.startsWith("~")
+                ? new String(HexFormat.of().parseHex(name.substring(1)), StandardCharsets.UTF_8)
+                : name;
+    }
+}
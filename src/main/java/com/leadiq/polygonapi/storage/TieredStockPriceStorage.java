@@ -0,0 +1,223 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Serves reads from the configured engine (the hot tier) merged with the {@link ColdStockPriceTier}, so callers
+ * see one history whether or not its older rows have been archived. Where both tiers hold a date, the hot row
+ * wins: it is either the same row not yet deleted from MySQL, or a newer one ingested after the archive run.
+ * <p>
+ * Registered as the primary {@link StockPriceStorage} when the cold tier is enabled, and wraps the engine bean.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "polygon.storage.cold.enabled", havingValue = "true")
+public class TieredStockPriceStorage implements StockPriceStorage {
+
+    private final StockPriceStorage hot;
+    private final ColdStockPriceTier cold;
+
+    public TieredStockPriceStorage(StockPriceStorage hot, ColdStockPriceTier cold) {
+        this.hot = hot;
+        this.cold = cold;
+    }
+
+    @Override
+    public Optional<StockPriceView> findBySymbolAndDate(String symbol, LocalDate date) {
+        Optional<StockPriceView> stockPrice = hot.findBySymbolAndDate(symbol, date);
+        return stockPrice.isPresent() ? stockPrice : cold.find(symbol, date);
+    }
+
+    /**
+     * Looks up every combination on the engine, then reads the archived rows of the symbols whose files cover
+     * the dates, once per symbol, for the combinations the engine did not have.
+     */
+    @Override
+    public List<StockPriceView> findBySymbolsAndDates(Collection<String> symbols, Collection<LocalDate> dates) {
+        List<StockPriceView> rows = new ArrayList<>(hot.findBySymbolsAndDates(symbols, dates));
+        TreeSet<LocalDate> wanted = new TreeSet<>(dates);
+        if (wanted.isEmpty()) {
+            return rows;
+        }
+
+        Map<String, Set<LocalDate>> found = new HashMap<>();
+        for (StockPriceView row : rows) {
+            found.computeIfAbsent(row.symbol(), symbol -> new HashSet<>()).add(row.date());
+        }
+        for (String symbol : symbols) {
+            if (!cold.covers(symbol, wanted.first(), wanted.last())) {
+                continue;
+            }
+            Set<LocalDate> hotDates = found.getOrDefault(symbol, Set.of());
+            Iterator<StockPriceView> archived = cold.read(symbol, wanted.first(), wanted.last());
+            while (archived.hasNext()) {
+                StockPriceView row = archived.next();
+                if (wanted.contains(row.date()) && !hotDates.contains(row.date())) {
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public List<StockPriceView> findRangeAfter(String symbol, LocalDate afterDate, LocalDate toDate, int limit) {
+        List<StockPriceView> hotRows = hot.findRangeAfter(symbol, afterDate, toDate, limit);
+        LocalDate fromDate = afterDate.plusDays(1);
+        if (fromDate.isAfter(toDate) || !cold.covers(symbol, fromDate, toDate)) {
+            return hotRows;
+        }
+
+        List<StockPriceView> rows = new ArrayList<>(limit);
+        Merge merge = new Merge(cold.read(symbol, fromDate, toDate), rows::add, limit);
+        hotRows.forEach(merge);
+        merge.finish();
+        return rows;
+    }
+
+    @Override
+    public void streamRange(String symbol, LocalDate fromDate, LocalDate toDate, Consumer<StockPriceView> consumer) {
+        if (!cold.covers(symbol, fromDate, toDate)) {
+            hot.streamRange(symbol, fromDate, toDate, consumer);
+            return;
+        }
+
+        Merge merge = new Merge(cold.read(symbol, fromDate, toDate), consumer, Long.MAX_VALUE);
+        hot.streamRange(symbol, fromDate, toDate, merge);
+        merge.finish();
+    }
+
+    @Override
+    public List<StockPriceView> findBySymbol(String symbol) {
+        List<StockPriceView> hotRows = hot.findBySymbol(symbol);
+        if (!cold.covers(symbol, FIRST_DAY, LAST_DAY)) {
+            return hotRows;
+        }
+
+        List<StockPriceView> rows = new ArrayList<>();
+        Merge merge = new Merge(cold.read(symbol, FIRST_DAY, LAST_DAY), rows::add, Long.MAX_VALUE);
+        hotRows.forEach(merge);
+        merge.finish();
+        return rows;
+    }
+
+    @Override
+    public List<LocalDate> findDates(String symbol) {
+        List<LocalDate> hotDates = hot.findDates(symbol);
+        if (!cold.covers(symbol, FIRST_DAY, LAST_DAY)) {
+            return hotDates;
+        }
+
+        TreeSet<LocalDate> dates = new TreeSet<>(hotDates);
+        cold.read(symbol, FIRST_DAY, LAST_DAY).forEachRemaining(row -> dates.add(row.date()));
+        return new ArrayList<>(dates);
+    }
+
+    /**
+     * Summarizes symbols without archived rows in the range on the engine, and the others from their merged
+     * rows, since a plain sum of both tiers' aggregates would count dates held by both twice.
+     */
+    @Override
+    public List<StockPriceSummary> summarize(Collection<String> symbols, LocalDate fromDate, LocalDate toDate) {
+        Set<String> merged = new TreeSet<>();
+        for (String symbol : symbols.isEmpty() ? cold.symbols() : symbols) {
+            if (cold.covers(symbol, fromDate, toDate)) {
+                merged.add(symbol);
+            }
+        }
+        if (merged.isEmpty()) {
+            return hot.summarize(symbols, fromDate, toDate);
+        }
+
+        Set<String> hotOnly = new TreeSet<>(symbols);
+        hotOnly.removeAll(merged);
+        Map<String, StockPriceSummary> summaries = new TreeMap<>();
+        if (symbols.isEmpty() || !hotOnly.isEmpty()) {
+            for (StockPriceSummary summary : hot.summarize(hotOnly, fromDate, toDate)) {
+                summaries.put(summary.symbol(), summary);
+            }
+        }
+        for (String symbol : merged) {
+            SummaryAccumulator accumulator = new SummaryAccumulator(symbol);
+            streamRange(symbol, fromDate, toDate, accumulator);
+            if (accumulator.days() > 0) {
+                summaries.put(symbol, accumulator.toSummary());
+            }
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    @Override
+    public void recordWrites(Collection<StockPrice> stockPrices) {
+        hot.recordWrites(stockPrices);
+    }
+
+    @Override
+    public void discard(String symbol) {
+        hot.discard(symbol);
+    }
+
+    /**
+     * Merges hot rows pushed in date order with cold rows pulled in date order, dropping cold rows whose date
+     * has a hot row. Stops after {@code limit} merged rows, without reading further cold rows.
+     */
+    private static final class Merge implements Consumer<StockPriceView> {
+
+        private final Iterator<StockPriceView> cold;
+        private final Consumer<StockPriceView> consumer;
+        private final long limit;
+        private long emitted;
+        private StockPriceView pending;
+
+        private Merge(Iterator<StockPriceView> cold, Consumer<StockPriceView> consumer, long limit) {
+            this.cold = cold;
+            this.consumer = consumer;
+            this.limit = limit;
+            this.pending = cold.hasNext() ? cold.next() : null;
+        }
+
+        @Override
+        public void accept(StockPriceView hotRow) {
+            while (pending != null && !pending.date().isAfter(hotRow.date()) && emitted < limit) {
+                if (pending.date().isBefore(hotRow.date())) {
+                    emit(pending);
+                }
+                pending = cold.hasNext() ? cold.next() : null;
+            }
+            if (emitted < limit) {
+                emit(hotRow);
+            }
+        }
+
+        void finish() {
+            while (pending != null && emitted < limit) {
+                emit(pending);
+                pending = cold.hasNext() ? cold.next() : null;
+            }
+        }
+
+        private void emit(StockPriceView row) {
+            consumer.accept(row);
+            emitted++;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- Baseline schema for stock_price, matching the StockPrice entity mapping.
+-- Existing databases created by hibernate ddl-auto are baselined at version 1 and skip this script.
+CREATE TABLE stock_price (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    company_symbol VARCHAR(255) NOT NULL,
+    date           DATE         NOT NULL,
+    open_price     DOUBLE,
+    close_price    DOUBLE,
+    high_price     DOUBLE,
+    low_price      DOUBLE,
+    volume         BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stock_price_symbol_date UNIQUE (company_symbol, date)
+);
+
+CREATE INDEX idx_company_symbol ON stock_price (company_symbol);
+CREATE INDEX idx_date ON stock_price (date);
@@ -0,0 +1,12 @@
+-- Compressed layout read by the 'blocks' storage engine: one row per symbol and year holding all of that
+-- year's daily bars, encoded by StockPriceBlockCodec. stock_price stays the system of record; ingestion
+-- rewrites the blocks of the years it touches.
+CREATE TABLE stock_price_block (
+    company_symbol VARCHAR(255) NOT NULL,
+    block_year     INT          NOT NULL,
+    row_count      INT          NOT NULL,
+    first_date     DATE         NOT NULL,
+    last_date      DATE         NOT NULL,
+    data           MEDIUMBLOB   NOT NULL,
+    PRIMARY KEY (company_symbol, block_year)
+);
@@ -0,0 +1,15 @@
+-- Weekly, monthly, quarterly and yearly candles aggregated from stock_price, matching the StockPriceRollup
+-- entity mapping. Ingestion re-aggregates the periods of the days it writes.
+CREATE TABLE stock_price_rollup (
+    company_symbol VARCHAR(255) NOT NULL,
+    bar_interval   VARCHAR(16)  NOT NULL,
+    period_start   DATE         NOT NULL,
+    last_date      DATE         NOT NULL,
+    trading_days   INT          NOT NULL,
+    open_price     DOUBLE,
+    close_price    DOUBLE,
+    high_price     DOUBLE,
+    low_price      DOUBLE,
+    volume         BIGINT,
+    PRIMARY KEY (company_symbol, bar_interval, period_start)
+);
@@ -0,0 +1,10 @@
+-- Coordinates the instances that enable the cold tier, matching the ColdTierState entity mapping. Its single row
+-- holds the id of the cold tier directory every instance must mount, and the lease of the one instance that may
+-- move rows into it.
+CREATE TABLE cold_tier_state (
+    id             INT         NOT NULL,
+    directory_id   VARCHAR(36) NOT NULL,
+    archiver       VARCHAR(36),
+    archiver_until BIGINT,
+    PRIMARY KEY (id)
+);
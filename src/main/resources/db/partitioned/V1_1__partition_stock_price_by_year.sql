@@ -0,0 +1,47 @@
+-- Optional layout (MySQL only): range-partitions stock_price by calendar year.
+-- Enabled with the 'partitioned' profile. Range queries on date only touch the matching
+-- yearly partitions, and old years can be archived with EXCHANGE PARTITION or dropped
+-- with DROP PARTITION instead of a row-by-row DELETE.
+--
+-- MySQL requires the partitioning column to be part of every unique key, so the
+-- primary key becomes (id, date). The (company_symbol, date) unique key already qualifies.
+ALTER TABLE stock_price
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, date);
+
+ALTER TABLE stock_price
+    PARTITION BY RANGE COLUMNS (date) (
+        PARTITION p_archive VALUES LESS THAN ('2000-01-01'),
+        PARTITION p2000 VALUES LESS THAN ('2001-01-01'),
+        PARTITION p2001 VALUES LESS THAN ('2002-01-01'),
+        PARTITION p2002 VALUES LESS THAN ('2003-01-01'),
+        PARTITION p2003 VALUES LESS THAN ('2004-01-01'),
+        PARTITION p2004 VALUES LESS THAN ('2005-01-01'),
+        PARTITION p2005 VALUES LESS THAN ('2006-01-01'),
+        PARTITION p2006 VALUES LESS THAN ('2007-01-01'),
+        PARTITION p2007 VALUES LESS THAN ('2008-01-01'),
+        PARTITION p2008 VALUES LESS THAN ('2009-01-01'),
+        PARTITION p2009 VALUES LESS THAN ('2010-01-01'),
+        PARTITION p2010 VALUES LESS THAN ('2011-01-01'),
+        PARTITION p2011 VALUES LESS THAN ('2012-01-01'),
+        PARTITION p2012 VALUES LESS THAN ('2013-01-01'),
+        PARTITION p2013 VALUES LESS THAN ('2014-01-01'),
+        PARTITION p2014 VALUES LESS THAN ('2015-01-01'),
+        PARTITION p2015 VALUES LESS THAN ('2016-01-01'),
+        PARTITION p2016 VALUES LESS THAN ('2017-01-01'),
+        PARTITION p2017 VALUES LESS THAN ('2018-01-01'),
+        PARTITION p2018 VALUES LESS THAN ('2019-01-01'),
+        PARTITION p2019 VALUES LESS THAN ('2020-01-01'),
+        PARTITION p2020 VALUES LESS THAN ('2021-01-01'),
+        PARTITION p2021 VALUES LESS THAN ('2022-01-01'),
+        PARTITION p2022 VALUES LESS THAN ('2023-01-01'),
+        PARTITION p2023 VALUES LESS THAN ('2024-01-01'),
+        PARTITION p2024 VALUES LESS THAN ('2025-01-01'),
+        PARTITION p2025 VALUES LESS THAN ('2026-01-01'),
+        PARTITION p2026 VALUES LESS THAN ('2027-01-01'),
+        PARTITION p2027 VALUES LESS THAN ('2028-01-01'),
+        PARTITION p2028 VALUES LESS THAN ('2029-01-01'),
+        PARTITION p2029 VALUES LESS THAN ('2030-01-01'),
+        PARTITION p2030 VALUES LESS THAN ('2031-01-01'),
+        PARTITION p_future VALUES LESS THAN (MAXVALUE)
+    );
@@ -31,7 +31,7 @@ class PolygonApiApplicationTests {
     void cacheManagerIsConfigured() {
         assertNotNull(cacheManager, "Cache manager should be properly configured");
         // You can also test specific cache names if you have them defined
-        assertNotNull(cacheManager.getCache("stockPrices"), "stockPrices cache should be available");
+        assertNotNull(cacheManager.getCache("stockPriceViews"), "stockPriceViews cache should be available");
     }
 
     @Test
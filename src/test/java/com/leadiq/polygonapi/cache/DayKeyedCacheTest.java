@@ -0,0 +1,88 @@
+package com.leadiq.polygonapi.cache;
+
+import com.leadiq.polygonapi.config.HotDayCacheConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayKeyedCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 1, 3);
+
+    private final AtomicLong nanos = new AtomicLong(1);
+
+    private DayKeyedCache newCache(int maxEntries) {
+        HotDayCacheConfig config = new HotDayCacheConfig();
+        config.setMaxEntries(maxEntries);
+        return new DayKeyedCache(StockPriceCaches.STOCK_PRICE_HOT_VIEWS, config, nanos::get);
+    }
+
+    private static StockPriceView view(String symbol, LocalDate date) {
+        return new StockPriceView(symbol, date, 1.0, 1.0, 1.0, 1.0, 1L);
+    }
+
+    @Test
+    void testPackedKeysTellSymbolsAndDaysApart() {
+        DayKeyedCache cache = newCache(1024);
+        StockPriceView apple = view("AAPL", DAY);
+        StockPriceView nextDay = view("AAPL", DAY.plusDays(1));
+        StockPriceView microsoft = view("MSFT", DAY);
+        cache.put("AAPL", DAY, apple);
+        cache.put("AAPL", DAY.plusDays(1), nextDay);
+        cache.put("MSFT", DAY, microsoft);
+
+        assertSame(apple, cache.get("AAPL", DAY));
+        assertSame(nextDay, cache.get("AAPL", DAY.plusDays(1)));
+        assertSame(microsoft, cache.get("MSFT", DAY));
+        assertNull(cache.get("AAPL", DAY.minusDays(1)));
+        assertNull(cache.get("GOOG", DAY));
+        assertNotEquals(DayKeyedCache.pack(1, DAY), DayKeyedCache.pack(2, DAY));
+        assertEquals(3, cache.getSize());
+        assertEquals(3, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        DayKeyedCache cache = newCache(1024);
+        cache.put("AAPL", DAY, view("AAPL", DAY));
+
+        nanos.addAndGet(new HotDayCacheConfig().getTtl().plus(Duration.ofSeconds(1)).toNanos());
+
+        assertNull(cache.get("AAPL", DAY));
+    }
+
+    @Test
+    void testFullCacheReplacesOldestEntries() {
+        DayKeyedCache cache = newCache(64);
+        for (int day = 0; day < 1000; day++) {
+            nanos.incrementAndGet();
+            cache.put("AAPL", DAY.plusDays(day), view("AAPL", DAY.plusDays(day)));
+        }
+
+        assertEquals(64, cache.getSize());
+        assertEquals(1000 - 64, cache.getEvictions());
+        assertNotNull(cache.get("AAPL", DAY.plusDays(999)));
+    }
+
+    @Test
+    void testInvalidationEvictsByStringKey() {
+        DayKeyedCache cache = newCache(1024);
+        cache.put(StockPriceCaches.key("AAPL", DAY), view("AAPL", DAY));
+        cache.put("AAPL", DAY.plusDays(1), view("AAPL", DAY.plusDays(1)));
+
+        StockPriceCaches.evictLocally(cache, new CacheInvalidation("AAPL", List.of(DAY)));
+
+        assertNull(cache.get(StockPriceCaches.key("AAPL", DAY)));
+        assertNotNull(cache.get("AAPL", DAY.plusDays(1)));
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertNull(cache.get("AAPL", DAY.plusDays(1)));
+    }
+}
@@ -0,0 +1,133 @@
+package com.leadiq.polygonapi.cache;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.leadiq.polygonapi.config.CacheConfig;
+import com.leadiq.polygonapi.dto.CacheStatistics;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockPriceCachesTest {
+
+    private static final LocalDate TODAY = LocalDate.now(ZoneOffset.UTC);
+    private static final LocalDate HISTORICAL = LocalDate.of(2020, 1, 2);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private LoadingCache<Object, Object> newCache(CacheConfig config) {
+        return StockPriceCaches.build(config, (symbol, date) -> {
+            loads.incrementAndGet();
+            return price(symbol, date, 200.0);
+        }, nanos::get, Runnable::run);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private static StockPriceView price(String symbol, LocalDate date, double close) {
+        return new StockPriceView(symbol, date, null, close, null, null, null);
+    }
+
+    @Test
+    void testRecentDaysExpireBeforeHistoricalDays() {
+        LoadingCache<Object, Object> cache = newCache(new CacheConfig());
+        String recent = StockPriceCaches.key("AAPL", TODAY);
+        String historical = StockPriceCaches.key("AAPL", HISTORICAL);
+        cache.put(recent, price("AAPL", TODAY, 100.0));
+        cache.put(historical, price("AAPL", HISTORICAL, 100.0));
+
+        advance(Duration.ofMinutes(6));
+        assertNull(cache.getIfPresent(recent));
+        assertNotNull(cache.getIfPresent(historical));
+
+        advance(Duration.ofHours(24));
+        assertNull(cache.getIfPresent(historical));
+    }
+
+    @Test
+    void testOnlyRecentDaysAreRefreshed() {
+        LoadingCache<Object, Object> cache = newCache(new CacheConfig());
+        String recent = StockPriceCaches.key("AAPL", TODAY);
+        String historical = StockPriceCaches.key("AAPL", HISTORICAL);
+        cache.put(recent, price("AAPL", TODAY, 100.0));
+        cache.put(historical, price("AAPL", HISTORICAL, 100.0));
+
+        advance(Duration.ofMinutes(2));
+        cache.getIfPresent(recent);
+        cache.getIfPresent(historical);
+
+        assertEquals(1, loads.get());
+        assertEquals(200.0, ((StockPriceView) cache.getIfPresent(recent)).closePrice());
+        assertEquals(100.0, ((StockPriceView) cache.getIfPresent(historical)).closePrice());
+
+        advance(Duration.ofHours(23));
+        assertNotNull(cache.getIfPresent(historical));
+        advance(Duration.ofHours(2));
+        assertNull(cache.getIfPresent(historical));
+    }
+
+    @Test
+    void testEntriesAreEvictedBeyondTheMemoryLimit() {
+        CacheConfig config = new CacheConfig();
+        config.setMaxMemory(DataSize.ofKilobytes(16));
+        LoadingCache<Object, Object> cache = newCache(config);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(StockPriceCaches.key("SYM" + i, HISTORICAL), price("SYM" + i, HISTORICAL, 100.0));
+        }
+        cache.cleanUp();
+
+        long weightedSize = cache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        assertTrue(weightedSize <= config.getMaxMemory().toBytes());
+        assertTrue(cache.stats().evictionCount() > 900);
+        assertTrue(cache.estimatedSize() < 100);
+    }
+
+    @Test
+    void testKeysAreSplitOnTheLastSeparator() {
+        String key = StockPriceCaches.key("BRK_B", HISTORICAL);
+
+        assertEquals("BRK_B_2020-01-02", key);
+        assertEquals("BRK_B", StockPriceCaches.symbol(key));
+        assertEquals(HISTORICAL, StockPriceCaches.date(key));
+    }
+
+    @Test
+    void testStatisticsReaderReportsCounters() {
+        RefreshingCaffeineCache stockPrices =
+                new RefreshingCaffeineCache(StockPriceCaches.STOCK_PRICE_VIEWS, newCache(new CacheConfig()));
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(stockPrices));
+        cacheManager.afterPropertiesSet();
+
+        String key = StockPriceCaches.key("AAPL", HISTORICAL);
+        assertNull(stockPrices.get(key));
+        stockPrices.put(key, price("AAPL", HISTORICAL, 100.0));
+        assertNotNull(stockPrices.get(key));
+        assertNotNull(stockPrices.get(key));
+
+        List<CacheStatistics> statistics = new CacheStatisticsReader(cacheManager).read();
+
+        assertEquals(1, statistics.size());
+        CacheStatistics stats = statistics.get(0);
+        assertEquals(StockPriceCaches.STOCK_PRICE_VIEWS, stats.name());
+        assertEquals(1, stats.entries());
+        assertEquals(StockPriceCaches.weigh(key, price("AAPL", HISTORICAL, 100.0)), stats.weightedBytes());
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(2.0 / 3, stats.hitRate(), 1e-9);
+        assertEquals(0, loads.get());
+    }
+}
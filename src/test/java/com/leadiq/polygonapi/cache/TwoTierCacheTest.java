@@ -0,0 +1,229 @@
+package com.leadiq.polygonapi.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.fppt.jedismock.RedisServer;
+import com.leadiq.polygonapi.config.CacheConfig;
+import com.leadiq.polygonapi.config.SharedCacheConfig;
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TwoTierCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 1, 3);
+
+    private RedisServer redisServer;
+    private final List<LettuceConnectionFactory> connectionFactories = new ArrayList<>();
+    private final List<SharedCacheTier> tiers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisServer = RedisServer.newRedisServer().start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (SharedCacheTier tier : tiers) {
+            tier.shutdown();
+        }
+        connectionFactories.forEach(LettuceConnectionFactory::destroy);
+        redisServer.stop();
+    }
+
+    /**
+     * Builds the caches of one application instance, connected to the shared server.
+     */
+    private Node newNode(int port) {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", port),
+                LettuceClientConfiguration.builder().commandTimeout(Duration.ofMillis(500)).build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        connectionFactories.add(connectionFactory);
+        SharedCacheTier tier = new SharedCacheTier(new SharedCacheConfig(), connectionFactory);
+        tiers.add(tier);
+
+        CacheConfig cacheConfig = new CacheConfig();
+        TwoTierCache views = new TwoTierCache(new RefreshingCaffeineCache(StockPriceCaches.STOCK_PRICE_VIEWS,
+                StockPriceCaches.build(cacheConfig, (symbol, date) -> null, Ticker.systemTicker(), Runnable::run)),
+                tier);
+        TwoTierCache ranges = new TwoTierCache(new CaffeineCache(StockPriceCaches.STOCK_PRICE_RANGES,
+                StockPriceCaches.buildRanges(cacheConfig, Ticker.systemTicker(), Runnable::run), false), tier);
+        tier.addInvalidationListener(invalidation -> {
+            StockPriceCaches.evictLocally(views, invalidation);
+            StockPriceCaches.evictLocally(ranges, invalidation);
+        });
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(views, ranges));
+        cacheManager.afterPropertiesSet();
+        @SuppressWarnings("unchecked")
+        ObjectProvider<SharedCacheTier> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(tier);
+        return new Node(views, ranges, new StockPriceCacheInvalidator(cacheManager, provider));
+    }
+
+    private static StockPrice price(String symbol, LocalDate date, double close) {
+        return StockPrice.builder().id(7L).companySymbol(symbol).date(date).openPrice(1.5).closePrice(close)
+                .volume(1000L).build();
+    }
+
+    private static StockPriceView view(String symbol, LocalDate date, double close) {
+        return new StockPriceView(symbol, date, 1.5, close, null, null, 1000L);
+    }
+
+    private static CursorPage<StockPriceView> page(String symbol) {
+        return new CursorPage<>(List.of(new StockPriceView(symbol, DAY, 1.0, 2.0, null, 0.5, null)), "QUFQTDoxOTM2OA");
+    }
+
+    @Test
+    void testColdInstanceIsServedFromTheSharedTier() {
+        Node warm = newNode(redisServer.getBindPort());
+        Node cold = newNode(redisServer.getBindPort());
+        String key = StockPriceCaches.key("AAPL", DAY);
+        RangeKey rangeKey = new RangeKey("AAPL", DAY, DAY.plusDays(30), null, 100);
+        warm.views().put(key, view("AAPL", DAY, 125.07), warm.views().rangeVersion("AAPL"));
+        warm.ranges().put(rangeKey, page("AAPL"), warm.ranges().rangeVersion("AAPL"));
+
+        assertEquals(view("AAPL", DAY, 125.07), cold.views().get(key, StockPriceView.class));
+        assertEquals(page("AAPL"), cold.ranges().get(rangeKey, CursorPage.class));
+        assertEquals(2, cold.views().getSharedHits() + cold.ranges().getSharedHits());
+        assertNotNull(cold.views().getLocalCache().get(key));
+        assertNull(cold.views().get(StockPriceCaches.key("MSFT", DAY)));
+        assertEquals(1, cold.views().getSharedMisses());
+    }
+
+    @Test
+    void testWriteIsServedFreshOnEveryInstance() throws InterruptedException {
+        Node writer = newNode(redisServer.getBindPort());
+        Node reader = newNode(redisServer.getBindPort());
+        String key = StockPriceCaches.key("AAPL", DAY);
+        String otherDay = StockPriceCaches.key("AAPL", DAY.plusDays(1));
+        RangeKey rangeKey = new RangeKey("AAPL", DAY, DAY.plusDays(30), null, 100);
+        RangeKey otherSymbol = new RangeKey("MSFT", DAY, DAY.plusDays(30), null, 100);
+        writer.views().put(key, view("AAPL", DAY, 125.07), writer.views().rangeVersion("AAPL"));
+        writer.views().put(otherDay, view("AAPL", DAY.plusDays(1), 126.0), writer.views().rangeVersion("AAPL"));
+        writer.ranges().put(rangeKey, page("AAPL"), writer.ranges().rangeVersion("AAPL"));
+        writer.ranges().put(otherSymbol, page("MSFT"), writer.ranges().rangeVersion("MSFT"));
+        assertNotNull(reader.views().get(key));
+        assertNotNull(reader.ranges().get(rangeKey));
+
+        writer.invalidator().recordWrites(List.of(price("AAPL", DAY, 130.0)));
+
+        assertEquals(130.0, writer.views().getLocalCache().get(key, StockPriceView.class).closePrice());
+        assertNull(writer.ranges().getLocalCache().get(rangeKey));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((reader.views().getLocalCache().get(key) != null
+                || reader.ranges().getLocalCache().get(rangeKey) != null) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNull(reader.views().getLocalCache().get(key));
+        assertNull(reader.ranges().getLocalCache().get(rangeKey));
+        assertEquals(130.0, reader.views().get(key, StockPriceView.class).closePrice());
+        assertEquals(2, reader.views().getSharedHits());
+        assertNull(reader.ranges().get(rangeKey));
+        assertNotNull(reader.views().get(otherDay));
+        assertNotNull(reader.ranges().get(otherSymbol));
+        assertEquals(130.0, writer.views().getLocalCache().get(key, StockPriceView.class).closePrice());
+    }
+
+    @Test
+    void testRangePageBuiltBeforeAWriteIsNotShared() throws InterruptedException {
+        Node writer = newNode(redisServer.getBindPort());
+        Node laggard = newNode(redisServer.getBindPort());
+        RangeKey rangeKey = new RangeKey("AAPL", DAY, DAY.plusDays(30), null, 100);
+        long staleVersion = laggard.ranges().rangeVersion("AAPL");
+
+        writer.invalidator().recordWrites(List.of(price("AAPL", DAY, 130.0)));
+        laggard.ranges().put(rangeKey, page("AAPL"), staleVersion);
+
+        Node fresh = newNode(redisServer.getBindPort());
+        assertEquals(staleVersion + 1, fresh.ranges().rangeVersion("AAPL"));
+        assertNull(fresh.ranges().get(rangeKey));
+        assertNull(writer.ranges().get(rangeKey));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (laggard.ranges().rangeVersion("AAPL") == staleVersion && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNull(laggard.ranges().get(rangeKey));
+
+        laggard.ranges().put(rangeKey, page("AAPL"), staleVersion + 1);
+
+        assertEquals(page("AAPL"), fresh.ranges().get(rangeKey, CursorPage.class));
+    }
+
+    @Test
+    void testDayReadBeforeAWriteDoesNotOverwriteIt() {
+        Node writer = newNode(redisServer.getBindPort());
+        Node laggard = newNode(redisServer.getBindPort());
+        String key = StockPriceCaches.key("AAPL", DAY);
+        long staleVersion = laggard.views().rangeVersion("AAPL");
+
+        writer.invalidator().recordWrites(List.of(price("AAPL", DAY, 130.0)));
+        laggard.views().put(key, view("AAPL", DAY, 125.07), staleVersion);
+        laggard.views().put(key, view("AAPL", DAY, 125.07));
+
+        Node fresh = newNode(redisServer.getBindPort());
+        assertEquals(130.0, fresh.views().get(key, StockPriceView.class).closePrice());
+    }
+
+    @Test
+    void testUnreachableServerIsTreatedAsMisses() throws Exception {
+        Node node = newNode(redisServer.getBindPort());
+        redisServer.stop();
+        String key = StockPriceCaches.key("AAPL", DAY);
+
+        assertNull(node.views().get(key));
+        node.views().put(key, view("AAPL", DAY, 125.07));
+        node.invalidator().recordWrites(List.of(price("AAPL", DAY.plusDays(1), 126.0)));
+
+        assertEquals(125.07, node.views().get(key, StockPriceView.class).closePrice());
+        redisServer.start();
+    }
+
+    @Test
+    void testCodecRoundTripsEveryValueType() {
+        StockPriceView view = new StockPriceView("BRK_B", DAY, null, 2.0, 3.0, null, 42L);
+
+        assertEquals(view, SharedCacheCodec.decode(SharedCacheCodec.encode(view)));
+        assertEquals(page("AAPL"), SharedCacheCodec.decode(SharedCacheCodec.encode(page("AAPL"))));
+        assertEquals(new CursorPage<>(List.of(), null),
+                SharedCacheCodec.decode(SharedCacheCodec.encode(new CursorPage<>(List.of(), null))));
+        assertTrue(SharedCacheCodec.encode(view).length < 64);
+        assertThrows(IllegalArgumentException.class, () -> SharedCacheCodec.encode("text"));
+        assertThrows(IllegalArgumentException.class, () -> SharedCacheCodec.encode(price("AAPL", DAY, 125.07)));
+        assertThrows(IllegalArgumentException.class, () -> SharedCacheCodec.decode(new byte[]{9, 1}));
+    }
+
+    @Test
+    void testInvalidationMessageRoundTrips() {
+        CacheInvalidation invalidation = new CacheInvalidation("BRK_B", List.of(DAY, DAY.plusDays(1)));
+
+        assertEquals("BRK_B|2023-01-03,2023-01-04", invalidation.encode());
+        assertEquals(invalidation, CacheInvalidation.decode(invalidation.encode()));
+        assertEquals(List.of(), CacheInvalidation.decode("AAPL|").dates());
+        assertThrows(IllegalArgumentException.class, () -> CacheInvalidation.decode("AAPL|yesterday"));
+    }
+
+    private record Node(TwoTierCache views, TwoTierCache ranges, StockPriceCacheInvalidator invalidator) {
+    }
+}
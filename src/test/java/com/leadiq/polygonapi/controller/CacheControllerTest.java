@@ -0,0 +1,41 @@
+package com.leadiq.polygonapi.controller;
+
+import com.leadiq.polygonapi.cache.CacheStatisticsReader;
+import com.leadiq.polygonapi.dto.CacheStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheControllerTest {
+
+    @Mock
+    private CacheStatisticsReader cacheStatisticsReader;
+
+    @InjectMocks
+    private CacheController cacheController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getCacheStatistics_ShouldReturnStatisticsOfEveryCache() {
+        List<CacheStatistics> statistics = List.of(
+                new CacheStatistics("stockPriceViews", 10, 4000, 90, 10, 0.9, 2, 0, 1, 8, 2));
+        when(cacheStatisticsReader.read()).thenReturn(statistics);
+
+        ResponseEntity<List<CacheStatistics>> response = cacheController.getCacheStatistics();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(statistics, response.getBody());
+    }
+}
@@ -0,0 +1,81 @@
+package com.leadiq.polygonapi.controller;
+
+import com.leadiq.polygonapi.dto.IndicatorSeries;
+import com.leadiq.polygonapi.indicator.IndicatorType;
+import com.leadiq.polygonapi.service.IndicatorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IndicatorControllerTest {
+
+    @Mock
+    private IndicatorService indicatorService;
+
+    @InjectMocks
+    private IndicatorController indicatorController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getIndicator_ShouldReturnSeries() {
+        LocalDate fromDate = LocalDate.of(2023, 1, 1);
+        LocalDate toDate = LocalDate.of(2023, 1, 31);
+        IndicatorSeries series = new IndicatorSeries("AAPL", "rsi", Map.of("period", 14.0),
+                List.of(LocalDate.of(2023, 1, 20)), Map.of("rsi", new double[]{55.2}));
+        when(indicatorService.getIndicator("AAPL", IndicatorType.RSI, List.of(14.0), fromDate, toDate))
+                .thenReturn(series);
+
+        ResponseEntity<IndicatorSeries> response =
+                indicatorController.getIndicator("AAPL", "RSI", fromDate, toDate, List.of(14.0));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(series, response.getBody());
+    }
+
+    @Test
+    void getIndicator_ShouldUseDefaults_WhenParamsAreOmitted() {
+        LocalDate fromDate = LocalDate.of(2023, 1, 1);
+        LocalDate toDate = LocalDate.of(2023, 1, 31);
+
+        indicatorController.getIndicator("AAPL", "macd", fromDate, toDate, null);
+
+        verify(indicatorService).getIndicator("AAPL", IndicatorType.MACD, List.of(), fromDate, toDate);
+    }
+
+    @Test
+    void getIndicator_ShouldReturnBadRequest_WhenIndicatorIsUnsupported() {
+        LocalDate fromDate = LocalDate.of(2023, 1, 1);
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> indicatorController.getIndicator("AAPL", "vwap", fromDate, fromDate, null));
+
+        assertEquals("Unsupported indicator: vwap", exception.getMessage());
+        verify(indicatorService, never()).getIndicator(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getIndicator_ShouldReturnBadRequest_WhenFromDateIsAfterToDate() {
+        LocalDate fromDate = LocalDate.of(2023, 2, 1);
+        LocalDate toDate = LocalDate.of(2023, 1, 1);
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> indicatorController.getIndicator("AAPL", "sma", fromDate, toDate, null));
+
+        assertEquals("From date cannot be after to date", exception.getMessage());
+    }
+}
@@ -1,8 +1,16 @@
 package com.leadiq.polygonapi.controller;
 
+import com.leadiq.polygonapi.config.ExportTimeoutConfig;
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceLookup;
 import com.leadiq.polygonapi.dto.StockPriceResponseDTO;
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
 import com.leadiq.polygonapi.entity.StockPrice;
 import com.leadiq.polygonapi.exception.ErrorResponse;
+import com.leadiq.polygonapi.service.BarInterval;
+import com.leadiq.polygonapi.service.ExportFormat;
+import com.leadiq.polygonapi.service.StockPriceExportService;
 import com.leadiq.polygonapi.service.StockPriceService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,13 +20,26 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 class StockPriceControllerTest {
@@ -26,6 +47,9 @@ class StockPriceControllerTest {
     @Mock
     private StockPriceService stockPriceService;
 
+    @Mock
+    private StockPriceExportService stockPriceExportService;
+
     @InjectMocks
     private StockPriceController stockPriceController;
 
@@ -71,32 +95,202 @@ class StockPriceControllerTest {
         assertEquals("AAPL", response.getBody().getContent().get(0).getSymbol());
     }
 
+    @Test
+    void fetchAndSaveStockPricesSlice_ShouldReturnSliceWithoutTotal() {
+        LocalDate fromDate = LocalDate.of(2025, 3, 13);
+        LocalDate toDate = LocalDate.of(2025, 3, 14);
+        StockPrice stockPrice = StockPrice.builder()
+                .companySymbol("AAPL")
+                .date(fromDate)
+                .openPrice(150.0)
+                .closePrice(155.0)
+                .highPrice(157.0)
+                .lowPrice(148.0)
+                .volume(1000L)
+                .build();
+        when(stockPriceService.fetchAndSavePricesSlice("AAPL", "2025-03-13", "2025-03-14", PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(stockPrice), PageRequest.of(0, 1), true));
+
+        ResponseEntity<Slice<StockPriceResponseDTO>> response =
+                stockPriceController.fetchAndSaveStockPricesSlice("AAPL", fromDate, toDate, 0, 1);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().hasNext());
+        assertEquals("AAPL", response.getBody().getContent().get(0).getSymbol());
+        verify(stockPriceService, never()).fetchAndSavePrices(any(), any(), any(), any());
+    }
+
+    @Test
+    void fetchAndSaveStockPricesSlice_ShouldReturnBadRequest_WhenFromDateIsAfterToDate() {
+        LocalDate fromDate = LocalDate.of(2025, 3, 14);
+        LocalDate toDate = LocalDate.of(2025, 3, 13);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> stockPriceController.fetchAndSaveStockPricesSlice("AAPL", fromDate, toDate, 0, 20));
+    }
+
     @Test
     void getStockPriceBySymbolAndDate_ShouldReturnNotFound_WhenStockPriceDoesNotExist() {
-        when(stockPriceService.getStockPrice(any(), any())).thenReturn(null);
+        when(stockPriceService.getStockPriceView(any(), any())).thenReturn(null);
 
-        ResponseEntity<StockPriceResponseDTO> response = stockPriceController.getStockPriceBySymbolAndDate("AAPL", LocalDate.of(2025, 3, 1));
+        ResponseEntity<StockPriceView> response = stockPriceController.getStockPriceBySymbolAndDate("AAPL", LocalDate.of(2025, 3, 1));
 
         assertEquals(404, response.getStatusCodeValue());
     }
 
     @Test
     void getStockPriceBySymbolAndDate_ShouldReturnStockPrice_WhenExists() {
-        StockPrice stockPrice = StockPrice.builder()
-                .companySymbol("AAPL")
-                .date(LocalDate.of(2025, 3, 13))
-                .openPrice(150.0)
-                .closePrice(155.0)
-                .highPrice(157.0)
-                .lowPrice(148.0)
-                .volume(1000L)
-                .build();;
-        when(stockPriceService.getStockPrice(any(), any())).thenReturn(stockPrice);
+        StockPriceView stockPrice = new StockPriceView(
+                "AAPL", LocalDate.of(2025, 3, 13), 150.0, 155.0, 157.0, 148.0, 1000L);
+        when(stockPriceService.getStockPriceView(any(), any())).thenReturn(stockPrice);
 
-        ResponseEntity<StockPriceResponseDTO> response = stockPriceController.getStockPriceBySymbolAndDate("AAPL", LocalDate.of(2025, 3, 14));
+        ResponseEntity<StockPriceView> response = stockPriceController.getStockPriceBySymbolAndDate("AAPL", LocalDate.of(2025, 3, 14));
 
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
-        assertEquals("AAPL", response.getBody().getSymbol());
+        assertEquals("AAPL", response.getBody().symbol());
+    }
+
+    @Test
+    void getStockPricesBySymbolAndDateRange_ShouldReturnCursorPage() {
+        LocalDate fromDate = LocalDate.of(2025, 3, 1);
+        LocalDate toDate = LocalDate.of(2025, 3, 31);
+        StockPriceView stockPrice = new StockPriceView(
+                "AAPL", LocalDate.of(2025, 3, 13), 150.0, 155.0, 157.0, 148.0, 1000L);
+        when(stockPriceService.getStockPriceViews("AAPL", fromDate, toDate, null, 1))
+                .thenReturn(new CursorPage<>(List.of(stockPrice), "next-token"));
+
+        ResponseEntity<CursorPage<StockPriceView>> response =
+                stockPriceController.getStockPricesBySymbolAndDateRange("AAPL", fromDate, toDate, null, 1, "day");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertNotNull(response.getBody());
+        assertEquals("next-token", response.getBody().next());
+        assertEquals(155.0, response.getBody().content().get(0).closePrice());
+    }
+
+    @Test
+    void getStockPricesBySymbolAndDateRange_ShouldRejectInvalidPageSize() {
+        LocalDate fromDate = LocalDate.of(2025, 3, 1);
+        LocalDate toDate = LocalDate.of(2025, 3, 31);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                stockPriceController.getStockPricesBySymbolAndDateRange("AAPL", fromDate, toDate, null, 0, "day"));
+        verify(stockPriceService, never()).getStockPriceViews(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getStockPricesBySymbolAndDateRange_ShouldServeRollups() {
+        LocalDate fromDate = LocalDate.of(2005, 1, 1);
+        LocalDate toDate = LocalDate.of(2024, 12, 31);
+        when(stockPriceService.getStockPriceRollups("AAPL", BarInterval.MONTH, fromDate, toDate, null, 240))
+                .thenReturn(new CursorPage<>(List.of(), null));
+
+        ResponseEntity<CursorPage<StockPriceView>> response =
+                stockPriceController.getStockPricesBySymbolAndDateRange("AAPL", fromDate, toDate, null, 240, "Month");
+
+        assertEquals(200, response.getStatusCode().value());
+        verify(stockPriceService, never()).getStockPriceViews(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getStockPricesBySymbolAndDateRange_ShouldRejectUnknownInterval() {
+        LocalDate fromDate = LocalDate.of(2025, 3, 1);
+        LocalDate toDate = LocalDate.of(2025, 3, 31);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                stockPriceController.getStockPricesBySymbolAndDateRange("AAPL", fromDate, toDate, null, 10, "hour"));
+    }
+
+    @Test
+    void summarizeStockPrices_ShouldReturnSummaries() {
+        LocalDate fromDate = LocalDate.of(2025, 1, 1);
+        LocalDate toDate = LocalDate.of(2025, 3, 31);
+        List<StockPriceSummary> summaries = List.of(new StockPriceSummary("AAPL", 60, LocalDate.of(2025, 1, 2),
+                LocalDate.of(2025, 3, 31), 250.0, 200.0, 225.0, 3_000_000_000L));
+        when(stockPriceService.getStockPriceSummaries(null, fromDate, toDate)).thenReturn(summaries);
+
+        ResponseEntity<List<StockPriceSummary>> response = stockPriceController.summarizeStockPrices(null, fromDate, toDate);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(summaries, response.getBody());
+    }
+
+    @Test
+    void summarizeStockPrices_ShouldRejectTooManySymbols() {
+        List<String> symbols = Collections.nCopies(1001, "AAPL");
+
+        assertThrows(IllegalArgumentException.class, () -> stockPriceController.summarizeStockPrices(
+                symbols, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31)));
+        verifyNoInteractions(stockPriceService);
+    }
+
+    @Test
+    void exportStockPrices_ShouldStreamWithFormatHeaders() throws Exception {
+        LocalDate fromDate = LocalDate.of(2025, 1, 1);
+        LocalDate toDate = LocalDate.of(2025, 3, 31);
+        when(stockPriceExportService.validate(List.of("AAPL"), fromDate, toDate)).thenReturn(List.of("AAPL"));
+
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest());
+
+        ResponseEntity<StreamingResponseBody> response =
+                stockPriceController.exportStockPrices(List.of("AAPL"), fromDate, toDate, "ndjson", request);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("stock-prices.ndjson"));
+
+        assertEquals(Boolean.TRUE, request.getAttribute(ExportTimeoutConfig.EXPORT_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        verify(stockPriceExportService).export(List.of("AAPL"), fromDate, toDate, ExportFormat.NDJSON, out);
+    }
+
+    @Test
+    void exportStockPrices_ShouldRejectUnknownFormat() {
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest());
+        assertThrows(IllegalArgumentException.class, () -> stockPriceController.exportStockPrices(
+                List.of("AAPL"), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31), "xml", request));
+        verifyNoInteractions(stockPriceExportService);
+    }
+
+    @Test
+    void getStockPricesBySymbolsAndDates_ShouldReturnOneCellPerSymbolAndDate() {
+        LocalDate firstDay = LocalDate.of(2023, 1, 3);
+        LocalDate secondDay = LocalDate.of(2023, 1, 4);
+        StockPriceView stockPrice = new StockPriceView("AAPL", secondDay, null, 126.36, null, null, null);
+        when(stockPriceService.getStockPriceMatrix(List.of("AAPL", "MSFT"), List.of(firstDay, secondDay)))
+                .thenReturn(Map.of("AAPL", Map.of(secondDay, stockPrice)));
+
+        ResponseEntity<List<StockPriceLookup>> response = stockPriceController.getStockPricesBySymbolsAndDates(
+                List.of("AAPL", "MSFT", "AAPL"), List.of(firstDay, secondDay));
+
+        List<StockPriceLookup> cells = response.getBody();
+        assertNotNull(cells);
+        assertEquals(4, cells.size());
+        assertEquals(new StockPriceLookup("AAPL", firstDay, false, null), cells.get(0));
+        assertTrue(cells.get(1).found());
+        assertSame(stockPrice, cells.get(1).price());
+        assertEquals("MSFT", cells.get(3).symbol());
+        assertFalse(cells.get(3).found());
+    }
+
+    @Test
+    void getStockPricesBySymbolsAndDates_ShouldReturnBadRequest_WhenBatchIsTooLarge() {
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            symbols.add("SYM" + i);
+        }
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            dates.add(LocalDate.of(2023, 1, 1).plusDays(i));
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> stockPriceController.getStockPricesBySymbolsAndDates(symbols, dates));
+        verify(stockPriceService, never()).getStockPriceMatrix(any(), any());
     }
 }
@@ -0,0 +1,66 @@
+package com.leadiq.polygonapi.converter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarJsonHttpMessageConverterTest {
+
+    private static final MediaType COLUMNAR_JSON = ColumnarJsonHttpMessageConverter.COLUMNAR_JSON;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ColumnarJsonHttpMessageConverter converter = new ColumnarJsonHttpMessageConverter(objectMapper);
+
+    private final List<StockPriceView> rows = List.of(
+            new StockPriceView("AAPL", LocalDate.of(2023, 3, 13), 150.0, 151.0, 152.0, 149.0, 100L),
+            new StockPriceView("AAPL", LocalDate.of(2023, 3, 14), 151.0, null, 153.0, 150.0, 200L));
+
+    @Test
+    void testOnlyWritesWhenRequested() {
+        assertTrue(converter.canWrite(PageImpl.class, COLUMNAR_JSON));
+        assertFalse(converter.canWrite(PageImpl.class, null));
+        assertFalse(converter.canWrite(PageImpl.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testWritesPageAsColumns() throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(new PageImpl<>(rows, PageRequest.of(0, 2), 5), COLUMNAR_JSON, output);
+
+        JsonNode body = objectMapper.readTree(output.getBodyAsBytes());
+        assertEquals("2023-03-14", body.at("/content/date/1").asText());
+        assertTrue(body.at("/content/closePrice/1").isNull());
+        assertEquals(200, body.at("/content/volume/1").asLong());
+        assertEquals(5, body.get("totalElements").asLong());
+        assertTrue(body.get("hasNext").asBoolean());
+        assertFalse(body.has("next"));
+    }
+
+    @Test
+    void testSliceOmitsTotals() throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(new SliceImpl<>(rows, PageRequest.of(0, 2), false), COLUMNAR_JSON, output);
+
+        JsonNode body = objectMapper.readTree(output.getBodyAsBytes());
+        assertEquals(2, body.at("/content/symbol").size());
+        assertFalse(body.has("totalElements"));
+    }
+}
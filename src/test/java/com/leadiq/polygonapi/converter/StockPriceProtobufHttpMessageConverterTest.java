@@ -0,0 +1,101 @@
+package com.leadiq.polygonapi.converter;
+
+import com.leadiq.polygonapi.dto.StockPriceResponseDTO;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.exception.ErrorBody;
+import com.leadiq.polygonapi.proto.ErrorResponse;
+import com.leadiq.polygonapi.proto.StockPrice;
+import com.leadiq.polygonapi.proto.StockPricePage;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockPriceProtobufHttpMessageConverterTest {
+
+    private static final MediaType PROTOBUF = StockPriceProtobufHttpMessageConverter.PROTOBUF;
+
+    private final StockPriceProtobufHttpMessageConverter converter = new StockPriceProtobufHttpMessageConverter();
+
+    @Test
+    void testWritesOnlyStockPriceBodies() {
+        assertTrue(converter.canWrite(StockPriceView.class, PROTOBUF));
+        assertTrue(converter.canWrite(PageImpl.class, PROTOBUF));
+        assertFalse(converter.canWrite(String.class, PROTOBUF));
+        assertFalse(converter.canWrite(StockPriceView.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(StockPriceView.class, PROTOBUF));
+    }
+
+    @Test
+    void testWritesPageWithTotals() throws Exception {
+        StockPriceResponseDTO row = new StockPriceResponseDTO("AAPL", LocalDate.of(2023, 3, 14),
+                150.0, null, 153.5, 149.8, 15000000L);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(new PageImpl<>(List.of(row), PageRequest.of(1, 1), 3), PROTOBUF, output);
+
+        StockPricePage page = StockPricePage.parseFrom(output.getBodyAsBytes());
+        assertEquals("polygonapi.v1.StockPricePage", output.getHeaders().getFirst("X-Protobuf-Message"));
+        assertEquals(1, page.getNumber());
+        assertEquals(3, page.getTotalElements());
+        assertTrue(page.getHasNext());
+        StockPrice stockPrice = page.getContent(0);
+        assertEquals(LocalDate.of(2023, 3, 14), LocalDate.ofEpochDay(stockPrice.getEpochDay()));
+        assertEquals(150.0, stockPrice.getOpenPrice());
+        assertFalse(stockPrice.hasClosePrice());
+        assertEquals(15000000L, stockPrice.getVolume());
+    }
+
+    @Test
+    void testSliceHasNoTotals() throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(new SliceImpl<>(List.of(), PageRequest.of(0, 20), false), PROTOBUF, output);
+
+        StockPricePage page = StockPricePage.parseFrom(output.getBodyAsBytes());
+        assertEquals(20, page.getSize());
+        assertFalse(page.hasTotalElements());
+        assertFalse(page.hasTotalPages());
+    }
+
+    @Test
+    void testWritesErrorMaps() throws Exception {
+        Map<String, Object> body = new ErrorBody();
+        body.put("status", 400);
+        body.put("error", "Bad Request");
+        body.put("message", "From date cannot be after to date");
+        body.put("path", "uri=/api/v1/stocks/AAPL/range");
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(body, PROTOBUF, output);
+
+        ErrorResponse error = ErrorResponse.parseFrom(output.getBodyAsBytes());
+        assertEquals(400, error.getStatus());
+        assertEquals("From date cannot be after to date", error.getMessage());
+    }
+
+    @Test
+    void testOnlySupportsErrorMaps() {
+        assertTrue(converter.canWrite(ErrorBody.class, PROTOBUF));
+        assertFalse(converter.canWrite(LinkedHashMap.class, PROTOBUF));
+        assertFalse(converter.canWrite(Map.class, PROTOBUF));
+    }
+
+    @Test
+    void testRejectsUnknownRows() {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        assertThrows(HttpMessageNotWritableException.class, () ->
+                converter.write(new PageImpl<>(List.of("not a stock price")), PROTOBUF, output));
+    }
+}
@@ -0,0 +1,80 @@
+package com.leadiq.polygonapi.grpc;
+
+import com.leadiq.polygonapi.config.GrpcConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.proto.StockPrice;
+import com.leadiq.polygonapi.proto.StreamStockPricesRequest;
+import com.leadiq.polygonapi.service.StockPriceExportService;
+import com.leadiq.polygonapi.service.StockPriceService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StockPriceGrpcServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 2);
+
+    private final StockPriceService stockPriceService = mock(StockPriceService.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStalledClientEndsStreamWithDeadlineExceeded() {
+        GrpcConfig config = new GrpcConfig();
+        config.setStreamIdleTimeout(Duration.ofMillis(20));
+        StockPriceGrpcService service =
+                new StockPriceGrpcService(stockPriceService, mock(StockPriceExportService.class), config);
+        ServerCallStreamObserver<StockPrice> call = mock(ServerCallStreamObserver.class);
+        when(call.isReady()).thenReturn(true, false);
+        doAnswer(invocation -> {
+            Consumer<StockPriceView> sender = invocation.getArgument(3);
+            for (int day = 0; day < 3; day++) {
+                sender.accept(new StockPriceView("GRPC", DAY.plusDays(day), 1.0, 1.0, 1.0, 1.0, 1L));
+            }
+            return null;
+        }).when(stockPriceService).streamStockPriceViews(eq("GRPC"), any(), any(), any());
+
+        service.streamStockPrices(StreamStockPricesRequest.newBuilder()
+                .setSymbol("GRPC")
+                .setFromEpochDay((int) DAY.toEpochDay())
+                .setToEpochDay((int) DAY.plusDays(2).toEpochDay())
+                .build(), call);
+
+        ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+        verify(call, times(1)).onNext(any());
+        verify(call).onError(error.capture());
+        verify(call, never()).onCompleted();
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, Status.fromThrowable(error.getValue()).getCode());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDayOutOfRangeIsInvalidArgument() {
+        StockPriceGrpcService service =
+                new StockPriceGrpcService(stockPriceService, mock(StockPriceExportService.class), new GrpcConfig());
+        ServerCallStreamObserver<StockPrice> call = mock(ServerCallStreamObserver.class);
+        doThrow(new DateTimeException("Invalid value for Year"))
+                .when(stockPriceService).streamStockPriceViews(eq("GRPC"), any(), any(), any());
+
+        service.streamStockPrices(StreamStockPricesRequest.newBuilder()
+                .setSymbol("GRPC")
+                .setFromEpochDay(Integer.MIN_VALUE)
+                .setToEpochDay(Integer.MAX_VALUE)
+                .build(), call);
+
+        ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+        verify(call).onError(error.capture());
+        verify(call, never()).onCompleted();
+        assertEquals(Status.Code.INVALID_ARGUMENT, Status.fromThrowable(error.getValue()).getCode());
+    }
+}
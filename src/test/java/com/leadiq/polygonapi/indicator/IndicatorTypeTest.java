@@ -0,0 +1,186 @@
+package com.leadiq.polygonapi.indicator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks each incremental indicator against a direct recomputation over the whole window at every bar.
+ */
+class IndicatorTypeTest {
+
+    private static final int BARS = 600;
+    private static final double TOLERANCE = 1e-7;
+
+    private final double[] high = new double[BARS];
+    private final double[] low = new double[BARS];
+    private final double[] close = new double[BARS];
+
+    IndicatorTypeTest() {
+        Random random = new Random(42);
+        double price = 100;
+        for (int i = 0; i < BARS; i++) {
+            price = Math.max(1, price + random.nextGaussian() * 2);
+            close[i] = price;
+            high[i] = price + random.nextDouble() * 3;
+            low[i] = price - random.nextDouble() * 3;
+        }
+    }
+
+    @Test
+    void testSimpleMovingAverage() {
+        double[][] values = run(IndicatorType.SMA, 20);
+        for (int i = 0; i < BARS; i++) {
+            assertValue(i < 19 ? Double.NaN : mean(close, i - 19, i + 1), values[0][i]);
+        }
+    }
+
+    @Test
+    void testExponentialMovingAverage() {
+        double[][] values = run(IndicatorType.EMA, 10);
+        double[] expected = ema(close, 10);
+        for (int i = 0; i < BARS; i++) {
+            assertValue(expected[i], values[0][i]);
+        }
+    }
+
+    @Test
+    void testRelativeStrengthIndex() {
+        double[][] values = run(IndicatorType.RSI, 14);
+        for (int i = 0; i < BARS; i++) {
+            if (i < 14) {
+                assertTrue(Double.isNaN(values[0][i]));
+                continue;
+            }
+            double gain = 0;
+            double loss = 0;
+            for (int j = 1; j <= 14; j++) {
+                gain += Math.max(close[j] - close[j - 1], 0) / 14;
+                loss += Math.max(close[j - 1] - close[j], 0) / 14;
+            }
+            for (int j = 15; j <= i; j++) {
+                gain = (gain * 13 + Math.max(close[j] - close[j - 1], 0)) / 14;
+                loss = (loss * 13 + Math.max(close[j - 1] - close[j], 0)) / 14;
+            }
+            assertValue(100 - 100 / (1 + gain / loss), values[0][i]);
+        }
+    }
+
+    @Test
+    void testMacd() {
+        double[][] values = run(IndicatorType.MACD, 12, 26, 9);
+        double[] fast = ema(close, 12);
+        double[] slow = ema(close, 26);
+        double[] macd = new double[BARS - 25];
+        for (int i = 25; i < BARS; i++) {
+            macd[i - 25] = fast[i] - slow[i];
+        }
+        double[] signal = ema(macd, 9);
+        for (int i = 0; i < BARS; i++) {
+            if (i < 25 + 8) {
+                assertTrue(Double.isNaN(values[0][i]));
+                continue;
+            }
+            assertValue(macd[i - 25], values[0][i]);
+            assertValue(signal[i - 25], values[1][i]);
+            assertValue(macd[i - 25] - signal[i - 25], values[2][i]);
+        }
+    }
+
+    @Test
+    void testBollingerBands() {
+        double[][] values = run(IndicatorType.BOLLINGER, 20, 2.5);
+        for (int i = 19; i < BARS; i++) {
+            double mean = mean(close, i - 19, i + 1);
+            double variance = 0;
+            for (int j = i - 19; j <= i; j++) {
+                variance += (close[j] - mean) * (close[j] - mean) / 20;
+            }
+            assertValue(mean, values[0][i]);
+            assertValue(mean + 2.5 * Math.sqrt(variance), values[1][i]);
+            assertValue(mean - 2.5 * Math.sqrt(variance), values[2][i]);
+        }
+        assertTrue(Double.isNaN(values[0][18]));
+    }
+
+    @Test
+    void testAverageTrueRange() {
+        double[][] values = run(IndicatorType.ATR, 14);
+        double[] trueRange = new double[BARS];
+        for (int i = 0; i < BARS; i++) {
+            trueRange[i] = i == 0 ? high[i] - low[i] : Math.max(high[i] - low[i],
+                    Math.max(Math.abs(high[i] - close[i - 1]), Math.abs(low[i] - close[i - 1])));
+        }
+        double atr = mean(trueRange, 0, 14);
+        assertValue(atr, values[0][13]);
+        for (int i = 14; i < BARS; i++) {
+            atr = (atr * 13 + trueRange[i]) / 14;
+            assertValue(atr, values[0][i]);
+        }
+    }
+
+    @Test
+    void testResolveParamsFillsDefaultsAndValidates() {
+        assertArrayEquals(new double[]{5, 35, 9}, IndicatorType.MACD.resolveParams(List.of(5.0, 35.0)));
+        assertArrayEquals(new double[]{20, 2}, IndicatorType.BOLLINGER.resolveParams(List.of()));
+
+        assertThrows(IllegalArgumentException.class, () -> IndicatorType.SMA.resolveParams(List.of(20.0, 1.0)));
+        assertThrows(IllegalArgumentException.class, () -> IndicatorType.SMA.resolveParams(List.of(0.0)));
+        assertThrows(IllegalArgumentException.class, () -> IndicatorType.SMA.resolveParams(List.of(2.5)));
+        assertThrows(IllegalArgumentException.class, () -> IndicatorType.RSI.resolveParams(List.of(1001.0)));
+        assertThrows(IllegalArgumentException.class, () -> IndicatorType.MACD.resolveParams(List.of(26.0, 12.0)));
+        assertThrows(IllegalArgumentException.class, () -> IndicatorType.BOLLINGER.resolveParams(List.of(20.0, -1.0)));
+    }
+
+    @Test
+    void testFromIsCaseInsensitive() {
+        assertEquals(IndicatorType.BOLLINGER, IndicatorType.from("Bollinger"));
+        assertThrows(IllegalArgumentException.class, () -> IndicatorType.from("vwap"));
+    }
+
+    private double[][] run(IndicatorType type, double... params) {
+        Indicator indicator = type.create(params);
+        double[][] values = new double[type.outputs().size()][BARS];
+        for (int i = 0; i < BARS; i++) {
+            indicator.append(high[i], low[i], close[i]);
+            for (int output = 0; output < values.length; output++) {
+                values[output][i] = indicator.value(output);
+            }
+        }
+        return values;
+    }
+
+    private static double mean(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
+    }
+
+    private static double[] ema(double[] values, int period) {
+        double[] result = new double[values.length];
+        double alpha = 2.0 / (period + 1);
+        for (int i = 0; i < values.length; i++) {
+            if (i < period - 1) {
+                result[i] = Double.NaN;
+            } else if (i == period - 1) {
+                result[i] = mean(values, 0, period);
+            } else {
+                result[i] = result[i - 1] + alpha * (values[i] - result[i - 1]);
+            }
+        }
+        return result;
+    }
+
+    private static void assertValue(double expected, double actual) {
+        if (Double.isNaN(expected)) {
+            assertTrue(Double.isNaN(actual), "expected NaN but was " + actual);
+        } else {
+            assertEquals(expected, actual, TOLERANCE);
+        }
+    }
+}
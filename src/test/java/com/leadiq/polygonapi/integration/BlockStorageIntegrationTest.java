@@ -0,0 +1,111 @@
+package com.leadiq.polygonapi.integration;
+
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.service.StockPriceService;
+import com.leadiq.polygonapi.storage.BlockStockPriceStorage;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the read path on the block engine: symbols are backfilled into one block per year on first use and
+ * served from the blocks afterwards.
+ */
+@TestPropertySource(properties = "polygon.storage.engine=blocks")
+public class BlockStorageIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 6, 1);
+    private static final int DAYS = 300;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @Autowired
+    private StockPriceService stockPriceService;
+
+    @Autowired
+    private StockPriceStorage stockPriceStorage;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * The test schema is generated from the entities, so the block table comes from its migration.
+     */
+    @BeforeEach
+    public void createBlockTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS stock_price_block");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V2__create_stock_price_block.sql"))
+                .execute(dataSource);
+    }
+
+    @Test
+    public void testBackfillsAndServesFromBlocks() {
+        assertInstanceOf(BlockStockPriceStorage.class, stockPriceStorage);
+        stockPriceRepository.deleteAll();
+
+        List<StockPrice> stockPrices = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            stockPrices.add(StockPrice.builder()
+                    .companySymbol("BLOCKS")
+                    .date(FIRST_DAY.plusDays(day))
+                    .openPrice(100.0 + day)
+                    .closePrice(101.0 + day)
+                    .highPrice(102.0 + day)
+                    .lowPrice(99.0 + day)
+                    .volume(1000L * day)
+                    .build());
+        }
+        stockPriceRepository.saveAll(stockPrices);
+
+        LocalDate toDate = FIRST_DAY.plusDays(DAYS);
+        CursorPage<StockPriceView> first = stockPriceService.getStockPriceViews("BLOCKS", FIRST_DAY, toDate, null, 100);
+        assertEquals(100, first.content().size());
+        assertNotNull(first.next());
+        assertEquals(List.of(2023, 2024), jdbcTemplate.queryForList(
+                "SELECT block_year FROM stock_price_block WHERE company_symbol = 'BLOCKS' ORDER BY block_year",
+                Integer.class));
+
+        stockPriceRepository.deleteAll();
+
+        CursorPage<StockPriceView> second = stockPriceService.getStockPriceViews("BLOCKS", FIRST_DAY, toDate,
+                first.next(), 100);
+        assertEquals(FIRST_DAY.plusDays(100), second.content().get(0).date());
+        assertEquals(201.0, second.content().get(0).closePrice());
+
+        stockPriceStorage.recordWrites(List.of(StockPrice.builder()
+                .companySymbol("BLOCKS")
+                .date(FIRST_DAY.minusDays(1))
+                .closePrice(99.0)
+                .build()));
+        List<StockPriceView> streamed = new ArrayList<>();
+        stockPriceService.streamStockPriceViews("BLOCKS", FIRST_DAY.minusDays(1), toDate, streamed::add);
+        assertEquals(DAYS + 1, streamed.size());
+        assertNull(streamed.get(0).openPrice());
+        assertEquals(0L, streamed.get(1).volume());
+
+        assertEquals(DAYS + 1L,
+                stockPriceStorage.summarize(List.of("BLOCKS"), FIRST_DAY.minusDays(1), toDate).get(0).days());
+        assertThrows(IllegalArgumentException.class,
+                () -> stockPriceStorage.summarize(List.of(), FIRST_DAY.minusDays(1), toDate));
+    }
+}
@@ -1,8 +1,12 @@
 package com.leadiq.polygonapi.integration;
 
+import com.leadiq.polygonapi.cache.StockPriceCacheInvalidator;
+import com.leadiq.polygonapi.dto.StockPriceView;
 import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.exception.StockDataNotFoundException;
 import com.leadiq.polygonapi.repository.StockPriceRepository;
 import com.leadiq.polygonapi.service.StockPriceService;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,7 +14,12 @@ import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.cache.CacheManager;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 public class CachingIntegrationTest extends BaseIntegrationTest {
@@ -24,9 +33,15 @@ public class CachingIntegrationTest extends BaseIntegrationTest {
     @SpyBean
     private StockPriceRepository stockPriceRepositorySpy;
 
+    @SpyBean
+    private StockPriceStorage stockPriceStorageSpy;
+
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private StockPriceCacheInvalidator stockPriceCacheInvalidator;
+
     @BeforeEach
     public void setup() {
         stockPriceRepository.deleteAll();
@@ -49,17 +64,72 @@ public class CachingIntegrationTest extends BaseIntegrationTest {
 
         stockPriceRepository.save(stockPrice);
 
-        stockPriceService.getStockPrice("AAPL", LocalDate.of(2023, 1, 15));
+        stockPriceService.getStockPriceView("AAPL", LocalDate.of(2023, 1, 15));
 
-        verify(stockPriceRepositorySpy, times(1))
-                .findByCompanySymbolAndDate("AAPL", LocalDate.of(2023, 1, 15));
+        verify(stockPriceStorageSpy, times(1)).findBySymbolAndDate("AAPL", LocalDate.of(2023, 1, 15));
+
+        reset(stockPriceStorageSpy);
 
+        stockPriceService.getStockPriceView("AAPL", LocalDate.of(2023, 1, 15));
+
+        verify(stockPriceStorageSpy, never()).findBySymbolAndDate("AAPL", LocalDate.of(2023, 1, 15));
+    }
+
+    @Test
+    public void testStockPriceMatrixSharesCacheWithSingleLookups() {
+        LocalDate firstDay = LocalDate.of(2023, 1, 3);
+        LocalDate secondDay = LocalDate.of(2023, 1, 4);
+        stockPriceRepository.saveAll(List.of(
+                StockPrice.builder().companySymbol("AAPL").date(firstDay).closePrice(125.07).build(),
+                StockPrice.builder().companySymbol("AAPL").date(secondDay).closePrice(126.36).build(),
+                StockPrice.builder().companySymbol("MSFT").date(firstDay).closePrice(239.58).build()));
+        StockPriceView single = stockPriceService.getStockPriceView("AAPL", firstDay);
         reset(stockPriceRepositorySpy);
 
-        stockPriceService.getStockPrice("AAPL", LocalDate.of(2023, 1, 15));
+        Map<String, Map<LocalDate, StockPriceView>> found = stockPriceService.getStockPriceMatrix(
+                List.of("AAPL", "MSFT", "GOOG"), List.of(firstDay, secondDay));
+
+        assertEquals(126.36, found.get("AAPL").get(secondDay).closePrice());
+        assertSame(single, found.get("AAPL").get(firstDay));
+        assertEquals(1, found.get("MSFT").size());
+        assertFalse(found.containsKey("GOOG"));
+        verify(stockPriceRepositorySpy, times(1))
+                .findViewsByCompanySymbolInAndDateIn(anyCollection(), anyCollection());
 
-        verify(stockPriceRepositorySpy, never())
-                .findByCompanySymbolAndDate("AAPL", LocalDate.of(2023, 1, 15));
+        assertSame(found.get("MSFT").get(firstDay), stockPriceService.getStockPriceView("MSFT", firstDay));
     }
-}
 
+    @Test
+    public void testMissingDayIsNotQueriedAgainUntilItIsWritten() {
+        LocalDate saturday = LocalDate.of(2023, 1, 7);
+
+        assertThrows(StockDataNotFoundException.class, () -> stockPriceService.getStockPriceView("AAPL", saturday));
+        assertThrows(StockDataNotFoundException.class, () -> stockPriceService.getStockPriceView("AAPL", saturday));
+        verify(stockPriceStorageSpy, times(1)).findBySymbolAndDate("AAPL", saturday);
+
+        StockPrice written = stockPriceRepository.save(
+                StockPrice.builder().companySymbol("AAPL").date(saturday).closePrice(129.62).build());
+        stockPriceCacheInvalidator.recordWrites(List.of(written));
+
+        assertEquals(129.62, stockPriceService.getStockPriceView("AAPL", saturday).closePrice());
+    }
+
+    @Test
+    public void testIngestedDayIsServedFromMemoryOnFirstRead() {
+        LocalDate day = LocalDate.of(2023, 1, 17);
+        stockPriceRepository.save(StockPrice.builder().companySymbol("AAPL").date(day).closePrice(135.21).build());
+        assertEquals(135.21, stockPriceService.getStockPriceView("AAPL", day).closePrice());
+
+        StockPrice refetched = stockPriceRepository.findByCompanySymbolAndDate("AAPL", day).orElseThrow();
+        refetched.setClosePrice(136.0);
+        stockPriceRepository.save(refetched);
+        StockPrice ingested = stockPriceRepository.save(
+                StockPrice.builder().companySymbol("AAPL").date(day.plusDays(1)).closePrice(135.94).build());
+        stockPriceCacheInvalidator.recordWrites(List.of(refetched, ingested));
+        reset(stockPriceStorageSpy);
+
+        assertEquals(136.0, stockPriceService.getStockPriceView("AAPL", day).closePrice());
+        assertEquals(135.94, stockPriceService.getStockPriceView("AAPL", day.plusDays(1)).closePrice());
+        verify(stockPriceStorageSpy, never()).findBySymbolAndDate(any(), any());
+    }
+}
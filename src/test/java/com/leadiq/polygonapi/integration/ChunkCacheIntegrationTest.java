@@ -0,0 +1,109 @@
+package com.leadiq.polygonapi.integration;
+
+import com.leadiq.polygonapi.cache.StockPriceCacheInvalidator;
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceQueryRepository;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.service.StockPriceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that range pages assembled from month chunks match the database, before and after ingestion.
+ */
+@TestPropertySource(properties = "polygon.cache.chunks.enabled=true")
+public class ChunkCacheIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 10);
+    private static final int DAYS = 120;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @Autowired
+    private StockPriceQueryRepository stockPriceQueryRepository;
+
+    @Autowired
+    private StockPriceService stockPriceService;
+
+    @Autowired
+    private StockPriceCacheInvalidator stockPriceCacheInvalidator;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+        cacheManager.getCacheNames()
+                .forEach(cacheName -> cacheManager.getCache(cacheName).clear());
+
+        List<StockPrice> stockPrices = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            stockPrices.add(stockPrice(FIRST_DAY.plusDays(day), 100.0 + day));
+        }
+        stockPriceRepository.saveAll(stockPrices);
+    }
+
+    @Test
+    public void testPagesMatchDatabase() {
+        LocalDate fromDate = FIRST_DAY.plusDays(15);
+        LocalDate toDate = FIRST_DAY.plusDays(100);
+
+        assertEquals(database(fromDate, toDate), readAll(fromDate, toDate));
+        assertEquals(database(fromDate, toDate), readAll(fromDate, toDate));
+    }
+
+    @Test
+    public void testIngestedDaysReplaceCachedChunks() {
+        LocalDate fromDate = FIRST_DAY;
+        LocalDate toDate = FIRST_DAY.plusDays(DAYS + 30);
+        readAll(fromDate, toDate);
+
+        List<StockPrice> written = List.of(stockPrice(FIRST_DAY.plusDays(DAYS + 5), 500.0));
+        stockPriceRepository.saveAll(written);
+        stockPriceCacheInvalidator.recordWrites(written);
+
+        List<StockPriceView> rows = readAll(fromDate, toDate);
+        assertEquals(database(fromDate, toDate), rows);
+        assertEquals(DAYS + 1, rows.size());
+    }
+
+    private List<StockPriceView> readAll(LocalDate fromDate, LocalDate toDate) {
+        List<StockPriceView> rows = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<StockPriceView> page = stockPriceService.getStockPriceViews("CHUNK", fromDate, toDate, cursor, 25);
+            rows.addAll(page.content());
+            cursor = page.next();
+        } while (cursor != null);
+        return rows;
+    }
+
+    private List<StockPriceView> database(LocalDate fromDate, LocalDate toDate) {
+        return stockPriceQueryRepository.findRangeAfter("CHUNK", fromDate.minusDays(1), toDate, DAYS + 10);
+    }
+
+    private static StockPrice stockPrice(LocalDate date, double price) {
+        return StockPrice.builder()
+                .companySymbol("CHUNK")
+                .date(date)
+                .openPrice(price)
+                .closePrice(price + 1)
+                .highPrice(price + 2)
+                .lowPrice(price - 1)
+                .volume(1000L)
+                .build();
+    }
+}
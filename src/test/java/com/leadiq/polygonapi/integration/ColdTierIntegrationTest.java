@@ -0,0 +1,163 @@
+package com.leadiq.polygonapi.integration;
+
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.ColdTierStateRepository;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.repository.StockPriceUpsertRepository;
+import com.leadiq.polygonapi.service.ColdTierArchiver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Moves old rows into the Parquet cold tier and checks that the read endpoints still see the whole history.
+ */
+public class ColdTierIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2021, 12, 1);
+    private static final LocalDate CUTOFF = LocalDate.of(2022, 2, 1);
+    private static final int DAYS = 120;
+
+    @DynamicPropertySource
+    static void registerColdTierProperties(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("cold-tier");
+        registry.add("polygon.storage.cold.enabled", () -> "true");
+        registry.add("polygon.storage.cold.directory", directory::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @Autowired
+    private StockPriceUpsertRepository stockPriceUpsertRepository;
+
+    @Autowired
+    private ColdTierArchiver coldTierArchiver;
+
+    @Autowired
+    private ColdTierStateRepository coldTierStateRepository;
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+
+        List<StockPrice> stockPrices = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            stockPrices.add(StockPrice.builder()
+                    .companySymbol("AAPL")
+                    .date(FIRST_DAY.plusDays(day))
+                    .openPrice(100.0 + day)
+                    .closePrice(101.0 + day)
+                    .highPrice(102.0 + day)
+                    .lowPrice(99.0 + day)
+                    .volume(1000L + day)
+                    .build());
+        }
+        stockPriceUpsertRepository.upsertAll(stockPrices, 100);
+        coldTierArchiver.archiveBefore(CUTOFF);
+    }
+
+    @Test
+    public void testArchivedRowsLeaveDatabase() {
+        assertEquals(DAYS - 62, stockPriceRepository.count());
+        assertEquals(0, coldTierArchiver.archiveBefore(CUTOFF));
+    }
+
+    @Test
+    public void testReadsMergeColdAndHotTiers() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks/AAPL")
+                        .param("date", "2021-12-15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.closePrice").value(115.0));
+
+        mockMvc.perform(get("/api/v1/stocks/AAPL/range")
+                        .param("fromDate", "2022-01-30")
+                        .param("toDate", "2022-02-03")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(5))
+                .andExpect(jsonPath("$.content[0].date").value("2022-01-30"))
+                .andExpect(jsonPath("$.content[4].date").value("2022-02-03"));
+
+        mockMvc.perform(get("/api/v1/stocks/batch")
+                        .param("symbols", "AAPL")
+                        .param("dates", "2021-12-15", "2022-03-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].price.closePrice").value(115.0))
+                .andExpect(jsonPath("$[1].found").value(true));
+
+        mockMvc.perform(get("/api/v1/stocks/summary")
+                        .param("symbols", "AAPL")
+                        .param("fromDate", "2021-01-01")
+                        .param("toDate", "2022-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].days").value(DAYS))
+                .andExpect(jsonPath("$[0].firstDate").value("2021-12-01"));
+    }
+
+    @Test
+    public void testReingestedRowWinsOverArchive() throws Exception {
+        stockPriceUpsertRepository.upsertAll(List.of(StockPrice.builder()
+                .companySymbol("AAPL")
+                .date(LocalDate.of(2021, 12, 15))
+                .closePrice(500.0)
+                .build()), 100);
+
+        mockMvc.perform(get("/api/v1/stocks/AAPL/range")
+                        .param("fromDate", "2021-12-14")
+                        .param("toDate", "2021-12-16")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.content[1].closePrice").value(500.0));
+
+        assertEquals(1, coldTierArchiver.archiveBefore(CUTOFF));
+
+        mockMvc.perform(get("/api/v1/stocks/AAPL/range")
+                        .param("fromDate", "2021-12-14")
+                        .param("toDate", "2021-12-16")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[1].closePrice").value(500.0));
+    }
+
+    @Test
+    public void testRunIsSkippedWhileAnotherInstanceHoldsTheLease() {
+        stockPriceUpsertRepository.upsertAll(List.of(StockPrice.builder()
+                .companySymbol("AAPL")
+                .date(LocalDate.of(2021, 12, 15))
+                .closePrice(500.0)
+                .build()), 100);
+
+        assertTrue(coldTierStateRepository.acquireArchiver("another-instance", Duration.ofMinutes(1)));
+        try {
+            assertEquals(0, coldTierArchiver.archiveBefore(CUTOFF));
+            assertEquals(DAYS - 62 + 1, stockPriceRepository.count());
+        } finally {
+            coldTierStateRepository.releaseArchiver("another-instance");
+        }
+
+        assertEquals(1, coldTierArchiver.archiveBefore(CUTOFF));
+    }
+}
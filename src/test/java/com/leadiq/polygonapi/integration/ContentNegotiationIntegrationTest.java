@@ -0,0 +1,160 @@
+package com.leadiq.polygonapi.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.proto.ErrorResponse;
+import com.leadiq.polygonapi.proto.StockPriceCursorPage;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ContentNegotiationIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+
+        List<StockPrice> stockPrices = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            stockPrices.add(StockPrice.builder()
+                    .companySymbol("NEGO")
+                    .date(FIRST_DAY.plusDays(day))
+                    .openPrice(100.0 + day)
+                    .closePrice(101.0 + day)
+                    .highPrice(102.0 + day)
+                    .lowPrice(99.0 + day)
+                    .volume(day == 0 ? null : 1000L * day)
+                    .build());
+        }
+        stockPriceRepository.saveAll(stockPrices);
+    }
+
+    @Test
+    public void testJsonIsTheDefault() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks/NEGO/range")
+                        .accept(MediaType.ALL)
+                        .param("fromDate", "2024-01-01")
+                        .param("toDate", "2024-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content[0].date").value("2024-01-01"));
+    }
+
+    @Test
+    public void testSmileAndCborMirrorJson() throws Exception {
+        byte[] json = range(MediaType.APPLICATION_JSON);
+        JsonNode expected = new ObjectMapper().readTree(json);
+
+        byte[] smile = range(new MediaType("application", "x-jackson-smile"));
+        byte[] cbor = range(MediaType.APPLICATION_CBOR);
+
+        assertEquals(expected, new ObjectMapper(new SmileFactory()).readTree(smile));
+        assertEquals(expected, new ObjectMapper(new CBORFactory()).readTree(cbor));
+        assertTrue(smile.length < json.length, "smile " + smile.length + " vs json " + json.length);
+        assertTrue(cbor.length < json.length, "cbor " + cbor.length + " vs json " + json.length);
+    }
+
+    @Test
+    public void testProtobufCursorPage() throws Exception {
+        byte[] json = range(MediaType.APPLICATION_JSON);
+        byte[] protobuf = mockMvc.perform(get("/api/v1/stocks/NEGO/range")
+                        .accept("application/x-protobuf")
+                        .param("fromDate", "2024-01-01")
+                        .param("toDate", "2024-12-31")
+                        .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-protobuf"))
+                .andExpect(header().string("X-Protobuf-Message", "polygonapi.v1.StockPriceCursorPage"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        StockPriceCursorPage page = StockPriceCursorPage.parseFrom(protobuf);
+        assertEquals(50, page.getContentCount());
+        assertTrue(page.hasNext());
+        assertEquals("NEGO", page.getContent(0).getSymbol());
+        assertEquals(FIRST_DAY.toEpochDay(), page.getContent(0).getEpochDay());
+        assertFalse(page.getContent(0).hasVolume());
+        assertEquals(1000L, page.getContent(1).getVolume());
+        assertTrue(protobuf.length * 2 < json.length, "protobuf " + protobuf.length + " vs json " + json.length);
+    }
+
+    @Test
+    public void testProtobufError() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/v1/stocks/NEGO/range")
+                        .accept("application/x-protobuf")
+                        .param("fromDate", "2024-12-31")
+                        .param("toDate", "2024-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType("application/x-protobuf"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals("From date cannot be after to date", ErrorResponse.parseFrom(body).getMessage());
+    }
+
+    @Test
+    public void testProtobufLeavesOtherMapsUnencoded() throws Exception {
+        mockMvc.perform(get("/error")
+                        .accept("application/x-protobuf")
+                        .requestAttr("jakarta.servlet.error.status_code", 404))
+                .andExpect(status().isNotFound())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    public void testColumnarJson() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks/NEGO/range")
+                        .accept("application/vnd.leadiq.columnar+json")
+                        .param("fromDate", "2024-01-01")
+                        .param("toDate", "2024-12-31")
+                        .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/vnd.leadiq.columnar+json"))
+                .andExpect(jsonPath("$.content.symbol", hasSize(50)))
+                .andExpect(jsonPath("$.content.date[0]").value("2024-01-01"))
+                .andExpect(jsonPath("$.content.volume[1]").value(1000))
+                .andExpect(jsonPath("$.next").isString());
+
+        mockMvc.perform(get("/api/v1/stocks/NEGO")
+                        .accept("application/vnd.leadiq.columnar+json")
+                        .param("date", "2024-01-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.closePrice[0]").value(102.0));
+    }
+
+    private byte[] range(MediaType accept) throws Exception {
+        return mockMvc.perform(get("/api/v1/stocks/NEGO/range")
+                        .accept(accept)
+                        .param("fromDate", "2024-01-01")
+                        .param("toDate", "2024-12-31")
+                        .param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(accept))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
@@ -0,0 +1,160 @@
+package com.leadiq.polygonapi.integration;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.leadiq.polygonapi.cache.CacheInvalidation;
+import com.leadiq.polygonapi.cache.SharedCacheTier;
+import com.leadiq.polygonapi.config.SharedCacheConfig;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.repository.StockPriceUpsertRepository;
+import com.leadiq.polygonapi.service.ColdTierArchiver;
+import com.leadiq.polygonapi.service.SymbolDateIndex;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Answers missing days from the date index with the cold tier and the shared tier enabled, and checks that days
+ * archived or written by another instance are still found.
+ */
+public class DateIndexIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2021, 12, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(2022, 3, 31);
+    private static final LocalDate CUTOFF = LocalDate.of(2022, 2, 1);
+    private static final RedisServer REDIS_SERVER = startRedisServer();
+
+    @DynamicPropertySource
+    static void registerDateIndexProperties(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("cold-tier");
+        registry.add("polygon.storage.cold.enabled", () -> "true");
+        registry.add("polygon.storage.cold.directory", directory::toString);
+        registry.add("polygon.cache.misses.date-index", () -> "true");
+        registry.add("polygon.cache.shared.enabled", () -> "true");
+        registry.add("spring.data.redis.host", () -> "127.0.0.1");
+        registry.add("spring.data.redis.port", REDIS_SERVER::getBindPort);
+    }
+
+    private static RedisServer startRedisServer() {
+        try {
+            return RedisServer.newRedisServer().start();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @AfterAll
+    static void stopRedisServer() throws IOException {
+        REDIS_SERVER.stop();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @Autowired
+    private StockPriceUpsertRepository stockPriceUpsertRepository;
+
+    @Autowired
+    private ColdTierArchiver coldTierArchiver;
+
+    @Autowired
+    private SymbolDateIndex symbolDateIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(cacheName -> cacheManager.getCache(cacheName).clear());
+        symbolDateIndex.evict("AAPL");
+
+        List<StockPrice> stockPrices = new ArrayList<>();
+        for (LocalDate date = FIRST_DAY; !date.isAfter(LAST_DAY); date = date.plusDays(1)) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                stockPrices.add(StockPrice.builder()
+                        .companySymbol("AAPL")
+                        .date(date)
+                        .closePrice(100.0 + date.getDayOfMonth())
+                        .build());
+            }
+        }
+        stockPriceUpsertRepository.upsertAll(stockPrices, 100);
+    }
+
+    @Test
+    public void testArchivedDaysAreFoundAndWeekendsAreNot() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks/AAPL").param("date", "2021-12-14"))
+                .andExpect(status().isOk());
+
+        coldTierArchiver.archiveBefore(CUTOFF);
+
+        mockMvc.perform(get("/api/v1/stocks/AAPL").param("date", "2021-12-15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.closePrice").value(115.0));
+        mockMvc.perform(get("/api/v1/stocks/AAPL").param("date", "2021-12-18"))
+                .andExpect(status().isNotFound());
+
+        symbolDateIndex.evict("AAPL");
+
+        mockMvc.perform(get("/api/v1/stocks/AAPL").param("date", "2021-12-16"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.closePrice").value(116.0));
+        assertEquals(23, symbolDateIndex.countBetween("AAPL", FIRST_DAY, FIRST_DAY.plusDays(30)));
+    }
+
+    @Test
+    public void testDayWrittenByAnotherInstanceIsFound() throws Exception {
+        LocalDate saturday = LocalDate.of(2022, 3, 5);
+        mockMvc.perform(get("/api/v1/stocks/AAPL").param("date", saturday.toString()))
+                .andExpect(status().isNotFound());
+
+        // Another instance stores the day and announces it on the shared tier.
+        stockPriceUpsertRepository.upsertAll(List.of(StockPrice.builder()
+                .companySymbol("AAPL").date(saturday).closePrice(99.0).build()), 100);
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", REDIS_SERVER.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        SharedCacheTier peer = new SharedCacheTier(new SharedCacheConfig(), connectionFactory);
+        try {
+            peer.announceWrite(new CacheInvalidation("AAPL", List.of(saturday)));
+
+            int status = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (status != 200 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+                status = mockMvc.perform(get("/api/v1/stocks/AAPL").param("date", saturday.toString()))
+                        .andReturn().getResponse().getStatus();
+            }
+            assertEquals(200, status);
+        } finally {
+            peer.shutdown();
+            connectionFactory.destroy();
+        }
+    }
+}
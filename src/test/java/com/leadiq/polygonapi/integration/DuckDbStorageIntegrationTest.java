@@ -0,0 +1,129 @@
+package com.leadiq.polygonapi.integration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceQueryRepository;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.storage.DuckDbStockPriceStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the read endpoints on the DuckDB engine and checks its aggregates against the database's.
+ */
+@TestPropertySource(properties = {"polygon.storage.engine=duckdb", "polygon.storage.duckdb.path="})
+public class DuckDbStorageIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+    private static final int DAYS = 400;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @Autowired
+    private StockPriceQueryRepository stockPriceQueryRepository;
+
+    @Autowired
+    private DuckDbStockPriceStorage duckDbStockPriceStorage;
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+
+        List<StockPrice> stockPrices = new ArrayList<>();
+        for (String symbol : List.of("AAPL", "MSFT", "NVDA")) {
+            for (int day = 0; day < DAYS; day++) {
+                stockPrices.add(StockPrice.builder()
+                        .companySymbol(symbol)
+                        .date(FIRST_DAY.plusDays(day))
+                        .openPrice(100.0 + day)
+                        .closePrice(day % 7 == 0 ? null : 101.0 + day + symbol.charAt(0))
+                        .highPrice(102.0 + day)
+                        .lowPrice(99.0 + day)
+                        .volume(1000L * day)
+                        .build());
+            }
+        }
+        stockPriceRepository.saveAll(stockPrices);
+        assertEquals(3L * DAYS, duckDbStockPriceStorage.backfill());
+    }
+
+    @Test
+    public void testSummaryMatchesDatabase() throws Exception {
+        String body = mockMvc.perform(get("/api/v1/stocks/summary")
+                        .param("fromDate", "2023-03-01")
+                        .param("toDate", "2023-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andReturn().getResponse().getContentAsString();
+        List<StockPriceSummary> fromDuckDb = objectMapper.readValue(body, new TypeReference<>() { });
+
+        List<StockPriceSummary> fromDatabase = stockPriceQueryRepository.summarize(Set.of(),
+                LocalDate.of(2023, 3, 1), LocalDate.of(2023, 12, 31));
+        assertEquals(fromDatabase.size(), fromDuckDb.size());
+        for (int i = 0; i < fromDatabase.size(); i++) {
+            StockPriceSummary expected = fromDatabase.get(i);
+            StockPriceSummary actual = fromDuckDb.get(i);
+            assertEquals(expected.symbol(), actual.symbol());
+            assertEquals(expected.days(), actual.days());
+            assertEquals(expected.firstDate(), actual.firstDate());
+            assertEquals(expected.lastDate(), actual.lastDate());
+            assertEquals(expected.highPrice(), actual.highPrice());
+            assertEquals(expected.lowPrice(), actual.lowPrice());
+            assertEquals(expected.averageClosePrice(), actual.averageClosePrice(), 1e-9);
+            assertEquals(expected.totalVolume(), actual.totalVolume());
+        }
+
+        mockMvc.perform(get("/api/v1/stocks/summary")
+                        .param("symbols", "MSFT")
+                        .param("fromDate", "2023-01-01")
+                        .param("toDate", "2023-01-10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].symbol").value("MSFT"))
+                .andExpect(jsonPath("$[0].days").value(10))
+                .andExpect(jsonPath("$[0].totalVolume").value(45000));
+    }
+
+    @Test
+    public void testRangeIsServedFromDuckDb() throws Exception {
+        stockPriceRepository.deleteAll();
+
+        mockMvc.perform(get("/api/v1/stocks/NVDA/range")
+                        .param("fromDate", "2023-02-01")
+                        .param("toDate", "2023-02-28")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10))
+                .andExpect(jsonPath("$.content[0].date").value("2023-02-01"))
+                .andExpect(jsonPath("$.next").exists());
+    }
+
+    @Test
+    public void testSummaryRejectsInvalidRange() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks/summary")
+                        .param("fromDate", "2023-12-31")
+                        .param("toDate", "2023-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -65,7 +65,7 @@ public class GlobalExceptionHandlerIntegrationTest extends BaseIntegrationTest {
     @Test
     public void testHandleStockDataNotFoundException() throws Exception {
         // Mock service to throw StockDataNotFoundException
-        when(stockPriceService.getStockPrice(anyString(), any(LocalDate.class)))
+        when(stockPriceService.getStockPriceView(anyString(), any(LocalDate.class)))
                 .thenThrow(new StockDataNotFoundException("AAPL", LocalDate.of(2023, 1, 15)));
 
         // Execute request and verify response
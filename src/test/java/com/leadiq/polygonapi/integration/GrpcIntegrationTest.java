@@ -0,0 +1,137 @@
+package com.leadiq.polygonapi.integration;
+
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.grpc.GrpcServerLifecycle;
+import com.leadiq.polygonapi.proto.GetStockPriceRequest;
+import com.leadiq.polygonapi.proto.StockPriceServiceGrpc;
+import com.leadiq.polygonapi.proto.StreamBatchRequest;
+import com.leadiq.polygonapi.proto.StreamStockPricesRequest;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GrpcIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 300;
+
+    @Autowired
+    private GrpcServerLifecycle grpcServer;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    private ManagedChannel channel;
+    private StockPriceServiceGrpc.StockPriceServiceBlockingStub stub;
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+
+        List<StockPrice> stockPrices = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            stockPrices.add(StockPrice.builder()
+                    .companySymbol("GRPC")
+                    .date(FIRST_DAY.plusDays(day))
+                    .closePrice(100.0 + day)
+                    .volume(1000L * day)
+                    .build());
+        }
+        stockPrices.add(StockPrice.builder().companySymbol("RPC2").date(FIRST_DAY).closePrice(5.0).build());
+        stockPriceRepository.saveAll(stockPrices);
+
+        channel = Grpc.newChannelBuilderForAddress("localhost", grpcServer.getPort(), InsecureChannelCredentials.create())
+                .build();
+        stub = StockPriceServiceGrpc.newBlockingStub(channel).withDeadlineAfter(30, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testGetStockPrice() {
+        com.leadiq.polygonapi.proto.StockPrice stockPrice = stub.getStockPrice(GetStockPriceRequest.newBuilder()
+                .setSymbol("GRPC")
+                .setEpochDay((int) FIRST_DAY.plusDays(2).toEpochDay())
+                .build());
+
+        assertEquals(102.0, stockPrice.getClosePrice());
+        assertEquals(2000L, stockPrice.getVolume());
+        assertFalse(stockPrice.hasOpenPrice());
+    }
+
+    @Test
+    public void testGetStockPrice_NotFound() {
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                stub.getStockPrice(GetStockPriceRequest.newBuilder()
+                        .setSymbol("GRPC")
+                        .setEpochDay((int) FIRST_DAY.minusDays(1).toEpochDay())
+                        .build()));
+
+        assertEquals(Status.Code.NOT_FOUND, exception.getStatus().getCode());
+    }
+
+    @Test
+    public void testStreamStockPrices() {
+        Iterator<com.leadiq.polygonapi.proto.StockPrice> rows = stub.streamStockPrices(StreamStockPricesRequest.newBuilder()
+                .setSymbol("GRPC")
+                .setFromEpochDay((int) FIRST_DAY.toEpochDay())
+                .setToEpochDay((int) FIRST_DAY.plusDays(DAYS).toEpochDay())
+                .build());
+
+        long expectedDay = FIRST_DAY.toEpochDay();
+        int count = 0;
+        while (rows.hasNext()) {
+            assertEquals(expectedDay++, rows.next().getEpochDay());
+            count++;
+        }
+        assertEquals(DAYS, count);
+    }
+
+    @Test
+    public void testStreamStockPrices_InvalidRange() {
+        Iterator<com.leadiq.polygonapi.proto.StockPrice> rows = stub.streamStockPrices(StreamStockPricesRequest.newBuilder()
+                .setSymbol("GRPC")
+                .setFromEpochDay((int) FIRST_DAY.plusDays(1).toEpochDay())
+                .setToEpochDay((int) FIRST_DAY.toEpochDay())
+                .build());
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, rows::hasNext);
+        assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+        assertEquals("From date cannot be after to date", exception.getStatus().getDescription());
+    }
+
+    @Test
+    public void testStreamBatch() {
+        Iterator<com.leadiq.polygonapi.proto.StockPrice> rows = stub.streamBatch(StreamBatchRequest.newBuilder()
+                .addSymbols("RPC2")
+                .addSymbols("GRPC")
+                .setFromEpochDay((int) FIRST_DAY.toEpochDay())
+                .setToEpochDay((int) FIRST_DAY.plusDays(9).toEpochDay())
+                .build());
+
+        List<String> symbols = new ArrayList<>();
+        rows.forEachRemaining(row -> symbols.add(row.getSymbol()));
+
+        assertEquals(11, symbols.size());
+        assertEquals("RPC2", symbols.get(0));
+        assertEquals("GRPC", symbols.get(10));
+    }
+}
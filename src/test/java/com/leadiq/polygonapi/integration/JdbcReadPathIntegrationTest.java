@@ -0,0 +1,120 @@
+package com.leadiq.polygonapi.integration;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceQueryRepository;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the JDBC read path returns the same data as the JPA path and logs a rough timing comparison.
+ * Use the JMH benchmarks in {@code src/jmh/java} for real measurements.
+ */
+public class JdbcReadPathIntegrationTest extends BaseIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcReadPathIntegrationTest.class);
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 250;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @Autowired
+    private StockPriceQueryRepository stockPriceQueryRepository;
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+
+        List<StockPrice> stockPrices = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            stockPrices.add(StockPrice.builder()
+                    .companySymbol("JDBC")
+                    .date(FIRST_DAY.plusDays(day))
+                    .openPrice(100.0 + day)
+                    .closePrice(101.0 + day)
+                    .highPrice(102.0 + day)
+                    .lowPrice(99.0 + day)
+                    .volume(day == 0 ? null : 1000L * day)
+                    .build());
+        }
+        stockPriceRepository.saveAll(stockPrices);
+    }
+
+    @Test
+    public void testSingleRowMatchesJpaPath() {
+        LocalDate date = FIRST_DAY.plusDays(10);
+
+        StockPrice entity = stockPriceRepository.findByCompanySymbolAndDate("JDBC", date).orElseThrow();
+        StockPriceView view = stockPriceQueryRepository.findBySymbolAndDate("JDBC", date).orElseThrow();
+
+        assertEquals(toView(entity), view);
+        assertTrue(stockPriceQueryRepository.findBySymbolAndDate("JDBC", FIRST_DAY.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    public void testRangeMatchesJpaPathIncludingNulls() {
+        LocalDate toDate = FIRST_DAY.plusDays(DAYS);
+
+        List<StockPriceView> jpa = stockPriceRepository
+                .findSliceByCompanySymbolAndDateBetween("JDBC", FIRST_DAY, toDate, firstRows(100))
+                .stream().map(JdbcReadPathIntegrationTest::toView).toList();
+        List<StockPriceView> jdbc = stockPriceQueryRepository.findRangeAfter("JDBC", FIRST_DAY.minusDays(1), toDate, 100);
+
+        assertEquals(100, jdbc.size());
+        assertEquals(jpa, jdbc);
+        assertNull(jdbc.get(0).volume());
+    }
+
+    @Test
+    public void testCompareJpaAndJdbcRangeReads() {
+        LocalDate afterDate = FIRST_DAY.minusDays(1);
+        LocalDate toDate = FIRST_DAY.plusDays(DAYS);
+
+        long jpaNanos = time(() -> stockPriceRepository
+                .findSliceByCompanySymbolAndDateBetween("JDBC", FIRST_DAY, toDate, firstRows(DAYS))
+                .stream().map(JdbcReadPathIntegrationTest::toView).toList());
+        long jdbcNanos = time(() -> stockPriceQueryRepository.findRangeAfter("JDBC", afterDate, toDate, DAYS));
+
+        logger.info("{} range reads of {} rows: JPA {} ms, JDBC {} ms",
+                ITERATIONS, DAYS, jpaNanos / 1_000_000, jdbcNanos / 1_000_000);
+        assertTrue(jpaNanos > 0 && jdbcNanos > 0);
+    }
+
+    private static Pageable firstRows(int size) {
+        return PageRequest.of(0, size, Sort.by("date"));
+    }
+
+    private static long time(Supplier<List<StockPriceView>> read) {
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            read.get();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(DAYS, read.get().size());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static StockPriceView toView(StockPrice stockPrice) {
+        return new StockPriceView(stockPrice.getCompanySymbol(), stockPrice.getDate(), stockPrice.getOpenPrice(),
+                stockPrice.getClosePrice(), stockPrice.getHighPrice(), stockPrice.getLowPrice(), stockPrice.getVolume());
+    }
+}
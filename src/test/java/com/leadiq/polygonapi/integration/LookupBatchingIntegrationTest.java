@@ -0,0 +1,81 @@
+package com.leadiq.polygonapi.integration;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.exception.StockDataNotFoundException;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.service.StockPriceService;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@TestPropertySource(properties = {
+        "polygon.read.lookup-batching.enabled=true",
+        "polygon.read.lookup-batching.window=50ms",
+        "polygon.read.lookup-batching.max-batch-size=100",
+        "polygon.cache.series.enabled=false"
+})
+public class LookupBatchingIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 1, 3);
+
+    @Autowired
+    private StockPriceService stockPriceService;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @SpyBean
+    private StockPriceStorage stockPriceStorage;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(cacheName -> cacheManager.getCache(cacheName).clear());
+    }
+
+    @Test
+    public void testConcurrentLookupsAreAnsweredByFewQueries() throws Exception {
+        List<StockPrice> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rows.add(StockPrice.builder().companySymbol("SYM" + i).date(DAY).closePrice(100.0 + i).build());
+        }
+        stockPriceRepository.saveAll(rows);
+        reset(stockPriceStorage);
+
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        List<CompletableFuture<StockPriceView>> lookups = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String symbol = "SYM" + i;
+            lookups.add(CompletableFuture.supplyAsync(() -> stockPriceService.getStockPriceView(symbol, DAY), executor));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(100.0 + i, lookups.get(i).get().closePrice());
+        }
+        executor.shutdown();
+
+        verify(stockPriceStorage, never()).findBySymbolAndDate(any(), any());
+        verify(stockPriceStorage, atMost(5)).findBySymbolsAndDates(anyCollection(), anyCollection());
+        assertThrows(StockDataNotFoundException.class, () -> stockPriceService.getStockPriceView("MISSING", DAY));
+    }
+}
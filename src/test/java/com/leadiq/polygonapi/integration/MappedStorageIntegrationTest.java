@@ -0,0 +1,102 @@
+package com.leadiq.polygonapi.integration;
+
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.service.StockPriceService;
+import com.leadiq.polygonapi.storage.MappedFileStockPriceStorage;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the read path on the memory-mapped engine: symbols are backfilled from the database on first use
+ * and served from their files afterwards.
+ */
+@TestPropertySource(properties = "polygon.storage.engine=mapped")
+public class MappedStorageIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 300;
+
+    private static final Path DIRECTORY;
+
+    static {
+        try {
+            DIRECTORY = Files.createTempDirectory("stock-prices");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void registerStorageDirectory(DynamicPropertyRegistry registry) {
+        registry.add("polygon.storage.mapped.directory", DIRECTORY::toString);
+    }
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @Autowired
+    private StockPriceService stockPriceService;
+
+    @Autowired
+    private StockPriceStorage stockPriceStorage;
+
+    @Test
+    public void testBackfillsAndServesFromMappedFile() {
+        assertInstanceOf(MappedFileStockPriceStorage.class, stockPriceStorage);
+        stockPriceRepository.deleteAll();
+
+        List<StockPrice> stockPrices = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            stockPrices.add(StockPrice.builder()
+                    .companySymbol("MAPPED")
+                    .date(FIRST_DAY.plusDays(day))
+                    .openPrice(100.0 + day)
+                    .closePrice(101.0 + day)
+                    .highPrice(102.0 + day)
+                    .lowPrice(99.0 + day)
+                    .volume(1000L * day)
+                    .build());
+        }
+        stockPriceRepository.saveAll(stockPrices);
+
+        LocalDate toDate = FIRST_DAY.plusDays(DAYS);
+        CursorPage<StockPriceView> first = stockPriceService.getStockPriceViews("MAPPED", FIRST_DAY, toDate, null, 100);
+        assertEquals(100, first.content().size());
+        assertNotNull(first.next());
+        assertTrue(Files.exists(DIRECTORY.resolve("MAPPED.spm")));
+
+        stockPriceRepository.deleteAll();
+
+        CursorPage<StockPriceView> second = stockPriceService.getStockPriceViews("MAPPED", FIRST_DAY, toDate,
+                first.next(), 100);
+        assertEquals(FIRST_DAY.plusDays(100), second.content().get(0).date());
+        assertEquals(201.0, second.content().get(0).closePrice());
+
+        stockPriceStorage.recordWrites(List.of(StockPrice.builder()
+                .companySymbol("MAPPED")
+                .date(FIRST_DAY.minusDays(1))
+                .closePrice(99.0)
+                .build()));
+        List<StockPriceView> streamed = new ArrayList<>();
+        stockPriceService.streamStockPriceViews("MAPPED", FIRST_DAY.minusDays(1), toDate, streamed::add);
+        assertEquals(DAYS + 1, streamed.size());
+        assertNull(streamed.get(0).openPrice());
+    }
+}
@@ -0,0 +1,123 @@
+package com.leadiq.polygonapi.integration;
+
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies the year-partitioned layout from the 'partitioned' profile against a real MySQL server.
+ * Skipped when Docker is not available.
+ */
+@DataJpaTest
+@ActiveProfiles("partitioned")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class PartitionedSchemaIntegrationTest {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void registerMySqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("polygon.api.key", () -> "test-key");
+    }
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+        stockPriceRepository.saveAllAndFlush(List.of(
+                price("AAPL", LocalDate.of(2021, 12, 31), 177.57),
+                price("AAPL", LocalDate.of(2022, 1, 3), 182.01),
+                price("AAPL", LocalDate.of(2023, 1, 3), 125.07),
+                price("MSFT", LocalDate.of(2022, 1, 3), 334.75)
+        ));
+    }
+
+    @Test
+    public void testTableIsPartitionedByYear() {
+        Integer partitions = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.partitions " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'stock_price' AND partition_name IS NOT NULL",
+                Integer.class);
+        assertNotNull(partitions);
+        assertTrue(partitions > 1);
+
+        assertEquals(1, countInPartition("p2021"));
+        assertEquals(2, countInPartition("p2022"));
+        assertEquals(1, countInPartition("p2023"));
+    }
+
+    @Test
+    public void testFindByCompanySymbolAndDate() {
+        Optional<StockPrice> found = stockPriceRepository.findByCompanySymbolAndDate("AAPL", LocalDate.of(2022, 1, 3));
+
+        assertTrue(found.isPresent());
+        assertEquals(182.01, found.get().getClosePrice());
+        assertFalse(stockPriceRepository.findByCompanySymbolAndDate("AAPL", LocalDate.of(2022, 1, 4)).isPresent());
+    }
+
+    @Test
+    public void testRangeQueryAcrossPartitions() {
+        Page<StockPrice> result = stockPriceRepository.findByCompanySymbolAndDateBetween(
+                "AAPL", LocalDate.of(2021, 12, 1), LocalDate.of(2023, 12, 31), PageRequest.of(0, 2));
+
+        assertEquals(3, result.getTotalElements());
+        assertEquals(2, result.getContent().size());
+    }
+
+    @Test
+    public void testRangeQueryPrunesPartitions() {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM stock_price WHERE company_symbol = 'AAPL' " +
+                        "AND date BETWEEN '2022-01-01' AND '2022-12-31'");
+
+        assertEquals("p2022", plan.get(0).get("partitions"));
+    }
+
+    private int countInPartition(String partition) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_price PARTITION (" + partition + ")", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private static StockPrice price(String symbol, LocalDate date, double close) {
+        return StockPrice.builder()
+                .companySymbol(symbol)
+                .date(date)
+                .openPrice(close)
+                .closePrice(close)
+                .highPrice(close)
+                .lowPrice(close)
+                .volume(1_000_000L)
+                .build();
+    }
+}
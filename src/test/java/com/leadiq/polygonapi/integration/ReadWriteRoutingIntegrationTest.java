@@ -0,0 +1,107 @@
+package com.leadiq.polygonapi.integration;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.exception.StockDataNotFoundException;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.service.ReadYourWritesGuard;
+import com.leadiq.polygonapi.service.StockPriceService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against two separate H2 databases standing in for a primary and an unreplicated replica,
+ * so the database a row is read from shows which one the query was routed to.
+ */
+@TestPropertySource(properties = {
+        "polygon.datasource.routing.enabled=true",
+        "polygon.datasource.routing.replicas[0].url=jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1",
+        "polygon.datasource.routing.read-your-writes-window=1m"
+})
+public class ReadWriteRoutingIntegrationTest extends BaseIntegrationTest {
+
+    private static final JdbcTemplate replica =
+            new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @Autowired
+    private StockPriceService stockPriceService;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @Autowired
+    private ReadYourWritesGuard readYourWritesGuard;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        replica.execute("CREATE TABLE IF NOT EXISTS stock_price (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "company_symbol VARCHAR(255) NOT NULL, date DATE NOT NULL, open_price DOUBLE, close_price DOUBLE, " +
+                "high_price DOUBLE, low_price DOUBLE, volume BIGINT)");
+    }
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+        replica.update("DELETE FROM stock_price");
+        cacheManager.getCacheNames()
+                .forEach(cacheName -> cacheManager.getCache(cacheName).clear());
+    }
+
+    @Test
+    public void testReadOnlyQueriesGoToReplica() {
+        replica.update("INSERT INTO stock_price (company_symbol, date, open_price, close_price, high_price, low_price, volume) " +
+                "VALUES ('MSFT', DATE '2023-01-03', 243.08, 239.58, 245.75, 237.40, 25740000)");
+
+        StockPriceView stockPrice = stockPriceService.getStockPriceView("MSFT", LocalDate.of(2023, 1, 3));
+
+        assertEquals(239.58, stockPrice.closePrice());
+        assertTrue(stockPriceRepository.findByCompanySymbolAndDate("MSFT", LocalDate.of(2023, 1, 3)).isPresent());
+    }
+
+    @Test
+    public void testWritesGoToPrimary() {
+        stockPriceRepository.save(price("AAPL", LocalDate.of(2023, 1, 3)));
+
+        Integer replicaRows = replica.queryForObject("SELECT COUNT(*) FROM stock_price", Integer.class);
+        assertEquals(0, replicaRows);
+        assertFalse(stockPriceRepository.findByCompanySymbolAndDate("AAPL", LocalDate.of(2023, 1, 3)).isPresent());
+    }
+
+    @Test
+    public void testReadAfterWriteIsServedByPrimary() {
+        stockPriceRepository.save(price("NVDA", LocalDate.of(2023, 1, 3)));
+
+        assertThrows(StockDataNotFoundException.class,
+                () -> stockPriceService.getStockPriceView("NVDA", LocalDate.of(2023, 1, 3)));
+
+        readYourWritesGuard.recordWrite("NVDA");
+
+        StockPriceView stockPrice = stockPriceService.getStockPriceView("NVDA", LocalDate.of(2023, 1, 3));
+        assertEquals("NVDA", stockPrice.symbol());
+    }
+
+    private static StockPrice price(String symbol, LocalDate date) {
+        return StockPrice.builder()
+                .companySymbol(symbol)
+                .date(date)
+                .openPrice(143.97)
+                .closePrice(143.15)
+                .highPrice(144.25)
+                .lowPrice(137.69)
+                .volume(40127700L)
+                .build();
+    }
+}
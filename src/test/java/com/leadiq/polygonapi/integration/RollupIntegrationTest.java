@@ -0,0 +1,102 @@
+package com.leadiq.polygonapi.integration;
+
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.repository.StockPriceUpsertRepository;
+import com.leadiq.polygonapi.service.StockPriceRollupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Serves weekly, monthly and yearly candles from the range endpoint: a symbol stored before rollups existed is
+ * aggregated on first read, and later writes update the candles of their periods.
+ */
+public class RollupIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @Autowired
+    private StockPriceUpsertRepository stockPriceUpsertRepository;
+
+    @Autowired
+    private StockPriceRollupService stockPriceRollupService;
+
+    @Test
+    public void testServesAndMaintainsCandles() throws Exception {
+        List<StockPrice> stockPrices = new ArrayList<>();
+        int day = 0;
+        for (LocalDate date = LocalDate.of(2022, 1, 3); date.getYear() < 2024; date = date.plusDays(1)) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                stockPrices.add(price(date, 100.0 + day++));
+            }
+        }
+        stockPriceRepository.saveAll(stockPrices);
+
+        mockMvc.perform(get("/api/v1/stocks/ROLLUP/range")
+                        .param("fromDate", "2022-01-15")
+                        .param("toDate", "2023-12-31")
+                        .param("interval", "month")
+                        .param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(24))
+                .andExpect(jsonPath("$.content[0].date").value("2022-01-01"))
+                .andExpect(jsonPath("$.content[0].openPrice").value(99.0))
+                .andExpect(jsonPath("$.content[0].closePrice").value(120.0))
+                .andExpect(jsonPath("$.content[0].volume").value(21000))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/stocks/ROLLUP/range")
+                        .param("fromDate", "2022-01-01")
+                        .param("toDate", "2023-12-31")
+                        .param("interval", "YEAR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[1].date").value("2023-01-01"));
+
+        List<StockPrice> update = List.of(price(LocalDate.of(2023, 12, 29), 1000.0));
+        stockPriceUpsertRepository.upsertAll(update, 100);
+        stockPriceRollupService.recordWrites(update);
+
+        mockMvc.perform(get("/api/v1/stocks/ROLLUP/range")
+                        .param("fromDate", "2023-12-25")
+                        .param("toDate", "2023-12-31")
+                        .param("interval", "week"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].date").value("2023-12-25"))
+                .andExpect(jsonPath("$.content[0].closePrice").value(1000.0))
+                .andExpect(jsonPath("$.content[0].highPrice").value(1001.0));
+
+        mockMvc.perform(get("/api/v1/stocks/ROLLUP/range")
+                        .param("fromDate", "2023-01-01")
+                        .param("toDate", "2023-12-31")
+                        .param("interval", "hour"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static StockPrice price(LocalDate date, double close) {
+        return StockPrice.builder()
+                .companySymbol("ROLLUP")
+                .date(date)
+                .openPrice(close - 1)
+                .closePrice(close)
+                .highPrice(close + 1)
+                .lowPrice(close - 1)
+                .volume(1000L)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.leadiq.polygonapi.integration;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.leadiq.polygonapi.cache.StockPriceCaches;
+import com.leadiq.polygonapi.cache.TwoTierCache;
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.service.StockPriceService;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class SharedCacheIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 1, 3);
+    private static final RedisServer REDIS_SERVER = startRedisServer();
+
+    @Autowired
+    private StockPriceService stockPriceService;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @SpyBean
+    private StockPriceStorage stockPriceStorage;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @DynamicPropertySource
+    static void registerRedisProperties(DynamicPropertyRegistry registry) {
+        registry.add("polygon.cache.shared.enabled", () -> "true");
+        registry.add("spring.data.redis.host", () -> "127.0.0.1");
+        registry.add("spring.data.redis.port", REDIS_SERVER::getBindPort);
+    }
+
+    private static RedisServer startRedisServer() {
+        try {
+            return RedisServer.newRedisServer().start();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @AfterAll
+    static void stopRedisServer() throws IOException {
+        REDIS_SERVER.stop();
+    }
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(cacheName -> cacheManager.getCache(cacheName).clear());
+    }
+
+    @Test
+    public void testRestartedInstanceIsServedFromTheSharedTier() {
+        stockPriceRepository.saveAll(List.of(
+                StockPrice.builder().companySymbol("AAPL").date(DAY).closePrice(125.07).build(),
+                StockPrice.builder().companySymbol("AAPL").date(DAY.plusDays(1)).closePrice(126.36).build()));
+        stockPriceService.getStockPriceView("AAPL", DAY);
+        CursorPage<StockPriceView> page = stockPriceService.getStockPriceViews("AAPL", DAY, DAY.plusDays(5), null, 10);
+
+        // An instance starting up has empty local caches; the shared tier still holds what was loaded.
+        cacheManager.getCacheNames().forEach(cacheName -> cacheManager.getCache(cacheName).clear());
+        reset(stockPriceStorage);
+
+        assertEquals(125.07, stockPriceService.getStockPriceView("AAPL", DAY).closePrice());
+        assertEquals(page, stockPriceService.getStockPriceViews("AAPL", DAY, DAY.plusDays(5), null, 10));
+        verify(stockPriceStorage, never()).findBySymbolAndDate(any(), any());
+        verify(stockPriceStorage, never()).findRangeAfter(any(), any(), any(), anyInt());
+        assertEquals(1, ((TwoTierCache) cacheManager.getCache(StockPriceCaches.STOCK_PRICE_VIEWS)).getSharedHits());
+        assertEquals(1, ((TwoTierCache) cacheManager.getCache(StockPriceCaches.STOCK_PRICE_RANGES)).getSharedHits());
+    }
+}
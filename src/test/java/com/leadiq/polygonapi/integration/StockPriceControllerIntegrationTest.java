@@ -2,6 +2,9 @@ package com.leadiq.polygonapi.integration;
 
 import com.leadiq.polygonapi.entity.StockPrice;
 import com.leadiq.polygonapi.repository.StockPriceRepository;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,16 +12,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 
 import com.github.tomakehurst.wiremock.client.WireMock;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @AutoConfigureMockMvc
 public class StockPriceControllerIntegrationTest extends PolygonApiMockTest {
@@ -115,4 +128,169 @@ public class StockPriceControllerIntegrationTest extends PolygonApiMockTest {
         mockMvc.perform(get("/api/v1/stocks/MISSING").param("date", "2025-03-14"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetStockPricesByRange_PagesWithCursor() throws Exception {
+        for (int day = 2; day <= 6; day++) {
+            stockPriceRepository.save(StockPrice.builder()
+                    .companySymbol("AAPL")
+                    .date(LocalDate.of(2025, 3, day))
+                    .openPrice(170.0 + day)
+                    .closePrice(171.0 + day)
+                    .highPrice(172.0 + day)
+                    .lowPrice(169.0 + day)
+                    .volume(1000000L * day)
+                    .build());
+        }
+
+        String firstPage = mockMvc.perform(get("/api/v1/stocks/AAPL/range")
+                        .param("fromDate", "2025-03-01")
+                        .param("toDate", "2025-03-31")
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.content[0].date").value("2025-03-02"))
+                .andExpect(jsonPath("$.next").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+
+        String next = objectMapper.readTree(firstPage).get("next").asText();
+
+        mockMvc.perform(get("/api/v1/stocks/AAPL/range")
+                        .param("fromDate", "2025-03-01")
+                        .param("toDate", "2025-03-31")
+                        .param("size", "3")
+                        .param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].date").value("2025-03-05"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    public void testGetStockPricesByRange_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks/AAPL/range")
+                        .param("fromDate", "2025-03-01")
+                        .param("toDate", "2025-03-31")
+                        .param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testExportStockPrices_StreamsCsv() throws Exception {
+        for (int day = 2; day <= 4; day++) {
+            stockPriceRepository.save(StockPrice.builder()
+                    .companySymbol("AAPL")
+                    .date(LocalDate.of(2025, 3, day))
+                    .openPrice(170.0 + day)
+                    .closePrice(171.0 + day)
+                    .highPrice(172.0 + day)
+                    .lowPrice(169.0 + day)
+                    .volume(1000000L * day)
+                    .build());
+        }
+        stockPriceRepository.save(StockPrice.builder()
+                .companySymbol("MSFT")
+                .date(LocalDate.of(2025, 3, 3))
+                .openPrice(400.0)
+                .volume(5L)
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/stocks/export")
+                        .param("symbols", "MSFT,AAPL")
+                        .param("fromDate", "2025-03-03")
+                        .param("toDate", "2025-03-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string("symbol,date,open_price,close_price,high_price,low_price,volume\n"
+                        + "MSFT,2025-03-03,400.0,,,,5\n"
+                        + "AAPL,2025-03-03,173.0,174.0,175.0,172.0,3000000\n"
+                        + "AAPL,2025-03-04,174.0,175.0,176.0,173.0,4000000\n"));
+    }
+
+    @Test
+    public void testExportStockPrices_StreamsNdjson() throws Exception {
+        stockPriceRepository.save(StockPrice.builder()
+                .companySymbol("AAPL")
+                .date(LocalDate.of(2025, 3, 3))
+                .closePrice(174.0)
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/stocks/export")
+                        .param("symbols", "AAPL")
+                        .param("fromDate", "2025-03-01")
+                        .param("toDate", "2025-03-31")
+                        .param("format", "ndjson"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string(startsWith(
+                        "{\"symbol\":\"AAPL\",\"date\":\"2025-03-03\"")));
+    }
+
+    @Test
+    public void testExportStockPrices_ColumnarFormatsAreSmallerThanNdjson() throws Exception {
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 300; i++) {
+            stockPriceRepository.save(StockPrice.builder()
+                    .companySymbol("AAPL")
+                    .date(day.plusDays(i))
+                    .openPrice(170.0 + i % 7)
+                    .closePrice(171.0 + i % 7)
+                    .highPrice(172.0 + i % 7)
+                    .lowPrice(169.0 + i % 7)
+                    .volume(1000000L + i)
+                    .build());
+        }
+
+        byte[] ndjson = export("ndjson", "application/x-ndjson");
+        byte[] arrow = export("arrow", "application/vnd.apache.arrow.stream");
+        byte[] parquet = export("parquet", "application/vnd.apache.parquet");
+
+        try (RootAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(arrow), allocator,
+                     CommonsCompressionFactory.INSTANCE)) {
+            int rows = 0;
+            while (reader.loadNextBatch()) {
+                rows += reader.getVectorSchemaRoot().getRowCount();
+            }
+            assertEquals(300, rows);
+        }
+        assertEquals("PAR1", new String(parquet, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals("PAR1", new String(parquet, parquet.length - 4, 4, StandardCharsets.US_ASCII));
+        assertTrue(arrow.length * 2 < ndjson.length, "arrow " + arrow.length + " vs ndjson " + ndjson.length);
+        assertTrue(parquet.length * 2 < ndjson.length, "parquet " + parquet.length + " vs ndjson " + ndjson.length);
+    }
+
+    private byte[] export(String format, String contentType) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/stocks/export")
+                        .param("symbols", "AAPL")
+                        .param("fromDate", "2024-01-01")
+                        .param("toDate", "2024-12-31")
+                        .param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", contentType))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+    }
+
+    @Test
+    public void testExportStockPrices_InvalidRange() throws Exception {
+        mockMvc.perform(get("/api/v1/stocks/export")
+                        .param("symbols", "AAPL")
+                        .param("fromDate", "2025-03-31")
+                        .param("toDate", "2025-03-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
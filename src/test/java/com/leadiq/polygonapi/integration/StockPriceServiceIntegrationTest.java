@@ -1,5 +1,6 @@
 package com.leadiq.polygonapi.integration;
 
+import com.leadiq.polygonapi.dto.StockPriceView;
 import com.leadiq.polygonapi.entity.StockPrice;
 import com.leadiq.polygonapi.exception.PolygonApiException;
 import com.leadiq.polygonapi.exception.StockDataNotFoundException;
@@ -137,7 +138,7 @@ public class StockPriceServiceIntegrationTest extends PolygonApiMockTest {
     }
 
     @Test
-    public void testGetStockPrice_Success() {
+    public void testGetStockPriceView_Success() {
         StockPrice stockPrice = StockPrice.builder()
                 .companySymbol("AAPL")
                 .date(LocalDate.of(2025, 3, 13))
@@ -150,19 +151,19 @@ public class StockPriceServiceIntegrationTest extends PolygonApiMockTest {
 
         stockPriceRepository.save(stockPrice);
 
-        StockPrice result = stockPriceService.getStockPrice("AAPL", LocalDate.of(2025, 3, 13));
+        StockPriceView result = stockPriceService.getStockPriceView("AAPL", LocalDate.of(2025, 3, 13));
 
         assertNotNull(result);
-        assertEquals("AAPL", result.getCompanySymbol());
-        assertEquals(LocalDate.of(2025, 3, 13), result.getDate());
-        assertEquals(173.97, result.getOpenPrice());
-        assertEquals(173.57, result.getClosePrice());
+        assertEquals("AAPL", result.symbol());
+        assertEquals(LocalDate.of(2025, 3, 13), result.date());
+        assertEquals(173.97, result.openPrice());
+        assertEquals(173.57, result.closePrice());
     }
 
     @Test
-    public void testGetStockPrice_NotFound() {
+    public void testGetStockPriceView_NotFound() {
         StockDataNotFoundException exception = assertThrows(StockDataNotFoundException.class, () -> {
-            stockPriceService.getStockPrice("MISSING", LocalDate.of(2023, 1, 15));
+            stockPriceService.getStockPriceView("MISSING", LocalDate.of(2023, 1, 15));
         });
 
         assertEquals("MISSING", exception.getSymbol());
@@ -170,15 +171,15 @@ public class StockPriceServiceIntegrationTest extends PolygonApiMockTest {
     }
 
     @Test
-    public void testGetStockPrice_InvalidInput() {
+    public void testGetStockPriceView_InvalidInput() {
         IllegalArgumentException exception1 = assertThrows(IllegalArgumentException.class, () -> {
-            stockPriceService.getStockPrice(null, LocalDate.of(2023, 1, 15));
+            stockPriceService.getStockPriceView(null, LocalDate.of(2023, 1, 15));
         });
 
         assertTrue(exception1.getMessage().contains("Stock symbol cannot be null or empty"));
 
         IllegalArgumentException exception2 = assertThrows(IllegalArgumentException.class, () -> {
-            stockPriceService.getStockPrice("AAPL", null);
+            stockPriceService.getStockPriceView("AAPL", null);
         });
 
         assertTrue(exception2.getMessage().contains("Date cannot be null"));
@@ -0,0 +1,106 @@
+package com.leadiq.polygonapi.integration;
+
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceQueryRepository;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.service.StockPriceService;
+import com.leadiq.polygonapi.service.SymbolSeriesStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that range reads served from the in-memory series match the database and logs a rough
+ * timing comparison. Use the JMH benchmarks in {@code src/jmh/java} for real measurements.
+ */
+@TestPropertySource(properties = "polygon.cache.series.enabled=true")
+public class SymbolSeriesStoreIntegrationTest extends BaseIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SymbolSeriesStoreIntegrationTest.class);
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 250;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @Autowired
+    private StockPriceQueryRepository stockPriceQueryRepository;
+
+    @Autowired
+    private StockPriceService stockPriceService;
+
+    @Autowired
+    private SymbolSeriesStore symbolSeriesStore;
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+        symbolSeriesStore.evict("SERIES");
+
+        List<StockPrice> stockPrices = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            stockPrices.add(StockPrice.builder()
+                    .companySymbol("SERIES")
+                    .date(FIRST_DAY.plusDays(day))
+                    .openPrice(100.0 + day)
+                    .closePrice(day == 0 ? null : 101.0 + day)
+                    .highPrice(102.0 + day)
+                    .lowPrice(99.0 + day)
+                    .volume(day == 0 ? null : 1000L * day)
+                    .build());
+        }
+        stockPriceRepository.saveAll(stockPrices);
+    }
+
+    @Test
+    public void testPagesMatchDatabase() {
+        LocalDate toDate = FIRST_DAY.plusDays(DAYS);
+        List<StockPriceView> fromStore = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<StockPriceView> page = stockPriceService.getStockPriceViews("SERIES", FIRST_DAY, toDate, cursor, 60);
+            fromStore.addAll(page.content());
+            cursor = page.next();
+        } while (cursor != null);
+
+        assertEquals(stockPriceQueryRepository.findRangeAfter("SERIES", FIRST_DAY.minusDays(1), toDate, DAYS + 1),
+                fromStore);
+        assertEquals(stockPriceQueryRepository.findBySymbolAndDate("SERIES", FIRST_DAY.plusDays(7)).orElseThrow(),
+                stockPriceService.getStockPriceView("SERIES", FIRST_DAY.plusDays(7)));
+    }
+
+    @Test
+    public void testCompareDatabaseAndSeriesRangeReads() {
+        LocalDate toDate = FIRST_DAY.plusDays(DAYS);
+        stockPriceService.getStockPriceViews("SERIES", FIRST_DAY, toDate, null, DAYS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(DAYS, stockPriceQueryRepository.findRangeAfter("SERIES", FIRST_DAY.minusDays(1), toDate, DAYS).size());
+        }
+        long databaseNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(DAYS, stockPriceService.getStockPriceViews("SERIES", FIRST_DAY, toDate, null, DAYS).content().size());
+        }
+        long seriesNanos = System.nanoTime() - start;
+
+        logger.info("{} range reads of {} rows: database {} us/read, series {} us/read",
+                ITERATIONS, DAYS, databaseNanos / ITERATIONS / 1000, seriesNanos / ITERATIONS / 1000);
+        assertTrue(seriesNanos < databaseNanos);
+    }
+}
@@ -0,0 +1,78 @@
+package com.leadiq.polygonapi.integration;
+
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.service.StockPriceWriteBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = {
+        "polygon.ingest.write-behind.enabled=true",
+        "polygon.ingest.write-behind.batch-size=50",
+        "polygon.ingest.write-behind.flush-interval=20ms"
+})
+public class WriteBehindIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private StockPriceWriteBuffer stockPriceWriteBuffer;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @BeforeEach
+    public void setup() {
+        stockPriceRepository.deleteAll();
+    }
+
+    @Test
+    public void testConcurrentWritesAreDurableOnReturn() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            String symbol = "SYM" + i;
+            writes.add(CompletableFuture.runAsync(() -> stockPriceWriteBuffer.write(List.of(
+                    price(symbol, LocalDate.of(2023, 1, 3), 100.0),
+                    price(symbol, LocalDate.of(2023, 1, 4), 101.0))), executor));
+        }
+
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).get();
+        executor.shutdown();
+
+        assertEquals(40, stockPriceRepository.count());
+    }
+
+    @Test
+    public void testRewritingExistingDayUpdatesRow() {
+        stockPriceWriteBuffer.write(List.of(price("AAPL", LocalDate.of(2023, 1, 3), 125.07)));
+        stockPriceWriteBuffer.write(List.of(price("AAPL", LocalDate.of(2023, 1, 3), 125.10)));
+
+        StockPrice stored = stockPriceRepository.findByCompanySymbolAndDate("AAPL", LocalDate.of(2023, 1, 3))
+                .orElseThrow();
+        assertEquals(125.10, stored.getClosePrice());
+        assertEquals(1, stockPriceRepository.count());
+    }
+
+    private static StockPrice price(String symbol, LocalDate date, double close) {
+        return StockPrice.builder()
+                .companySymbol(symbol)
+                .date(date)
+                .openPrice(close)
+                .closePrice(close)
+                .highPrice(close)
+                .lowPrice(close)
+                .volume(1_000_000L)
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.leadiq.polygonapi.repository;
+
+import com.leadiq.polygonapi.entity.StockPrice;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the versioned migrations against H2 and lets hibernate validate the entity mapping
+ * against the resulting schema instead of generating it.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class StockPriceSchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private StockPriceRepository stockPriceRepository;
+
+    @Test
+    void testMigrationsApplied() {
+        assertNotNull(flyway.info().current());
+        assertEquals("4", flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void testMigratedSchemaServesQueries() {
+        stockPriceRepository.saveAll(List.of(
+                StockPrice.builder().companySymbol("AAPL").date(LocalDate.of(2022, 12, 30))
+                        .openPrice(128.41).closePrice(129.93).highPrice(129.95).lowPrice(127.43).volume(76960000L).build(),
+                StockPrice.builder().companySymbol("AAPL").date(LocalDate.of(2023, 1, 3))
+                        .openPrice(130.28).closePrice(125.07).highPrice(130.90).lowPrice(124.17).volume(112117500L).build()
+        ));
+
+        Optional<StockPrice> found = stockPriceRepository.findByCompanySymbolAndDate("AAPL", LocalDate.of(2023, 1, 3));
+        assertTrue(found.isPresent());
+        assertEquals(125.07, found.get().getClosePrice());
+
+        Page<StockPrice> range = stockPriceRepository.findByCompanySymbolAndDateBetween(
+                "AAPL", LocalDate.of(2022, 12, 1), LocalDate.of(2023, 1, 31), PageRequest.of(0, 10));
+        assertEquals(2, range.getTotalElements());
+    }
+}
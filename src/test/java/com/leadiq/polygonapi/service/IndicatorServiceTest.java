@@ -0,0 +1,132 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.config.IndicatorConfig;
+import com.leadiq.polygonapi.dto.IndicatorSeries;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.indicator.IndicatorType;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IndicatorServiceTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 2);
+
+    private final StockPriceStorage stockPriceStorage = mock(StockPriceStorage.class);
+    private final SymbolSeriesStore symbolSeriesStore = mock(SymbolSeriesStore.class);
+
+    private IndicatorService service(int maxSeries) {
+        IndicatorConfig config = new IndicatorConfig();
+        config.setMaxSeries(maxSeries);
+        config.setTtl(Duration.ofMinutes(10));
+        return new IndicatorService(config, stockPriceStorage, symbolSeriesStore,
+                new ReadYourWritesGuard(new DataSourceRoutingConfig()));
+    }
+
+    private static List<StockPriceView> days(String symbol, int rows) {
+        List<StockPriceView> views = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            views.add(new StockPriceView(symbol, FIRST_DAY.plusDays(i), null, 10.0 + i, null, null, null));
+        }
+        return views;
+    }
+
+    private static StockPrice price(String symbol, int day, double close) {
+        return StockPrice.builder().companySymbol(symbol).date(FIRST_DAY.plusDays(day)).closePrice(close).build();
+    }
+
+    @Test
+    void testIndicatorSkipsWarmUpAndSlicesRange() {
+        when(stockPriceStorage.findBySymbol("AAPL")).thenReturn(days("AAPL", 10));
+        IndicatorService service = service(10);
+
+        IndicatorSeries sma = service.getIndicator("AAPL", IndicatorType.SMA, List.of(3.0),
+                FIRST_DAY, FIRST_DAY.plusDays(4));
+
+        assertEquals("sma", sma.indicator());
+        assertEquals(Map.of("period", 3.0), sma.params());
+        assertEquals(List.of(FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(3), FIRST_DAY.plusDays(4)), sma.dates());
+        assertArrayEquals(new double[]{11, 12, 13}, sma.values().get("sma"), 1e-9);
+    }
+
+    @Test
+    void testLaterWritesAreAppendedWithoutReloading() {
+        when(stockPriceStorage.findBySymbol("AAPL")).thenReturn(days("AAPL", 10));
+        IndicatorService service = service(10);
+        service.getIndicator("AAPL", IndicatorType.SMA, List.of(3.0), FIRST_DAY, FIRST_DAY.plusDays(20));
+
+        service.recordWrites(List.of(price("AAPL", 11, 40.0), price("AAPL", 10, 20.0), price("MSFT", 3, 1.0)));
+        IndicatorSeries sma = service.getIndicator("AAPL", IndicatorType.SMA, List.of(), FIRST_DAY.plusDays(10),
+                FIRST_DAY.plusDays(20));
+        IndicatorSeries sma3 = service.getIndicator("AAPL", IndicatorType.SMA, List.of(3.0), FIRST_DAY.plusDays(10),
+                FIRST_DAY.plusDays(20));
+
+        assertTrue(sma.dates().isEmpty());
+        assertArrayEquals(new double[]{(18 + 19 + 20) / 3.0, (19 + 20 + 40) / 3.0}, sma3.values().get("sma"), 1e-9);
+        verify(stockPriceStorage, times(2)).findBySymbol("AAPL");
+    }
+
+    @Test
+    void testEarlierWriteDropsSeries() {
+        when(stockPriceStorage.findBySymbol("AAPL")).thenReturn(days("AAPL", 10));
+        IndicatorService service = service(10);
+        service.getIndicator("AAPL", IndicatorType.EMA, List.of(3.0), FIRST_DAY, FIRST_DAY.plusDays(20));
+
+        service.recordWrites(List.of(price("AAPL", 5, 20.0)));
+
+        assertEquals(0, service.size());
+        service.getIndicator("AAPL", IndicatorType.EMA, List.of(3.0), FIRST_DAY, FIRST_DAY.plusDays(20));
+        verify(stockPriceStorage, times(2)).findBySymbol("AAPL");
+    }
+
+    @Test
+    void testLeastRecentlyReadSeriesIsEvicted() {
+        when(stockPriceStorage.findBySymbol(anyString())).thenAnswer(invocation -> days(invocation.getArgument(0), 5));
+        IndicatorService service = service(2);
+
+        service.getIndicator("AAPL", IndicatorType.SMA, List.of(), FIRST_DAY, FIRST_DAY);
+        service.getIndicator("MSFT", IndicatorType.SMA, List.of(), FIRST_DAY, FIRST_DAY);
+        service.getIndicator("AAPL", IndicatorType.SMA, List.of(), FIRST_DAY, FIRST_DAY);
+        service.getIndicator("GOOG", IndicatorType.SMA, List.of(), FIRST_DAY, FIRST_DAY);
+        service.getIndicator("AAPL", IndicatorType.SMA, List.of(), FIRST_DAY, FIRST_DAY);
+
+        assertEquals(2, service.size());
+        verify(stockPriceStorage, times(1)).findBySymbol("AAPL");
+    }
+
+    @Test
+    void testSeriesComputedDuringAWriteIsNotCached() {
+        IndicatorService service = service(10);
+        when(stockPriceStorage.findBySymbol("AAPL")).thenAnswer(invocation -> {
+            service.recordWrites(List.of(price("AAPL", 10, 20.0)));
+            return days("AAPL", 10);
+        }).thenReturn(days("AAPL", 11));
+
+        service.getIndicator("AAPL", IndicatorType.SMA, List.of(3.0), FIRST_DAY, FIRST_DAY.plusDays(20));
+        IndicatorSeries sma = service.getIndicator("AAPL", IndicatorType.SMA, List.of(3.0), FIRST_DAY,
+                FIRST_DAY.plusDays(20));
+
+        assertEquals(FIRST_DAY.plusDays(10), sma.dates().get(sma.dates().size() - 1));
+        assertEquals(1, service.size());
+        verify(stockPriceStorage, times(2)).findBySymbol("AAPL");
+    }
+
+    @Test
+    void testInvalidParamsAreRejected() {
+        IndicatorService service = service(10);
+
+        assertThrows(IllegalArgumentException.class, () -> service.getIndicator("AAPL", IndicatorType.RSI,
+                List.of(0.0), FIRST_DAY, FIRST_DAY));
+        verifyNoInteractions(stockPriceStorage);
+    }
+}
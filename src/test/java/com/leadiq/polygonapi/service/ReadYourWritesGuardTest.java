@@ -0,0 +1,46 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesGuardTest {
+
+    @Test
+    void testDisabledGuardNeverPinsToPrimary() {
+        ReadYourWritesGuard guard = new ReadYourWritesGuard(new DataSourceRoutingConfig());
+
+        guard.recordWrite("AAPL");
+
+        assertFalse(guard.requiresPrimary("AAPL"));
+        assertEquals("result", guard.read("AAPL", () -> "result"));
+    }
+
+    @Test
+    void testRecentWritePinsSymbolToPrimary() {
+        DataSourceRoutingConfig config = new DataSourceRoutingConfig();
+        config.setEnabled(true);
+        config.setReadYourWritesWindow(Duration.ofMinutes(1));
+        ReadYourWritesGuard guard = new ReadYourWritesGuard(config);
+
+        guard.recordWrite("AAPL");
+
+        assertTrue(guard.requiresPrimary("AAPL"));
+        assertFalse(guard.requiresPrimary("MSFT"));
+    }
+
+    @Test
+    void testPinExpiresAfterWindow() {
+        DataSourceRoutingConfig config = new DataSourceRoutingConfig();
+        config.setEnabled(true);
+        config.setReadYourWritesWindow(Duration.ZERO);
+        ReadYourWritesGuard guard = new ReadYourWritesGuard(config);
+
+        guard.recordWrite("AAPL");
+
+        assertFalse(guard.requiresPrimary("AAPL"));
+    }
+}
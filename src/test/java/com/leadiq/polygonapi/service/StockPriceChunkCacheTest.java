@@ -0,0 +1,115 @@
+package com.leadiq.polygonapi.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.leadiq.polygonapi.cache.CacheInvalidation;
+import com.leadiq.polygonapi.cache.StockPriceCaches;
+import com.leadiq.polygonapi.config.CacheConfig;
+import com.leadiq.polygonapi.config.ChunkCacheConfig;
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockPriceChunkCacheTest {
+
+    private final StockPriceStorage stockPriceStorage = mock(StockPriceStorage.class);
+    private final List<StockPriceView> stored = new ArrayList<>();
+    private Cache chunks;
+    private StockPriceChunkCache chunkCache;
+
+    @BeforeEach
+    void setUp() {
+        for (LocalDate day = LocalDate.of(2023, 1, 2); day.isBefore(LocalDate.of(2023, 4, 1)); day = day.plusDays(1)) {
+            stored.add(new StockPriceView("AAPL", day, 1.0, 1.0, 1.0, 1.0, 1L));
+        }
+        when(stockPriceStorage.findRangeAfter(eq("AAPL"), any(), any(), anyInt())).thenAnswer(invocation -> {
+            LocalDate afterDate = invocation.getArgument(1);
+            LocalDate toDate = invocation.getArgument(2);
+            return stored.stream()
+                    .filter(row -> row.date().isAfter(afterDate) && !row.date().isAfter(toDate))
+                    .limit(invocation.<Integer>getArgument(3))
+                    .toList();
+        });
+
+        ChunkCacheConfig config = new ChunkCacheConfig();
+        chunks = new CaffeineCache(StockPriceCaches.STOCK_PRICE_CHUNKS, StockPriceCaches.buildChunks(
+                new CacheConfig(), config, Ticker.systemTicker(), Runnable::run), false);
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(chunks));
+        cacheManager.afterPropertiesSet();
+        chunkCache = new StockPriceChunkCache(config, cacheManager, stockPriceStorage,
+                new ReadYourWritesGuard(new DataSourceRoutingConfig()));
+    }
+
+    @Test
+    void testUnalignedRangesAreAssembledFromCachedChunks() {
+        List<StockPriceView> first = chunkCache.range("AAPL", LocalDate.of(2023, 1, 20), LocalDate.of(2023, 3, 10), 100);
+
+        assertEquals(LocalDate.of(2023, 1, 20), first.get(0).date());
+        assertEquals(LocalDate.of(2023, 3, 10), first.get(first.size() - 1).date());
+        assertEquals(50, first.size());
+        verify(stockPriceStorage, times(3)).findRangeAfter(eq("AAPL"), any(), any(), anyInt());
+
+        List<StockPriceView> second = chunkCache.range("AAPL", LocalDate.of(2023, 2, 5), LocalDate.of(2023, 3, 31), 100);
+
+        assertEquals(LocalDate.of(2023, 2, 5), second.get(0).date());
+        assertEquals(55, second.size());
+        verifyNoMoreInteractions(stockPriceStorage);
+    }
+
+    @Test
+    void testLimitStopsBeforeLaterChunks() {
+        List<StockPriceView> rows = chunkCache.range("AAPL", LocalDate.of(2023, 1, 30), LocalDate.of(2023, 3, 31), 5);
+
+        assertEquals(LocalDate.of(2023, 2, 3), rows.get(4).date());
+        assertEquals(5, rows.size());
+        verify(stockPriceStorage, times(2)).findRangeAfter(eq("AAPL"), any(), any(), anyInt());
+    }
+
+    @Test
+    void testMonthsWithoutStoredDaysAreSkipped() {
+        List<StockPriceView> rows = chunkCache.range("AAPL", LocalDate.of(2022, 1, 1), LocalDate.of(2023, 2, 28), 100);
+
+        assertEquals(LocalDate.of(2023, 1, 2), rows.get(0).date());
+        assertEquals(58, rows.size());
+        verify(stockPriceStorage, times(1)).findRangeAfter("AAPL", LocalDate.of(2022, 1, 31),
+                LocalDate.of(2023, 2, 28), 1);
+        verify(stockPriceStorage, times(4)).findRangeAfter(eq("AAPL"), any(), any(), anyInt());
+    }
+
+    @Test
+    void testRangeOfUnknownSymbolCostsTwoQueries() {
+        when(stockPriceStorage.findRangeAfter(eq("NONE"), any(), any(), anyInt())).thenReturn(List.of());
+
+        assertTrue(chunkCache.range("NONE", LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31), 100).isEmpty());
+        assertTrue(chunkCache.range("NONE", LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31), 100).isEmpty());
+
+        verify(stockPriceStorage, times(3)).findRangeAfter(eq("NONE"), any(), any(), anyInt());
+    }
+
+    @Test
+    void testInvalidationReloadsOnlyTheWrittenMonth() {
+        chunkCache.range("AAPL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 3, 31), 100);
+        stored.set(40, new StockPriceView("AAPL", stored.get(40).date(), 2.0, 2.0, 2.0, 2.0, 2L));
+
+        StockPriceCaches.evictLocally(chunks, new CacheInvalidation("AAPL", List.of(stored.get(40).date())));
+        List<StockPriceView> rows = chunkCache.range("AAPL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 3, 31), 100);
+
+        assertEquals(stored, rows);
+        verify(stockPriceStorage, times(4)).findRangeAfter(eq("AAPL"), any(), any(), anyInt());
+        verify(stockPriceStorage, times(2)).findRangeAfter("AAPL", LocalDate.of(2023, 1, 31),
+                LocalDate.of(2023, 2, 28), 31);
+    }
+}
@@ -0,0 +1,173 @@
+package com.leadiq.polygonapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.config.ExportConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StockPriceExportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2023, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2023, 12, 31);
+
+    private StockPriceStorage stockPriceStorage;
+    private ExportConfig exportConfig;
+    private StockPriceExportService exportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stockPriceStorage = mock(StockPriceStorage.class);
+        exportConfig = new ExportConfig();
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new StockPriceExportService(stockPriceStorage,
+                new ReadYourWritesGuard(new DataSourceRoutingConfig()), exportConfig, objectMapper);
+
+        doAnswer(invocation -> {
+            Consumer<StockPriceView> consumer = invocation.getArgument(3);
+            consumer.accept(new StockPriceView("AAPL", LocalDate.of(2023, 1, 3), 130.28, 125.07, 130.9, 124.17, 112117471L));
+            consumer.accept(new StockPriceView("AAPL", LocalDate.of(2023, 1, 4), 126.89, 126.36, 128.66, 125.08, null));
+            return null;
+        }).when(stockPriceStorage).streamRange(eq("AAPL"), eq(FROM), eq(TO), any(Consumer.class));
+    }
+
+    @Test
+    void testExportCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(List.of("AAPL", "MSFT"), FROM, TO, ExportFormat.CSV, out);
+
+        assertEquals("symbol,date,open_price,close_price,high_price,low_price,volume\n"
+                + "AAPL,2023-01-03,130.28,125.07,130.9,124.17,112117471\n"
+                + "AAPL,2023-01-04,126.89,126.36,128.66,125.08,\n", out.toString(StandardCharsets.UTF_8));
+        verify(stockPriceStorage).streamRange(eq("MSFT"), eq(FROM), eq(TO), any());
+    }
+
+    @Test
+    void testExportNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(List.of("AAPL"), FROM, TO, ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"symbol\":\"AAPL\",\"date\":\"2023-01-03\""));
+        assertTrue(lines[1].endsWith("\"volume\":null}"));
+    }
+
+    @Test
+    void testValidateDeduplicatesSymbols() {
+        assertEquals(List.of("AAPL", "MSFT"), exportService.validate(List.of("AAPL", " MSFT", "AAPL"), FROM, TO));
+    }
+
+    @Test
+    void testValidateRejectsInvalidRequests() {
+        exportConfig.setMaxSymbols(1);
+
+        assertThrows(IllegalArgumentException.class, () -> exportService.validate(List.of(), FROM, TO));
+        assertThrows(IllegalArgumentException.class, () -> exportService.validate(List.of("AAPL"), TO, FROM));
+        assertThrows(IllegalArgumentException.class, () -> exportService.validate(List.of(" "), FROM, TO));
+        assertThrows(IllegalArgumentException.class, () -> exportService.validate(List.of("AAPL", "MSFT"), FROM, TO));
+    }
+
+    @Test
+    void testFormatFromName() {
+        assertEquals(ExportFormat.NDJSON, ExportFormat.from("ndjson"));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.from("xml"));
+    }
+
+    @Test
+    void testExportArrow() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(List.of("AAPL"), FROM, TO, ExportFormat.ARROW, out);
+
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+            assertTrue(reader.loadNextBatch());
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertEquals(2, root.getRowCount());
+            assertEquals("AAPL", root.getVector("symbol").getObject(0).toString());
+            assertEquals(LocalDate.of(2023, 1, 3).toEpochDay(), ((DateDayVector) root.getVector("date")).get(0));
+            assertEquals(125.07, ((Float8Vector) root.getVector("close_price")).get(0));
+            assertTrue(root.getVector("volume").isNull(1));
+            assertFalse(reader.loadNextBatch());
+        }
+    }
+
+    @Test
+    void testExportArrowSplitsBatches() throws Exception {
+        exportConfig.setArrowBatchSize(1);
+        exportService = new StockPriceExportService(stockPriceStorage,
+                new ReadYourWritesGuard(new DataSourceRoutingConfig()), exportConfig, new ObjectMapper());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(List.of("AAPL"), FROM, TO, ExportFormat.ARROW, out);
+
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+            int batches = 0;
+            while (reader.loadNextBatch()) {
+                assertEquals(1, reader.getVectorSchemaRoot().getRowCount());
+                batches++;
+            }
+            assertEquals(2, batches);
+        }
+    }
+
+    @Test
+    void testExportParquet(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("export.parquet");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            exportService.export(List.of("AAPL"), FROM, TO, ExportFormat.PARQUET, out);
+        }
+
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+            assertEquals(2, reader.getRecordCount());
+            MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+            RecordReader<Group> records = new ColumnIOFactory().getColumnIO(schema)
+                    .getRecordReader(reader.readNextRowGroup(), new GroupRecordConverter(schema));
+            Group first = records.read();
+            assertEquals("AAPL", first.getString("symbol", 0));
+            assertEquals(LocalDate.of(2023, 1, 3).toEpochDay(), first.getInteger("date", 0));
+            assertEquals(112117471L, first.getLong("volume", 0));
+            assertEquals(0, records.read().getFieldRepetitionCount("volume"));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.cache.StockPriceCacheInvalidator;
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class StockPriceIngestionTest {
+
+    private final ReadYourWritesGuard readYourWritesGuard = spy(new ReadYourWritesGuard(new DataSourceRoutingConfig()));
+    private final SymbolDateIndex symbolDateIndex = mock(SymbolDateIndex.class);
+    private final StockPriceStorage stockPriceStorage = mock(StockPriceStorage.class);
+    private final SymbolSeriesStore symbolSeriesStore = mock(SymbolSeriesStore.class);
+    private final StockPriceRollupService stockPriceRollupService = mock(StockPriceRollupService.class);
+    private final IndicatorService indicatorService = mock(IndicatorService.class);
+    private final StockPriceCacheInvalidator stockPriceCacheInvalidator = mock(StockPriceCacheInvalidator.class);
+
+    private final StockPriceIngestion ingestion = new StockPriceIngestion(readYourWritesGuard, symbolDateIndex,
+            stockPriceStorage, symbolSeriesStore, stockPriceRollupService, indicatorService, stockPriceCacheInvalidator);
+
+    @Test
+    void testListenersRunInOrder() {
+        List<StockPrice> rows = List.of(price("AAPL", 3), price("AAPL", 4), price("MSFT", 3));
+
+        ingestion.publish(rows);
+
+        InOrder inOrder = inOrder(readYourWritesGuard, symbolDateIndex, stockPriceStorage, symbolSeriesStore,
+                stockPriceRollupService, indicatorService, stockPriceCacheInvalidator);
+        inOrder.verify(readYourWritesGuard).recordWrite("AAPL");
+        inOrder.verify(readYourWritesGuard).recordWrite("MSFT");
+        inOrder.verify(symbolDateIndex).recordWrites(rows);
+        inOrder.verify(stockPriceStorage).recordWrites(rows);
+        inOrder.verify(symbolSeriesStore).recordWrites(rows);
+        inOrder.verify(stockPriceRollupService).recordWrites(rows);
+        inOrder.verify(indicatorService).recordWrites(rows);
+        inOrder.verify(stockPriceCacheInvalidator).recordWrites(rows);
+    }
+
+    @Test
+    void testFailingListenerDoesNotStopTheOthers() {
+        doThrow(new IllegalStateException("storage unavailable")).when(stockPriceStorage).recordWrites(anyList());
+        doThrow(new IllegalStateException("rollups unavailable")).when(stockPriceRollupService).recordWrites(anyList());
+        List<StockPrice> rows = List.of(price("AAPL", 3));
+
+        assertDoesNotThrow(() -> ingestion.publish(rows));
+
+        verify(stockPriceStorage).discard("AAPL");
+        verify(symbolSeriesStore).recordWrites(rows);
+        verify(indicatorService).recordWrites(rows);
+        verify(stockPriceCacheInvalidator).recordWrites(rows);
+    }
+
+    @Test
+    void testNothingIsPublishedForNoRows() {
+        ingestion.publish(List.of());
+
+        verifyNoInteractions(readYourWritesGuard, symbolDateIndex, stockPriceStorage, stockPriceCacheInvalidator);
+    }
+
+    private static StockPrice price(String symbol, int day) {
+        return StockPrice.builder()
+                .companySymbol(symbol)
+                .date(LocalDate.of(2023, 1, day))
+                .closePrice(100.0 + day)
+                .build();
+    }
+}
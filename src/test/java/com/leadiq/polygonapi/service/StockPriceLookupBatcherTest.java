@@ -0,0 +1,112 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.config.LookupBatchingConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class StockPriceLookupBatcherTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 1, 3);
+
+    private final StockPriceStorage stockPriceStorage = mock(StockPriceStorage.class);
+    private StockPriceLookupBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    private StockPriceLookupBatcher newBatcher(boolean enabled, Duration window, int maxBatchSize) {
+        LookupBatchingConfig config = new LookupBatchingConfig();
+        config.setEnabled(enabled);
+        config.setWindow(window);
+        config.setMaxBatchSize(maxBatchSize);
+        return new StockPriceLookupBatcher(config, stockPriceStorage,
+                new ReadYourWritesGuard(new DataSourceRoutingConfig()));
+    }
+
+    private static StockPriceView price(String symbol, LocalDate date) {
+        return new StockPriceView(symbol, date, null, 100.0, null, null, null);
+    }
+
+    @Test
+    void testConcurrentLookupsShareOneQuery() throws Exception {
+        StockPriceView aapl = price("AAPL", DAY);
+        StockPriceView msft = price("MSFT", DAY);
+        when(stockPriceStorage.findBySymbolsAndDates(anyCollection(), anyCollection()))
+                .thenReturn(List.of(aapl, msft, price("AAPL", DAY.plusDays(1))));
+        batcher = newBatcher(true, Duration.ofMillis(50), 100);
+
+        CompletableFuture<Optional<StockPriceView>> first = batcher.load("AAPL", DAY);
+        CompletableFuture<Optional<StockPriceView>> second = batcher.load("MSFT", DAY);
+        CompletableFuture<Optional<StockPriceView>> third = batcher.load("GOOG", DAY);
+        CompletableFuture<Optional<StockPriceView>> fourth = batcher.load("MSFT", DAY.plusDays(1));
+
+        assertSame(aapl, first.get(5, TimeUnit.SECONDS).orElseThrow());
+        assertSame(msft, second.get(5, TimeUnit.SECONDS).orElseThrow());
+        assertTrue(third.get(5, TimeUnit.SECONDS).isEmpty());
+        assertTrue(fourth.get(5, TimeUnit.SECONDS).isEmpty());
+        verify(stockPriceStorage, times(1)).findBySymbolsAndDates(anyCollection(), anyCollection());
+        verify(stockPriceStorage, never()).findBySymbolAndDate(any(), any());
+    }
+
+    @Test
+    void testFullBatchIsQueriedWithoutWaitingForTheWindow() throws Exception {
+        when(stockPriceStorage.findBySymbolsAndDates(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+        batcher = newBatcher(true, Duration.ofHours(1), 3);
+
+        List<CompletableFuture<Optional<StockPriceView>>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(batcher.load("SYM" + i, DAY));
+        }
+
+        for (CompletableFuture<Optional<StockPriceView>> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS).isEmpty());
+        }
+        verify(stockPriceStorage, times(2)).findBySymbolsAndDates(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void testQueryFailureFailsEveryLookupOfTheBatch() {
+        when(stockPriceStorage.findBySymbolsAndDates(anyCollection(), anyCollection()))
+                .thenThrow(new IllegalStateException("database down"));
+        batcher = newBatcher(true, Duration.ofMillis(10), 100);
+
+        CompletableFuture<Optional<StockPriceView>> first = batcher.load("AAPL", DAY);
+        CompletableFuture<Optional<StockPriceView>> second = batcher.load("MSFT", DAY);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertEquals("database down", error.getCause().getMessage());
+        assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertThrows(IllegalStateException.class, () -> batcher.find("GOOG", DAY));
+    }
+
+    @Test
+    void testDisabledBatcherQueriesDirectly() {
+        StockPriceView aapl = price("AAPL", DAY);
+        when(stockPriceStorage.findBySymbolAndDate("AAPL", DAY)).thenReturn(Optional.of(aapl));
+        batcher = newBatcher(false, Duration.ofMillis(10), 100);
+
+        assertSame(aapl, batcher.find("AAPL", DAY).orElseThrow());
+        verify(stockPriceStorage, never()).findBySymbolsAndDates(anyCollection(), anyCollection());
+    }
+}
@@ -0,0 +1,113 @@
+package com.leadiq.polygonapi.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.leadiq.polygonapi.cache.SharedCacheTier;
+import com.leadiq.polygonapi.cache.StockPriceCaches;
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.config.MissCacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StockPriceMissCacheTest {
+
+    private static final LocalDate SATURDAY = LocalDate.of(2023, 1, 7);
+    private static final LocalDate TUESDAY = LocalDate.of(2023, 1, 3);
+
+    private final SymbolDateIndex symbolDateIndex = mock(SymbolDateIndex.class);
+    private final AtomicLong nanos = new AtomicLong();
+    private final ReadYourWritesGuard readYourWritesGuard = newGuard();
+
+    private static ReadYourWritesGuard newGuard() {
+        DataSourceRoutingConfig routingConfig = new DataSourceRoutingConfig();
+        routingConfig.setEnabled(true);
+        return new ReadYourWritesGuard(routingConfig);
+    }
+
+    private StockPriceMissCache newMissCache(MissCacheConfig config) {
+        return newMissCache(config, null);
+    }
+
+    private StockPriceMissCache newMissCache(MissCacheConfig config, SharedCacheTier tier) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new CaffeineCache(StockPriceCaches.STOCK_PRICE_MISSES,
+                StockPriceCaches.buildMisses(config, nanos::get, Runnable::run), false)));
+        cacheManager.afterPropertiesSet();
+        @SuppressWarnings("unchecked")
+        ObjectProvider<SharedCacheTier> sharedCacheTier = mock(ObjectProvider.class);
+        when(sharedCacheTier.getIfAvailable()).thenReturn(tier);
+        return new StockPriceMissCache(config, cacheManager, symbolDateIndex, readYourWritesGuard, sharedCacheTier);
+    }
+
+    @Test
+    void testRecordedMissIsKnownUntilItExpires() {
+        MissCacheConfig config = new MissCacheConfig();
+        config.setDateIndex(false);
+        StockPriceMissCache missCache = newMissCache(config);
+
+        assertFalse(missCache.isKnownMissing("AAPL", SATURDAY));
+        missCache.recordMiss("AAPL", SATURDAY);
+
+        assertTrue(missCache.isKnownMissing("AAPL", SATURDAY));
+        assertFalse(missCache.isKnownMissing("AAPL", TUESDAY));
+        nanos.addAndGet(config.getTtl().plus(Duration.ofSeconds(1)).toNanos());
+        assertFalse(missCache.isKnownMissing("AAPL", SATURDAY));
+        verifyNoInteractions(symbolDateIndex);
+    }
+
+    @Test
+    void testDateIndexAnswersDaysThatAreNotStored() {
+        when(symbolDateIndex.contains("AAPL", SATURDAY)).thenReturn(false);
+        when(symbolDateIndex.contains("AAPL", TUESDAY)).thenReturn(true);
+        StockPriceMissCache missCache = newMissCache(new MissCacheConfig(), mock(SharedCacheTier.class));
+
+        assertTrue(missCache.isKnownMissing("AAPL", SATURDAY));
+        assertTrue(missCache.isKnownMissing("AAPL", SATURDAY));
+        assertFalse(missCache.isKnownMissing("AAPL", TUESDAY));
+
+        verify(symbolDateIndex, times(1)).contains("AAPL", SATURDAY);
+    }
+
+    @Test
+    void testDateIndexIsNotUsedWithoutSharedTier() {
+        StockPriceMissCache missCache = newMissCache(new MissCacheConfig());
+
+        assertFalse(missCache.isKnownMissing("AAPL", SATURDAY));
+        verifyNoInteractions(symbolDateIndex);
+    }
+
+    @Test
+    void testMissesAreNotAnsweredWithinReadYourWritesWindow() {
+        MissCacheConfig config = new MissCacheConfig();
+        config.setDateIndex(false);
+        StockPriceMissCache missCache = newMissCache(config);
+        missCache.recordMiss("AAPL", SATURDAY);
+
+        readYourWritesGuard.recordWrite("AAPL");
+        missCache.recordMiss("AAPL", TUESDAY);
+
+        assertFalse(missCache.isKnownMissing("AAPL", SATURDAY));
+        assertFalse(missCache.isKnownMissing("AAPL", TUESDAY));
+    }
+
+    @Test
+    void testDisabledCacheNeverAnswers() {
+        MissCacheConfig config = new MissCacheConfig();
+        config.setEnabled(false);
+        StockPriceMissCache missCache = newMissCache(config);
+
+        missCache.recordMiss("AAPL", SATURDAY);
+
+        assertFalse(missCache.isKnownMissing("AAPL", SATURDAY));
+        verifyNoInteractions(symbolDateIndex);
+    }
+}
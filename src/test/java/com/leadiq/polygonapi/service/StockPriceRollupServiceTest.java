@@ -0,0 +1,154 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.entity.StockPriceRollup;
+import com.leadiq.polygonapi.repository.StockPriceRollupRepository;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockPriceRollupServiceTest {
+
+    private final StockPriceRollupRepository rollupRepository = mock(StockPriceRollupRepository.class);
+    private final StockPriceStorage stockPriceStorage = mock(StockPriceStorage.class);
+    private final StockPriceRollupService service = new StockPriceRollupService(rollupRepository, stockPriceStorage,
+            new ReadYourWritesGuard(new DataSourceRoutingConfig()), 100);
+
+    /**
+     * Serves the given daily rows from the storage mock, restricted to the requested range.
+     */
+    @SuppressWarnings("unchecked")
+    private void storeDays(List<StockPriceView> rows) {
+        doAnswer(invocation -> {
+            LocalDate from = invocation.getArgument(1);
+            LocalDate to = invocation.getArgument(2);
+            Consumer<StockPriceView> consumer = invocation.getArgument(3);
+            rows.stream().filter(row -> !row.date().isBefore(from) && !row.date().isAfter(to)).forEach(consumer);
+            return null;
+        }).when(stockPriceStorage).streamRange(eq("AAPL"), any(), any(), any(Consumer.class));
+    }
+
+    private static StockPriceView day(LocalDate date, double close, Long volume) {
+        return new StockPriceView("AAPL", date, close - 1, close, close + 2, close - 2, volume);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StockPriceRollup> upserted() {
+        ArgumentCaptor<List<StockPriceRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository, atLeastOnce()).upsertAll(captor.capture());
+        return captor.getAllValues().get(captor.getAllValues().size() - 1);
+    }
+
+    private static Map<String, StockPriceRollup> byKey(List<StockPriceRollup> rollups) {
+        return rollups.stream().collect(Collectors.toMap(
+                rollup -> rollup.getBarInterval() + " " + rollup.getPeriodStart(), rollup -> rollup));
+    }
+
+    @Test
+    void testPeriodBoundaries() {
+        LocalDate date = LocalDate.of(2023, 8, 17);
+
+        assertEquals(LocalDate.of(2023, 8, 14), BarInterval.WEEK.periodStart(date));
+        assertEquals(LocalDate.of(2023, 8, 20), BarInterval.WEEK.periodEnd(date));
+        assertEquals(LocalDate.of(2023, 8, 1), BarInterval.MONTH.periodStart(date));
+        assertEquals(LocalDate.of(2023, 7, 1), BarInterval.QUARTER.periodStart(date));
+        assertEquals(LocalDate.of(2023, 9, 30), BarInterval.QUARTER.periodEnd(date));
+        assertEquals(LocalDate.of(2023, 1, 1), BarInterval.YEAR.periodStart(date));
+        assertEquals(BarInterval.QUARTER, BarInterval.from("quarter"));
+        assertThrows(IllegalArgumentException.class, () -> BarInterval.from("hour"));
+    }
+
+    @Test
+    void testBackfillsWholeHistoryOnFirstRead() {
+        List<StockPriceView> rows = new ArrayList<>();
+        for (LocalDate date = LocalDate.of(2022, 12, 28); date.isBefore(LocalDate.of(2023, 2, 4));
+             date = date.plusDays(1)) {
+            rows.add(day(date, 100 + date.getDayOfMonth(), 10L));
+        }
+        storeDays(rows);
+
+        service.findRangeAfter("AAPL", BarInterval.MONTH, LocalDate.of(2022, 12, 31), LocalDate.of(2023, 12, 31), 10);
+
+        Map<String, StockPriceRollup> rollups = byKey(upserted());
+        StockPriceRollup january = rollups.get("MONTH 2023-01-01");
+        assertEquals(31, january.getTradingDays());
+        assertEquals(100.0, january.getOpenPrice());
+        assertEquals(131.0, january.getClosePrice());
+        assertEquals(133.0, january.getHighPrice());
+        assertEquals(99.0, january.getLowPrice());
+        assertEquals(310L, january.getVolume());
+        assertEquals(LocalDate.of(2023, 1, 31), january.getLastDate());
+        // The week of Monday 2022-12-26 spans both years
+        assertEquals(5, rollups.get("WEEK 2022-12-26").getTradingDays());
+        assertEquals(4, rollups.get("YEAR 2022-01-01").getTradingDays());
+        verify(rollupRepository).findRangeAfter("AAPL", "MONTH", LocalDate.of(2022, 12, 31),
+                LocalDate.of(2023, 12, 31), 10);
+
+        service.findRangeAfter("AAPL", BarInterval.MONTH, LocalDate.of(2022, 12, 31), LocalDate.of(2023, 12, 31), 10);
+        verify(rollupRepository, times(1)).upsertAll(anyList());
+    }
+
+    @Test
+    void testWriteReaggregatesOnlyTouchedPeriods() {
+        when(rollupRepository.existsBySymbol("AAPL")).thenReturn(true);
+        storeDays(List.of(
+                day(LocalDate.of(2023, 3, 30), 100, 1L),
+                day(LocalDate.of(2023, 3, 31), 150, 2L),
+                day(LocalDate.of(2023, 4, 3), 200, 4L)));
+
+        service.recordWrites(List.of(StockPrice.builder()
+                .companySymbol("AAPL").date(LocalDate.of(2023, 3, 31)).closePrice(150.0).build()));
+
+        Map<String, StockPriceRollup> rollups = byKey(upserted());
+        assertEquals(4, rollups.size());
+        assertEquals(2, rollups.get("WEEK 2023-03-27").getTradingDays());
+        assertEquals(150.0, rollups.get("MONTH 2023-03-01").getClosePrice());
+        assertEquals(3L, rollups.get("QUARTER 2023-01-01").getVolume());
+        assertEquals(7L, rollups.get("YEAR 2023-01-01").getVolume());
+    }
+
+    @Test
+    void testBackfillOfOneSymbolDoesNotHoldUpWritesOfAnother() throws Exception {
+        CountDownLatch backfilling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(rollupRepository.existsBySymbol("SLOW")).thenAnswer(invocation -> {
+            backfilling.countDown();
+            release.await();
+            return true;
+        });
+        when(rollupRepository.existsBySymbol("AAPL")).thenReturn(true);
+        storeDays(List.of(day(LocalDate.of(2023, 3, 31), 150, 2L)));
+        Thread slow = new Thread(() -> service.findRangeAfter("SLOW", BarInterval.MONTH,
+                LocalDate.of(2022, 12, 31), LocalDate.of(2023, 12, 31), 10));
+        slow.start();
+        assertTrue(backfilling.await(5, TimeUnit.SECONDS));
+
+        service.recordWrites(List.of(StockPrice.builder()
+                .companySymbol("AAPL").date(LocalDate.of(2023, 3, 31)).closePrice(150.0).build()));
+
+        assertEquals(4, upserted().size());
+        release.countDown();
+        slow.join();
+    }
+
+    @Test
+    void testRejectsDailyInterval() {
+        assertThrows(IllegalArgumentException.class, () -> service.findRangeAfter("AAPL", BarInterval.DAY,
+                LocalDate.of(2023, 1, 1), LocalDate.of(2023, 2, 1), 10));
+    }
+}
@@ -3,23 +3,39 @@ package com.leadiq.polygonapi.service;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.leadiq.polygonapi.cache.StockPriceCaches;
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.dto.CursorPage;
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
 import com.leadiq.polygonapi.entity.StockPrice;
 import com.leadiq.polygonapi.exception.PolygonApiException;
 import com.leadiq.polygonapi.exception.StockDataNotFoundException;
 import com.leadiq.polygonapi.exception.StockDataParsingException;
 import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 class StockPriceServiceTest {
 
@@ -29,6 +45,36 @@ class StockPriceServiceTest {
     @Mock
     private StockPriceRepository stockPriceRepository;
 
+    @Mock
+    private StockPriceStorage stockPriceStorage;
+
+    @Mock
+    private StockPriceWriteBuffer stockPriceWriteBuffer;
+
+    @Mock
+    private SymbolDateIndex symbolDateIndex;
+
+    @Mock
+    private SymbolSeriesStore symbolSeriesStore;
+
+    @Mock
+    private StockPriceRollupService stockPriceRollupService;
+
+    @Mock
+    private StockPriceLookupBatcher stockPriceLookupBatcher;
+
+    @Mock
+    private StockPriceMissCache stockPriceMissCache;
+
+    @Mock
+    private StockPriceChunkCache stockPriceChunkCache;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(StockPriceCaches.STOCK_PRICE_VIEWS);
+
+    @Spy
+    private ReadYourWritesGuard readYourWritesGuard = new ReadYourWritesGuard(new DataSourceRoutingConfig());
+
     @InjectMocks
     private StockPriceService stockPriceService;
 
@@ -99,86 +145,282 @@ class StockPriceServiceTest {
             stockPrice.setVolume(1000000L);
             stockPrices.add(stockPrice);
 
-            when(stockPriceRepository.saveAll(any())).thenReturn(stockPrices);
-            when(stockPriceRepository.findByCompanySymbolAndDateBetween(
+            when(stockPriceRepository.findSliceByCompanySymbolAndDateBetween(
                     eq("AAPL"),
                     eq(LocalDate.parse("2023-03-13")),
                     eq(LocalDate.parse("2023-03-14")),
                     any(Pageable.class)))
-                    .thenReturn(new PageImpl<>(stockPrices, Pageable.unpaged(), stockPrices.size()));
+                    .thenReturn(new SliceImpl<>(stockPrices, Pageable.unpaged(), false));
+            when(symbolDateIndex.countBetween("AAPL", LocalDate.parse("2023-03-13"), LocalDate.parse("2023-03-14")))
+                    .thenReturn(1L);
 
             Page<StockPrice> result = stockPriceService.fetchAndSavePrices("AAPL", "2023-03-13", "2023-03-14", Pageable.unpaged());
 
             assertEquals(1, result.getTotalElements());
             assertEquals("AAPL", result.getContent().get(0).getCompanySymbol());
+            verify(stockPriceRepository, never()).findByCompanySymbolAndDateBetween(any(), any(), any(), any());
+            verify(stockPriceWriteBuffer).write(anyList());
+            verify(stockPriceRepository, never()).saveAll(anyList());
     }
 
     @Test
-    void testGetStockPrice_NullSymbol() {
+    void testFetchAndSavePricesSlice_Success() {
+        String polygonResponse = "{\"status\":\"OK\",\"results\":["
+                + "{\"t\":\"2023-03-13\",\"o\":150.0,\"h\":156.0,\"l\":149.0,\"c\":155.0,\"v\":1000000}"
+                + "]}";
+        when(polygonClient.fetchStockData("AAPL", "2023-03-13", "2023-03-14")).thenReturn(polygonResponse);
+        StockPrice stockPrice = StockPrice.builder().companySymbol("AAPL").date(LocalDate.of(2023, 3, 13)).build();
+        when(stockPriceRepository.findSliceByCompanySymbolAndDateBetween(
+                "AAPL", LocalDate.of(2023, 3, 13), LocalDate.of(2023, 3, 14), PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(stockPrice), PageRequest.of(0, 1), true));
+
+        Slice<StockPrice> result = stockPriceService.fetchAndSavePricesSlice("AAPL", "2023-03-13", "2023-03-14", PageRequest.of(0, 1));
+
+        assertTrue(result.hasNext());
+        assertEquals(1, result.getContent().size());
+        verify(symbolDateIndex, never()).countBetween(any(), any(), any());
+    }
+
+    @Test
+    void testFetchAndSavePricesSlice_NoDataFound() {
+        when(polygonClient.fetchStockData("AAPL", "2023-03-13", "2023-03-14")).thenReturn("{\"status\":\"OK\",\"results\":[]}");
+
+        Slice<StockPrice> result = stockPriceService.fetchAndSavePricesSlice("AAPL", "2023-03-13", "2023-03-14", PageRequest.of(0, 1));
+
+        assertFalse(result.hasContent());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void testFetchAndSavePrices_EventualWriteBehind() {
+        String polygonResponse = "{\"status\":\"OK\",\"results\":["
+                + "{\"t\":\"2023-03-14\",\"o\":151.0,\"h\":153.0,\"l\":150.0,\"c\":152.0,\"v\":900000},"
+                + "{\"t\":\"2023-03-13\",\"o\":150.0,\"h\":156.0,\"l\":149.0,\"c\":155.0,\"v\":1000000}"
+                + "]}";
+        when(polygonClient.fetchStockData("AAPL", "2023-03-13", "2023-03-14")).thenReturn(polygonResponse);
+        when(stockPriceWriteBuffer.isEnabled()).thenReturn(true);
+        when(stockPriceWriteBuffer.isEventuallyConsistent()).thenReturn(true);
+
+        Page<StockPrice> result = stockPriceService.fetchAndSavePrices("AAPL", "2023-03-13", "2023-03-14", PageRequest.of(0, 1));
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(LocalDate.of(2023, 3, 13), result.getContent().get(0).getDate());
+        verify(stockPriceWriteBuffer).write(anyList());
+        verify(stockPriceRepository, never()).saveAll(anyList());
+        verify(stockPriceRepository, never()).findByCompanySymbolAndDateBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetStockPriceViews_CursorSeeksAfterLastDate() {
+        LocalDate toDate = LocalDate.of(2023, 1, 31);
+        String cursor = new StockPriceCursor("AAPL", LocalDate.of(2023, 1, 4)).encode();
+        when(stockPriceStorage.findRangeAfter("AAPL", LocalDate.of(2023, 1, 4), toDate, 3))
+                .thenReturn(List.of(new StockPriceView("AAPL", LocalDate.of(2023, 1, 5), null, null, null, null, null)));
+
+        CursorPage<StockPriceView> result = stockPriceService.getStockPriceViews(
+                "AAPL", LocalDate.of(2023, 1, 1), toDate, cursor, 2);
+
+        assertEquals(1, result.content().size());
+        assertNull(result.next());
+    }
+
+    @Test
+    void testGetStockPriceViews_InvalidCursor() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                stockPriceService.getStockPriceViews("AAPL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31), "not-a-cursor", 2));
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    @Test
+    void testGetStockPriceViews_CursorForOtherSymbol() {
+        String cursor = new StockPriceCursor("MSFT", LocalDate.of(2023, 1, 4)).encode();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                stockPriceService.getStockPriceViews("AAPL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31), cursor, 2));
+    }
+
+    @Test
+    void testGetStockPriceView_NullSymbol() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            stockPriceService.getStockPrice(null, LocalDate.now());
+            stockPriceService.getStockPriceView(null, LocalDate.now());
         });
         assertEquals("Stock symbol cannot be null or empty", exception.getMessage());
     }
 
     @Test
-    void testGetStockPrice_EmptySymbol() {
+    void testGetStockPriceView_EmptySymbol() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            stockPriceService.getStockPrice("", LocalDate.now());
+            stockPriceService.getStockPriceView("", LocalDate.now());
         });
         assertEquals("Stock symbol cannot be null or empty", exception.getMessage());
     }
 
     @Test
-    void testGetStockPrice_NullDate() {
+    void testGetStockPriceView_NullDate() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            stockPriceService.getStockPrice("AAPL", null);
+            stockPriceService.getStockPriceView("AAPL", null);
         });
         assertEquals("Date cannot be null", exception.getMessage());
     }
 
     @Test
-    void testGetStockPrice_Success() {
-        // Arrange
-        String symbol = "AAPL";
-        LocalDate date = LocalDate.of(2023, 1, 15);
-        StockPrice expectedStockPrice = StockPrice.builder()
-                .companySymbol(symbol)
-                .date(date)
-                .openPrice(150.0)
-                .closePrice(155.0)
-                .build();
-
-        when(stockPriceRepository.findByCompanySymbolAndDate(symbol, date))
-                .thenReturn(Optional.of(expectedStockPrice));
+    void testGetStockPriceView_KnownMissIsAnsweredWithoutQuery() {
+        LocalDate saturday = LocalDate.of(2023, 1, 14);
+        when(stockPriceMissCache.isKnownMissing("AAPL", saturday)).thenReturn(true);
 
-        // Act
-        StockPrice result = stockPriceService.getStockPrice(symbol, date);
+        assertThrows(StockDataNotFoundException.class, () -> stockPriceService.getStockPriceView("AAPL", saturday));
 
-        // Assert
-        assertNotNull(result);
-        assertEquals(symbol, result.getCompanySymbol());
-        assertEquals(date, result.getDate());
-        assertEquals(150.0, result.getOpenPrice());
-        assertEquals(155.0, result.getClosePrice());
+        verify(stockPriceStorage, never()).findBySymbolAndDate(any(), any());
+        verify(stockPriceLookupBatcher, never()).find(any(), any());
     }
 
     @Test
-    void testGetStockPrice_NotFound() {
-        // Arrange
-        String symbol = "AAPL";
+    void testGetStockPriceView_Success() {
         LocalDate date = LocalDate.of(2023, 1, 15);
+        StockPriceView view = new StockPriceView("AAPL", date, 150.0, 155.0, 156.0, 149.0, 1000L);
+        when(stockPriceStorage.findBySymbolAndDate("AAPL", date)).thenReturn(Optional.of(view));
 
-        when(stockPriceRepository.findByCompanySymbolAndDate(symbol, date))
-                .thenReturn(Optional.empty());
+        assertEquals(view, stockPriceService.getStockPriceView("AAPL", date));
+        verifyNoInteractions(stockPriceRepository);
+    }
 
-        // Act & Assert
-        StockDataNotFoundException exception = assertThrows(StockDataNotFoundException.class, () -> {
-            stockPriceService.getStockPrice(symbol, date);
-        });
+    @Test
+    void testGetStockPriceView_NotFound() {
+        LocalDate date = LocalDate.of(2023, 1, 15);
+        when(stockPriceStorage.findBySymbolAndDate("AAPL", date)).thenReturn(Optional.empty());
+
+        StockDataNotFoundException exception = assertThrows(StockDataNotFoundException.class,
+                () -> stockPriceService.getStockPriceView("AAPL", date));
 
-        assertEquals(symbol, exception.getSymbol());
+        assertEquals("AAPL", exception.getSymbol());
         assertEquals(date, exception.getDate());
+        verify(stockPriceMissCache).recordMiss("AAPL", date);
+    }
+
+    @Test
+    void testGetStockPriceViews_FirstPageHasNextCursor() {
+        LocalDate toDate = LocalDate.of(2023, 1, 31);
+        when(stockPriceStorage.findRangeAfter("AAPL", LocalDate.of(2022, 12, 31), toDate, 3))
+                .thenReturn(List.of(
+                        new StockPriceView("AAPL", LocalDate.of(2023, 1, 3), null, null, null, null, null),
+                        new StockPriceView("AAPL", LocalDate.of(2023, 1, 4), null, null, null, null, null),
+                        new StockPriceView("AAPL", LocalDate.of(2023, 1, 5), null, null, null, null, null)));
+
+        CursorPage<StockPriceView> result = stockPriceService.getStockPriceViews(
+                "AAPL", LocalDate.of(2023, 1, 1), toDate, null, 2);
+
+        assertEquals(2, result.content().size());
+        assertEquals(new StockPriceCursor("AAPL", LocalDate.of(2023, 1, 4)), StockPriceCursor.decode(result.next()));
+    }
+
+    @Test
+    void testGetStockPriceViews_FromSeriesStore() {
+        LocalDate toDate = LocalDate.of(2023, 1, 31);
+        SymbolSeries series = SymbolSeries.of("AAPL", List.of(
+                new StockPriceView("AAPL", LocalDate.of(2023, 1, 3), null, null, null, null, null),
+                new StockPriceView("AAPL", LocalDate.of(2023, 1, 4), null, null, null, null, null),
+                new StockPriceView("AAPL", LocalDate.of(2023, 1, 5), null, null, null, null, null)));
+        when(symbolSeriesStore.isEnabled()).thenReturn(true);
+        when(symbolSeriesStore.range("AAPL", LocalDate.of(2023, 1, 1), toDate))
+                .thenReturn(series.range(LocalDate.of(2023, 1, 1), toDate));
+
+        CursorPage<StockPriceView> result = stockPriceService.getStockPriceViews(
+                "AAPL", LocalDate.of(2023, 1, 1), toDate, null, 2);
+
+        assertEquals(2, result.content().size());
+        assertEquals(new StockPriceCursor("AAPL", LocalDate.of(2023, 1, 4)), StockPriceCursor.decode(result.next()));
+        verifyNoInteractions(stockPriceStorage);
+    }
+
+    @Test
+    void testGetStockPriceViews_FromChunkCache() {
+        LocalDate toDate = LocalDate.of(2023, 1, 31);
+        when(stockPriceChunkCache.isEnabled()).thenReturn(true);
+        when(stockPriceChunkCache.range("AAPL", LocalDate.of(2023, 1, 1), toDate, 3)).thenReturn(List.of(
+                new StockPriceView("AAPL", LocalDate.of(2023, 1, 3), null, null, null, null, null),
+                new StockPriceView("AAPL", LocalDate.of(2023, 1, 4), null, null, null, null, null),
+                new StockPriceView("AAPL", LocalDate.of(2023, 1, 5), null, null, null, null, null)));
+
+        CursorPage<StockPriceView> result = stockPriceService.getStockPriceViews(
+                "AAPL", LocalDate.of(2023, 1, 1), toDate, null, 2);
+
+        assertEquals(2, result.content().size());
+        assertEquals(new StockPriceCursor("AAPL", LocalDate.of(2023, 1, 4)), StockPriceCursor.decode(result.next()));
+        verifyNoInteractions(stockPriceStorage);
+    }
+
+    @Test
+    void testGetStockPriceRollups_StartsAtPeriodOfFromDate() {
+        LocalDate toDate = LocalDate.of(2023, 12, 31);
+        when(stockPriceRollupService.findRangeAfter("AAPL", BarInterval.MONTH, LocalDate.of(2023, 1, 31), toDate, 3))
+                .thenReturn(List.of(
+                        new StockPriceView("AAPL", LocalDate.of(2023, 2, 1), null, null, null, null, null),
+                        new StockPriceView("AAPL", LocalDate.of(2023, 3, 1), null, null, null, null, null),
+                        new StockPriceView("AAPL", LocalDate.of(2023, 4, 1), null, null, null, null, null)));
+
+        CursorPage<StockPriceView> result = stockPriceService.getStockPriceRollups(
+                "AAPL", BarInterval.MONTH, LocalDate.of(2023, 2, 15), toDate, null, 2);
+
+        assertEquals(2, result.content().size());
+        assertEquals(new StockPriceCursor("AAPL", LocalDate.of(2023, 3, 1)), StockPriceCursor.decode(result.next()));
+        verifyNoInteractions(stockPriceStorage);
+    }
+
+    @Test
+    void testGetStockPriceRollups_DayReadsDailyRows() {
+        LocalDate toDate = LocalDate.of(2023, 1, 31);
+        when(stockPriceStorage.findRangeAfter("AAPL", LocalDate.of(2022, 12, 31), toDate, 3)).thenReturn(List.of());
+
+        stockPriceService.getStockPriceRollups("AAPL", BarInterval.DAY, LocalDate.of(2023, 1, 1), toDate, null, 2);
+
+        verifyNoInteractions(stockPriceRollupService);
+    }
+
+    @Test
+    void testStreamStockPriceViews_DelegatesToCursorRead() {
+        LocalDate fromDate = LocalDate.of(2023, 1, 1);
+        LocalDate toDate = LocalDate.of(2023, 1, 31);
+        Consumer<StockPriceView> consumer = row -> { };
+
+        stockPriceService.streamStockPriceViews("AAPL", fromDate, toDate, consumer);
+
+        verify(stockPriceStorage).streamRange("AAPL", fromDate, toDate, consumer);
+        verify(readYourWritesGuard).read(eq("AAPL"), any());
+    }
+
+    @Test
+    void testStreamStockPriceViews_InvalidRange() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                stockPriceService.streamStockPriceViews("AAPL", LocalDate.of(2023, 2, 1), LocalDate.of(2023, 1, 1),
+                        row -> { }));
+        assertEquals("From date cannot be after to date", exception.getMessage());
+        verifyNoInteractions(stockPriceStorage);
+    }
+
+    @Test
+    void testGetStockPriceSummaries_TrimsAndDeduplicatesSymbols() {
+        LocalDate fromDate = LocalDate.of(2023, 1, 1);
+        LocalDate toDate = LocalDate.of(2023, 12, 31);
+        List<StockPriceSummary> summaries = List.of(
+                new StockPriceSummary("AAPL", 250, fromDate, toDate, 199.6, 124.2, 172.5, 14_000_000_000L));
+        when(stockPriceStorage.summarize(Set.of("AAPL", "MSFT"), fromDate, toDate)).thenReturn(summaries);
+
+        assertEquals(summaries, stockPriceService.getStockPriceSummaries(Arrays.asList(" AAPL", "MSFT", "AAPL"),
+                fromDate, toDate));
+        assertTrue(stockPriceService.getStockPriceSummaries(null, fromDate, toDate).isEmpty());
+        verify(stockPriceStorage).summarize(Set.of(), fromDate, toDate);
+    }
+
+    @Test
+    void testGetStockPriceSummaries_InvalidInput() {
+        LocalDate fromDate = LocalDate.of(2023, 1, 1);
+        LocalDate toDate = LocalDate.of(2023, 12, 31);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> stockPriceService.getStockPriceSummaries(List.of("AAPL"), toDate, fromDate));
+        assertThrows(IllegalArgumentException.class,
+                () -> stockPriceService.getStockPriceSummaries(List.of(" "), fromDate, toDate));
+        verifyNoInteractions(stockPriceStorage);
     }
 
     void testParsePolygonResponse_EmptyResults() {
@@ -272,4 +514,68 @@ class StockPriceServiceTest {
 
         assertTrue(exception.getMessage().contains("Error parsing Polygon API JSON response"));
     }
+
+    @Test
+    void testGetStockPriceMatrix_ServesCachedCellsAndLoadsMissesInOneLookup() {
+        LocalDate firstDay = LocalDate.of(2023, 1, 3);
+        LocalDate secondDay = LocalDate.of(2023, 1, 4);
+        StockPriceView cached = new StockPriceView("AAPL", firstDay, null, 125.07, null, null, null);
+        StockPriceView loaded = new StockPriceView("AAPL", secondDay, null, 126.36, null, null, null);
+        StockPriceView unrequested = new StockPriceView("AAPL", firstDay, null, 1.0, null, null, null);
+        cacheManager.getCache(StockPriceCaches.STOCK_PRICE_VIEWS).put("AAPL_2023-01-03", cached);
+        when(stockPriceStorage.findBySymbolsAndDates(List.of("AAPL", "MSFT"), List.of(secondDay, firstDay)))
+                .thenReturn(List.of(loaded, unrequested));
+
+        Map<String, Map<LocalDate, StockPriceView>> found =
+                stockPriceService.getStockPriceMatrix(List.of("AAPL", "MSFT"), List.of(firstDay, secondDay));
+
+        assertSame(cached, found.get("AAPL").get(firstDay));
+        assertSame(loaded, found.get("AAPL").get(secondDay));
+        assertFalse(found.containsKey("MSFT"));
+        assertSame(loaded, cacheManager.getCache(StockPriceCaches.STOCK_PRICE_VIEWS)
+                .get("AAPL_2023-01-04", StockPriceView.class));
+        verify(stockPriceStorage, times(1)).findBySymbolsAndDates(anyCollection(), anyCollection());
+        verifyNoInteractions(stockPriceRepository);
+    }
+
+    @Test
+    void testGetStockPriceMatrix_ChunksLargeBatches() {
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            symbols.add("SYM" + i);
+        }
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            dates.add(LocalDate.of(2020, 1, 1).plusDays(i));
+        }
+        when(stockPriceStorage.findBySymbolsAndDates(anyCollection(), anyCollection())).thenReturn(List.of());
+
+        assertTrue(stockPriceService.getStockPriceMatrix(symbols, dates).isEmpty());
+
+        // 500 dates allow 2 symbols per lookup, then the last 100 dates allow all 10
+        verify(stockPriceStorage, times(6)).findBySymbolsAndDates(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void testGetStockPriceMatrix_RejectsEmptyInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> stockPriceService.getStockPriceMatrix(List.of(), List.of(LocalDate.of(2023, 1, 3))));
+        assertThrows(IllegalArgumentException.class,
+                () -> stockPriceService.getStockPriceMatrix(List.of("AAPL", " "), List.of(LocalDate.of(2023, 1, 3))));
+        assertThrows(IllegalArgumentException.class,
+                () -> stockPriceService.getStockPriceMatrix(List.of("AAPL"), List.of()));
+    }
+
+    @Test
+    void testGetStockPriceView_UsesLookupBatcherWhenEnabled() {
+        LocalDate date = LocalDate.of(2023, 1, 3);
+        StockPriceView stockPrice = new StockPriceView("AAPL", date, null, 125.07, null, null, null);
+        when(stockPriceLookupBatcher.isEnabled()).thenReturn(true);
+        when(stockPriceLookupBatcher.find("AAPL", date)).thenReturn(Optional.of(stockPrice));
+        when(stockPriceLookupBatcher.find("MSFT", date)).thenReturn(Optional.empty());
+
+        assertSame(stockPrice, stockPriceService.getStockPriceView("AAPL", date));
+        assertThrows(StockDataNotFoundException.class, () -> stockPriceService.getStockPriceView("MSFT", date));
+        verify(stockPriceStorage, never()).findBySymbolAndDate(anyString(), any());
+    }
 }
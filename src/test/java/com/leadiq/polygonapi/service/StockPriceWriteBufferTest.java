@@ -0,0 +1,175 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.config.WriteBehindConfig;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceUpsertRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class StockPriceWriteBufferTest {
+
+    private final StockPriceUpsertRepository upsertRepository = mock(StockPriceUpsertRepository.class);
+    private final StockPriceIngestion stockPriceIngestion = mock(StockPriceIngestion.class);
+    private StockPriceWriteBuffer buffer;
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    void testRowsAreCoalescedAcrossRequests() {
+        buffer = newBuffer(config(Duration.ofHours(1), 100, 1000));
+
+        CompletableFuture<Void> first = buffer.submit(List.of(price("AAPL", 3, 125.07), price("AAPL", 4, 126.36)));
+        CompletableFuture<Void> second = buffer.submit(List.of(price("AAPL", 4, 126.40), price("MSFT", 3, 239.58)));
+        buffer.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockPrice>> rows = ArgumentCaptor.forClass(List.class);
+        verify(upsertRepository, times(1)).upsertAll(rows.capture(), eq(100));
+        assertEquals(3, rows.getValue().size());
+        assertTrue(rows.getValue().stream().anyMatch(sp -> sp.getClosePrice() == 126.40));
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        verify(stockPriceIngestion).publish(rows.getValue());
+    }
+
+    @Test
+    void testDurableWriteReturnsAfterFlush() {
+        buffer = newBuffer(config(Duration.ofMillis(10), 100, 1000));
+
+        buffer.write(List.of(price("AAPL", 3, 125.07)));
+
+        verify(upsertRepository).upsertAll(anyList(), anyInt());
+    }
+
+    @Test
+    void testSizeTriggerFlushesFullBatch() throws Exception {
+        buffer = newBuffer(config(Duration.ofHours(1), 2, 1000));
+
+        CompletableFuture<Void> flushed = buffer.submit(List.of(price("AAPL", 3, 125.07), price("AAPL", 4, 126.36)));
+
+        flushed.get(5, java.util.concurrent.TimeUnit.SECONDS);
+        verify(upsertRepository).upsertAll(anyList(), eq(2));
+    }
+
+    @Test
+    void testFullBufferWaitsForTheWriter() throws Exception {
+        buffer = newBuffer(config(Duration.ofHours(1), 100, 1));
+
+        CompletableFuture<Void> first = buffer.submit(List.of(price("AAPL", 3, 125.07)));
+        CompletableFuture<Void> second = buffer.submit(List.of(price("AAPL", 3, 126.36)));
+        first.get(5, java.util.concurrent.TimeUnit.SECONDS);
+        buffer.flush();
+
+        assertTrue(second.isDone());
+        InOrder inOrder = inOrder(upsertRepository);
+        inOrder.verify(upsertRepository).upsertAll(argThat(rows -> rows.get(0).getClosePrice() == 125.07), eq(100));
+        inOrder.verify(upsertRepository).upsertAll(argThat(rows -> rows.get(0).getClosePrice() == 126.36), eq(100));
+    }
+
+    @Test
+    void testBufferStayingFullFailsTheCaller() {
+        WriteBehindConfig config = config(Duration.ofHours(1), 100, 1);
+        config.setAckTimeout(Duration.ofMillis(50));
+        buffer = newBuffer(config);
+        doAnswer(invocation -> {
+            Thread.sleep(500);
+            return null;
+        }).when(upsertRepository).upsertAll(anyList(), anyInt());
+        buffer.submit(List.of(price("AAPL", 3, 125.07)));
+
+        CompletableFuture<Void> rejected = buffer.submit(List.of(price("AAPL", 4, 126.36)));
+
+        assertTrue(rejected.isCompletedExceptionally());
+    }
+
+    @Test
+    void testDisabledBufferUpsertsDirectly() {
+        WriteBehindConfig config = config(Duration.ofHours(1), 100, 1000);
+        config.setEnabled(false);
+        buffer = newBuffer(config);
+
+        buffer.write(List.of(price("AAPL", 3, 125.07)));
+
+        verify(upsertRepository).upsertAll(anyList(), eq(100));
+        verify(stockPriceIngestion).publish(anyList());
+    }
+
+    @Test
+    void testWritesGoDirectlyAfterShutdown() {
+        buffer = newBuffer(config(Duration.ofHours(1), 1, 1000));
+        buffer.shutdown();
+
+        CompletableFuture<Void> flushed = buffer.submit(List.of(price("AAPL", 3, 125.07)));
+
+        assertTrue(flushed.isDone());
+        assertFalse(flushed.isCompletedExceptionally());
+        verify(upsertRepository).upsertAll(anyList(), eq(1));
+    }
+
+    @Test
+    void testFailedFlushFailsCallers() {
+        buffer = newBuffer(config(Duration.ofHours(1), 100, 1000));
+        doThrow(new IllegalStateException("database unavailable")).when(upsertRepository).upsertAll(anyList(), anyInt());
+
+        CompletableFuture<Void> flushed = buffer.submit(List.of(price("AAPL", 3, 125.07)));
+        buffer.flush();
+
+        assertTrue(flushed.isCompletedExceptionally());
+        verify(stockPriceIngestion, never()).publish(anyList());
+    }
+
+    @Test
+    void testEventualWriteDoesNotWait() {
+        WriteBehindConfig config = config(Duration.ofHours(1), 100, 1000);
+        config.setMode(WriteBehindConfig.Mode.EVENTUAL);
+        buffer = newBuffer(config);
+
+        buffer.write(List.of(price("AAPL", 3, 125.07)));
+
+        assertTrue(buffer.isEventuallyConsistent());
+        verify(upsertRepository, never()).upsertAll(anyList(), anyInt());
+    }
+
+    private StockPriceWriteBuffer newBuffer(WriteBehindConfig config) {
+        return new StockPriceWriteBuffer(config, upsertRepository, stockPriceIngestion);
+    }
+
+    private static WriteBehindConfig config(Duration flushInterval, int batchSize, int capacity) {
+        WriteBehindConfig config = new WriteBehindConfig();
+        config.setEnabled(true);
+        config.setFlushInterval(flushInterval);
+        config.setBatchSize(batchSize);
+        config.setCapacity(capacity);
+        config.setAckTimeout(Duration.ofSeconds(5));
+        return config;
+    }
+
+    private static StockPrice price(String symbol, int day, double close) {
+        return StockPrice.builder()
+                .companySymbol(symbol)
+                .date(LocalDate.of(2023, 1, day))
+                .openPrice(close)
+                .closePrice(close)
+                .highPrice(close)
+                .lowPrice(close)
+                .volume(1_000_000L)
+                .build();
+    }
+}
@@ -0,0 +1,153 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SymbolDateIndexTest {
+
+    private final StockPriceStorage stockPriceStorage = mock(StockPriceStorage.class);
+
+    private SymbolDateIndex index(Duration ttl) {
+        return new SymbolDateIndex(stockPriceStorage, new ReadYourWritesGuard(new DataSourceRoutingConfig()), ttl, 100);
+    }
+
+    @Test
+    void testCountsStoredDaysInRange() {
+        when(stockPriceStorage.findDates("AAPL")).thenReturn(List.of(
+                LocalDate.of(2023, 3, 13), LocalDate.of(2023, 3, 14), LocalDate.of(2023, 3, 20)));
+        SymbolDateIndex index = index(Duration.ofMinutes(10));
+
+        assertEquals(2, index.countBetween("AAPL", LocalDate.of(2023, 3, 1), LocalDate.of(2023, 3, 14)));
+        assertEquals(3, index.countBetween("AAPL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31)));
+        assertEquals(0, index.countBetween("AAPL", LocalDate.of(2022, 1, 1), LocalDate.of(2022, 12, 31)));
+        verify(stockPriceStorage, times(1)).findDates("AAPL");
+    }
+
+    @Test
+    void testUnknownSymbolCountsZero() {
+        when(stockPriceStorage.findDates("MSFT")).thenReturn(List.of());
+
+        assertEquals(0, index(Duration.ofMinutes(10)).countBetween("MSFT", LocalDate.MIN.plusDays(1), LocalDate.MAX));
+    }
+
+    @Test
+    void testRecordWritesUpdatesLoadedSymbols() {
+        when(stockPriceStorage.findDates("AAPL")).thenReturn(List.of(LocalDate.of(2023, 3, 14)));
+        SymbolDateIndex index = index(Duration.ofMinutes(10));
+        index.countBetween("AAPL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31));
+
+        List<StockPrice> written = new ArrayList<>();
+        written.add(StockPrice.builder().companySymbol("AAPL").date(LocalDate.of(2023, 3, 1)).build());
+        written.add(StockPrice.builder().companySymbol("AAPL").date(LocalDate.of(2023, 3, 14)).build());
+        written.add(StockPrice.builder().companySymbol("AAPL").date(LocalDate.of(2023, 4, 1)).build());
+        index.recordWrites(written);
+
+        assertEquals(3, index.countBetween("AAPL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31)));
+        assertEquals(1, index.countBetween("AAPL", LocalDate.of(2023, 3, 1), LocalDate.of(2023, 3, 1)));
+        verify(stockPriceStorage, times(1)).findDates("AAPL");
+    }
+
+    @Test
+    void testWriteCommittedDuringLoadIsKept() {
+        SymbolDateIndex index = index(Duration.ofMinutes(10));
+        List<StockPrice> written = List.of(
+                StockPrice.builder().companySymbol("AAPL").date(LocalDate.of(2023, 3, 15)).build());
+        Thread writer = new Thread(() -> index.recordWrites(written));
+        when(stockPriceStorage.findDates("AAPL")).thenAnswer(invocation -> {
+            writer.start();
+            writer.join(200);
+            return List.of(LocalDate.of(2023, 3, 14));
+        });
+
+        assertTrue(index.contains("AAPL", LocalDate.of(2023, 3, 14)));
+        assertDoesNotThrow(() -> writer.join());
+
+        assertEquals(2, index.countBetween("AAPL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31)));
+        verify(stockPriceStorage, times(1)).findDates("AAPL");
+    }
+
+    @Test
+    void testLoadDoesNotHoldUpOtherSymbols() throws Exception {
+        SymbolDateIndex index = index(Duration.ofMinutes(10));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(stockPriceStorage.findDates("SLOW")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return List.of();
+        });
+        when(stockPriceStorage.findDates("FAST")).thenReturn(List.of(LocalDate.of(2023, 3, 14)));
+        Thread slow = new Thread(() -> index.contains("SLOW", LocalDate.of(2023, 3, 14)));
+        slow.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        index.recordDays("SLOW", List.of(LocalDate.of(2023, 3, 15)));
+        assertTrue(index.contains("FAST", LocalDate.of(2023, 3, 14)));
+
+        release.countDown();
+        slow.join();
+        assertTrue(index.contains("SLOW", LocalDate.of(2023, 3, 15)));
+        verify(stockPriceStorage, times(1)).findDates("SLOW");
+    }
+
+    @Test
+    void testSymbolsAreBounded() {
+        when(stockPriceStorage.findDates(anyString())).thenReturn(List.of());
+        SymbolDateIndex index = new SymbolDateIndex(stockPriceStorage,
+                new ReadYourWritesGuard(new DataSourceRoutingConfig()), Duration.ofMinutes(10), 1);
+
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < 50; i++) {
+                index.contains("JUNK" + i, LocalDate.of(2023, 3, 14));
+            }
+        }
+
+        verify(stockPriceStorage, atLeast(60)).findDates(anyString());
+    }
+
+    @Test
+    void testReloadsAfterTtlAndEvict() {
+        when(stockPriceStorage.findDates("AAPL")).thenReturn(List.of(LocalDate.of(2023, 3, 14)));
+        SymbolDateIndex expiring = index(Duration.ZERO);
+        expiring.countBetween("AAPL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31));
+        expiring.countBetween("AAPL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31));
+        verify(stockPriceStorage, times(2)).findDates("AAPL");
+
+        SymbolDateIndex cached = index(Duration.ofMinutes(10));
+        cached.countBetween("AAPL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31));
+        cached.evict("AAPL");
+        cached.countBetween("AAPL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31));
+        verify(stockPriceStorage, times(4)).findDates("AAPL");
+    }
+
+    @Test
+    void testContainsTellsStoredDaysFromMissingOnes() {
+        when(stockPriceStorage.findDates("AAPL")).thenReturn(List.of(
+                LocalDate.of(2023, 3, 13), LocalDate.of(2023, 3, 14)));
+        when(stockPriceStorage.findDates("NOPE")).thenReturn(List.of());
+        SymbolDateIndex index = index(Duration.ofMinutes(10));
+
+        assertTrue(index.contains("AAPL", LocalDate.of(2023, 3, 14)));
+        assertFalse(index.contains("AAPL", LocalDate.of(2023, 3, 11)));
+        assertFalse(index.contains("AAPL", LocalDate.of(2020, 1, 1)));
+        assertFalse(index.contains("NOPE", LocalDate.of(2023, 3, 14)));
+
+        index.recordDays("AAPL", List.of(LocalDate.of(2023, 3, 11)));
+
+        assertTrue(index.contains("AAPL", LocalDate.of(2023, 3, 11)));
+        verify(stockPriceStorage, times(1)).findDates("AAPL");
+    }
+}
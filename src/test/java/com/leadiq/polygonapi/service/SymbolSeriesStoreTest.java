@@ -0,0 +1,196 @@
+package com.leadiq.polygonapi.service;
+
+import com.leadiq.polygonapi.cache.CacheInvalidation;
+import com.leadiq.polygonapi.cache.SharedCacheTier;
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.config.SymbolSeriesConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.storage.StockPriceStorage;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SymbolSeriesStoreTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 2);
+
+    private final StockPriceStorage stockPriceStorage = mock(StockPriceStorage.class);
+
+    private SymbolSeriesStore store(Duration ttl, DataSize maxMemory) {
+        return store(ttl, maxMemory, new ReadYourWritesGuard(new DataSourceRoutingConfig()), null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private SymbolSeriesStore store(Duration ttl, DataSize maxMemory, ReadYourWritesGuard guard, SharedCacheTier tier) {
+        SymbolSeriesConfig config = new SymbolSeriesConfig();
+        config.setEnabled(true);
+        config.setTtl(ttl);
+        config.setMaxMemory(maxMemory);
+        ObjectProvider<SharedCacheTier> sharedCacheTier = mock(ObjectProvider.class);
+        if (tier != null) {
+            doAnswer(invocation -> {
+                ((Consumer<SharedCacheTier>) invocation.getArgument(0)).accept(tier);
+                return null;
+            }).when(sharedCacheTier).ifAvailable(any());
+        }
+        return new SymbolSeriesStore(config, stockPriceStorage, guard, sharedCacheTier);
+    }
+
+    private static List<StockPriceView> everyOtherDay(String symbol, int rows) {
+        List<StockPriceView> views = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            views.add(new StockPriceView(symbol, FIRST_DAY.plusDays(2L * i), 100.0 + i, null, 102.0 + i, 99.0 + i,
+                    i == 0 ? null : 1000L * i));
+        }
+        return views;
+    }
+
+    @Test
+    void testRangeSlicesLoadedSeries() {
+        when(stockPriceStorage.findBySymbol("AAPL")).thenReturn(everyOtherDay("AAPL", 10));
+        SymbolSeriesStore store = store(Duration.ofMinutes(10), DataSize.ofMegabytes(1));
+
+        SymbolSeries.Range range = store.range("AAPL", FIRST_DAY.plusDays(3), FIRST_DAY.plusDays(8));
+        List<StockPriceView> rows = range.toViews(10);
+
+        assertEquals(List.of(FIRST_DAY.plusDays(4), FIRST_DAY.plusDays(6), FIRST_DAY.plusDays(8)),
+                rows.stream().map(StockPriceView::date).toList());
+        assertEquals(everyOtherDay("AAPL", 10).get(2), rows.get(0));
+        assertEquals(2, range.toViews(2).size());
+        assertEquals(0, store.range("AAPL", FIRST_DAY.minusDays(10), FIRST_DAY.minusDays(1)).size());
+        assertEquals(0, store.range("AAPL", FIRST_DAY.plusDays(100), FIRST_DAY.plusDays(200)).size());
+        assertTrue(store.find("AAPL", FIRST_DAY.plusDays(1)).isEmpty());
+        assertNull(store.find("AAPL", FIRST_DAY).orElseThrow().volume());
+        verify(stockPriceStorage, times(1)).findBySymbol("AAPL");
+    }
+
+    @Test
+    void testWriteCommittedDuringLoadIsMerged() {
+        SymbolSeriesStore store = store(Duration.ofMinutes(10), DataSize.ofMegabytes(1));
+        List<StockPrice> written = List.of(StockPrice.builder()
+                .companySymbol("AAPL").date(FIRST_DAY.plusDays(1)).closePrice(7.0).build());
+        Thread writer = new Thread(() -> store.recordWrites(written));
+        when(stockPriceStorage.findBySymbol("AAPL")).thenAnswer(invocation -> {
+            writer.start();
+            writer.join(200);
+            return everyOtherDay("AAPL", 2);
+        });
+
+        assertTrue(store.find("AAPL", FIRST_DAY).isPresent());
+        assertDoesNotThrow(() -> writer.join());
+
+        assertEquals(7.0, store.find("AAPL", FIRST_DAY.plusDays(1)).orElseThrow().closePrice());
+        assertEquals(3, store.range("AAPL", FIRST_DAY, FIRST_DAY.plusDays(10)).size());
+        verify(stockPriceStorage, times(1)).findBySymbol("AAPL");
+    }
+
+    @Test
+    void testRecordWritesMergesIntoLoadedSymbols() {
+        when(stockPriceStorage.findBySymbol("AAPL")).thenReturn(everyOtherDay("AAPL", 3));
+        SymbolSeriesStore store = store(Duration.ofMinutes(10), DataSize.ofMegabytes(1));
+        store.range("AAPL", FIRST_DAY, FIRST_DAY);
+        long loadedBytes = store.usedBytes();
+
+        store.recordWrites(List.of(
+                StockPrice.builder().companySymbol("AAPL").date(FIRST_DAY.plusDays(5)).closePrice(5.0).build(),
+                StockPrice.builder().companySymbol("AAPL").date(FIRST_DAY.plusDays(2)).closePrice(2.0).build(),
+                StockPrice.builder().companySymbol("AAPL").date(FIRST_DAY.minusDays(1)).closePrice(1.0).build(),
+                StockPrice.builder().companySymbol("MSFT").date(FIRST_DAY).closePrice(3.0).build()));
+
+        List<StockPriceView> rows = store.range("AAPL", FIRST_DAY.minusDays(10), FIRST_DAY.plusDays(10)).toViews(10);
+        assertEquals(List.of(FIRST_DAY.minusDays(1), FIRST_DAY, FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(4),
+                FIRST_DAY.plusDays(5)), rows.stream().map(StockPriceView::date).toList());
+        assertEquals(2.0, rows.get(2).closePrice());
+        assertNull(rows.get(2).openPrice());
+        assertTrue(store.usedBytes() > loadedBytes);
+        verify(stockPriceStorage, never()).findBySymbol("MSFT");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWriteAnnouncedByAnotherInstanceIsReloadedFromThePrimary() {
+        DataSourceRoutingConfig routing = new DataSourceRoutingConfig();
+        routing.setEnabled(true);
+        ReadYourWritesGuard guard = new ReadYourWritesGuard(routing);
+        SharedCacheTier tier = mock(SharedCacheTier.class);
+        when(stockPriceStorage.findBySymbol("AAPL"))
+                .thenReturn(everyOtherDay("AAPL", 10), everyOtherDay("AAPL", 11));
+        SymbolSeriesStore store = store(Duration.ofMinutes(10), DataSize.ofMegabytes(1), guard, tier);
+        ArgumentCaptor<Consumer<CacheInvalidation>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(tier).addInvalidationListener(listener.capture());
+        assertEquals(10, store.range("AAPL", FIRST_DAY, FIRST_DAY.plusDays(30)).size());
+
+        listener.getValue().accept(new CacheInvalidation("AAPL", List.of(FIRST_DAY.plusDays(20))));
+
+        assertTrue(guard.requiresPrimary("AAPL"));
+        assertEquals(11, store.range("AAPL", FIRST_DAY, FIRST_DAY.plusDays(30)).size());
+        verify(stockPriceStorage, times(2)).findBySymbol("AAPL");
+    }
+
+    @Test
+    void testReloadsAfterTtl() {
+        when(stockPriceStorage.findBySymbol("AAPL")).thenReturn(everyOtherDay("AAPL", 3));
+        SymbolSeriesStore store = store(Duration.ZERO, DataSize.ofMegabytes(1));
+
+        store.range("AAPL", FIRST_DAY, FIRST_DAY);
+        store.range("AAPL", FIRST_DAY, FIRST_DAY);
+
+        verify(stockPriceStorage, times(2)).findBySymbol("AAPL");
+        assertTrue(store.usedBytes() <= SymbolSeries.of("AAPL", everyOtherDay("AAPL", 3)).estimatedBytes());
+    }
+
+    @Test
+    void testEvictsSymbolsBeyondMemoryLimit() {
+        when(stockPriceStorage.findBySymbol(anyString()))
+                .thenAnswer(invocation -> everyOtherDay(invocation.getArgument(0), 1000));
+        long seriesBytes = SymbolSeries.of("A", everyOtherDay("A", 1000)).estimatedBytes();
+        SymbolSeriesStore store = store(Duration.ofMinutes(10), DataSize.ofBytes(2 * seriesBytes));
+
+        for (int pass = 0; pass < 3; pass++) {
+            store.range("A", FIRST_DAY, FIRST_DAY);
+        }
+        store.range("B", FIRST_DAY, FIRST_DAY);
+        store.range("C", FIRST_DAY, FIRST_DAY);
+
+        assertEquals(2 * seriesBytes, store.usedBytes());
+        store.range("A", FIRST_DAY, FIRST_DAY);
+        verify(stockPriceStorage, times(1)).findBySymbol("A");
+    }
+
+    @Test
+    void testLoadDoesNotHoldUpOtherSymbols() throws Exception {
+        SymbolSeriesStore store = store(Duration.ofMinutes(10), DataSize.ofMegabytes(1));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(stockPriceStorage.findBySymbol("SLOW")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return everyOtherDay("SLOW", 2);
+        });
+        when(stockPriceStorage.findBySymbol("FAST")).thenReturn(everyOtherDay("FAST", 2));
+        Thread slow = new Thread(() -> store.range("SLOW", FIRST_DAY, FIRST_DAY));
+        slow.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        assertEquals(2, store.range("FAST", FIRST_DAY, FIRST_DAY.plusDays(10)).size());
+
+        release.countDown();
+        slow.join();
+        assertEquals(2, store.range("SLOW", FIRST_DAY, FIRST_DAY.plusDays(10)).size());
+        verify(stockPriceStorage, times(1)).findBySymbol("SLOW");
+    }
+}
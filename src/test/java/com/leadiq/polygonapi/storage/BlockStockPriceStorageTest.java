@@ -0,0 +1,92 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.config.StorageConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceBlockRepository;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.service.ReadYourWritesGuard;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BlockStockPriceStorageTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 2);
+
+    private final StockPriceBlockRepository blockRepository = mock(StockPriceBlockRepository.class);
+    private final StockPriceRepository stockPriceRepository = mock(StockPriceRepository.class);
+
+    private BlockStockPriceStorage storage(long maxLoadedSymbols) {
+        StorageConfig config = new StorageConfig();
+        config.setEngine(StorageConfig.Engine.BLOCKS);
+        config.getBlocks().setMaxLoadedSymbols(maxLoadedSymbols);
+        return new BlockStockPriceStorage(config, blockRepository, stockPriceRepository,
+                new ReadYourWritesGuard(new DataSourceRoutingConfig()));
+    }
+
+    @Test
+    void testBackfillOfOneSymbolDoesNotHoldUpWritesOfAnother() throws Exception {
+        BlockStockPriceStorage storage = storage(100);
+        CountDownLatch backfilling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(blockRepository.existsBySymbol("SLOW")).thenAnswer(invocation -> {
+            backfilling.countDown();
+            release.await();
+            return true;
+        });
+        when(blockRepository.existsBySymbol("FAST")).thenReturn(true);
+        when(blockRepository.findBlock(eq("FAST"), anyInt())).thenReturn(Optional.empty());
+        Thread slow = new Thread(() -> storage.findBySymbolAndDate("SLOW", DAY));
+        slow.start();
+        assertTrue(backfilling.await(5, TimeUnit.SECONDS));
+
+        storage.recordWrites(List.of(StockPrice.builder().companySymbol("FAST").date(DAY).closePrice(1.0).build()));
+
+        verify(blockRepository).upsert(eq("FAST"), eq(2024), eq(1), eq(DAY), eq(DAY), any());
+        release.countDown();
+        slow.join();
+    }
+
+    @Test
+    void testLoadedSymbolsAreBounded() {
+        BlockStockPriceStorage storage = storage(1);
+        when(blockRepository.existsBySymbol(any())).thenReturn(false);
+        when(stockPriceRepository.findViewsByCompanySymbol(any())).thenReturn(List.<StockPriceView>of());
+
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < 50; i++) {
+                storage.findBySymbolAndDate("JUNK" + i, DAY);
+            }
+        }
+
+        verify(stockPriceRepository, atLeast(90)).findViewsByCompanySymbol(any());
+    }
+
+    @Test
+    void testDiscardedSymbolIsEncodedFromMySqlAgain() {
+        BlockStockPriceStorage storage = storage(100);
+        when(blockRepository.existsBySymbol("AAPL")).thenReturn(true);
+        storage.findBySymbolAndDate("AAPL", DAY);
+        when(stockPriceRepository.findViewsByCompanySymbol("AAPL")).thenReturn(List.of(
+                new StockPriceView("AAPL", DAY, 1.0, 2.0, 3.0, 0.5, 100L)));
+
+        storage.discard("AAPL");
+        storage.findBySymbolAndDate("AAPL", DAY);
+        storage.findBySymbolAndDate("AAPL", DAY);
+
+        verify(stockPriceRepository, times(1)).findViewsByCompanySymbol("AAPL");
+        verify(blockRepository).upsert(eq("AAPL"), eq(2024), eq(1), eq(DAY), eq(DAY), any());
+    }
+}
@@ -0,0 +1,210 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.config.StorageConfig;
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceQueryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DuckDbStockPriceStorageTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    @TempDir
+    Path directory;
+
+    private final StockPriceQueryRepository stockPriceQueryRepository = mock(StockPriceQueryRepository.class);
+    private final List<DuckDbStockPriceStorage> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeStorages() throws SQLException {
+        for (DuckDbStockPriceStorage storage : opened) {
+            storage.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private DuckDbStockPriceStorage storage(String path, List<StockPriceView> mysqlRows) {
+        mysql(mysqlRows);
+        doAnswer(invocation -> {
+            mysqlRows.forEach(invocation.getArgument(0, Consumer.class));
+            return null;
+        }).when(stockPriceQueryRepository).streamAll(any());
+
+        StorageConfig config = new StorageConfig();
+        config.setEngine(StorageConfig.Engine.DUCKDB);
+        config.getDuckdb().setPath(path);
+        DuckDbStockPriceStorage storage = new DuckDbStockPriceStorage(config, stockPriceQueryRepository);
+        opened.add(storage);
+        return storage;
+    }
+
+    /**
+     * Answers the watermark and per-symbol reads of a resync from the given MySQL rows.
+     */
+    @SuppressWarnings("unchecked")
+    private void mysql(List<StockPriceView> mysqlRows) {
+        doAnswer(invocation -> {
+            Collection<String> symbols = invocation.getArgument(0);
+            Map<String, SummaryAccumulator> bySymbol = new TreeMap<>();
+            mysqlRows.stream()
+                    .filter(row -> symbols.isEmpty() || symbols.contains(row.symbol()))
+                    .forEach(row -> bySymbol.computeIfAbsent(row.symbol(), SummaryAccumulator::new).accept(row));
+            return bySymbol.values().stream().map(SummaryAccumulator::toSummary).toList();
+        }).when(stockPriceQueryRepository).summarize(any(), any(), any());
+        doAnswer(invocation -> {
+            mysqlRows.stream()
+                    .filter(row -> row.symbol().equals(invocation.getArgument(0)))
+                    .sorted(Comparator.comparing(StockPriceView::date))
+                    .forEach(invocation.getArgument(3, Consumer.class));
+            return null;
+        }).when(stockPriceQueryRepository).streamRange(any(), any(), any(), any());
+    }
+
+    private static StockPriceView view(String symbol, int day, Double close, Long volume) {
+        return new StockPriceView(symbol, FIRST_DAY.plusDays(day), 100.0 + day, close, 102.0 + day, 99.0 + day, volume);
+    }
+
+    private static List<StockPriceView> days(String symbol, int count) {
+        List<StockPriceView> rows = new ArrayList<>();
+        for (int day = 0; day < count; day++) {
+            rows.add(view(symbol, day, 101.0 + day, 1000L * day));
+        }
+        return rows;
+    }
+
+    @Test
+    void testBackfillsAndReads() {
+        List<StockPriceView> mysqlRows = new ArrayList<>(days("MSFT", 30));
+        mysqlRows.addAll(days("AAPL", 30));
+        mysqlRows.set(0, view("MSFT", 0, null, null));
+        DuckDbStockPriceStorage storage = storage("", mysqlRows);
+
+        assertEquals(mysqlRows.get(0), storage.findBySymbolAndDate("MSFT", FIRST_DAY).orElseThrow());
+        assertTrue(storage.findBySymbolAndDate("MSFT", FIRST_DAY.minusDays(1)).isEmpty());
+        assertEquals(days("AAPL", 30).subList(10, 15),
+                storage.findRangeAfter("AAPL", FIRST_DAY.plusDays(9), FIRST_DAY.plusDays(100), 5));
+
+        List<StockPriceView> streamed = new ArrayList<>();
+        storage.streamRange("AAPL", FIRST_DAY.plusDays(25), FIRST_DAY.plusDays(100), streamed::add);
+        assertEquals(days("AAPL", 30).subList(25, 30), streamed);
+        assertEquals(30, storage.findBySymbol("MSFT").size());
+    }
+
+    @Test
+    void testSummarizesPerSymbol() {
+        List<StockPriceView> mysqlRows = new ArrayList<>(days("AAPL", 10));
+        mysqlRows.addAll(days("MSFT", 5));
+        mysqlRows.add(view("MSFT", 5, null, null));
+        DuckDbStockPriceStorage storage = storage("", mysqlRows);
+
+        List<StockPriceSummary> all = storage.summarize(Set.of(), FIRST_DAY, FIRST_DAY.plusDays(100));
+        assertEquals(List.of(
+                new StockPriceSummary("AAPL", 10, FIRST_DAY, FIRST_DAY.plusDays(9), 111.0, 99.0, 105.5, 45_000L),
+                new StockPriceSummary("MSFT", 6, FIRST_DAY, FIRST_DAY.plusDays(5), 107.0, 99.0, 103.0, 10_000L)), all);
+
+        List<StockPriceSummary> one = storage.summarize(Set.of("MSFT", "NONE"), FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(2));
+        assertEquals(List.of(new StockPriceSummary("MSFT", 2, FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(2),
+                104.0, 100.0, 102.5, 3_000L)), one);
+    }
+
+    @Test
+    void testRecordWritesReplacesRowsAndSurvivesRestart() throws SQLException {
+        String path = directory.resolve("stock-prices.duckdb").toString();
+        DuckDbStockPriceStorage storage = storage(path, days("AAPL", 3));
+
+        storage.recordWrites(List.of(
+                StockPrice.builder().companySymbol("AAPL").date(FIRST_DAY.plusDays(1)).closePrice(500.0).build(),
+                StockPrice.builder().companySymbol("AAPL").date(FIRST_DAY.plusDays(3)).closePrice(600.0).volume(7L).build()));
+
+        assertEquals(4, storage.findBySymbol("AAPL").size());
+        assertEquals(new StockPriceView("AAPL", FIRST_DAY.plusDays(1), null, 500.0, null, null, null),
+                storage.findBySymbolAndDate("AAPL", FIRST_DAY.plusDays(1)).orElseThrow());
+
+        List<StockPriceView> mysqlRows = new ArrayList<>(storage.findBySymbol("AAPL"));
+        storage.close();
+        opened.remove(storage);
+
+        DuckDbStockPriceStorage reopened = storage(path, mysqlRows);
+        assertEquals(600.0, reopened.findBySymbolAndDate("AAPL", FIRST_DAY.plusDays(3)).orElseThrow().closePrice());
+        verify(stockPriceQueryRepository, times(1)).streamAll(any());
+        verify(stockPriceQueryRepository, never()).streamRange(any(), any(), any(), any());
+    }
+
+    @Test
+    void testResyncReloadsSymbolsThatDrifted() throws SQLException {
+        String path = directory.resolve("stock-prices.duckdb").toString();
+        DuckDbStockPriceStorage storage = storage(path, new ArrayList<>(days("AAPL", 5)));
+        storage.recordWrites(List.of(StockPrice.builder().companySymbol("GONE").date(FIRST_DAY).build()));
+        storage.close();
+        opened.remove(storage);
+
+        List<StockPriceView> mysqlRows = new ArrayList<>(days("AAPL", 6));
+        mysqlRows.set(2, view("AAPL", 2, 9.0, 2000L));
+        mysqlRows.addAll(days("MSFT", 3));
+        DuckDbStockPriceStorage reopened = storage(path, mysqlRows);
+
+        assertEquals(6, reopened.findBySymbol("AAPL").size());
+        assertEquals(9.0, reopened.findBySymbolAndDate("AAPL", FIRST_DAY.plusDays(2)).orElseThrow().closePrice());
+        assertEquals(days("MSFT", 3), reopened.findBySymbol("MSFT"));
+        assertTrue(reopened.findBySymbol("GONE").isEmpty());
+        assertEquals(0, reopened.resync());
+        verify(stockPriceQueryRepository, times(1)).streamAll(any());
+    }
+
+    @Test
+    void testScheduledResyncComparesOnlyWrittenSymbols() {
+        List<StockPriceView> mysqlRows = new ArrayList<>(days("AAPL", 3));
+        mysqlRows.addAll(days("MSFT", 3));
+        DuckDbStockPriceStorage storage = storage("", mysqlRows);
+
+        assertEquals(0, storage.resync(false));
+        verify(stockPriceQueryRepository, never()).summarize(any(), any(), any());
+
+        storage.recordWrites(List.of(StockPrice.builder().companySymbol("AAPL").date(FIRST_DAY.plusDays(3))
+                .closePrice(500.0).build()));
+        mysqlRows.add(view("AAPL", 3, 600.0, null));
+        mysqlRows.set(3, view("MSFT", 0, 9.0, 0L));
+
+        assertEquals(1, storage.resync(false));
+        verify(stockPriceQueryRepository).summarize(eq(Set.of("AAPL")), any(), any());
+        assertEquals(600.0, storage.findBySymbolAndDate("AAPL", FIRST_DAY.plusDays(3)).orElseThrow().closePrice());
+        assertEquals(101.0, storage.findBySymbolAndDate("MSFT", FIRST_DAY).orElseThrow().closePrice());
+
+        assertEquals(0, storage.resync(false));
+        assertEquals(1, storage.resync());
+        assertEquals(9.0, storage.findBySymbolAndDate("MSFT", FIRST_DAY).orElseThrow().closePrice());
+    }
+
+    @Test
+    void testWatermarksToleratePrecisionOfAverages() {
+        StockPriceSummary summary = new StockPriceSummary("AAPL", 2, FIRST_DAY, FIRST_DAY.plusDays(1),
+                2.0, 1.0, 0.3, 10L);
+
+        assertTrue(DuckDbStockPriceStorage.sameWatermark(summary, new StockPriceSummary("AAPL", 2, FIRST_DAY,
+                FIRST_DAY.plusDays(1), 2.0, 1.0, 0.1 + 0.2, 10L)));
+        assertFalse(DuckDbStockPriceStorage.sameWatermark(summary, new StockPriceSummary("AAPL", 2, FIRST_DAY,
+                FIRST_DAY.plusDays(1), 2.0, 1.0, 0.3, 11L)));
+        assertFalse(DuckDbStockPriceStorage.sameWatermark(summary, null));
+    }
+}
@@ -0,0 +1,242 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.config.DataSourceRoutingConfig;
+import com.leadiq.polygonapi.config.StorageConfig;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.entity.StockPrice;
+import com.leadiq.polygonapi.repository.StockPriceRepository;
+import com.leadiq.polygonapi.service.ReadYourWritesGuard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MappedFileStockPriceStorageTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+
+    @TempDir
+    Path directory;
+
+    private final StockPriceRepository stockPriceRepository = mock(StockPriceRepository.class);
+    private final List<MappedFileStockPriceStorage> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeStorages() {
+        opened.forEach(MappedFileStockPriceStorage::close);
+    }
+
+    private MappedFileStockPriceStorage storage(boolean backfill) {
+        return storage(backfill, new StorageConfig.Mapped().getMissingTtl());
+    }
+
+    private MappedFileStockPriceStorage storage(boolean backfill, Duration missingTtl) {
+        StorageConfig config = new StorageConfig();
+        config.setEngine(StorageConfig.Engine.MAPPED);
+        config.getMapped().setDirectory(directory.toString());
+        config.getMapped().setBackfill(backfill);
+        config.getMapped().setMissingTtl(missingTtl);
+        MappedFileStockPriceStorage storage = new MappedFileStockPriceStorage(config, stockPriceRepository,
+                new ReadYourWritesGuard(new DataSourceRoutingConfig()));
+        opened.add(storage);
+        return storage;
+    }
+
+    private static StockPrice price(String symbol, int day, Double close) {
+        return StockPrice.builder()
+                .companySymbol(symbol)
+                .date(FIRST_DAY.plusDays(day))
+                .openPrice(100.0 + day)
+                .closePrice(close)
+                .highPrice(102.0 + day)
+                .lowPrice(99.0 + day)
+                .volume(day == 0 ? null : 1000L * day)
+                .build();
+    }
+
+    private static List<StockPrice> days(String symbol, int from, int to) {
+        List<StockPrice> prices = new ArrayList<>();
+        for (int day = from; day < to; day++) {
+            prices.add(price(symbol, day, 101.0 + day));
+        }
+        return prices;
+    }
+
+    @Test
+    void testReadsWrittenRowsAcrossIndexBlocks() {
+        MappedFileStockPriceStorage storage = storage(false);
+        storage.recordWrites(days("AAPL", 0, 1000));
+
+        StockPriceView first = storage.findBySymbolAndDate("AAPL", FIRST_DAY).orElseThrow();
+        assertEquals(new StockPriceView("AAPL", FIRST_DAY, 100.0, 101.0, 102.0, 99.0, null), first);
+        assertEquals(700L * 1000, storage.findBySymbolAndDate("AAPL", FIRST_DAY.plusDays(700)).orElseThrow().volume());
+        assertTrue(storage.findBySymbolAndDate("AAPL", FIRST_DAY.minusDays(1)).isEmpty());
+
+        List<StockPriceView> page = storage.findRangeAfter("AAPL", FIRST_DAY.plusDays(299), FIRST_DAY.plusDays(900), 5);
+        assertEquals(List.of(300, 301, 302, 303, 304), page.stream()
+                .map(view -> (int) (view.date().toEpochDay() - FIRST_DAY.toEpochDay())).toList());
+
+        List<StockPriceView> streamed = new ArrayList<>();
+        storage.streamRange("AAPL", FIRST_DAY.plusDays(990), FIRST_DAY.plusDays(2000), streamed::add);
+        assertEquals(10, streamed.size());
+        assertEquals(1000, storage.findBySymbol("AAPL").size());
+    }
+
+    @Test
+    void testOverwritesAndInsertsEarlierDays() {
+        MappedFileStockPriceStorage storage = storage(false);
+        storage.recordWrites(days("AAPL", 10, 20));
+
+        storage.recordWrites(List.of(price("AAPL", 15, null), price("AAPL", 5, 50.0), price("AAPL", 25, 60.0)));
+
+        List<StockPriceView> rows = storage.findBySymbol("AAPL");
+        assertEquals(12, rows.size());
+        assertEquals(FIRST_DAY.plusDays(5), rows.get(0).date());
+        assertEquals(FIRST_DAY.plusDays(25), rows.get(11).date());
+        assertNull(storage.findBySymbolAndDate("AAPL", FIRST_DAY.plusDays(15)).orElseThrow().closePrice());
+        assertFalse(Files.exists(storage.pathOf("AAPL").resolveSibling("AAPL.spm.tmp")));
+    }
+
+    @Test
+    void testSurvivesRestart() {
+        MappedFileStockPriceStorage storage = storage(false);
+        storage.recordWrites(days("AAPL", 0, 300));
+        storage.recordWrites(days("MSFT", 0, 3));
+        storage.close();
+
+        MappedFileStockPriceStorage reopened = storage(false);
+
+        assertEquals(storage.findBySymbol("AAPL"), reopened.findBySymbol("AAPL"));
+        assertEquals(3, reopened.findBySymbol("MSFT").size());
+        reopened.recordWrites(days("AAPL", 300, 310));
+        assertEquals(310, reopened.findBySymbol("AAPL").size());
+        verifyNoInteractions(stockPriceRepository);
+    }
+
+    @Test
+    void testBackfillsMissingSymbolsOnce() {
+        List<StockPriceView> stored = List.of(
+                new StockPriceView("AAPL", FIRST_DAY, 100.0, 101.0, 102.0, 99.0, 1000L),
+                new StockPriceView("AAPL", FIRST_DAY.plusDays(1), 101.0, 102.0, 103.0, 100.0, 2000L));
+        when(stockPriceRepository.findViewsByCompanySymbol("AAPL")).thenReturn(stored);
+        when(stockPriceRepository.findViewsByCompanySymbol("NONE")).thenReturn(List.of());
+        MappedFileStockPriceStorage storage = storage(true);
+
+        assertEquals(stored, storage.findBySymbol("AAPL"));
+        assertEquals(stored.get(1), storage.findBySymbolAndDate("AAPL", FIRST_DAY.plusDays(1)).orElseThrow());
+        assertTrue(storage.findBySymbol("NONE").isEmpty());
+        assertTrue(storage.findBySymbol("NONE").isEmpty());
+        assertFalse(Files.exists(storage.pathOf("NONE")));
+
+        verify(stockPriceRepository, times(1)).findViewsByCompanySymbol("AAPL");
+        verify(stockPriceRepository, times(1)).findViewsByCompanySymbol("NONE");
+    }
+
+    @Test
+    void testDiscardedSymbolIsCopiedFromMySqlAgain() {
+        MappedFileStockPriceStorage storage = storage(false);
+        storage.recordWrites(days("AAPL", 0, 3));
+        List<StockPriceView> stored = List.of(
+                new StockPriceView("AAPL", FIRST_DAY, 100.0, 101.0, 102.0, 99.0, 1000L),
+                new StockPriceView("AAPL", FIRST_DAY.plusDays(5), 105.0, 106.0, 107.0, 104.0, 5000L));
+        when(stockPriceRepository.findViewsByCompanySymbol("AAPL")).thenReturn(stored);
+
+        storage.discard("AAPL");
+
+        assertEquals(stored, storage.findBySymbol("AAPL"));
+        assertEquals(stored, storage(false).findBySymbol("AAPL"));
+        verify(stockPriceRepository, times(1)).findViewsByCompanySymbol("AAPL");
+    }
+
+    @Test
+    void testDiscardDuringBackfillIsNotPublished() {
+        MappedFileStockPriceStorage storage = storage(true);
+        List<StockPriceView> before = List.of(new StockPriceView("AAPL", FIRST_DAY, 100.0, 101.0, 102.0, 99.0, 1000L));
+        List<StockPriceView> after = List.of(
+                new StockPriceView("AAPL", FIRST_DAY, 100.0, 101.0, 102.0, 99.0, 1000L),
+                new StockPriceView("AAPL", FIRST_DAY.plusDays(1), 101.0, 102.0, 103.0, 100.0, 2000L));
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(stockPriceRepository.findViewsByCompanySymbol("AAPL")).thenAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                storage.discard("AAPL");
+                return before;
+            }
+            return after;
+        });
+
+        assertEquals(after, storage.findBySymbol("AAPL"));
+        verify(stockPriceRepository, times(2)).findViewsByCompanySymbol("AAPL");
+    }
+
+    @Test
+    void testForgetsMissingSymbolsAfterTtl() {
+        when(stockPriceRepository.findViewsByCompanySymbol("NONE")).thenReturn(List.of());
+        MappedFileStockPriceStorage storage = storage(true);
+        MappedFileStockPriceStorage expiring = storage(true, Duration.ZERO);
+
+        assertTrue(storage.findBySymbol("NONE").isEmpty());
+        assertTrue(storage.findBySymbol("NONE").isEmpty());
+        verify(stockPriceRepository, times(1)).findViewsByCompanySymbol("NONE");
+
+        assertTrue(expiring.findBySymbol("NONE").isEmpty());
+        assertTrue(expiring.findBySymbol("NONE").isEmpty());
+        verify(stockPriceRepository, times(3)).findViewsByCompanySymbol("NONE");
+    }
+
+    @Test
+    void testReadersNeverSeeHalfOverwrittenRows() throws Exception {
+        MappedFileStockPriceStorage storage = storage(false);
+        storage.recordWrites(List.of(uniform(1.0)));
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                storage.recordWrites(List.of(uniform(i % 2 == 0 ? 2.0 : 1.0)));
+            }
+            done.set(true);
+        });
+        writer.start();
+
+        while (!done.get()) {
+            StockPriceView row = storage.findBySymbolAndDate("AAPL", FIRST_DAY).orElseThrow();
+            assertEquals(row.openPrice(), row.closePrice());
+            assertEquals(row.openPrice(), row.highPrice());
+            assertEquals(row.openPrice(), row.lowPrice());
+            assertEquals(row.openPrice().longValue(), row.volume());
+        }
+        writer.join();
+    }
+
+    private static StockPrice uniform(double value) {
+        return StockPrice.builder()
+                .companySymbol("AAPL")
+                .date(FIRST_DAY)
+                .openPrice(value)
+                .closePrice(value)
+                .highPrice(value)
+                .lowPrice(value)
+                .volume((long) value)
+                .build();
+    }
+
+    @Test
+    void testSymbolsThatAreNotPlainNamesAreEncoded() {
+        MappedFileStockPriceStorage storage = storage(false);
+
+        assertEquals(directory.resolve("BRK.B.spm"), storage.pathOf("BRK.B"));
+        assertEquals(directory.resolve("~2e2e2f6574632f706173737764.spm"), storage.pathOf("../etc/passwd"));
+
+        storage.recordWrites(days("../x", 0, 2));
+        assertEquals(2, storage.findBySymbol("../x").size());
+        assertTrue(Files.exists(storage.pathOf("../x")));
+    }
+}
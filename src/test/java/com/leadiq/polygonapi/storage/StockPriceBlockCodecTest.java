@@ -0,0 +1,105 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.dto.StockPriceView;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockPriceBlockCodecTest {
+
+    private static List<StockPriceView> tradingYear(int year) {
+        List<StockPriceView> rows = new ArrayList<>();
+        double close = 150.0;
+        int day = 0;
+        for (LocalDate date = LocalDate.of(year, 1, 2); date.getYear() == year; date = date.plusDays(1)) {
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            // Cent-rounded prices moving a little each day, as real daily bars do
+            close = Math.round((close + ((day * 37) % 11 - 5) * 0.37) * 100) / 100.0;
+            rows.add(new StockPriceView("AAPL", date, close - 0.5, close, close + 1.25, close - 1.1,
+                    50_000_000L + (day * 7919L) % 1_000_000));
+            day++;
+        }
+        return rows;
+    }
+
+    private static List<StockPriceView> decode(byte[] block) {
+        List<StockPriceView> rows = new ArrayList<>();
+        StockPriceBlockCodec.Decoder decoder = new StockPriceBlockCodec.Decoder();
+        int count = decoder.reset(block);
+        while (decoder.next()) {
+            rows.add(new StockPriceView("AAPL", LocalDate.ofEpochDay(decoder.epochDay()),
+                    Double.isNaN(decoder.openPrice()) ? null : decoder.openPrice(),
+                    Double.isNaN(decoder.closePrice()) ? null : decoder.closePrice(),
+                    Double.isNaN(decoder.highPrice()) ? null : decoder.highPrice(),
+                    Double.isNaN(decoder.lowPrice()) ? null : decoder.lowPrice(),
+                    decoder.volume() == Long.MIN_VALUE ? null : decoder.volume()));
+        }
+        assertEquals(count, rows.size());
+        return rows;
+    }
+
+    @Test
+    void testRoundTripsTradingYear() {
+        List<StockPriceView> rows = tradingYear(2023);
+
+        assertEquals(rows, decode(StockPriceBlockCodec.encode(rows)));
+    }
+
+    @Test
+    void testCompressesTradingYear() {
+        List<StockPriceView> rows = tradingYear(2023);
+
+        byte[] block = StockPriceBlockCodec.encode(rows);
+
+        // Four doubles, a long and a date take 44 bytes per row before any index or row overhead
+        assertTrue(block.length * 2 < rows.size() * 44, "block of " + block.length + " bytes");
+    }
+
+    @Test
+    void testRoundTripsNullsGapsAndNegativeValues() {
+        List<StockPriceView> rows = List.of(
+                new StockPriceView("AAPL", LocalDate.of(1965, 3, 1), 1.5, null, 2.0, -0.25, null),
+                new StockPriceView("AAPL", LocalDate.of(1965, 3, 2), 1.5, 1.75, null, -0.25, -3L),
+                new StockPriceView("AAPL", LocalDate.of(1965, 9, 30), Double.MIN_VALUE, 1e300, 2.0, 0.0, 0L),
+                new StockPriceView("AAPL", LocalDate.of(1999, 1, 1), -7.0, 1.75, 3.0, 0.0, Long.MAX_VALUE),
+                new StockPriceView("AAPL", LocalDate.of(1999, 1, 2), null, null, null, null, Long.MIN_VALUE + 1));
+
+        assertEquals(rows, decode(StockPriceBlockCodec.encode(rows)));
+    }
+
+    @Test
+    void testDecoderIsReusableAcrossBlocks() {
+        byte[] first = StockPriceBlockCodec.encode(tradingYear(2022));
+        byte[] second = StockPriceBlockCodec.encode(List.of(
+                new StockPriceView("AAPL", LocalDate.of(2023, 1, 3), 1.0, 2.0, 3.0, 0.5, 10L)));
+
+        StockPriceBlockCodec.Decoder decoder = new StockPriceBlockCodec.Decoder();
+        decoder.reset(first);
+        assertTrue(decoder.next());
+        decoder.reset(second);
+        assertTrue(decoder.next());
+        assertEquals(LocalDate.of(2023, 1, 3).toEpochDay(), decoder.epochDay());
+        assertEquals(2.0, decoder.closePrice());
+        assertFalse(decoder.next());
+    }
+
+    @Test
+    void testEmptyBlock() {
+        assertEquals(List.of(), decode(StockPriceBlockCodec.encode(List.of())));
+    }
+
+    @Test
+    void testRejectsUnknownVersion() {
+        byte[] block = StockPriceBlockCodec.encode(tradingYear(2023));
+        block[0] = 9;
+
+        assertThrows(IllegalStateException.class, () -> new StockPriceBlockCodec.Decoder().reset(block));
+    }
+}
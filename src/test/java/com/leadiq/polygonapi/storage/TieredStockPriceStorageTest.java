@@ -0,0 +1,214 @@
+package com.leadiq.polygonapi.storage;
+
+import com.leadiq.polygonapi.config.StorageConfig;
+import com.leadiq.polygonapi.dto.StockPriceSummary;
+import com.leadiq.polygonapi.dto.StockPriceView;
+import com.leadiq.polygonapi.repository.ColdTierStateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TieredStockPriceStorageTest {
+
+    @TempDir
+    Path directory;
+
+    private final StockPriceStorage hot = mock(StockPriceStorage.class);
+    private final ColdTierStateRepository stateRepository = mock(ColdTierStateRepository.class);
+    private ColdStockPriceTier cold;
+    private TieredStockPriceStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(stateRepository.registerDirectory(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        cold = new ColdStockPriceTier(config(), stateRepository);
+        storage = new TieredStockPriceStorage(hot, cold);
+    }
+
+    private StorageConfig config() {
+        StorageConfig config = new StorageConfig();
+        config.getCold().setEnabled(true);
+        config.getCold().setDirectory(directory.toString());
+        return config;
+    }
+
+    private static StockPriceView price(String symbol, LocalDate date, double close) {
+        return new StockPriceView(symbol, date, close - 1, close, close + 1, close - 2, date.getDayOfMonth() * 100L);
+    }
+
+    private static List<StockPriceView> days(String symbol, LocalDate from, LocalDate to, double close) {
+        List<StockPriceView> prices = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            prices.add(price(symbol, date, close));
+        }
+        return prices;
+    }
+
+    @Test
+    void testDirectoryKeepsItsIdAcrossStarts() throws IOException {
+        new ColdStockPriceTier(config(), stateRepository);
+
+        verify(stateRepository, times(2)).registerDirectory(Files.readString(directory.resolve(".cold-tier-id")));
+    }
+
+    @Test
+    void testDirectoryNotSharedWithTheOtherInstancesIsRefused() {
+        when(stateRepository.registerDirectory(anyString())).thenReturn("id-of-the-shared-directory");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new ColdStockPriceTier(config(), stateRepository));
+        assertTrue(exception.getMessage().contains("polygon.storage.cold.directory"));
+    }
+
+    @Test
+    void testArchiveWritesOneFilePerYearAndReadsRanges() {
+        cold.archive("AAPL", 2020, days("AAPL", LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31), 100));
+        cold.archive("AAPL", 2021, days("AAPL", LocalDate.of(2021, 1, 1), LocalDate.of(2021, 6, 30), 110));
+        cold.archive("BRK/A", 2021, List.of(price("BRK/A", LocalDate.of(2021, 3, 1), 400)));
+
+        assertTrue(Files.exists(cold.pathOf("AAPL", 2020)));
+        assertTrue(Files.exists(cold.pathOf("AAPL", 2021)));
+        assertEquals(Set.of("AAPL", "BRK/A"), cold.symbols());
+
+        List<StockPriceView> rows = new ArrayList<>();
+        cold.read("AAPL", LocalDate.of(2020, 12, 30), LocalDate.of(2021, 1, 2)).forEachRemaining(rows::add);
+        assertEquals(List.of(LocalDate.of(2020, 12, 30), LocalDate.of(2020, 12, 31),
+                        LocalDate.of(2021, 1, 1), LocalDate.of(2021, 1, 2)),
+                rows.stream().map(StockPriceView::date).toList());
+        assertEquals(110.0, rows.get(2).closePrice());
+
+        assertEquals(price("BRK/A", LocalDate.of(2021, 3, 1), 400), cold.find("BRK/A", LocalDate.of(2021, 3, 1)).orElseThrow());
+        assertTrue(cold.find("AAPL", LocalDate.of(2021, 7, 1)).isEmpty());
+        assertFalse(cold.covers("AAPL", LocalDate.of(2022, 1, 1), LocalDate.of(2022, 12, 31)));
+        assertFalse(cold.read("MSFT", LocalDate.of(2020, 1, 1), LocalDate.of(2021, 12, 31)).hasNext());
+    }
+
+    @Test
+    void testArchiveMergesIntoExistingYearAndKeepsNulls() {
+        cold.archive("AAPL", 2020, days("AAPL", LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 10), 100));
+        StockPriceView sparse = new StockPriceView("AAPL", LocalDate.of(2020, 1, 5), null, 105.0, null, null, null);
+        cold.archive("AAPL", 2020, List.of(sparse, price("AAPL", LocalDate.of(2020, 2, 1), 120)));
+
+        List<StockPriceView> rows = new ArrayList<>();
+        cold.read("AAPL", LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31)).forEachRemaining(rows::add);
+        assertEquals(11, rows.size());
+        assertEquals(sparse, rows.get(4));
+        assertEquals(LocalDate.of(2020, 2, 1), rows.get(10).date());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamRangeMergesTiersAndPrefersHotRows() {
+        cold.archive("AAPL", 2020, days("AAPL", LocalDate.of(2020, 12, 28), LocalDate.of(2020, 12, 31), 100));
+        List<StockPriceView> hotRows = List.of(
+                price("AAPL", LocalDate.of(2020, 12, 30), 200),
+                price("AAPL", LocalDate.of(2021, 1, 4), 200));
+        doAnswer(invocation -> {
+            hotRows.forEach(invocation.<Consumer<StockPriceView>>getArgument(3));
+            return null;
+        }).when(hot).streamRange(eq("AAPL"), any(), any(), any(Consumer.class));
+
+        List<StockPriceView> rows = new ArrayList<>();
+        storage.streamRange("AAPL", LocalDate.of(2020, 12, 29), LocalDate.of(2021, 1, 31), rows::add);
+
+        assertEquals(List.of(100.0, 200.0, 100.0, 200.0), rows.stream().map(StockPriceView::closePrice).toList());
+        assertEquals(List.of(LocalDate.of(2020, 12, 29), LocalDate.of(2020, 12, 30),
+                        LocalDate.of(2020, 12, 31), LocalDate.of(2021, 1, 4)),
+                rows.stream().map(StockPriceView::date).toList());
+    }
+
+    @Test
+    void testFindRangeAfterStopsAtLimit() {
+        cold.archive("AAPL", 2020, days("AAPL", LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31), 100));
+        when(hot.findRangeAfter("AAPL", LocalDate.of(2020, 6, 30), LocalDate.of(2021, 12, 31), 3))
+                .thenReturn(List.of(price("AAPL", LocalDate.of(2021, 1, 4), 200)));
+
+        List<StockPriceView> rows = storage.findRangeAfter("AAPL", LocalDate.of(2020, 6, 30),
+                LocalDate.of(2021, 12, 31), 3);
+
+        assertEquals(List.of(LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 3)),
+                rows.stream().map(StockPriceView::date).toList());
+    }
+
+    @Test
+    void testFindBySymbolAndDateFallsBackToCold() {
+        cold.archive("AAPL", 2020, List.of(price("AAPL", LocalDate.of(2020, 3, 2), 100)));
+        when(hot.findBySymbolAndDate(anyString(), any())).thenReturn(Optional.empty());
+
+        assertEquals(100.0, storage.findBySymbolAndDate("AAPL", LocalDate.of(2020, 3, 2)).orElseThrow().closePrice());
+        assertTrue(storage.findBySymbolAndDate("AAPL", LocalDate.of(2020, 3, 3)).isEmpty());
+    }
+
+    @Test
+    void testFindBySymbolsAndDatesAddsArchivedCellsMissingFromHot() {
+        LocalDate archived = LocalDate.of(2020, 3, 2);
+        LocalDate both = LocalDate.of(2020, 3, 3);
+        LocalDate recent = LocalDate.of(2024, 3, 4);
+        cold.archive("AAPL", 2020, List.of(price("AAPL", archived, 100), price("AAPL", both, 100),
+                price("AAPL", LocalDate.of(2020, 3, 5), 100)));
+        List<LocalDate> dates = List.of(archived, both, recent);
+        when(hot.findBySymbolsAndDates(List.of("AAPL", "MSFT"), dates)).thenReturn(List.of(
+                price("AAPL", both, 200), price("AAPL", recent, 300), price("MSFT", recent, 400)));
+
+        List<StockPriceView> rows = storage.findBySymbolsAndDates(List.of("AAPL", "MSFT"), dates);
+
+        assertEquals(4, rows.size());
+        assertTrue(rows.contains(price("AAPL", archived, 100)));
+        assertTrue(rows.contains(price("AAPL", both, 200)));
+        assertFalse(rows.contains(price("AAPL", both, 100)));
+    }
+
+    @Test
+    void testFindDatesMergesArchivedDays() {
+        LocalDate archived = LocalDate.of(2020, 3, 2);
+        LocalDate both = LocalDate.of(2020, 3, 3);
+        LocalDate recent = LocalDate.of(2024, 3, 4);
+        cold.archive("AAPL", 2020, List.of(price("AAPL", archived, 100), price("AAPL", both, 100)));
+        when(hot.findDates("AAPL")).thenReturn(List.of(both, recent));
+        when(hot.findDates("MSFT")).thenReturn(List.of(recent));
+
+        assertEquals(List.of(archived, both, recent), storage.findDates("AAPL"));
+        assertEquals(List.of(recent), storage.findDates("MSFT"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSummarizeMergesOnlySymbolsWithArchivedRows() {
+        cold.archive("AAPL", 2020, days("AAPL", LocalDate.of(2020, 12, 1), LocalDate.of(2020, 12, 31), 100));
+        StockPriceSummary msft = new StockPriceSummary("MSFT", 5, LocalDate.of(2021, 1, 4), LocalDate.of(2021, 1, 8),
+                10.0, 1.0, 5.0, 500L);
+        when(hot.summarize(Set.of("MSFT"), LocalDate.of(2020, 1, 1), LocalDate.of(2021, 12, 31)))
+                .thenReturn(List.of(msft));
+        doAnswer(invocation -> {
+            invocation.<Consumer<StockPriceView>>getArgument(3).accept(price("AAPL", LocalDate.of(2021, 1, 4), 200));
+            return null;
+        }).when(hot).streamRange(eq("AAPL"), any(), any(), any(Consumer.class));
+
+        List<StockPriceSummary> summaries = storage.summarize(Set.of("AAPL", "MSFT"),
+                LocalDate.of(2020, 1, 1), LocalDate.of(2021, 12, 31));
+
+        assertEquals(2, summaries.size());
+        StockPriceSummary aapl = summaries.get(0);
+        assertEquals("AAPL", aapl.symbol());
+        assertEquals(32, aapl.days());
+        assertEquals(LocalDate.of(2020, 12, 1), aapl.firstDate());
+        assertEquals(LocalDate.of(2021, 1, 4), aapl.lastDate());
+        assertEquals(201.0, aapl.highPrice());
+        assertEquals(msft, summaries.get(1));
+        verify(hot, never()).summarize(eq(Set.of("AAPL", "MSFT")), any(), any());
+    }
+}